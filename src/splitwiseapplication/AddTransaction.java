@@ -6,7 +6,7 @@ import java.awt.event.ActionListener;
 import java.io.File;
 import java.util.ArrayList;
 import java.util.Random;
-import java.util.Arrays;
+import java.util.List;
 import javax.swing.*;
 
 /**
@@ -18,11 +18,12 @@ import javax.swing.*;
  * 
  * FUNCTIONALITY:
  * - Record expense amount and reason
- * - Choose from 4 splitting methods:
+ * - Choose from 5 splitting methods (StandardSplit, see SplitStrategy):
  *   1. All Equally - Split evenly among all group members
  *   2. Equally By Some - Select specific members to split evenly
  *   3. Unequally - Specify custom amount for each member
  *   4. By Percentages - Assign percentage of total to each member
+ *   5. By Shares - Assign a number of shares to each member
  * - Updates member balances in real-time
  * - Records transaction history
  * - Generates unique transaction ID
@@ -49,7 +50,16 @@ import javax.swing.*;
  *    - Percentages must sum to 100%
  *    - Example: Alice=50%, Bob=30%, Charlie=20% of $100
  * 
- * DATABASE UPDATES:
+ * 5. BY SHARES:
+ *    - User enters a number of shares for each member
+ *    - Cost divided in proportion to the shares
+ *    - Example: Alice=2, Bob=1, Charlie=1 of $100 = $50, $25, $25
+ * 
+ * ROUNDING:
+ * Shares are exact cents adding up to the cost; proportional splits give the
+ * leftover cents to the largest remainders (Money.allocate)
+ * 
+ * DATABASE UPDATES (computed by Ledger, sent together on save):
  * - db1: Individual member balances
  * - db5: Transaction history (payee, amount, reason, type, tid)
  * - db6: Inter-member payment relationships
@@ -71,14 +81,13 @@ public class AddTransaction implements ActionListener {
 	JTextField amount,reason;
 	JComboBox options;
 	JCheckBox nameEQS;
-	JTextField nameU, nameBP;
+	JTextField nameValue;
 	JButton backButton, enterm, enter;
 	String uname, code,tID;
+	SplitStrategy split;
+	GroupRoster roster;
 	ArrayList<Integer> chosenEQS = new ArrayList<Integer>();
-	ArrayList<JTextField> chosenU = new ArrayList<JTextField>();
-	ArrayList<JTextField> chosenBP = new ArrayList<JTextField>();
-	ArrayList<Double> valuesU = new ArrayList<Double>();
-	ArrayList<Double> valuesBP = new ArrayList<Double>();
+	ArrayList<JTextField> chosenValues = new ArrayList<JTextField>();
 	String amountVal = "0";
 	String reasonVal;
 	
@@ -111,11 +120,12 @@ public class AddTransaction implements ActionListener {
 	 * 
 	 * 4. SPLIT METHOD DROPDOWN:
 	 *    - Label: "Choose how you want to split money"
-	 *    - JComboBox with 4 options:
+	 *    - JComboBox with one option per StandardSplit:
 	 *      1. "All Equally" - Split among all members
 	 *      2. "Equally By Some" - Select members to split among
 	 *      3. "Unequally" - Custom amounts per member
 	 *      4. "By Percentages" - Percentage distribution
+	 *      5. "By Shares" - Shares (weights) per member
 	 *    - Action command: "Selected" (detect selection changes)
 	 * 
 	 * 5. BUTTONS:
@@ -136,11 +146,9 @@ public class AddTransaction implements ActionListener {
 	 * selected split method (checkboxes, text fields, etc.)
 	 * 
 	 * FIELD USAGE:
-	 * - chosenEQS: Tracks which members selected in "Equally By Some"
-	 * - chosenU: Text fields for amounts in "Unequally"
-	 * - chosenBP: Text fields for percentages in "By Percentages"
-	 * - valuesU: Parsed amounts from chosenU
-	 * - valuesBP: Parsed percentages from chosenBP
+	 * - split: Split mode chosen when Enter was pressed
+	 * - chosenEQS: Tracks which members are selected (SELECTION input)
+	 * - chosenValues: Text fields for amounts, percentages or shares
 	 * 
 	 * POST-CONDITIONS:
 	 * - Frame created but invisible (call runGUI() to display)
@@ -177,10 +185,9 @@ public class AddTransaction implements ActionListener {
 		 splitTypePrompt = new JLabel("Choose how you want to split money");
 		 contentPane.add(splitTypePrompt);
 		 options = new JComboBox();
-		 options.addItem("All Equally");
-		 options.addItem("Equally By Some");
-		 options.addItem("Unequally");
-		 options.addItem("By Percentages");
+		 for (StandardSplit mode : StandardSplit.values()) {
+			 options.addItem(mode);
+		 }
 		 options.addActionListener(this);
 		 options.setActionCommand("Selected");
 		 
@@ -219,17 +226,16 @@ public class AddTransaction implements ActionListener {
 	 * 
 	 * 1. "Enter" - Initial Submit
 	 *    - Validates amount and reason fields (not empty)
-	 *    - Generates unique transaction ID
-	 *    - Records transaction in db5 (history table)
-	 *    - Based on selected split method:
-	 *      a) "All Equally" → Calls UpdatePAEqually(), shows confirmation
-	 *      b) "Equally By Some" → Shows checkboxes for member selection
-	 *      c) "Unequally" → Shows text fields for custom amounts
-	 *      d) "By Percentages" → Shows text fields for percentages
+	 *    - Based on the input of the selected split method:
+	 *      a) NONE ("All Equally") → Calls UpdatePABySplit(), shows confirmation
+	 *         (the transaction ID and db5 history row are created when the
+	 *         split is saved, so cancelling a split leaves no history row)
+	 *      b) SELECTION ("Equally By Some") → Shows checkboxes for member selection
+	 *      c) AMOUNT, PERCENTAGE, WEIGHT → Shows a text field per member
 	 *    - Disables further edits by changing action commands
 	 * 
 	 * 2. "Back" - Cancel and Return
-	 *    - Creates MainPage instance
+	 *    - Gets the group's MainPage from Navigator (kept between visits)
 	 *    - Shows MainPage, disposes current frame
 	 *    - No database changes made
 	 * 
@@ -238,461 +244,176 @@ public class AddTransaction implements ActionListener {
 	 *    - Stored in chosenEQS ArrayList at member's index
 	 *    - Used to determine split calculation
 	 * 
-	 * 4. "EQS" - Confirm "Equally By Some"
-	 *    - Calls UpdatePAEqBySome() with selected members
-	 *    - Shows "Transaction added" confirmation
+	 * 4. "Split" - Confirm the member values
+	 *    - Collects one value per member: the checkboxes, or the text fields
+	 *      parsed with Money.parse (cents, basis points or hundredths of a share)
+	 *    - Calls UpdatePABySplit(), shows "Transaction added" confirmation
 	 *    - Disables Enter button
+	 *    - Invalid values: shows why in a dialog, the values can be corrected
 	 * 
-	 * 5. "U" - Confirm "Unequally"
-	 *    - Parses amounts from all text fields
-	 *    - Validates: sum of amounts must equal total cost (±0.1 tolerance)
-	 *    - If valid: Calls UpdatePAUnequally(), shows confirmation
-	 *    - If invalid: Does nothing (silent failure)
-	 * 
-	 * 6. "BP" - Confirm "By Percentages"
-	 *    - Parses percentages from all text fields
-	 *    - Validates: sum of percentages must equal 100% (±0.1 tolerance)
-	 *    - If valid: Calls UpdatePAByPercentages(), shows confirmation
-	 *    - If invalid: Does nothing (silent failure)
+	 * MEMBERS:
+	 * - Taken from the session's GroupRoster on the first event and kept for
+	 *   the form: no database read per event, and a member's index (checkbox
+	 *   and text field position) is an O(1) lookup
 	 * 
 	 * VALIDATION:
 	 * - Empty fields: Shows "Enter valid values" error
-	 * - Sum validation: Uses ±0.1 tolerance for floating-point comparison
-	 * - No validation for negative amounts or invalid numbers
+	 * - Values are parsed into exact integers (Money.parse) and checked by the
+	 *   split strategy: "Unequally" amounts must add up to the cost to the
+	 *   cent, "By Percentages" must add up to 100% within ±0.1 (10 basis
+	 *   points), negative values are rejected
 	 * 
 	 * @param event The ActionEvent containing the action command
 	 */
 	public void actionPerformed(ActionEvent event) {
 		
-		String eventName = event.getActionCommand();
-		ArrayList<String> members = new ArrayList<>(Arrays.asList(ApiCaller.ApiCaller3("https://splitwise.up.railway.app/db4/GetSpecificData?val=name&table="+ code)));
+		try {
+			String eventName = event.getActionCommand();
+			if (roster == null) {
+				roster = GroupRoster.of(code); // Kept for the form, so checkbox positions never shift
+			}
+			List<String> members = roster.getMembers();
 		
 		
-		if (eventName.equals("Enter") == true ) {
-			amountVal = amount.getText();
-			reasonVal = reason.getText();
+			if (eventName.equals("Enter") == true ) {
+				amountVal = amount.getText();
+				reasonVal = reason.getText();
 			
-			if (amountVal.isEmpty() || reasonVal.isEmpty()) { 
-				response.setText("Enter valid values");
-			} else {
-				
-				String[] lst = ApiCaller.ApiCaller3("https://splitwise.up.railway.app/db5/GetSpecificData?val=tID&table="+ code);
-				System.out.println(lst.length);
-
-				ArrayList<String> usedCodes = new ArrayList<>(Arrays.asList(ApiCaller.ApiCaller3("https://splitwise.up.railway.app/db8/GetSpecificData?val=tID&table=" + code)));
-				
-				tID = createCode(usedCodes);
+				if (amountVal.isEmpty() || reasonVal.isEmpty()) { 
+					response.setText("Enter valid values");
+				} else {
 
-				String value = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db5/InsertData?table="+ code +"&params=(payee,amount,reason,Ttype,tid)&info=(%27" + uname + "%27," + amountVal + ",%27" + reasonVal + "%27," + 0 + ",%27" + tID + "%27)");
-				if (options.getSelectedItem() == "All Equally"){
-					UpdatePAEqually(Double.parseDouble(amountVal));
-					response = new JLabel("Transaction added");
-					contentPane.add(response);
-					frame.setContentPane(contentPane);
-					frame.pack();
-				} else if(options.getSelectedItem() == "Equally By Some") {
-					for (int i = 0; i < members.size(); i++) {
-						chosenEQS.add(0);
-						nameEQS = new JCheckBox(members.get(i));
-						nameEQS.addActionListener(this);
-						nameEQS.setActionCommand(members.get(i));
-						contentPane.add(nameEQS);
+					split = (SplitStrategy) options.getSelectedItem();
+					if (split.getInput() == SplitStrategy.Input.NONE) {
+						UpdatePABySplit(split, Money.parse(amountVal), new long[members.size()], members);
+						response = new JLabel("Transaction added");
+						contentPane.add(response);
+					} else {
+						for (int i = 0; i < members.size(); i++) {
+							if (split.getInput() == SplitStrategy.Input.SELECTION) {
+								chosenEQS.add(0);
+								nameEQS = new JCheckBox(members.get(i));
+								nameEQS.addActionListener(this);
+								nameEQS.setActionCommand(members.get(i));
+								contentPane.add(nameEQS);
+							} else {
+								nameValue = new JTextField(members.get(i));
+								chosenValues.add(nameValue);
+								contentPane.add(nameValue);
+							}
+						}
+						enter = new JButton("Enter");
+						enter.addActionListener(this);
+						enter.setActionCommand("Split");
+						contentPane.add(enter);
 					}
-					enter = new JButton("Enter");
-					enter.addActionListener(this);
-					enter.setActionCommand("EQS");
-					contentPane.add(enter);
 					frame.setContentPane(contentPane);
 					frame.pack();
-				} else if(options.getSelectedItem() == "Unequally") {
-					for (int i = 0; i < members.size(); i++) {
-						nameU = new JTextField(members.get(i));
-						chosenU.add(nameU);
-						contentPane.add(nameU);
-					}
-					enter = new JButton("Enter");
-					enter.addActionListener(this);
-					enter.setActionCommand("U");
-					contentPane.add(enter);
-					frame.setContentPane(contentPane);
-					frame.pack();
-				} else if(options.getSelectedItem() == "By Percentages") {
-					for (int i = 0; i < members.size(); i++) {
-						nameBP = new JTextField(members.get(i));
-						chosenBP.add(nameBP);
-						contentPane.add(nameBP);
+					amount.setActionCommand("Entered");
+					reason.setActionCommand("Entered");
+					options.setActionCommand("Selection Confirmed");
+					enterm.setActionCommand("Entered");
+				} 
+			} else if (eventName.equals("Back") == true) {
+				MainPage mpage = Navigator.mainPage(uname,code);
+				mpage.runGUI();
+				frame.dispose();
+			} else if(roster.contains(eventName) ) {
+				int member = roster.indexOf(eventName);
+				if (chosenEQS.get(member) == 0){
+					chosenEQS.set(member,1);
+				} else {
+					chosenEQS.set(member,0);
+				}
+			} else if (eventName.equals("Split") == true) {
+				long[] values = new long[members.size()];
+				for (int i = 0; i < values.length; i++) {
+					if (split.getInput() == SplitStrategy.Input.SELECTION) {
+						values[i] = chosenEQS.get(i);
+					} else {
+						values[i] = Money.parse(chosenValues.get(i).getText()); // Cents, basis points or hundredths
 					}
-					enter = new JButton("Enter");
-					enter.addActionListener(this);
-					enter.setActionCommand("BP");
-					contentPane.add(enter);
-					frame.setContentPane(contentPane);
-					frame.pack();
 				}
-				amount.setActionCommand("Entered");
-				reason.setActionCommand("Entered");
-				options.setActionCommand("Selection Confirmed");
-				enterm.setActionCommand("Entered");
-			} 
-		} else if (eventName.equals("Back") == true) {
-			MainPage mpage = new MainPage(uname,code);
-			mpage.runGUI();
-			frame.dispose();
-		} else if(members.contains(eventName) ) {
-			if (chosenEQS.get(members.indexOf(eventName)) == 0){
-				chosenEQS.set(members.indexOf(eventName),1);
-			} else {
-				chosenEQS.set(members.indexOf(eventName),0);
-			}
-		} else if (eventName.equals("EQS") == true) {
-			UpdatePAEqBySome(Double.parseDouble(amountVal), members, chosenEQS);
-			enter.setActionCommand("Entered");
-			response = new JLabel("Transaction added");
-			contentPane.add(response);
-			frame.setContentPane(contentPane);
-			frame.pack();
-		}  else if(eventName.equals("U") == true) {
-			double sum = 0;
-			valuesU.clear();
-			for (int i = 0; i < chosenU.size(); i++) {
-				JTextField nameU = chosenU.get(i); // Get each JTextField from the list
-	            double text = Double.parseDouble(nameU.getText()); // Retrieve the text from the current text field
-	            sum += text;
-	            valuesU.add(text);
-			}
-			if (Double.parseDouble(amountVal) - sum <= 0.1 && Double.parseDouble(amountVal) - sum >= -0.1) {
-				UpdatePAUnequally(Double.parseDouble(amountVal), valuesU, members);
-				enter.setActionCommand("Entered");
-				response = new JLabel("Transaction added");
-		 		contentPane.add(response);
-				frame.setContentPane(contentPane);
-				frame.pack();
-			}
-		} else if(eventName.equals("BP") == true) {
-			double sum = 0;
-			valuesBP.clear();
-			for (int i = 0; i < chosenBP.size(); i++) {
-				nameBP = chosenBP.get(i); // Get each JTextField from the list
-	            double text = Double.parseDouble(nameBP.getText()); // Retrieve the text from the current text field
-	            sum += text;
-	            valuesBP.add(text);
-			}
-			if (100 - sum <= 0.1 && 100 - sum >= -0.1) {
-				UpdatePAByPercentages(Double.parseDouble(amountVal), valuesBP, members);
+				UpdatePABySplit(split, Money.parse(amountVal), values, members);
 				enter.setActionCommand("Entered");
 				response = new JLabel("Transaction added");
-		 		contentPane.add(response);
+				contentPane.add(response);
 				frame.setContentPane(contentPane);
 				frame.pack();
 			}
+		} catch (IllegalArgumentException e) {
+			// Also NumberFormatException from Money.parse
+			JOptionPane.showMessageDialog(frame, "Enter valid values.\n" + e.getMessage(), "Splitwise", JOptionPane.WARNING_MESSAGE);
+		} catch (ApiException e) {
+			e.printStackTrace();
+			JOptionPane.showMessageDialog(frame, "The transaction could not be saved.\n" + e.getMessage(), "Splitwise", JOptionPane.ERROR_MESSAGE);
 		}
 		
 	}
 	
 	/**
-	 * UpdatePAEqually - Split Cost Equally Among All Members
-	 * 
-	 * PURPOSE:
-	 * Updates all database tables when splitting a transaction equally
-	 * among all group members.
-	 * 
-	 * @param cost Total transaction amount
-	 * 
-	 * ALGORITHM:
-	 * 1. Calculate cost per person: cost / (total members - 2)
-	 *    Note: -2 accounts for header row and "Total" row in db1
-	 * 
-	 * 2. Update db6 (inter-member balances):
-	 *    - For records where user is Member1: Add costPP to Amount
-	 *    - For records where user is Member2: Subtract costPP from Amount
-	 *    - This adjusts who owes whom based on user spending money
-	 * 
-	 * 3. Update db1 (individual balances):
-	 *    - Update "Total" row: Add full cost
-	 *    - For user: Add (costPP - cost) → negative since user paid
-	 *    - For others: Add costPP → positive since they owe their share
-	 * 
-	 * 4. Record transaction details in db8:
-	 *    - Creates row with Creator, tID, and amount for each member
-	 *    - User's amount: (costPP - cost) → negative
-	 *    - Others' amounts: costPP → positive
-	 * 
-	 * BALANCE LOGIC:
-	 * - User pays full amount, owes only their share
-	 * - Others owe their share to the user
-	 * - Example: $100 / 4 = $25 each
-	 *   User balance: $25 - $100 = -$75 (paid $75 extra)
-	 *   Others: +$25 each (owe their share)
-	 * 
-	 */
-	public void UpdatePAEqually (double cost) {
-		
-		
-		String[][] people = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db1/GetRowData?table="+ code);
-		
-		double costPP = (double)cost/(double)(people.length-2);
-
-		String[][] member1 = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/GetRowData?table="+ code +"&Member1="+uname);
-		String[][] member2 = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/GetRowData?table="+ code +"&Member2="+uname);
-		for (int i = 1; i < member1.length; i++) {
-
-			String val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/UpdateData?table="+ code +"&where=Member1=%27" + uname + "%27&Amount=" + Double.toString((double)(Double.parseDouble(member1[i][2]) + costPP)));
-
-		}
-
-		for (int i = 1; i < member2.length; i++) {
-
-			String val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/UpdateData?table="+ code +"&where=Member2=%27" + uname + "%27&Amount=" + Double.toString((double)(Double.parseDouble(member2[i][2]) - costPP)));
-
-		}
-
-		String val1 = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db1/UpdateData?table="+ code +"&where=id=" + (1) + "&Amount=" + Double.toString((double)(Double.parseDouble(people[1][2]) + cost)));
-		String params = "&params=(Creator,tID,";
-		String info = "&info=(%27"+uname+"%27,%27"+tID+"%27,";
-		for (int i = 2; i < people.length; i++) {
-
-			String val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db1/UpdateData?table="+ code +"&where=Name=%27" + people[i][1] + "%27&Amount=" + Double.toString((double)(Double.parseDouble(people[i][2]) + costPP)));
-			if (people[i][1].equals(uname)) {
-				params += uname + ",";
-				info += Double.toString((double)(costPP - cost)) + ",";
-			}else{
-				params += people[i][1] + ",";
-				info += Double.toString((double)(costPP)) + ",";
-			}
-
-		}
-
-		params = params.substring(0, params.length() - 1) + ")";
-		info = info.substring(0, info.length() - 1) + ")";
-		String val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db8/InsertData?table="+ code + params + info);
-
-	}
-	
-	/**
-	 * UpdatePAEqBySome - Split Cost Equally Among Selected Members
+	 * UpdatePABySplit - Split the Cost with a Split Strategy and Save It
 	 * 
 	 * PURPOSE:
-	 * Updates databases when splitting transaction equally among
-	 * only specific selected members (not all group members).
+	 * Records a transaction split by any split method. Every method goes
+	 * through here; a method only decides the shares (see SplitStrategy).
 	 * 
-	 * @param cost Total transaction amount
-	 * @param names List of all member names
-	 * @param selected List of selection flags (1=selected, 0=not selected)
+	 * @param split Split method
+	 * @param cost Total transaction amount in cents
+	 * @param values One value per member, as split.getInput() describes
+	 * @param names List of all member names (parallel to values)
+	 * @throws IllegalArgumentException When the values are not a valid split;
+	 *         nothing is read or written then
 	 * 
 	 * ALGORITHM:
-	 * 1. Calculate number of selected members (sum of selected array)
-	 * 2. Calculate cost per selected person: cost / selectedCount
-	 * 3. Update db1 "Total" row: Add full cost
-	 * 4. Update db6 for each selected member (except user):
-	 *    - Query both Member1=user,Member2=member and vice versa
-	 *    - Update whichever record exists
-	 *    - Adjust balance by costPP
-	 * 5. Update db1 for each selected member: Add costPP to balance
-	 * 6. Record transaction in db8:
-	 *    - User who paid: (costPP - cost) if selected, else -cost
-	 *    - Selected members: costPP
-	 *    - Unselected members: 0
+	 * 1. split.split() turns the values into one share per member, adding up
+	 *    to the cost exactly; members without a share get 0
+	 * 2. Give every member their share (see saveExpense())
 	 * 
 	 * EXAMPLE:
-	 * Total: $100, 3 selected out of 5 members
-	 * Cost per selected: $100 / 3 = $33.33 each
+	 * Total: $100, "By Shares" with Alice (user): 2, Bob: 1, Charlie: 0
+	 * Shares: $66.67, $33.33, $0
+	 * Alice's db8 value: $66.67 - $100 = -$33.33 (paid $33.33 extra)
+	 * Bob: +$33.33, Charlie: $0
 	 * 
 	 */
-	public void UpdatePAEqBySome (double cost, ArrayList<String> names, ArrayList<Integer> selected) {
+	public void UpdatePABySplit(SplitStrategy split, long cost, long[] values, List<String> names) {
 		
-		String[][] optionsCAS = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db1/GetRowData?table="+ code);
-		double sum = 0;
-		
-		for (double i : selected) {
-			sum += i;
-		}
-		
-		double costPP = (double)cost/(double)sum;
-		String val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db1/UpdateData?table="+ code +"&where=id=" + 1 + "&Amount=" + Double.toString((double)(Double.parseDouble(optionsCAS[1][2]) + cost)));
-
-		for (int j = 0; j < names.size(); j++) {
-			if (selected.get(j) == 1 && !names.get(j).equals(uname)) {
-				String[][] member1 = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/GetRowData?table="+ code +"&Member1="+uname +"&Member2="+names.get(j));
-				String[][] member2 = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/GetRowData?table="+ code +"&Member2="+uname +"&Member1="+names.get(j));
-				if (member1.length != 0) {
-					val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/UpdateData?table="+ code +"&where=Member1=%27" + uname + "%27%20AND%20Member2=%27" + names.get(j) + "%27&Amount=" + (Double.toString((double)(Double.parseDouble(member1[1][2]) + costPP))));
-				}
-				if (member2.length != 0) {
-					val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/UpdateData?table="+ code +"&where=Member2=%27" + uname + "%27%20AND%20Member1=%27" + names.get(j) + "%27&Amount=" + (Double.toString((double)(Double.parseDouble(member2[1][2]) - costPP))));
-				}
-
-			}
-		}
-		
-		for (int i = 0; i < selected.size(); i++) {
-			if(selected.get(i) == 1) {
-				val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db1/UpdateData?table="+ code +"&where=Name=%27" + names.get(i) + "%27&Amount=" + Double.toString((double)(Double.parseDouble(optionsCAS[i+2][2]) + costPP)));
-			}
-		}
-		
-		String transaction = "(%27"+uname+"%27,%27"+tID+"%27,";
-		
-		for (int i = 0; i < selected.size(); i++) {
-			if (names.get(i).equals(uname)) {
-				if (selected.get(i) == 1) {
-					transaction += Double.toString(costPP - cost);
-				} else {
-					transaction += Double.toString(-1 * cost);
-				}
-			} else {
-				if (selected.get(i) == 1) {
-					transaction += Double.toString(costPP);
-				} else {
-					transaction += Double.toString(0);
-				}
-			}
-
-			transaction += ",";
-
-		}
-
-		transaction = 	transaction.substring(0, transaction.length() - 1) + ")";
-		System.out.println(transaction);
-		String val1 = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db8/InsertData?table="+ code +"&params=(Creator,tID," + String.join(",", names) + ")&info=" + transaction);
+		long[] shares = split.split(cost, values);
+		saveExpense(Ledger.load(code), cost, names, shares);
 		
 	}
 	
 	/**
-	 * UpdatePAUnequally - Split Cost with Custom Amounts Per Member
+	 * saveExpense - Apply an Expense to the Ledger and Persist the Difference
 	 * 
 	 * PURPOSE:
-	 * Updates databases when each member pays a different, specified amount.
-	 * User specifies exact amount for each member (must sum to total cost).
+	 * Last step of UpdatePABySplit().
 	 * 
-	 * @param cost Total transaction amount
-	 * @param amounts List of amounts for each member (parallel to names)
-	 * @param names List of all member names
+	 * @param ledger Ledger of the group, freshly loaded
+	 * @param cost Total transaction amount in cents (paid by the user)
+	 * @param names Members who have a share; other members have none
+	 * @param shares Share of each of them in cents, parallel to names
 	 * 
 	 * ALGORITHM:
-	 * 1. Update db1 "Total" row: Add full cost
-	 * 2. For each member, update db6:
-	 *    - Query both Member1/Member2 combinations
-	 *    - Update whichever record exists
-	 *    - Adjust balance by member's specific amount
-	 * 3. Update db1 for each member: Add their specific amount
-	 * 4. Record transaction in db8:
-	 *    - User who paid: (their amount - total cost) → negative
-	 *    - Other members: their specific amounts → positive
-	 * 
-	 * EXAMPLE:
-	 * Total: $100, Alice (user): $40, Bob: $35, Charlie: $25
-	 * Alice balance: $40 - $100 = -$60 (paid $60 extra)
-	 * Bob balance: +$35, Charlie balance: +$25
-	 * 
+	 * 1. Generate a unique transaction ID (tID) from the ledger's journal
+	 * 2. Ledger.addExpense(): in memory, every member owes the user their share,
+	 *    each member's spending (db1) grows by their share and the Total by the cost
+	 * 3. Ledger.persist(): one change set with the db5 history row, the db8
+	 *    details row and only the db6/db1 rows whose value changed, sent as a
+	 *    single batched request the backend applies atomically (see ChangeSet)
+	 * 
+	 * DATABASE OPERATIONS:
+	 * - Before: one read per table (db4, db5, db6, db8, db1)
+	 * - After: one POST /batch with 2 inserts + 1 update per changed db6/db1
+	 *   row, instead of 2 reads and 1-2 updates per member done one after the
+	 *   other (single requests in parallel if the backend has no batch endpoint)
 	 */
-	public void UpdatePAUnequally(double cost, ArrayList<Double> amounts, ArrayList<String> names) {
-		System.out.println(names.get(0));
-		String[][] optionsCAS = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db1/GetRowData?table="+ code);
-		
-		String val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db1/UpdateData?table="+ code +"&where=id=" + 1 + "&Amount=" + Double.toString((double)(Double.parseDouble(optionsCAS[1][2]) + cost)));
-
-		for (int i = 0; i < names.size(); i++) {
-			String[][] member1 = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/GetRowData?table="+ code +"&Member1="+uname +"&Member2="+names.get(i));
-			String[][] member2 = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/GetRowData?table="+ code +"&Member2="+uname +"&Member1="+names.get(i));
-			if (member1.length != 0) {
-				System.out.print((Double.parseDouble(member1[1][2]) + amounts.get(i)));
-				System.out.println("!");
-				val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/UpdateData?table="+ code +"&where=Member1=%27" + uname + "%27%20And%20Member2=%27" + names.get(i) + "%27&Amount=" + (Double.parseDouble(member1[1][2]) + amounts.get(i)));
-			}
-			if (member2.length != 0) {
-				System.out.println((Double.parseDouble(member2[1][2]) + amounts.get(i)));
-				val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/UpdateData?table="+ code +"&where=Member2=%27" + uname + "%27%20And%20Member1=%27" + names.get(i) + "%27&Amount=" + (Double.parseDouble(member2[1][2]) - amounts.get(i)));
-			}
-
-		}
+	private void saveExpense(Ledger ledger, long cost, List<String> names, long[] shares) {
 		
-		for (int i = 2; i < optionsCAS.length; i++) {
-			val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db1/UpdateData?table="+ code +"&where=Name=%27" + names.get(i-2) + "%27&Amount=" + Double.toString((double)(Double.parseDouble(optionsCAS[i][2]) + amounts.get(i-2))));
-		}
-		
-		String transaction = "(%27"+uname+"%27,%27"+tID+"%27,";
-		
-		for (int i = 0; i < names.size(); i++) {
-			if (names.get(i).equals(uname)) {
-				transaction += Double.toString(amounts.get(i) - (double)cost);
-			} else {
-				transaction += Double.toString(amounts.get(i));	
-			}
-
-			transaction += ",";
-
-		}
-
-		transaction = 	transaction.substring(0, transaction.length() - 1) + ")";
-		System.out.println(transaction);
-		String val1 = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db8/InsertData?table="+ code +"&params=(Creator,tID," + String.join(",", names) + ")&info=" + transaction);
-				
-	}
-	
-	/**
-	 * UpdatePAByPercentages - Split Cost by Percentage Distribution
-	 * 
-	 * PURPOSE:
-	 * Updates databases when each member pays a specific percentage
-	 * of the total cost (percentages must sum to 100%).
-	 * 
-	 * @param cost Total transaction amount
-	 * @param percentages List of percentages for each member (parallel to names)
-	 * @param names List of all member names
-	 * 
-	 * ALGORITHM:
-	 * 1. Update db1 "Total" row: Add full cost
-	 * 2. For each member, calculate: amount = (cost * percentage) / 100
-	 * 3. Update db6 with calculated amounts for each member
-	 * 4. Update db1 individual balances with calculated amounts
-	 * 5. Record transaction in db8:
-	 *    - User who paid: ((their % - 100%) * cost) / 100 → negative
-	 *    - Other members: (their % * cost) / 100 → positive
-	 * 
-	 * EXAMPLE:
-	 * Total: $100, Alice (user): 50%, Bob: 30%, Charlie: 20%
-	 * Alice amount: 50% of $100 = $50, balance: -$50 (paid $50 extra)
-	 * Bob amount: $30, Charlie amount: $20
-	 * 
-	 */
-	public void UpdatePAByPercentages(double cost, ArrayList<Double> percentages, ArrayList<String> names) {
-		
-		String[][] optionsCAS = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db1/GetRowData?table="+ code);
-		
-		String val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db1/UpdateData?table="+ code +"&where=id=" + 1 + "&Amount=" + Double.toString((double)(Double.parseDouble(optionsCAS[1][2]) + cost)));
-
-		for (int i = 0; i < names.size(); i++) {
-			String[][] member1 = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/GetRowData?table="+ code +"&Member1="+uname +"&Member2="+names.get(i));
-			String[][] member2 = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/GetRowData?table="+ code +"&Member2="+uname +"&Member1="+names.get(i));
-			if (member1.length != 0) {
-				val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/UpdateData?table="+ code +"&where=Member1=%27" + uname + "%27%20And%20Member2=%27" + names.get(i) + "%27&Amount=" + (Double.parseDouble(member1[1][2]) + (cost*percentages.get(i))/100.00));
-			}
-			if (member2.length != 0) {
-				val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/UpdateData?table="+ code +"&where=Member2=%27" + uname + "%27%20And%20Member1=%27" + names.get(i) + "%27&Amount=" + (Double.parseDouble(member2[1][2]) + (cost*percentages.get(i))/100.00));
-			}
-
-		}
-		
-		for (int i = 2; i < optionsCAS.length; i++) {
-			val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db1/UpdateData?table="+ code +"&where=Name=%27" + names.get(i-2) + "%27&Amount=" + Double.toString((double)(Double.parseDouble(optionsCAS[i][2]) + (percentages.get(i-2) * cost / 100))));
-		}
-		
-		String transaction = "(%27"+uname+"%27,%27"+tID+"%27,";
-		
-		for (int i = 0; i < names.size(); i++) {
-			if (names.get(i).equals(uname)) {
-				transaction += Double.toString((percentages.get(i) - 100) * (double)cost/100);
-			} else {
-				transaction += Double.toString(percentages.get(i)* (double)cost / 100);	
-			}
-
-			transaction += ",";
-
-		}
-
-		transaction = 	transaction.substring(0, transaction.length() - 1) + ")";
-		System.out.println(transaction);
-		String val1 = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db8/InsertData?table="+ code +"&params=(Creator,tID," + String.join(",", names) + ")&info=" + transaction);
+		tID = ledger.newTransactionId();
+		ledger.addExpense(uname, cost, reasonVal, tID, names, shares);
+		ledger.persist();
 		
 	}
 	
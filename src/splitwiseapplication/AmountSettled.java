@@ -4,7 +4,6 @@ import java.awt.GridLayout;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Random;
 import javax.swing.*;
 
@@ -56,11 +55,11 @@ public class AmountSettled implements ActionListener{
 	static String uname;
 	static String gcode;
 	String prompt, tID;
-	String[] SIInfo;
+	PendingAmountRow SIInfo;
 	JLabel amountPrompt,response;
 	JTextField amount;
 	JButton finish,back;
-	double amt;
+	long amt;
 	int type = 0;
 	
 	/**
@@ -70,10 +69,10 @@ public class AmountSettled implements ActionListener{
 	 * Creates the UI for entering/confirming the amount of money being paid
 	 * to settle a debt between two members.
 	 * 
-	 * @param selectedItem Array containing payment record [Member1, Amount, Member2]
+	 * @param selectedItem db6 balance row being settled (Member1, Amount, Member2)
 	 * @param usrname Current user's username
 	 * @param grpcode Group code
-	 * @param index Original index of payment in SettlePayment's info list (stored but unused)
+	 * @param index Index of the row in SettlePayment's list (unused)
 	 * 
 	 * PROCESS:
 	 * 
@@ -89,7 +88,7 @@ public class AmountSettled implements ActionListener{
 	 *        Prompt: "Enter the amount Member2 gave you"
 	 *        type = 0 (user is receiver)
 	 *      - If user is Member2:
-	 *        Prompt: "Enter the amount you gave to Member2"
+	 *        Prompt: "Enter the amount you gave to Member1"
 	 *        type = 1 (user is payer)
 	 * 
 	 *    Case B: Amount < 0 (Member1 owes Member2)
@@ -97,7 +96,7 @@ public class AmountSettled implements ActionListener{
 	 *        Prompt: "Enter the amount Member1 gave you"
 	 *        type = 0 (user is receiver)
 	 *      - If user is Member1:
-	 *        Prompt: "Enter the amount you gave to Member1"
+	 *        Prompt: "Enter the amount you gave to Member2"
 	 *        type = 1 (user is payer)
 	 * 
 	 * 3. PRE-FILL AMOUNT:
@@ -127,7 +126,7 @@ public class AmountSettled implements ActionListener{
 	 * - Prompt shows correct payment direction
 	 * - type variable set for database update logic
 	 */
-	public AmountSettled(String[] selectedItem, String usrname, String grpcode, int index) {
+	public AmountSettled(PendingAmountRow selectedItem, String usrname, String grpcode, int index) {
 		
 		uname = usrname;
 		gcode = grpcode;
@@ -140,28 +139,20 @@ public class AmountSettled implements ActionListener{
 		contentPane.setLayout(new GridLayout(0, 2, 10, 5));
 		contentPane.setBorder(BorderFactory.createEmptyBorder(20,50,20,50));
 
-		if (Double.parseDouble(SIInfo[2]) > 0) {
-			if(SIInfo[1].equals(usrname)) {
-				prompt = "Enter the amount " + SIInfo[3] + " gave you";
-			} else {
-				prompt = "Enter the amount you gave to " + SIInfo[3];
-				type = 1;
-			}
-			amt = Double.parseDouble(SIInfo[2]);
+		String other = SIInfo.otherMember(usrname);
+		if (SIInfo.amountFor(usrname) > 0) {
+			prompt = "Enter the amount " + other + " gave you";
+			amt = SIInfo.amountFor(usrname);
 		} else {
-			if(SIInfo[3].equals(usrname)) {
-				prompt = "Enter the amount " + SIInfo[1] + " gave you";
-			} else {
-				prompt = "Enter the amount you gave to " + SIInfo[1];
-				type = 1;
-			}
-			amt = -1.0 * Double.parseDouble(SIInfo[2]);
+			prompt = "Enter the amount you gave to " + other;
+			type = 1;
+			amt = -SIInfo.amountFor(usrname);
 		}
 		
 		amountPrompt = new JLabel(prompt);
 		contentPane.add(amountPrompt);
 		
-		amount = new JTextField(Double.toString(amt));
+		amount = new JTextField(Money.format(amt));
 		amount.addActionListener(this);
 		amount.setActionCommand("finish");
 		contentPane.add(amount);
@@ -182,6 +173,25 @@ public class AmountSettled implements ActionListener{
 		
 	}
 	
+	/**
+	 * AmountSettled Constructor - Settle a Simplified Payment
+	 * 
+	 * PURPOSE:
+	 * Opens the same screen for a payment planned by SettlementPlanner, which
+	 * may be between two members who have no pairwise balance.
+	 * 
+	 * @param transfer Planned payment (payer, receiver, amount)
+	 * @param usrname Current user's username (payer or receiver of the transfer)
+	 * @param grpcode Group code
+	 * 
+	 * BEHAVIOR:
+	 * Uses transfer.asPendingAmount() (Member1 = receiver, Member2 = payer), so
+	 * the prompt, pre-filled amount and Finish() work as for a db6 pair.
+	 */
+	public AmountSettled(SettlementPlanner.Transfer transfer, String usrname, String grpcode) {
+		this(transfer.asPendingAmount(), usrname, grpcode, -1);
+	}
+	
 	/**
 	 * actionPerformed - Handle User Actions (Finish Button, Back Button)
 	 * 
@@ -199,7 +209,7 @@ public class AmountSettled implements ActionListener{
 	 *    - Note: Frame stays open to show confirmation
 	 * 
 	 * 2. "back" - Cancel and Return
-	 *    - Creates MainPage instance with username and group code
+	 *    - Gets the group's MainPage from Navigator (kept between visits)
 	 *    - Shows MainPage screen
 	 *    - Disposes current frame
 	 *    - No database changes made
@@ -213,18 +223,23 @@ public class AmountSettled implements ActionListener{
 	 */
 	public void actionPerformed(ActionEvent event) {
 		
-		String eventName = event.getActionCommand();
+		try {
+			String eventName = event.getActionCommand();
 		
-		if(eventName.equals("finish")) {
-			Finish(amount.getText(), SIInfo);
-			response = new JLabel("Amount Settled");
-			contentPane.add(response);
-			frame.setContentPane(contentPane);
-			frame.pack();
-		} else {
-			MainPage mpage = new MainPage(uname,gcode);
-			mpage.runGUI();
-			frame.dispose();
+			if(eventName.equals("finish")) {
+				Finish(amount.getText(), SIInfo);
+				response = new JLabel("Amount Settled");
+				contentPane.add(response);
+				frame.setContentPane(contentPane);
+				frame.pack();
+			} else {
+				MainPage mpage = Navigator.mainPage(uname,gcode);
+				mpage.runGUI();
+				frame.dispose();
+			}
+		} catch (ApiException e) {
+			e.printStackTrace();
+			JOptionPane.showMessageDialog(frame, "The payment could not be recorded.\n" + e.getMessage(), "Splitwise", JOptionPane.ERROR_MESSAGE);
 		}
 		
 	}
@@ -237,47 +252,29 @@ public class AmountSettled implements ActionListener{
 	 * Updates balances, transaction history, and transaction details.
 	 * 
 	 * @param amount The amount of money being paid (as string)
-	 * @param SII Selected Item Info array [Member1, Amount, Member2]
+	 * @param SII db6 balance row being settled (Member1, Amount, Member2)
 	 * 
 	 * PROCESS:
 	 * 
-	 * 1. GENERATE TRANSACTION ID:
-	 *    - Queries db8 for existing transaction IDs in this group
-	 *    - Generates unique 7-character alphanumeric code
-	 *    - Ensures no collision with existing IDs
-	 * 
-	 * 2. UPDATE PAYMENT BALANCE (db6):
-	 *    Four cases based on user position and type:
+	 * 1. LOAD LEDGER:
+	 *    - Ledger.load() reads the group once (db4, db5, db6, db8, db1 in parallel)
 	 * 
-	 *    Case A: User is Member1, type=0 (user received money)
-	 *      - Decreases debt: Amount = OldAmount - PaidAmount
-	 *      - Records in db5: payee=Member2, reason=username
-	 * 
-	 *    Case B: User is Member1, type=1 (user paid money)
-	 *      - Increases debt: Amount = OldAmount + PaidAmount
-	 *      - Records in db5: payee=username, reason=Member2
-	 * 
-	 *    Case C: User is Member2, type=1 (user paid money)
-	 *      - Decreases debt: Amount = OldAmount - PaidAmount
-	 *      - Records in db5: payee=username, reason=Member1
-	 * 
-	 *    Case D: User is Member2, type=0 (user received money)
-	 *      - Increases debt: Amount = OldAmount + PaidAmount
-	 *      - Records in db5: payee=Member1, reason=username
+	 * 2. GENERATE TRANSACTION ID:
+	 *    - Generates unique 7-character alphanumeric code
+	 *    - Ensures no collision with the group's existing transaction IDs
 	 * 
-	 * 3. CREATE TRANSACTION HISTORY (db5):
-	 *    - Table: group code
-	 *    - Columns: payee, amount, reason, Ttype=1, tid
-	 *    - Ttype=1 indicates payment settlement
+	 * 3. APPLY SETTLEMENT (in memory):
+	 *    - type=0: the other member paid the user
+	 *    - type=1: the user paid the other member
+	 *    - Ledger.addSettlement(payer, receiver, amount, user, tID) reduces what
+	 *      the payer owes the receiver by the amount
 	 * 
-	 * 4. CREATE TRANSACTION DETAILS (db8):
-	 *    - Gets all group members from db1
-	 *    - Creates record with columns: Creator, tID, [member names]
-	 *    - For each member:
-	 *      * User: +/- amount (based on type)
-	 *      * Other party: opposite sign of amount
-	 *      * Everyone else: 0
-	 *    - Records per-member impact of settlement
+	 * 4. PERSIST:
+	 *    Ledger.persist() sends, as one batch (see ChangeSet):
+	 *    - db5 history row: payee=payer, amount, reason=receiver, Ttype=1, tid
+	 *    - db8 details row: Creator=user, payer -amount, receiver +amount,
+	 *      everyone else 0
+	 *    - db6 update of the pair's balance
 	 * 
 	 * TYPE LOGIC:
 	 * - type=0: User received money (amount positive for user)
@@ -288,64 +285,17 @@ public class AmountSettled implements ActionListener{
 	 * - db6: Payment balances
 	 * - db8: Transaction details per member
 	 */
-	public void Finish(String amount, String[] SII) {
+	public void Finish(String amount, PendingAmountRow SII) {
 	
-		ArrayList<String> usedCodes = new ArrayList<>(Arrays.asList(ApiCaller.ApiCaller3("https://splitwise.up.railway.app/db8/GetSpecificData?val=tID&table=" + gcode)));
-		tID = createCode(usedCodes);
-		if(SII[1].equals(uname)) {
-			System.out.println("HI");
-			if (type == 0) {
-				String val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/UpdateData?table="+ gcode +"&where=Member1='" + uname + "'%20AND%20Member2='"+ SII[3]+"'&Amount=" + (Double.parseDouble(SII[2]) - Double.parseDouble(amount)));
-				String value = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db5/InsertData?table="+ gcode +"&params=(payee,amount,reason,Ttype,tid)&info=('" + SII[3] + "'," + amount + ",'" + uname + "'," + 1 + ",'" + tID + "')");
-			} else {
-				String val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/UpdateData?table="+ gcode +"&where=Member1='" + uname + "'%20AND%20Member2='"+ SII[3]+"'&Amount=" + (Double.parseDouble(SII[2]) + Double.parseDouble(amount)));
-				String value = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db5/InsertData?table="+ gcode +"&params=(payee,amount,reason,Ttype,tid)&info=('" + uname + "'," + amount + ",'" + SII[3] + "'," + 1 + ",'" + tID + "')");
-			}
+		Ledger ledger = Ledger.load(gcode);
+		tID = ledger.newTransactionId();
+		String other = SII.otherMember(uname);
+		if (type == 0) {
+			ledger.addSettlement(other, uname, Money.parse(amount), uname, tID);
 		} else {
-			if (type == 1) {
-				String val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/UpdateData?table="+ gcode +"&where=Member2='" + uname + "'%20AND%20Member1='"+ SII[1]+"'&Amount=" + (Double.parseDouble(SII[2]) - Double.parseDouble(amount)));
-				String value = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db5/InsertData?table="+ gcode +"&params=(payee,amount,reason,Ttype,tid)&info=('" + uname + "'," + amount + ",'" + SII[1] + "'," + 1 + ",'" + tID + "')");
-			} else {
-				String val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/UpdateData?table="+ gcode +"&where=Member2='" + uname + "'%20AND%20Member1='"+ SII[1]+"'&Amount=" + (Double.parseDouble(SII[2]) + Double.parseDouble(amount)));
-				String value = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db5/InsertData?table="+ gcode +"&params=(payee,amount,reason,Ttype,tid)&info=('" + SII[1] + "'," + amount + ",'" + uname + "'," + 1 + ",'" + tID + "')");
-			}
-			}
-		
-		String[][] people = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db1/GetRowData?table="+ gcode);
-		String params = "&params=(Creator,tID,";
-		String info = "&info=('"+uname+"','"+tID+"',";
-		for (int i = 2; i < people.length; i++) {
-			if (people[i][1].equals(uname)) {
-				params += uname + ",";
-				if (type == 1){
-					info += -1 * Double.parseDouble(amount) + ",";
-				} else {
-					info += amount + ",";
-				}
-			}else if (people[i][1].equals(SII[1])) {
-				params += SII[1] + ",";
-				if (type == 0){
-					info += -1 * Double.parseDouble(amount) + ",";
-				} else {
-					info += amount + ",";
-				}
-			}else if (people[i][1].equals(SII[3])) {
-				params += SII[3] + ",";
-				if (type == 0){
-					info += -1 * Double.parseDouble(amount) + ",";
-				} else {
-					info += amount + ",";
-				}
-			}else{
-				params += people[i][1] + ",";
-				info += 0 + ",";
-			}
-
+			ledger.addSettlement(uname, other, Money.parse(amount), uname, tID);
 		}
-
-		params = params.substring(0, params.length() - 1) + ")";
-		info = info.substring(0, info.length() - 1) + ")";
-		String val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db8/InsertData?table="+ gcode + params + info);
+		ledger.persist();
 		
 	}
 	
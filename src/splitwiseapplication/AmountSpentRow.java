@@ -0,0 +1,79 @@
+package splitwiseapplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AmountSpentRow - One spending total of a group (db1)
+ *
+ * Columns: id, Name, Amount
+ *
+ * The row named TOTAL holds the group's total spending; every other row holds
+ * one member's share of the expenses. Immutable; the amount is parsed once into cents when
+ * the row is decoded.
+ */
+public final class AmountSpentRow {
+
+	/** Name of the row that holds the whole group's spending. */
+	public static final String TOTAL = "Total";
+
+	private final int id;
+	private final String name;
+	private final long amount;
+
+	/**
+	 * Creates a row.
+	 *
+	 * @param id Row id
+	 * @param name Member name, or TOTAL
+	 * @param amount Amount spent, in cents
+	 */
+	public AmountSpentRow(int id, String name, long amount) {
+		this.id = id;
+		this.name = name;
+		this.amount = amount;
+	}
+
+	/**
+	 * Decodes a db1 GetRowData result.
+	 *
+	 * @param rows Parsed response (header row optional)
+	 * @return Data rows in response order, Total row included
+	 */
+	public static List<AmountSpentRow> fromRows(String[][] rows) {
+		TableRows table = new TableRows(rows, "id", "Name", "Amount");
+		int id = table.column("id", 0);
+		int name = table.column("Name", 1);
+		int amount = table.column("Amount", 2);
+
+		List<AmountSpentRow> result = new ArrayList<>(table.size());
+		for (int i = 0; i < table.size(); i++) {
+			String[] row = table.row(i);
+			result.add(new AmountSpentRow(TableRows.integer(row, id), TableRows.text(row, name),
+					TableRows.cents(row, amount)));
+		}
+		return result;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/**
+	 * @return Amount in cents (see Money)
+	 */
+	public long getAmount() {
+		return amount;
+	}
+
+	/**
+	 * @return true for the group total row
+	 */
+	public boolean isTotal() {
+		return TOTAL.equals(name);
+	}
+}
@@ -1,26 +1,51 @@
 package splitwiseapplication;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.util.ArrayList;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.List;
+import java.util.function.Function;
+import java.util.function.LongConsumer;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * HTTPS API Client utility for communicating with the backend database server.
  * 
  * Purpose:
  * This class provides static methods for making HTTPS GET requests to a Spring Boot
- * backend server running on splitwise.up.railway.app. It handles JSON response parsing and
- * converts the responses into Java data structures (String arrays).
+ * backend server (by default running on splitwise.up.railway.app). It handles JSON response
+ * parsing and converts the responses into Java data structures (String arrays).
  * 
  * Architecture:
  * - Uses Java 11+ HttpClient for HTTPS communication
- * - All methods use synchronous blocking calls
- * - Custom JSON parsing (no external JSON library dependencies)
+ * - One shared, long-lived HttpClient for the whole application (see CLIENT)
+ * - ApiCaller1/2/3 are synchronous blocking calls
+ * - ApiCaller1Async/2Async/3Async are non-blocking counterparts returning
+ *   CompletableFuture, so independent requests can run in parallel
+ * - ApiCallerBatchAsync POSTs several writes to /batch in one round trip (see ChangeSet)
+ * - Custom streaming JSON parsing in JsonRowParser (no external JSON library dependencies)
+ * - Responses are requested gzip/deflate compressed and decompressed while they
+ *   stream into the parser (see ResponseBodies)
  * - Returns different data structures based on response format
- * - Secure HTTPS connection to Railway-hosted backend
+ * - Callers pass request paths ("/db5/GetRowData?table=ABC123"); each attempt is sent
+ *   to the lowest-latency healthy replica configured in BackendEndpoints
+ *   (splitwise.backend.urls, default the Railway-hosted backend)
+ * - Absolute URLs are still accepted and sent to the given host as they are
  * 
  * Backend API structure:
  * - db1: CheckAmountSpent tables (per-group member spending totals)
@@ -32,13 +57,415 @@ import java.util.List;
  * - db7: User group membership tables (per-user tables)
  * - db8: TransactionDetails tables (per-group split details)
  * 
+ * Caching:
+ * - Successful GetRowData/GetSpecificData results of ApiCaller1/ApiCaller3 are kept
+ *   in a short-lived ResponseCache, so repeated navigation does not refetch tables
+ * - Identical reads issued while one is already in flight share that request
+ *   (single flight), e.g. a prefetch and a screen constructor loading the same table
+ * - Any other operation (UpdateData, InsertData, DeleteRowData, CreateTable,
+ *   AddColumn, DeleteColumn) invalidates the cached reads of the table it touches
+ *   as soon as it completes, through whichever ApiCaller method sent it
+ * 
  * Error handling:
- * - Prints stack traces to stderr on exceptions
- * - Returns empty arrays on failure (never null)
- * - Safe to use without additional null checks
+ * - Failed calls throw ApiException (unchecked) instead of returning an empty
+ *   array or null; a non-2xx status is a failure too
+ * - Async futures complete exceptionally with ApiException; use await() to wait
+ *   for them and get the ApiException rather than a CompletionException
+ * - Reads are retried with exponential backoff and jitter on transient failures;
+ *   writes are only retried when the connection could not be opened (see RetryPolicy)
+ * - One CircuitBreaker per backend replica fails calls immediately while the backend
+ *   is down instead of waiting for every request to time out
+ * 
+ * Metrics:
+ * - Calls, cache hits, round trips, errors, bytes and latency are recorded per
+ *   endpoint ("db{N}/{Operation}") in ApiMetrics, together with the application
+ *   method that made each call
  */
 public class ApiCaller {
 
+    /**
+     * Shared HTTPS client used by every ApiCaller method.
+     * 
+     * Contract:
+     * - Created once when ApiCaller is first used and reused for the lifetime of the application
+     * - Keeps connections to the backend alive between requests (connection pool),
+     *   so consecutive calls skip the TCP and TLS handshakes
+     * - Prefers HTTP/2, which multiplexes concurrent requests over one connection,
+     *   and falls back to HTTP/1.1 when the server does not offer it
+     * - Runs response handling on a small bounded pool of daemon threads instead of
+     *   a fresh selector thread per request
+     * 
+     * Configuration (JVM system properties, all optional):
+     * - splitwise.http.connectTimeoutMs   Connection timeout (default 10000)
+     * - splitwise.http.requestTimeoutMs   Per-request timeout (default 30000)
+     * - splitwise.http.maxThreads         Size of the client executor and of the body
+     *                                     parsing executor (default 4)
+     * - splitwise.http.compression        Request gzip/deflate responses (default true)
+     * - splitwise.http.keepAliveSeconds   Idle time before a pooled connection is closed
+     *                                     (default 300, maps to jdk.httpclient.keepalive.timeout)
+     * 
+     * Example: adding one expense in a 10-person group issues about 30 calls that now
+     * all travel over the same warm connection instead of opening 30 new ones.
+     */
+    private static final HttpClient CLIENT = createClient();
+
+    /**
+     * Threads that decompress and parse response bodies while they stream in.
+     * 
+     * Contract:
+     * - Separate from the client executor: reading a streamed body blocks until the
+     *   client delivers more data, which it does on its own executor threads
+     * - Same size as the client executor (splitwise.http.maxThreads), daemon threads
+     */
+    private static final ThreadPoolExecutor BODY_EXECUTOR = createExecutor("splitwise-body-");
+
+    /** Whether requests ask for gzip/deflate compressed responses (splitwise.http.compression, default true). */
+    private static final boolean COMPRESSION =
+            Boolean.parseBoolean(System.getProperty("splitwise.http.compression", "true"));
+
+    /** Per-request timeout applied to every request built by newRequest(). */
+    private static final Duration REQUEST_TIMEOUT =
+            Duration.ofMillis(Long.getLong("splitwise.http.requestTimeoutMs", 30000));
+
+    /** Parsed read responses, see ResponseCache for TTL, size and invalidation rules. */
+    private static final ResponseCache CACHE = ResponseCache.fromSystemProperties();
+
+    /** Reads currently being fetched, keyed by table generation, result shape and URL (see fetchParsed). */
+    private static final ConcurrentHashMap<String, CompletableFuture<Object>> IN_FLIGHT = new ConcurrentHashMap<>();
+
+    /** Retry rules and backoff for failed attempts, see RetryPolicy. */
+    private static final RetryPolicy RETRY = RetryPolicy.fromSystemProperties();
+
+    /** Backend replicas that request paths are resolved against, see BackendEndpoints. */
+    private static final BackendEndpoints BACKENDS = BackendEndpoints.fromConfiguration(CLIENT);
+
+    /** Path of the backend endpoint that applies several writes at once (see ApiCallerBatchAsync). */
+    private static final String BATCH_PATH = "/batch";
+
+    /** Maximum number of response body characters quoted in an HTTP_STATUS failure message. */
+    private static final int ERROR_BODY_LIMIT = 200;
+
+    /**
+     * Internal helper method - Builds the shared HttpClient from the configuration above.
+     * 
+     * Contract:
+     * - Sets the JDK keep-alive property only when the user has not set it explicitly
+     *   (it must be set before the first HttpClient is created)
+     * - Executor threads are daemon threads so they never keep the JVM alive after
+     *   the last window is closed
+     * 
+     * @return  Configured HttpClient instance
+     */
+    private static HttpClient createClient() {
+        if (System.getProperty("jdk.httpclient.keepalive.timeout") == null) {
+            System.setProperty("jdk.httpclient.keepalive.timeout",
+                    Long.toString(Long.getLong("splitwise.http.keepAliveSeconds", 300)));
+        }
+
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(Long.getLong("splitwise.http.connectTimeoutMs", 10000)))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(createExecutor("splitwise-http-"))
+                .build();
+    }
+
+    /**
+     * Internal helper method - Bounded pool of splitwise.http.maxThreads daemon threads
+     * that time out when idle.
+     * 
+     * @param namePrefix  Thread name prefix, followed by a running number
+     * @return            New executor
+     */
+    private static ThreadPoolExecutor createExecutor(String namePrefix) {
+        int maxThreads = Math.max(1, Integer.getInteger("splitwise.http.maxThreads", 4));
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(maxThreads, maxThreads,
+                60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), threadFactory);
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /**
+     * Internal helper method - Builds a GET request for the given URL, or a POST of a
+     * JSON body when one is given (see ApiCallerBatchAsync()).
+     * 
+     * Contract:
+     * - Every request carries the configured per-request timeout, so a stalled backend
+     *   fails the call instead of hanging the screen indefinitely
+     * - Asks for a gzip or deflate compressed body unless compression is disabled;
+     *   readBody() decodes whatever the server chooses to send
+     * 
+     * @param url   Complete API endpoint URL with query parameters
+     * @param body  JSON request body, or null for a GET
+     * @return      Request ready to be sent with CLIENT
+     */
+    private static HttpRequest newRequest(String url, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder()
+                .uri(URI.create(url))
+                .timeout(REQUEST_TIMEOUT);
+        if (body == null) {
+            builder.GET();
+        } else {
+            builder.header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+        }
+        if (COMPRESSION) {
+            builder.header("Accept-Encoding", ResponseBodies.ACCEPT_ENCODING);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Internal helper method - Turns the decoded text of a 2xx response body into
+     * the call's result. Runs on BODY_EXECUTOR while the body is still arriving.
+     */
+    private interface BodyReader<T> {
+        T read(Reader body) throws IOException;
+    }
+
+    /**
+     * Internal helper method - Sends a request and keeps the response cache consistent.
+     * 
+     * Contract:
+     * - The future completes with the value produced by reader from a 2xx response,
+     *   or exceptionally with ApiException once retries (see attempt()) are exhausted
+     * - Writes invalidate the cached reads of their table once they complete,
+     *   whether they succeeded or not (the backend state is unknown after a failure)
+     * 
+     * @param url       Request path ("/db{N}/...") or absolute URL, with query parameters
+     * @param endpoint  Parsed form of url
+     * @param body      JSON request body to POST, or null for a GET
+     * @param reader    Consumes the decoded response body
+     * @return          Future of the value read from the body
+     */
+    private static <T> CompletableFuture<T> send(String url, ApiEndpoint endpoint, String body, BodyReader<T> reader) {
+        CompletableFuture<T> response = attempt(url, endpoint, body, reader, 1);
+        if (endpoint.isRead()) {
+            return response;
+        }
+        return response.whenComplete((r, e) -> CACHE.invalidate(endpoint.tableKey()));
+    }
+
+    /**
+     * Internal helper method - Sends one attempt of a request to the replica chosen by
+     * BACKENDS and schedules the next attempt when RETRY allows it.
+     * 
+     * Contract:
+     * - Every attempt picks its replica again, so a retry after a backend failure
+     *   fails over to the next healthy replica
+     * - Fails immediately with CIRCUIT_OPEN when the breakers of all replicas are open
+     * - The body is streamed (see readBody()); reading it is part of the attempt, so a
+     *   connection lost halfway through a body is retried like any other read failure
+     * - Non-2xx responses and transport errors become ApiException
+     * - Backend failures (connect, timeout, network, 5xx) are recorded on the replica
+     *   (breaker and health); anything else counts as proof that it is up and feeds
+     *   its latency estimate
+     * - Backoff delays are scheduled with a delayed executor, so no thread sleeps
+     * 
+     * @param url       Request path ("/db{N}/...") or absolute URL, with query parameters
+     * @param endpoint  Parsed form of url
+     * @param body      JSON request body to POST, or null for a GET
+     * @param reader    Consumes the decoded response body
+     * @param attempt   Number of this attempt, starting at 1
+     * @return          Future of the value read from the body
+     */
+    private static <T> CompletableFuture<T> attempt(String url, ApiEndpoint endpoint, String body, BodyReader<T> reader,
+            int attempt) {
+        BackendEndpoints.Replica replica = BACKENDS.select(url);
+
+        CompletableFuture<T> outcome;
+        if (replica == null) {
+            ApiMetrics.recordRejected(endpoint);
+            outcome = CompletableFuture.failedFuture(new ApiException(ApiException.Reason.CIRCUIT_OPEN, 0,
+                    endpoint.toString(), "backend unavailable, request not sent", null));
+        } else {
+            long start = System.nanoTime();
+            outcome = CLIENT.sendAsync(newRequest(replica.resolve(url), body), HttpResponse.BodyHandlers.ofInputStream())
+                    .thenApplyAsync(response -> readBody(response, endpoint, reader), BODY_EXECUTOR)
+                    .handle((value, error) -> {
+                        long elapsed = System.nanoTime() - start;
+                        ApiException failure = error == null ? null : ApiException.from(error, endpoint);
+                        ApiMetrics.recordRequest(endpoint, elapsed, failure != null);
+                        if (failure != null && failure.isBackendFailure()) {
+                            replica.onFailure();
+                        } else {
+                            replica.onSuccess(elapsed);
+                        }
+                        if (failure != null) {
+                            throw failure;
+                        }
+                        return value;
+                    });
+        }
+
+        return outcome.handle((value, error) -> {
+            if (error == null) {
+                return CompletableFuture.completedFuture(value);
+            }
+            ApiException failure = ApiException.from(error, endpoint);
+            if (!RETRY.shouldRetry(failure, endpoint.isRead(), attempt)) {
+                return CompletableFuture.<T>failedFuture(failure);
+            }
+            ApiMetrics.recordRetry(endpoint);
+            return CompletableFuture.supplyAsync(() -> url,
+                    CompletableFuture.delayedExecutor(RETRY.delayMillis(attempt), TimeUnit.MILLISECONDS))
+                    .thenCompose(retryUrl -> attempt(retryUrl, endpoint, body, reader, attempt + 1));
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Internal helper method - Decodes a streamed response body.
+     * 
+     * Contract:
+     * - Non-2xx: fails with HTTP_STATUS, quoting the start of the body
+     * - 2xx: decompresses the body (gzip/deflate, see ResponseBodies) while it arrives
+     *   and hands the text to reader; the body is always closed
+     * - Wire bytes (before decompression) are reported to ApiMetrics
+     * - Connection failures while reading surface as UncheckedIOException, parse
+     *   errors as IllegalArgumentException (both classified by ApiException.from())
+     * 
+     * @param response  Response whose body has not been read yet
+     * @param endpoint  Endpoint the request was sent to
+     * @param reader    Consumes the decoded body
+     * @return          Value produced by reader
+     */
+    private static <T> T readBody(HttpResponse<InputStream> response, ApiEndpoint endpoint, BodyReader<T> reader) {
+        LongConsumer bytes = count -> ApiMetrics.recordBytes(endpoint, count);
+        int status = response.statusCode();
+        if (status / 100 != 2) {
+            throw new ApiException(ApiException.Reason.HTTP_STATUS, status, endpoint.toString(),
+                    "HTTP " + status + " " + ResponseBodies.readPrefix(response, bytes, ERROR_BODY_LIMIT), null);
+        }
+        try (Reader body = ResponseBodies.open(response, bytes)) {
+            return reader.read(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Internal helper method - Sends a request and parses its body, serving reads from
+     * the response cache and coalescing identical reads that are already in flight.
+     * 
+     * Contract:
+     * - Writes are always sent and parsed individually
+     * - Reads return a cached copy when one is available
+     * - Otherwise, if the same read (same URL and result shape) is already in flight,
+     *   the caller waits for that request instead of sending its own (single flight);
+     *   the body is parsed once and every waiter receives its own copy of the result
+     * - A read is only joined while its table has not been invalidated since it was
+     *   sent, so a read issued after a write never receives pre-write data
+     * - Successful read results are stored in the cache before waiters resume
+     * - Failures (after retries) reach every waiter as the same ApiException; a body
+     *   that cannot be parsed fails with MALFORMED_RESPONSE
+     * 
+     * @param shape   Result shape prefix ("rows:" or "values:"), keeps ApiCaller1 and
+     *                ApiCaller3 results for the same URL apart
+     * @param url     Request path ("/db{N}/...") or absolute URL, with query parameters
+     * @param parser  Turns the streamed response body into the result value
+     * @return        Future of the parsed result (String[][] or String[])
+     */
+    private static CompletableFuture<Object> fetchParsed(String shape, String url, BodyReader<Object> parser) {
+        ApiEndpoint endpoint = ApiEndpoint.parse(url);
+        if (!endpoint.isRead()) {
+            return send(url, endpoint, null, parser);
+        }
+
+        Object hit = CACHE.get(shape + url);
+        if (hit != null) {
+            ApiMetrics.recordCacheHit(endpoint);
+            return CompletableFuture.completedFuture(hit);
+        }
+
+        long generation = CACHE.generation(endpoint.tableKey());
+        String flightKey = generation + ":" + shape + url;
+        CompletableFuture<Object> shared = IN_FLIGHT.get(flightKey);
+        if (shared == null) {
+            CompletableFuture<Object> created = new CompletableFuture<>();
+            shared = IN_FLIGHT.putIfAbsent(flightKey, created);
+            if (shared == null) {
+                shared = created;
+                send(url, endpoint, null, parser).whenComplete((value, error) -> {
+                    if (error == null) {
+                        CACHE.put(shape + url, endpoint.tableKey(), value, generation);
+                    }
+                    // Leave the in-flight map before waking waiters, so later calls use the cache
+                    IN_FLIGHT.remove(flightKey, created);
+                    if (error != null) {
+                        created.completeExceptionally(ApiException.from(error, endpoint));
+                    } else {
+                        created.complete(value);
+                    }
+                });
+            } else {
+                ApiMetrics.recordShared(endpoint);
+            }
+        } else {
+            ApiMetrics.recordShared(endpoint);
+        }
+        return shared.thenApply(ResponseCache::copy);
+    }
+
+    /**
+     * Waits for a future returned by one of the Async methods.
+     * 
+     * Contract:
+     * - Returns the result when the future completed normally
+     * - Rethrows the ApiException of a failed call as it is, instead of the
+     *   CompletionException that join() would throw
+     * - Also works for CompletableFuture.allOf(...) over Async futures
+     * 
+     * @param future  Future from ApiCaller1Async/2Async/3Async (or a combination of them)
+     * @return        Result of the future
+     * @throws ApiException  When the call failed
+     */
+    public static <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException | CancellationException e) {
+            Throwable cause = ApiException.unwrap(e);
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Drops every cached response.
+     * 
+     * Usage:
+     * Called on logout so the next user never sees data read for the previous one.
+     */
+    public static void clearCache() {
+        CACHE.clear();
+    }
+
+    /**
+     * Tells whether this client wrote to a table since an earlier call.
+     *
+     * Contract:
+     * - Grows by at least one whenever a write to the table completes (see
+     *   ResponseCache.invalidate), whether or not caching is enabled
+     * - Writes made by other clients are not seen
+     *
+     * @param db     Database, e.g. "db5"
+     * @param table  Table name, e.g. a group code
+     * @return       Change counter of the table
+     *
+     * Usage:
+     * Navigator keeps MainPage alive and reloads its history only when db5 changed.
+     */
+    public static long tableGeneration(String db, String table) {
+        return CACHE.generation(db + "/" + table);
+    }
+
     /**
      * Makes an HTTPS GET request and parses the JSON response into a 2D String array.
      * 
@@ -46,20 +473,24 @@ public class ApiCaller {
      * - Sends GET request to the specified URL
      * - Expects JSON response in format: array of objects or array of arrays
      * - Parses JSON into String[][] where each row represents one record
-     * - Returns empty 2D array on error or empty response
+     * - Returns an empty 2D array for an empty response
+     * - Throws ApiException when the call fails (after retries for reads)
+     * - Read operations may be answered from the response cache (see class notes)
      * 
      * @param url  Complete API endpoint URL with query parameters
-     *             Format: "https://splitwise.up.railway.app/db{N}/{operation}?{params}"
+     *             Format: "/db{N}/{operation}?{params}"
      * @return     2D String array where:
      *             - First dimension = rows/records
      *             - Second dimension = fields/columns within each record
-     *             - Empty array (String[0][0]) on error or no data
+     *             - Empty array (String[0][0]) when there is no data
+     * @throws ApiException  On connection failure, timeout, non-2xx status, open
+     *                       circuit breaker or unparseable body
      * 
-     * JSON parsing behavior:
+     * JSON parsing behavior (see JsonRowParser):
      * - Handles both [{...},{...}] and [[...],[...]] formats
      * - Extracts values from key:value pairs (for object arrays)
-     * - Removes quotes and brackets from values
-     * - Splits by comma for multiple fields
+     * - Decodes quoted strings including escapes, so commas and quotes inside
+     *   values (e.g. a transaction Reason) stay in their own field
      * 
      * Usage patterns (50+ call sites across project):
      * 
@@ -97,140 +528,111 @@ public class ApiCaller {
      */
     // This version returns a String[][]
     public static String[][] ApiCaller1(String url) {
-        HttpClient client = HttpClient.newHttpClient();
+        return await(ApiCaller1Async(url));
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .build();
+    /**
+     * Non-blocking version of ApiCaller1.
+     * 
+     * Contract:
+     * - Sends the GET request with sendAsync and returns immediately
+     * - The future completes with the parsed String[][] (same format as ApiCaller1)
+     * - Completes exceptionally with ApiException on error (see await())
+     * - Parsing runs on BODY_EXECUTOR while the body streams in, not on the calling thread
+     * 
+     * @param url  Complete API endpoint URL with query parameters
+     * @return     Future of the parsed rows
+     * 
+     * Usage:
+     * Start all independent reads first, then wait for them together:
+     *   CompletableFuture<String[][]> people = ApiCaller1Async("...db1/GetRowData?table=ABC");
+     *   CompletableFuture<String[][]> pairs = ApiCaller1Async("...db6/GetRowData?table=ABC");
+     *   ApiCaller.await(CompletableFuture.allOf(people, pairs));
+     */
+    public static CompletableFuture<String[][]> ApiCaller1Async(String url) {
+        ApiMetrics.recordCall(ApiEndpoint.parse(url));
+        // Parse JSON array to String[][]
+        return fetchParsed("rows:", url, body -> JsonRowParser.parseRows(body))
+                .thenApply(rows -> (String[][]) rows);
+    }
 
-        try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            String responseBody = response.body();
-            
-            // Parse JSON array to String[][]
-            return parseJsonToArray(responseBody);
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            return new String[0][0]; // return empty 2D array on error
-        }
+    /**
+     * Makes a GetRowData request and decodes the rows into typed records.
+     *
+     * Contract:
+     * - Same request, caching and error behavior as ApiCaller1
+     * - The header row is detected and skipped by the decoder, so the returned list
+     *   holds data rows only and index 0 is the first data row
+     * - Numeric columns are parsed once during decoding
+     *
+     * @param url      Complete API endpoint URL with query parameters
+     * @param decoder  Table decoder: PaymentHistoryRow::fromRows (db5),
+     *                 PendingAmountRow::fromRows (db6), AmountSpentRow::fromRows (db1)
+     *                 or TransactionDetailsRow::fromRows (db8)
+     * @return         Decoded rows in response order
+     * @throws ApiException  On any failure (see ApiCaller1)
+     *
+     * Usage:
+     *   List<PendingAmountRow> pairs = ApiCallerRows("/db6/GetRowData?table=ABC", PendingAmountRow::fromRows);
+     */
+    public static <T> List<T> ApiCallerRows(String url, Function<String[][], List<T>> decoder) {
+        return await(ApiCallerRowsAsync(url, decoder));
     }
-    
+
     /**
-     * Internal helper method - Parses JSON array string into a 2D String array.
-     * 
+     * Non-blocking version of ApiCallerRows.
+     *
+     * @param url      Complete API endpoint URL with query parameters
+     * @param decoder  Table decoder (see ApiCallerRows)
+     * @return         Future of the decoded rows
+     */
+    public static <T> CompletableFuture<List<T>> ApiCallerRowsAsync(String url,
+            Function<String[][], List<T>> decoder) {
+        return ApiCaller1Async(url).thenApply(decoder);
+    }
+
+    /**
+     * Receives the rows of a streamed GetRowData response (see ApiCallerStreamAsync).
+     */
+    public interface RowHandler {
+
+        /**
+         * Called before the first row of every attempt; rows received during an
+         * earlier, failed attempt must be discarded.
+         */
+        void start();
+
+        /**
+         * @param cells  Cells of the next row, header row included
+         */
+        void row(String[] cells);
+    }
+
+    /**
+     * Makes a GetRowData request and hands each row to a handler while the body arrives.
+     *
      * Contract:
-     * - Takes raw JSON string as input
-     * - Handles both object array format [{...},{...}] and array-of-arrays format [[...],[...]]
-     * - Extracts values from key:value pairs in objects
-     * - Returns structured 2D array representation
-     * - Returns empty array for null or empty input
-     * 
-     * @param json  Raw JSON string to parse (from HTTP response body)
-     * @return      2D String array where:
-     *              - First dimension = rows/records
-     *              - Second dimension = field values within each record
-     *              - Empty String[0][0] if input is null/empty
-     * 
-     * Parsing algorithm:
-     * 1. Validate input (null/empty check)
-     * 2. Remove outer square brackets [ ]
-     * 3. Split by },{ or ],[ regex patterns to separate individual records
-     * 4. For each record string:
-     *    a. Remove inner brackets { } or [ ]
-     *    b. Split by comma to get field parts
-     *    c. For each part, extract value after colon (if key:value format)
-     *    d. Remove quotes from string values
-     *    e. Build String[] for that record
-     * 5. Combine all record arrays into 2D result
-     * 
-     * Supported JSON formats:
-     * 
-     * Format 1 - Array of objects (most common):
-     *   Input:  [{"id":"1","name":"Alice","amount":"50.00"},{"id":"2","name":"Bob","amount":"30.00"}]
-     *   Output: [["1","Alice","50.00"], ["2","Bob","30.00"]]
-     * 
-     * Format 2 - Array of arrays:
-     *   Input:  [["1","Alice","50.00"],["2","Bob","30.00"]]
-     *   Output: [["1","Alice","50.00"], ["2","Bob","30.00"]]
-     * 
-     * Limitations:
-     * - Simple regex-based parsing (not a full JSON parser library)
-     * - May not handle deeply nested structures
-     * - Assumes comma-separated fields within records
-     * - Does not handle escaped quotes within string values
-     * - Works reliably for the flat structures returned by this project's backend API
-     * 
-     * Error handling:
-     * - Returns empty 2D array for invalid/empty input
-     * - Skips empty rows after parsing
-     * - Continues processing remaining rows if one fails
+     * - Same request, retry and error behavior as ApiCaller1, but nothing is cached or
+     *   shared: the response is never held as a whole, so a table of any size costs only
+     *   what the handler keeps, and the rows are always fresh from the backend
+     * - Rows reach the handler on a BODY_EXECUTOR thread, in response order
+     * - A retried attempt calls handler.start() again before its first row
+     *
+     * @param url      Complete API endpoint URL with query parameters
+     * @param handler  Receives the rows
+     * @return         Future completing with handler once the last row was delivered
+     *
+     * Usage:
+     *   LedgerReplay journal = ApiCaller.await(ApiCallerStreamAsync("/db8/GetRowData?table=ABC", new LedgerReplay()));
      */
-    // Parse JSON array of arrays/objects to String[][]
-    private static String[][] parseJsonToArray(String json) {
-        if (json == null || json.trim().isEmpty()) {
-            return new String[0][0];
-        }
-        
-        json = json.trim();
-        
-        // Remove outer brackets
-        if (json.startsWith("[") && json.endsWith("]")) {
-            json = json.substring(1, json.length() - 1).trim();
-        }
-        
-        if (json.isEmpty()) {
-            return new String[0][0];
-        }
-        
-        List<String[]> rows = new ArrayList<>();
-        
-        // Split by },{  or ],[  to separate rows
-        String[] rowStrings = json.split("\\}\\s*,\\s*\\{|\\]\\s*,\\s*\\[");
-        
-        for (String rowStr : rowStrings) {
-            rowStr = rowStr.trim();
-            
-            // Remove brackets if present
-            if (rowStr.startsWith("{") || rowStr.startsWith("[")) {
-                rowStr = rowStr.substring(1);
-            }
-            if (rowStr.endsWith("}") || rowStr.endsWith("]")) {
-                rowStr = rowStr.substring(0, rowStr.length() - 1);
-            }
-            
-            rowStr = rowStr.trim();
-            
-            if (rowStr.isEmpty()) {
-                continue;
-            }
-            
-            // Parse the row to extract values
-            List<String> values = new ArrayList<>();
-            
-            // Split by comma, but handle quoted strings
-            String[] parts = rowStr.split(",");
-            
-            for (String part : parts) {
-                part = part.trim();
-                
-                // Extract value after colon if it's a key:value pair
-                int colonIndex = part.indexOf(':');
-                if (colonIndex > 0) {
-                    part = part.substring(colonIndex + 1).trim();
-                }
-                
-                // Remove quotes
-                part = part.replaceAll("^\"|\"$", "");
-                
-                values.add(part);
-            }
-            
-            rows.add(values.toArray(new String[0]));
-        }
-        
-        return rows.toArray(new String[0][0]);
+    public static <H extends RowHandler> CompletableFuture<H> ApiCallerStreamAsync(String url, H handler) {
+        ApiEndpoint endpoint = ApiEndpoint.parse(url);
+        ApiMetrics.recordCall(endpoint);
+        return send(url, endpoint, null, body -> {
+            handler.start();
+            new JsonRowParser(body).forEachRow(handler::row);
+            return handler;
+        });
     }
 
     /**
@@ -239,17 +641,19 @@ public class ApiCaller {
      * Contract:
      * - Sends GET request to the specified URL
      * - Returns the complete response body without parsing
-     * - Logs response code and body to stdout for debugging
-     * - Returns null on error
+     * - Throws ApiException when the call fails; writes are retried only if the
+     *   connection could not be opened, so an update is never applied twice
      * 
      * @param url  Complete API endpoint URL with query parameters
-     *             Format: "https://splitwise.up.railway.app/db{N}/{operation}?{params}"
-     * @return     Raw response body as String, or null on error
+     *             Format: "/db{N}/{operation}?{params}"
+     * @return     Raw response body as String
+     * @throws ApiException  On connection failure, timeout, non-2xx status or open
+     *                       circuit breaker
      * 
-     * Debug output:
-     * - Prints "Response code: {code}" to stdout
-     * - Prints "Response body: {body}" to stdout
-     * - Useful for troubleshooting API communication issues
+     * Diagnostics:
+     * - Nothing is printed; the size of the response body, the latency and any
+     *   failure are counted per endpoint in ApiMetrics (ApiMetrics.dump())
+     * - Non-2xx status codes are reported through ApiException (getStatusCode())
      * 
      * Usage patterns (45+ call sites across project):
      * 
@@ -286,22 +690,95 @@ public class ApiCaller {
      * (the caller typically only cares that the request completed, not the response).
      */
     public static String ApiCaller2(String url) {
-        HttpClient client = HttpClient.newHttpClient();
+        return await(ApiCaller2Async(url));
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .build();
+    /**
+     * Non-blocking version of ApiCaller2.
+     * 
+     * Contract:
+     * - Sends the GET request with sendAsync and returns immediately
+     * - The future completes with the raw response body (recorded in ApiMetrics like ApiCaller2)
+     * - Completes exceptionally with ApiException on error (see await())
+     * 
+     * @param url  Complete API endpoint URL with query parameters
+     * @return     Future of the raw response body
+     * 
+     * Usage:
+     * Writes to different rows do not depend on each other and can be issued together:
+     *   ApiCaller.await(CompletableFuture.allOf(ApiCaller2Async(update1), ApiCaller2Async(update2)));
+     */
+    public static CompletableFuture<String> ApiCaller2Async(String url) {
+        ApiEndpoint endpoint = ApiEndpoint.parse(url);
+        ApiMetrics.recordCall(endpoint);
+        return send(url, endpoint, null, ResponseBodies::readAll);
+    }
 
-        try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            System.out.println("Response code: " + response.statusCode());
-            System.out.println("Response body: " + response.body());
-            return response.body();
-        } catch (Exception e) {
-            e.printStackTrace();
-            return null;
+    /**
+     * Sends several write requests in one round trip (POST /batch).
+     * 
+     * Contract:
+     * - Body: a JSON array of the request paths, in order, e.g.
+     *   ["/db5/InsertData?table=ABC&...","/db6/UpdateData?table=ABC&..."]
+     * - The backend applies them in order within one database transaction: a 2xx
+     *   answer means all of them were applied, any other answer means none was
+     * - A backend without batch support answers 404, 405 or 501 (see
+     *   isBatchUnsupported()); ChangeSet then falls back to single requests
+     * - Like any write, the batch is only retried when the connection could not be
+     *   opened, and the cached reads of every table it touches are invalidated once
+     *   it completes
+     * 
+     * @param urls  Write request paths ("/db{N}/{Operation}?...")
+     * @return      Future of the raw response body
+     */
+    public static CompletableFuture<String> ApiCallerBatchAsync(List<String> urls) {
+        ApiEndpoint endpoint = ApiEndpoint.parse(BATCH_PATH);
+        ApiMetrics.recordCall(endpoint);
+        StringBuilder body = new StringBuilder("[");
+        for (int i = 0; i < urls.size(); i++) {
+            if (i > 0) {
+                body.append(',');
+            }
+            appendJsonString(body, urls.get(i));
         }
+        body.append(']');
+        return send(BATCH_PATH, endpoint, body.toString(), ResponseBodies::readAll)
+                .whenComplete((result, error) -> {
+                    for (String url : urls) {
+                        CACHE.invalidate(ApiEndpoint.parse(url).tableKey());
+                    }
+                });
+    }
+
+    /**
+     * Tells a backend that has no batch endpoint from a failed batch.
+     * 
+     * @param failure  Failure of ApiCallerBatchAsync()
+     * @return         true for HTTP 404, 405 or 501: nothing was applied and the
+     *                 requests can be sent one by one instead
+     */
+    public static boolean isBatchUnsupported(ApiException failure) {
+        int status = failure.getStatusCode();
+        return failure.getReason() == ApiException.Reason.HTTP_STATUS
+                && (status == 404 || status == 405 || status == 501);
+    }
+
+    /**
+     * Internal helper method - Appends value as a JSON string literal.
+     */
+    private static void appendJsonString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\').append(c);
+            } else if (c < 0x20) {
+                out.append(String.format("\\u%04x", (int) c));
+            } else {
+                out.append(c);
+            }
+        }
+        out.append('"');
     }
 
     /**
@@ -311,17 +788,20 @@ public class ApiCaller {
      * - Sends GET request to the specified URL
      * - Expects JSON response in format: array of simple values
      * - Parses JSON into String[] containing individual values
-     * - Returns empty array on error or empty response
+     * - Returns an empty array for an empty response
+     * - Throws ApiException when the call fails (after retries)
+     * - Read operations may be answered from the response cache (see class notes)
      * 
      * @param url  Complete API endpoint URL with query parameters
-     *             Format: "http://splitwise.up.railway.app/db{N}/GetSpecificData?val={column}&table={table}&{filters}"
+     *             Format: "/db{N}/GetSpecificData?val={column}&table={table}&{filters}"
      * @return     1D String array containing individual field values
-     *             - Empty array (String[0]) on error or no data
+     *             - Empty array (String[0]) when there is no data
+     * @throws ApiException  On connection failure, timeout, non-2xx status, open
+     *                       circuit breaker or unparseable body
      * 
      * JSON parsing behavior:
      * - Handles simple JSON arrays: ["value1","value2","value3"]
-     * - Removes quotes from string values
-     * - Splits by comma for multiple values
+     * - Decodes quoted strings including escapes (see JsonRowParser)
      * - Designed for single-column query results
      * 
      * Usage patterns (14 call sites across project):
@@ -354,83 +834,24 @@ public class ApiCaller {
      * - ApiCaller3 returns 1D array (single field from multiple records, or one value)
      */
     public static String[] ApiCaller3(String url) {
-        HttpClient client = HttpClient.newHttpClient();
-
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .GET()
-                .build();
-
-        try {
-            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
-            String responseBody = response.body();
-            
-            // Parse JSON array to String[]
-            return parseJsonToStringArray(responseBody);
-        } catch (Exception e) {
-            e.printStackTrace();
-            return new String[0];
-        }
+        return await(ApiCaller3Async(url));
     }
-    
+
     /**
-     * Internal helper method - Parses simple JSON array string into a 1D String array.
+     * Non-blocking version of ApiCaller3.
      * 
      * Contract:
-     * - Takes raw JSON string as input
-     * - Handles simple array format: ["value1", "value2", "value3"]
-     * - Removes quotes and brackets
-     * - Returns flat String array
-     * 
-     * @param json  Raw JSON string to parse (expected format: JSON array of strings)
-     * @return      1D String array containing values, or empty array if null/empty input
-     * 
-     * Parsing logic:
-     * 1. Remove outer brackets [ ]
-     * 2. Split by comma
-     * 3. Remove quotes from each value
-     * 4. Build String[] result
-     * 
-     * Limitations:
-     * - Simple string-based parsing (not a full JSON parser)
-     * - Assumes flat array structure (no nesting)
-     * - Works for simple value arrays returned by GetSpecificData endpoints
-     * 
-     * Example:
-     * Input:  "{"Alice", "Bob", "Charlie"}"
-     * Output:  ["Alice", "Bob", "Charlie"]
+     * - Sends the GET request with sendAsync and returns immediately
+     * - The future completes with the parsed String[] (same format as ApiCaller3)
+     * - Completes exceptionally with ApiException on error (see await())
+     * 
+     * @param url  Complete API endpoint URL with query parameters
+     * @return     Future of the parsed values
      */
-    // Parse JSON array to String[]
-    private static String[] parseJsonToStringArray(String json) {
-        if (json == null || json.trim().isEmpty()) {
-            return new String[0];
-        }
-        
-        json = json.trim();
-        
-        // Remove outer brackets
-        if (json.startsWith("[") && json.endsWith("]")) {
-            json = json.substring(1, json.length() - 1).trim();
-        }
-        
-        if (json.isEmpty()) {
-            return new String[0];
-        }
-        
-        List<String> values = new ArrayList<>();
-        
-        // Split by comma
-        String[] parts = json.split(",");
-        
-        for (String part : parts) {
-            part = part.trim();
-            
-            // Remove quotes
-            part = part.replaceAll("^\"|\"$", "");
-            
-            values.add(part);
-        }
-        
-        return values.toArray(new String[0]);
+    public static CompletableFuture<String[]> ApiCaller3Async(String url) {
+        ApiMetrics.recordCall(ApiEndpoint.parse(url));
+        // Parse JSON array to String[]
+        return fetchParsed("values:", url, body -> JsonRowParser.parseValues(body))
+                .thenApply(values -> (String[]) values);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,125 @@
+package splitwiseapplication;
+
+/**
+ * Parsed description of one backend API URL.
+ *
+ * Purpose:
+ * Every request this application sends has the same shape:
+ *   https://{host}/db{N}/{Operation}?table={table}&{filters}
+ * This class pulls out the database, operation and table once, so ApiCaller can
+ * decide how to treat a request (cacheable read or table-modifying write) without
+ * each feature re-parsing the URL string.
+ *
+ * Examples:
+ * - ".../db5/GetRowData?table=ABC123"             -> db5, GetRowData, ABC123 (read)
+ * - ".../db6/UpdateData?table=ABC123&where=..."   -> db6, UpdateData, ABC123 (write)
+ * - ".../db2/GetRowData?table=Credentials&..."    -> db2, GetRowData, Credentials (read)
+ *
+ * Design notes:
+ * - Immutable value object
+ * - Values are kept exactly as they appear in the URL (no URL decoding), which is
+ *   enough to compare requests that were built by the same code
+ * - Unrecognised URLs parse to empty strings rather than failing
+ */
+final class ApiEndpoint {
+
+    private final String db;
+    private final String operation;
+    private final String table;
+
+    private ApiEndpoint(String db, String operation, String table) {
+        this.db = db;
+        this.operation = operation;
+        this.table = table;
+    }
+
+    /**
+     * Parses an API URL.
+     *
+     * @param url  Complete API endpoint URL with query parameters
+     * @return     Parsed endpoint; fields are "" when the URL does not follow the usual shape
+     */
+    static ApiEndpoint parse(String url) {
+        int pathStart = url.indexOf("://");
+        pathStart = pathStart < 0 ? 0 : url.indexOf('/', pathStart + 3);
+        if (pathStart < 0) {
+            return new ApiEndpoint("", "", "");
+        }
+        int queryStart = url.indexOf('?', pathStart);
+        int pathEnd = queryStart < 0 ? url.length() : queryStart;
+
+        int dbEnd = url.indexOf('/', pathStart + 1);
+        if (dbEnd < 0 || dbEnd > pathEnd) {
+            dbEnd = pathEnd;
+        }
+        String db = url.substring(pathStart + 1, dbEnd);
+        int operationEnd = dbEnd < pathEnd ? url.indexOf('/', dbEnd + 1) : -1;
+        if (operationEnd < 0 || operationEnd > pathEnd) {
+            operationEnd = pathEnd;
+        }
+        String operation = dbEnd < pathEnd ? url.substring(dbEnd + 1, operationEnd) : "";
+
+        return new ApiEndpoint(db, operation, queryStart < 0 ? "" : queryParameter(url, queryStart + 1, "table"));
+    }
+
+    /**
+     * Internal helper method - Returns the raw value of a query parameter, or "" when absent.
+     */
+    private static String queryParameter(String url, int queryStart, String name) {
+        int index = queryStart;
+        while (index < url.length()) {
+            int end = url.indexOf('&', index);
+            if (end < 0) {
+                end = url.length();
+            }
+            if (url.startsWith(name, index) && index + name.length() < end
+                    && url.charAt(index + name.length()) == '=') {
+                return url.substring(index + name.length() + 1, end);
+            }
+            index = end + 1;
+        }
+        return "";
+    }
+
+    /** @return Database segment, e.g. "db5" */
+    String getDb() {
+        return db;
+    }
+
+    /** @return Operation segment, e.g. "GetRowData" */
+    String getOperation() {
+        return operation;
+    }
+
+    /** @return Value of the table parameter, e.g. the group code */
+    String getTable() {
+        return table;
+    }
+
+    /**
+     * Read operations (GetRowData, GetSpecificData) never change data on the backend.
+     *
+     * @return true for Get* operations
+     */
+    boolean isRead() {
+        return operation.startsWith("Get");
+    }
+
+    /**
+     * Identifies the backend table this request reads or modifies.
+     *
+     * @return "db{N}/{table}", e.g. "db6/ABC123"
+     */
+    String tableKey() {
+        return db + "/" + table;
+    }
+
+    /**
+     * Logical endpoint name, independent of table and filters.
+     *
+     * @return "db{N}/{Operation}", e.g. "db6/UpdateData"
+     */
+    public String toString() {
+        return db + "/" + operation;
+    }
+}
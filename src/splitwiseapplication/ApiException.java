@@ -0,0 +1,145 @@
+package splitwiseapplication;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Typed failure of a backend API call.
+ *
+ * Purpose:
+ * ApiCaller used to swallow every failure and hand back an empty array (or null),
+ * which callers could not tell apart from "no rows". A transient 502 halfway through
+ * a multi-step update therefore went unnoticed. ApiCaller now throws this exception
+ * instead, so callers can stop, report the problem and decide what to do.
+ *
+ * Contract:
+ * - Unchecked, so existing call sites compile unchanged
+ * - getReason() tells what went wrong (see Reason)
+ * - getStatusCode() is the HTTP status for HTTP_STATUS failures, otherwise 0
+ * - getEndpoint() names the logical endpoint, e.g. "db6/UpdateData"
+ *
+ * Retry and circuit breaker decisions (see RetryPolicy, CircuitBreaker) are based on
+ * isBackendFailure() and on whether the request can have reached the server.
+ */
+public class ApiException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Categories of failure.
+     */
+    public enum Reason {
+        /** Connection could not be established; the request never reached the server. */
+        CONNECT,
+        /** No response within the request timeout. */
+        TIMEOUT,
+        /** Connection failed after the request may have been sent. */
+        NETWORK,
+        /** Server answered with a non-2xx status code. */
+        HTTP_STATUS,
+        /** Request not sent because the backend is considered down (circuit open). */
+        CIRCUIT_OPEN,
+        /** Server answered 2xx but the body could not be parsed. */
+        MALFORMED_RESPONSE
+    }
+
+    private final Reason reason;
+    private final int statusCode;
+    private final String endpoint;
+
+    /**
+     * Creates an exception.
+     *
+     * @param reason      Failure category
+     * @param statusCode  HTTP status code, or 0 when there was no response
+     * @param endpoint    Logical endpoint name, e.g. "db6/UpdateData"
+     * @param message     Human-readable detail
+     * @param cause       Underlying exception, may be null
+     */
+    public ApiException(Reason reason, int statusCode, String endpoint, String message, Throwable cause) {
+        super(endpoint + ": " + message, cause);
+        this.reason = reason;
+        this.statusCode = statusCode;
+        this.endpoint = endpoint;
+    }
+
+    /**
+     * Classifies any exception thrown while sending a request or handling its response.
+     *
+     * @param error     Exception from HttpClient, the parser or a CompletableFuture stage
+     * @param endpoint  Endpoint the request was sent to
+     * @return          error itself if it already is an ApiException, otherwise a wrapping one
+     */
+    static ApiException from(Throwable error, ApiEndpoint endpoint) {
+        Throwable cause = unwrap(error);
+        if (cause instanceof ApiException) {
+            return (ApiException) cause;
+        }
+        String name = endpoint.toString();
+        if (cause instanceof HttpConnectTimeoutException || cause instanceof ConnectException) {
+            return new ApiException(Reason.CONNECT, 0, name, "could not connect to backend", cause);
+        }
+        if (cause instanceof HttpTimeoutException) {
+            return new ApiException(Reason.TIMEOUT, 0, name, "request timed out", cause);
+        }
+        if (cause instanceof IOException) {
+            return new ApiException(Reason.NETWORK, 0, name, "network error: " + cause.getMessage(), cause);
+        }
+        return new ApiException(Reason.MALFORMED_RESPONSE, 0, name, "invalid response: " + cause.getMessage(), cause);
+    }
+
+    /**
+     * Removes CompletableFuture wrappers around the real failure.
+     *
+     * @param error  Possibly wrapped exception
+     * @return       Innermost meaningful cause
+     */
+    static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException
+                || error instanceof UncheckedIOException) && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    /** @return Failure category */
+    public Reason getReason() {
+        return reason;
+    }
+
+    /** @return HTTP status code for HTTP_STATUS failures, otherwise 0 */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    /** @return Logical endpoint name, e.g. "db6/UpdateData" */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Failures that indicate the backend itself is unavailable or overloaded
+     * (as opposed to a bad request). These count towards opening the circuit breaker.
+     *
+     * @return true for CONNECT, TIMEOUT, NETWORK and 5xx responses
+     */
+    public boolean isBackendFailure() {
+        return reason == Reason.CONNECT || reason == Reason.TIMEOUT || reason == Reason.NETWORK
+                || (reason == Reason.HTTP_STATUS && statusCode >= 500);
+    }
+
+    /**
+     * Failures after which a write may nevertheless have been applied: the request
+     * can have reached the server and no error response says it was refused.
+     *
+     * @return true for TIMEOUT, NETWORK and MALFORMED_RESPONSE (a 2xx answer)
+     */
+    public boolean mayHaveBeenApplied() {
+        return reason == Reason.TIMEOUT || reason == Reason.NETWORK || reason == Reason.MALFORMED_RESPONSE;
+    }
+}
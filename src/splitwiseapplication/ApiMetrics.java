@@ -0,0 +1,283 @@
+package splitwiseapplication;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process metrics for backend API traffic.
+ *
+ * Purpose:
+ * Shows where the time goes. ApiCaller reports every call here, per logical
+ * endpoint ("db{N}/{Operation}", e.g. "db6/UpdateData"). The numbers show the
+ * latency distribution of each operation and which screens and methods send the
+ * most round trips.
+ *
+ * Recorded per endpoint (see EndpointStats):
+ * - calls      ApiCaller1/2/3 (or Async) invocations
+ * - cacheHits  Reads answered from the response cache
+ * - shared     Reads that joined an identical read already in flight
+ * - requests   HTTP round trips actually sent, including retries
+ * - retries    Failed round trips that were sent again (RetryPolicy)
+ * - errors     Failed round trips, plus calls rejected by an open circuit breaker
+ * - bytes      Response body bytes received
+ * - latency    Round-trip time of each request (LatencyHistogram)
+ *
+ * Recorded per caller:
+ * - Number of calls made by each application method ("Class.method"), found by
+ *   walking the stack of the calling thread past ApiCaller and Exists
+ *
+ * Usage:
+ * - ApiMetrics.endpoint("db6/UpdateData").percentileMillis(99)   query in-process
+ * - ApiMetrics.dump(System.out)                                 print a report
+ * - -Dsplitwise.metrics.dumpOnExit=true                         print the report to
+ *                                                               stderr when the JVM exits
+ *
+ * Thread safety:
+ * All counters are lock-free (LongAdder / atomic arrays); recording is safe from the
+ * EDT and from the HTTP client executor.
+ */
+public final class ApiMetrics {
+
+    private static final ConcurrentHashMap<String, EndpointStats> ENDPOINTS = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, LongAdder> CALLERS = new ConcurrentHashMap<>();
+
+    /** Walks the calling thread's stack to attribute calls to application methods. */
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    static {
+        if (Boolean.getBoolean("splitwise.metrics.dumpOnExit")) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> dump(System.err), "splitwise-metrics-dump"));
+        }
+    }
+
+    private ApiMetrics() {
+    }
+
+    /**
+     * Counters and latency distribution of one logical endpoint.
+     */
+    public static final class EndpointStats {
+
+        private final String name;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder cacheHits = new LongAdder();
+        private final LongAdder shared = new LongAdder();
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private EndpointStats(String name) {
+            this.name = name;
+        }
+
+        /** @return Endpoint name, e.g. "db6/UpdateData" */
+        public String getName() {
+            return name;
+        }
+
+        /** @return Number of ApiCaller invocations */
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        /** @return Reads answered from the response cache */
+        public long getCacheHits() {
+            return cacheHits.sum();
+        }
+
+        /** @return Reads that shared a request already in flight */
+        public long getShared() {
+            return shared.sum();
+        }
+
+        /** @return HTTP round trips sent, including retries */
+        public long getRequests() {
+            return requests.sum();
+        }
+
+        /** @return Failed round trips that were sent again */
+        public long getRetries() {
+            return retries.sum();
+        }
+
+        /** @return Failed round trips and calls rejected by the circuit breaker */
+        public long getErrors() {
+            return errors.sum();
+        }
+
+        /** @return Response body bytes received */
+        public long getBytes() {
+            return bytes.sum();
+        }
+
+        /**
+         * Round-trip latency percentile.
+         *
+         * @param percentile  0..100, e.g. 50 for the median
+         * @return            Latency in milliseconds, or 0 when no request was sent
+         */
+        public double percentileMillis(double percentile) {
+            return latency.percentile(percentile) / 1000.0;
+        }
+
+        /** @return Mean round-trip latency in milliseconds */
+        public double meanMillis() {
+            return latency.getMean() / 1000.0;
+        }
+
+        /** @return Slowest round trip in milliseconds */
+        public double maxMillis() {
+            return latency.getMax() / 1000.0;
+        }
+    }
+
+    /**
+     * Internal helper method - Returns the stats of an endpoint, creating them on first use.
+     */
+    private static EndpointStats stats(ApiEndpoint endpoint) {
+        return ENDPOINTS.computeIfAbsent(endpoint.toString(), EndpointStats::new);
+    }
+
+    /**
+     * Records one ApiCaller invocation and attributes it to the calling application method.
+     *
+     * @param endpoint  Endpoint being called
+     */
+    static void recordCall(ApiEndpoint endpoint) {
+        stats(endpoint).calls.increment();
+        CALLERS.computeIfAbsent(callerName(), key -> new LongAdder()).increment();
+    }
+
+    /** Records a read answered from the response cache. */
+    static void recordCacheHit(ApiEndpoint endpoint) {
+        stats(endpoint).cacheHits.increment();
+    }
+
+    /** Records a read that joined a request already in flight. */
+    static void recordShared(ApiEndpoint endpoint) {
+        stats(endpoint).shared.increment();
+    }
+
+    /**
+     * Records one HTTP round trip.
+     *
+     * @param endpoint      Endpoint the request was sent to
+     * @param elapsedNanos  Time from sending the request to receiving the response or error
+     * @param failed        true if the round trip failed (transport error or non-2xx)
+     */
+    static void recordRequest(ApiEndpoint endpoint, long elapsedNanos, boolean failed) {
+        EndpointStats stats = stats(endpoint);
+        stats.requests.increment();
+        stats.latency.record(elapsedNanos / 1000);
+        if (failed) {
+            stats.errors.increment();
+        }
+    }
+
+    /** Records a failed round trip that is about to be sent again. */
+    static void recordRetry(ApiEndpoint endpoint) {
+        stats(endpoint).retries.increment();
+    }
+
+    /** Records a call rejected without sending (circuit breaker open). */
+    static void recordRejected(ApiEndpoint endpoint) {
+        stats(endpoint).errors.increment();
+    }
+
+    /** Records received response body bytes. */
+    static void recordBytes(ApiEndpoint endpoint, long count) {
+        stats(endpoint).bytes.add(count);
+    }
+
+    /**
+     * Internal helper method - Finds the first application frame outside the API layer.
+     *
+     * @return "SimpleClassName.method", or "unknown" when called from outside the application
+     */
+    private static String callerName() {
+        return WALKER.walk(frames -> frames
+                .filter(frame -> {
+                    String className = frame.getClassName();
+                    return className.startsWith("splitwiseapplication.")
+                            && !className.equals(ApiCaller.class.getName())
+                            && !className.equals(ApiMetrics.class.getName())
+                            && !className.equals(Exists.class.getName());
+                })
+                .findFirst()
+                .map(frame -> {
+                    String className = frame.getClassName();
+                    return className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                })
+                .orElse("unknown"));
+    }
+
+    /**
+     * Stats of one endpoint.
+     *
+     * @param name  Endpoint name, e.g. "db5/GetRowData"
+     * @return      Live stats, or null if that endpoint has not been called
+     */
+    public static EndpointStats endpoint(String name) {
+        return ENDPOINTS.get(name);
+    }
+
+    /**
+     * Stats of every endpoint called so far.
+     *
+     * @return  Live stats sorted by endpoint name
+     */
+    public static List<EndpointStats> endpoints() {
+        List<EndpointStats> list = new ArrayList<>(new TreeMap<>(ENDPOINTS).values());
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Calls per application method, e.g. "AddTransaction.UpdatePABySplit" -> 23.
+     *
+     * @return  Snapshot sorted by caller name
+     */
+    public static Map<String, Long> callerCounts() {
+        TreeMap<String, Long> counts = new TreeMap<>();
+        CALLERS.forEach((caller, count) -> counts.put(caller, count.sum()));
+        return counts;
+    }
+
+    /**
+     * Forgets everything recorded so far (e.g. before measuring one user action).
+     */
+    public static void reset() {
+        ENDPOINTS.clear();
+        CALLERS.clear();
+    }
+
+    /**
+     * Prints a report: one line per endpoint, then the callers by number of calls.
+     *
+     * @param out  Stream to print to
+     */
+    public static void dump(PrintStream out) {
+        out.println(String.format("%-22s %7s %7s %6s %6s %6s %6s %10s %9s %9s %9s %9s",
+                "endpoint", "calls", "reqs", "cached", "shared", "retry", "errors", "bytes", "p50 ms", "p90 ms", "p99 ms", "max ms"));
+        for (EndpointStats stats : endpoints()) {
+            out.println(String.format("%-22s %7d %7d %6d %6d %6d %6d %10d %9.1f %9.1f %9.1f %9.1f",
+                    stats.getName(), stats.getCalls(), stats.getRequests(), stats.getCacheHits(),
+                    stats.getShared(), stats.getRetries(), stats.getErrors(), stats.getBytes(), stats.percentileMillis(50),
+                    stats.percentileMillis(90), stats.percentileMillis(99), stats.maxMillis()));
+        }
+
+        List<Map.Entry<String, Long>> callers = new ArrayList<>(callerCounts().entrySet());
+        callers.sort((a, b) -> Long.compare(b.getValue(), a.getValue()));
+        out.println("calls by caller:");
+        for (Map.Entry<String, Long> caller : callers) {
+            out.println(String.format("  %-40s %7d", caller.getKey(), caller.getValue()));
+        }
+    }
+}
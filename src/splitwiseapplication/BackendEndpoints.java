@@ -0,0 +1,321 @@
+package splitwiseapplication;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Registry of backend replicas that ApiCaller sends requests to.
+ *
+ * Purpose:
+ * Call sites no longer hard-code the backend host. They pass a path such as
+ * "/db5/GetRowData?table=ABC123", and ApiCaller resolves it here against one of
+ * the configured replicas. That lets the same build talk to the Railway backend,
+ * regional replicas or a local test backend.
+ *
+ * Routing:
+ * - Healthy replicas are preferred, lowest measured latency first (EWMA of recent
+ *   round trips and probes); replicas not measured yet are tried first
+ * - Replicas marked down are only used when no healthy replica is left, the one
+ *   that failed longest ago first
+ * - A replica whose CircuitBreaker is open is skipped, so a retry after a backend
+ *   failure goes to the next replica (failover)
+ * - Absolute URLs ("https://host/...") bypass routing and go to that host, with a
+ *   circuit breaker of its own
+ *
+ * Health probing:
+ * When more than one replica is configured, a daemon thread sends a GET of the probe
+ * path to every replica at a fixed interval. Any answer below 500 counts as healthy
+ * and updates the latency estimate; a 5xx or no answer marks the replica down.
+ *
+ * Configuration (JVM system properties, or the same keys in a properties file):
+ * - splitwise.backend.urls             Comma-separated base URLs
+ *                                      (default https://splitwise.up.railway.app)
+ * - splitwise.backend.probeIntervalMs  Probe interval (default 30000, 0 disables probing)
+ * - splitwise.backend.probePath        Path requested by probes (default "/")
+ * - splitwise.config                   Properties file to read (default splitwise.properties
+ *                                      in the working directory); system properties win
+ *
+ * Example splitwise.properties:
+ *   splitwise.backend.urls=https://eu.example.com, https://us.example.com
+ *   splitwise.backend.probeIntervalMs=15000
+ */
+final class BackendEndpoints {
+
+    /** Backend used when nothing is configured. */
+    static final String DEFAULT_URL = "https://splitwise.up.railway.app";
+
+    /** Weight of the newest sample in the latency average. */
+    private static final double EWMA_WEIGHT = 0.2;
+
+    private final List<Replica> replicas;
+    private final ConcurrentHashMap<String, Replica> direct = new ConcurrentHashMap<>();
+    private final String probePath;
+
+    /**
+     * One backend replica with its circuit breaker, latency estimate and health.
+     */
+    static final class Replica {
+
+        private final String baseUrl;
+        private final CircuitBreaker breaker = CircuitBreaker.fromSystemProperties();
+        private volatile double latencyNanos = -1;
+        private volatile boolean healthy = true;
+        private volatile long downSince;
+
+        private Replica(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        /** @return Base URL without trailing slash, e.g. "https://splitwise.up.railway.app" */
+        String getBaseUrl() {
+            return baseUrl;
+        }
+
+        /** @return Circuit breaker guarding this replica */
+        CircuitBreaker getBreaker() {
+            return breaker;
+        }
+
+        /**
+         * Builds the complete URL of a request.
+         *
+         * @param url  Path starting with "/" (resolved against this replica) or an absolute URL
+         * @return     Absolute URL
+         */
+        String resolve(String url) {
+            return url.startsWith("/") ? baseUrl + url : url;
+        }
+
+        /**
+         * Records a round trip that reached a working backend.
+         *
+         * @param elapsedNanos  Round-trip time
+         */
+        void onSuccess(long elapsedNanos) {
+            breaker.onSuccess();
+            recordLatency(elapsedNanos);
+            healthy = true;
+        }
+
+        /**
+         * Records a backend failure (connect, timeout, network error or 5xx).
+         */
+        void onFailure() {
+            breaker.onFailure();
+            markDown();
+        }
+
+        private void recordLatency(long elapsedNanos) {
+            double previous = latencyNanos;
+            latencyNanos = previous < 0 ? elapsedNanos : previous + EWMA_WEIGHT * (elapsedNanos - previous);
+        }
+
+        private void markDown() {
+            if (healthy) {
+                downSince = System.nanoTime();
+            }
+            healthy = false;
+        }
+
+        /** @return false after a backend failure, until a request or probe succeeds again */
+        boolean isHealthy() {
+            return healthy;
+        }
+
+        /** @return Latency estimate in milliseconds, or -1 before the first measurement */
+        double getLatencyMillis() {
+            double latency = latencyNanos;
+            return latency < 0 ? -1 : latency / 1_000_000.0;
+        }
+
+        public String toString() {
+            return baseUrl;
+        }
+    }
+
+    /**
+     * Creates a registry.
+     *
+     * @param baseUrls         Base URLs of the replicas (at least one)
+     * @param probePath        Path requested by health probes
+     * @param probeIntervalMs  Probe interval; probing only runs with more than one replica
+     * @param client           Client used for probes
+     */
+    BackendEndpoints(List<String> baseUrls, String probePath, long probeIntervalMs, HttpClient client) {
+        List<Replica> list = new ArrayList<>();
+        for (String baseUrl : baseUrls) {
+            list.add(new Replica(trimSlash(baseUrl)));
+        }
+        if (list.isEmpty()) {
+            list.add(new Replica(DEFAULT_URL));
+        }
+        this.replicas = Collections.unmodifiableList(list);
+        this.probePath = probePath.startsWith("/") ? probePath : "/" + probePath;
+
+        if (replicas.size() > 1 && probeIntervalMs > 0) {
+            ScheduledExecutorService prober = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "splitwise-backend-probe");
+                thread.setDaemon(true);
+                return thread;
+            });
+            prober.scheduleWithFixedDelay(() -> probeAll(client), 0, probeIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Creates the registry from system properties and the optional properties file.
+     *
+     * @param client  Client used for health probes
+     * @return        Configured registry
+     */
+    static BackendEndpoints fromConfiguration(HttpClient client) {
+        Properties file = new Properties();
+        Path path = Paths.get(System.getProperty("splitwise.config", "splitwise.properties"));
+        if (Files.isReadable(path)) {
+            try (InputStream in = Files.newInputStream(path)) {
+                file.load(in);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+        String urls = setting(file, "splitwise.backend.urls", DEFAULT_URL);
+        List<String> baseUrls = new ArrayList<>();
+        for (String url : urls.split(",")) {
+            if (!url.trim().isEmpty()) {
+                baseUrls.add(url.trim());
+            }
+        }
+        return new BackendEndpoints(baseUrls, setting(file, "splitwise.backend.probePath", "/"),
+                Long.parseLong(setting(file, "splitwise.backend.probeIntervalMs", "30000")), client);
+    }
+
+    /**
+     * Internal helper method - System property, else file entry, else default.
+     */
+    private static String setting(Properties file, String key, String defaultValue) {
+        String value = System.getProperty(key);
+        return value != null ? value : file.getProperty(key, defaultValue).trim();
+    }
+
+    /**
+     * Internal helper method - Removes trailing slashes from a base URL.
+     */
+    private static String trimSlash(String url) {
+        String trimmed = url.trim();
+        while (trimmed.endsWith("/")) {
+            trimmed = trimmed.substring(0, trimmed.length() - 1);
+        }
+        return trimmed;
+    }
+
+    /**
+     * Picks the replica for the next attempt of a request.
+     *
+     * Contract:
+     * - For a path, returns the best replica (see Routing) whose circuit breaker allows
+     *   a request; allowRequest() has been called on the returned replica's breaker
+     * - For an absolute URL, returns the replica of that URL's host under the same rule
+     * - Returns null when every candidate's breaker is open
+     *
+     * @param url  Path starting with "/" or absolute URL
+     * @return     Replica to send to, or null
+     */
+    Replica select(String url) {
+        if (!url.startsWith("/")) {
+            URI uri = URI.create(url);
+            Replica replica = direct.computeIfAbsent(uri.getScheme() + "://" + uri.getAuthority(), Replica::new);
+            return replica.breaker.allowRequest() ? replica : null;
+        }
+        for (Replica replica : candidates()) {
+            if (replica.breaker.allowRequest()) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Internal helper method - Replicas in routing order: healthy by latency
+     * (unmeasured first), then replicas that are down, longest down first.
+     */
+    private List<Replica> candidates() {
+        if (replicas.size() == 1) {
+            return replicas;
+        }
+        // Snapshot the volatile fields first so the order cannot change while sorting
+        int count = replicas.size();
+        boolean[] healthy = new boolean[count];
+        double[] latency = new double[count];
+        long[] downSince = new long[count];
+        List<Integer> order = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Replica replica = replicas.get(i);
+            healthy[i] = replica.healthy;
+            latency[i] = replica.latencyNanos;
+            downSince[i] = replica.downSince;
+            order.add(i);
+        }
+        order.sort((a, b) -> {
+            if (healthy[a] != healthy[b]) {
+                return healthy[a] ? -1 : 1;
+            }
+            return healthy[a] ? Double.compare(latency[a], latency[b]) : Long.compare(downSince[a], downSince[b]);
+        });
+        List<Replica> ordered = new ArrayList<>(count);
+        for (int index : order) {
+            ordered.add(replicas.get(index));
+        }
+        return ordered;
+    }
+
+    /**
+     * Internal helper method - Probes every replica once and waits for the answers.
+     */
+    private void probeAll(HttpClient client) {
+        List<CompletableFuture<Void>> probes = new ArrayList<>();
+        for (Replica replica : replicas) {
+            HttpRequest request = HttpRequest.newBuilder()
+                    .uri(URI.create(replica.baseUrl + probePath))
+                    .timeout(Duration.ofSeconds(10))
+                    .GET()
+                    .build();
+            long start = System.nanoTime();
+            probes.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, error) -> {
+                        if (error == null && response.statusCode() < 500) {
+                            replica.recordLatency(System.nanoTime() - start);
+                            replica.healthy = true;
+                        } else {
+                            replica.markDown();
+                        }
+                        return null;
+                    }));
+        }
+        for (CompletableFuture<Void> probe : probes) {
+            probe.join();
+        }
+    }
+
+    /** @return Configured replicas in configuration order (for diagnostics) */
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+}
@@ -0,0 +1,71 @@
+package splitwiseapplication;
+
+import java.util.List;
+
+/**
+ * How a group keeps its balances in db6.
+ *
+ * Purpose:
+ * Ledger derives balances from the db8 journal and keeps db6 as a stored copy. Two
+ * representations exist, chosen when the group is created:
+ * - PairwiseBalanceStore: one row per pair of members (n(n-1)/2 rows); JoinGroup adds
+ *   a row per existing member and an expense can touch up to n - 1 rows
+ * - NetBalanceStore: one row per member holding the member's position against the
+ *   whole group (n rows); joining adds one row, pairwise debts are planned on demand
+ *   with SettlementPlanner
+ *
+ * Contract:
+ * - Member indices are positions in Ledger.getMembers()
+ * - add() only changes memory; addWrites() reports the rows whose stored value
+ *   differs, markStored() records that they were written
+ * - Amounts are long cents (see Money)
+ * - Implementations are not thread-safe, like Ledger
+ */
+interface BalanceStore {
+
+    /**
+     * Records that debtor owes creditor more (a negative amount: less).
+     *
+     * @param creditor  Member index
+     * @param debtor    Member index, different from creditor
+     * @param cents     Amount in cents
+     */
+    void add(int creditor, int debtor, long cents);
+
+    /**
+     * @param member  Member index
+     * @return        Cents, positive when the group owes the member
+     */
+    long net(int member);
+
+    /**
+     * @param member  Member index
+     * @param other   Member index
+     * @return        Cents, positive when other owes member
+     */
+    long between(int member, int other);
+
+    /**
+     * @param member  Member index
+     * @return        true when the member has nothing to pay or receive
+     */
+    boolean isSettled(int member);
+
+    /**
+     * @return  Balances in the shape of db6 pair rows (positive Amount: Member2 owes Member1)
+     */
+    List<PendingAmountRow> pendingAmounts();
+
+    /**
+     * Appends the db6 writes that bring the stored rows in line with memory, each with
+     * the request that restores the stored value.
+     *
+     * @param changes  Change set being built by Ledger.changes()
+     */
+    void addWrites(ChangeSet changes);
+
+    /**
+     * Treats the current values as stored.
+     */
+    void markStored();
+}
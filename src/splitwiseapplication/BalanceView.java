@@ -0,0 +1,145 @@
+package splitwiseapplication;
+
+import java.util.List;
+
+/**
+ * Per-member balance summaries of a loaded Ledger, for CheckBalances.
+ *
+ * Purpose:
+ * CheckBalances used to walk every db6 row, find both members with List.indexOf()
+ * and append a line to each member's list, then concatenated a member's lines into
+ * HTML on every click. For a pairwise group that is n(n-1)/2 rows, each with two
+ * linear lookups, and a String per line per member before the screen could open.
+ * This view indexes the balances by member position (GroupRoster) and builds a
+ * member's summary only when it is first shown.
+ *
+ * Lines of a member m (same wording as before, whichever way a row is stored):
+ * - "[other] owes [amount] to [m]" when other owes m
+ * - "[m] owes [amount] to [other]" when m owes other
+ * - "Settled with [other]" for a pair with a zero balance
+ *
+ * Contract:
+ * - Pairwise layout: one line per other member, in roster order, read straight
+ *   from the ledger's balances; nothing is computed up front
+ * - Net layout: one line per planned transfer involving m (SettlementPlanner),
+ *   indexed by member once when the view is built; other members are not listed
+ * - html() is built with a StringBuilder on first use and kept
+ * - Built from a loaded ledger and never refreshed; html() is meant for the event
+ *   dispatch thread
+ *
+ * Usage:
+ *   BalanceView view = BalanceView.of(Ledger.load(gcode));   // background thread
+ *   label.setText(view.html(view.getRoster().indexOf(name)));
+ */
+final class BalanceView {
+
+    private final Ledger ledger;
+    private final GroupRoster roster;
+
+    /**
+     * Net layout only: transfers of member m are entries start[m] .. start[m + 1] - 1
+     * of others/amounts (amount > 0: the other member owes m); null for pairs.
+     */
+    private final int[] start;
+    private final int[] others;
+    private final long[] amounts;
+
+    /** Summary of each member, null until asked for. */
+    private final String[] html;
+
+    /**
+     * Internal helper method - Creates the view; see of().
+     */
+    private BalanceView(Ledger ledger, int[] start, int[] others, long[] amounts) {
+        this.ledger = ledger;
+        this.roster = ledger.getRoster();
+        this.start = start;
+        this.others = others;
+        this.amounts = amounts;
+        this.html = new String[roster.size()];
+    }
+
+    /**
+     * Indexes the balances of a ledger.
+     *
+     * @param ledger  Freshly loaded ledger
+     * @return        View of its balances
+     */
+    static BalanceView of(Ledger ledger) {
+        if (!ledger.hasNetBalances()) {
+            return new BalanceView(ledger, null, null, null);
+        }
+        GroupRoster roster = ledger.getRoster();
+        List<PendingAmountRow> transfers = ledger.pendingAmounts();
+        int n = roster.size();
+        int[] start = new int[n + 1];
+        for (PendingAmountRow row : transfers) {
+            start[roster.indexOf(row.getMember1()) + 1]++;
+            start[roster.indexOf(row.getMember2()) + 1]++;
+        }
+        for (int m = 0; m < n; m++) {
+            start[m + 1] += start[m];
+        }
+        int[] next = start.clone();
+        int[] others = new int[start[n]];
+        long[] amounts = new long[start[n]];
+        for (PendingAmountRow row : transfers) {
+            int m1 = roster.indexOf(row.getMember1());
+            int m2 = roster.indexOf(row.getMember2());
+            others[next[m1]] = m2;
+            amounts[next[m1]++] = row.getAmount();
+            others[next[m2]] = m1;
+            amounts[next[m2]++] = -row.getAmount();
+        }
+        return new BalanceView(ledger, start, others, amounts);
+    }
+
+    /** @return Members the view is indexed by */
+    GroupRoster getRoster() {
+        return roster;
+    }
+
+    /**
+     * Summary of one member for a JLabel.
+     *
+     * @param member  Position in getRoster()
+     * @return        "<html>• line<br>• line<br></html>"
+     */
+    String html(int member) {
+        if (html[member] == null) {
+            StringBuilder text = new StringBuilder("<html>");
+            String name = roster.getMembers().get(member);
+            if (start == null) {
+                for (int other = 0; other < roster.size(); other++) {
+                    if (other != member) {
+                        String otherName = roster.getMembers().get(other);
+                        line(text, name, otherName, ledger.balanceBetween(name, otherName));
+                    }
+                }
+            } else {
+                for (int k = start[member]; k < start[member + 1]; k++) {
+                    line(text, name, roster.getMembers().get(others[k]), amounts[k]);
+                }
+            }
+            html[member] = text.append("</html>").toString();
+        }
+        return html[member];
+    }
+
+    /**
+     * Internal helper method - Appends one line of a member's summary.
+     *
+     * @param cents  Positive when other owes member, negative when member owes other
+     */
+    private static void line(StringBuilder text, String member, String other, long cents) {
+        text.append("• ");
+        if (cents > 0) {
+            text.append(other).append(" owes ").append(Money.format(cents)).append(" to ").append(member);
+        } else if (cents < 0) {
+            text.append(member).append(" owes ").append(Money.format(-cents)).append(" to ").append(other);
+        } else {
+            text.append("Settled with ").append(other);
+        }
+        text.append("<br>");
+    }
+}
@@ -0,0 +1,118 @@
+package splitwiseapplication;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes that belong together and are submitted as one unit.
+ *
+ * Purpose:
+ * Saving an expense used to send the db5 history row, the db8 details row and every
+ * changed db6/db1 balance as separate requests, so "Transaction added" waited for many
+ * round trips and a failure halfway left the group half updated. A ChangeSet collects
+ * those writes (see Ledger.changes()) and submits them as a single POST /batch that the
+ * backend applies in one transaction.
+ *
+ * Contract:
+ * - Writes are request paths as ApiCaller2 takes them, kept in the order added
+ * - submit() with batch support: one round trip, all writes applied or none
+ * - Backend without a batch endpoint (404/405/501, see ApiCaller.isBatchUnsupported()):
+ *   remembered for the rest of the session, and the writes are sent as single requests,
+ *   all in flight together (every write targets a different row); if one of them fails,
+ *   the others are undone with the inverses given to add() (see OperationRunner)
+ * - Batching can be switched off with -Dsplitwise.http.batch=false
+ * - Not thread-safe while being filled; submit() may be called from any thread
+ *
+ * Usage:
+ *   ChangeSet changes = ledger.changes();
+ *   changes.submit();
+ */
+public final class ChangeSet {
+
+    /** Whether POST /batch is tried; cleared the first time the backend says it has none. */
+    private static volatile boolean batchSupported =
+            Boolean.parseBoolean(System.getProperty("splitwise.http.batch", "true"));
+
+    private final List<String> writes = new ArrayList<>();
+    private final List<String[]> inverses = new ArrayList<>();
+
+    /**
+     * @param write    Write request path ("/db{N}/{Operation}?...")
+     * @param inverse  Requests that undo the write, in order (none: nothing to undo)
+     * @return         This change set
+     */
+    public ChangeSet add(String write, String... inverse) {
+        writes.add(write);
+        inverses.add(inverse);
+        return this;
+    }
+
+    /**
+     * @param other  Change set whose writes (and inverses) are appended, in order
+     * @return       This change set
+     */
+    public ChangeSet addAll(ChangeSet other) {
+        writes.addAll(other.writes);
+        inverses.addAll(other.inverses);
+        return this;
+    }
+
+    /**
+     * Drops every write.
+     */
+    public void clear() {
+        writes.clear();
+        inverses.clear();
+    }
+
+    /** @return Writes in submission order (read-only view) */
+    public List<String> getWrites() {
+        return Collections.unmodifiableList(writes);
+    }
+
+    /** @return Number of writes */
+    public int size() {
+        return writes.size();
+    }
+
+    /** @return true when there is nothing to submit */
+    public boolean isEmpty() {
+        return writes.isEmpty();
+    }
+
+    /**
+     * Sends every write and waits until all of them are done.
+     *
+     * @return  Number of round trips (0 when empty, 1 when batched)
+     * @throws ApiException  When the batch or one of the single writes fails (single
+     *                       writes that succeeded are undone first)
+     */
+    public int submit() {
+        if (writes.isEmpty()) {
+            return 0;
+        }
+        if (writes.size() == 1) {
+            ApiCaller.ApiCaller2(writes.get(0));
+            return 1;
+        }
+        if (batchSupported) {
+            try {
+                ApiCaller.await(ApiCaller.ApiCallerBatchAsync(writes));
+                return 1;
+            } catch (ApiException e) {
+                if (!ApiCaller.isBatchUnsupported(e)) {
+                    throw e;
+                }
+                batchSupported = false;
+                System.err.println("Backend has no batch endpoint, sending writes one by one: " + e.getMessage());
+            }
+        }
+        OperationRunner runner = new OperationRunner("change set of " + writes.size() + " writes");
+        for (int i = 0; i < writes.size(); i++) {
+            runner.step(writes.get(i), inverses.get(i));
+        }
+        runner.runIndependent();
+        return writes.size();
+    }
+}
@@ -60,6 +60,7 @@ public class CheckAmountSpent implements ActionListener{
 	JButton back;
 	JTable expenditureTable;
 	DefaultTableModel tableModel;
+	JScrollPane scrollPane;
 	String[] columnNames = new String[3];
 	
 	/**
@@ -81,7 +82,9 @@ public class CheckAmountSpent implements ActionListener{
 	 *    - Adds padding border (20,50,20,50)
 	 * 
 	 * 2. DATA RETRIEVAL:
-	 *    - Queries db1 for all member balances
+	 *    - The table shows a "Loading..." row while db1 is queried in the
+	 *      background (ScreenLoader), so the frame appears right away
+	 *    - showSpending() then fills in all member balances
 	 *    - values array contains: [id, name, amount] for each member
 	 *    - First row typically "Total" showing group total
 	 * 
@@ -114,7 +117,8 @@ public class CheckAmountSpent implements ActionListener{
 	 * 
 	 * POST-CONDITIONS:
 	 * - Frame created but invisible (call runGUI() to display)
-	 * - Table populated with current member spending data
+	 * - Table populated with current member spending data once the
+	 *   background query completes
 	 * - Back button configured with action listener
 	 */
 	public CheckAmountSpent(String username, String groupcode) {
@@ -130,24 +134,15 @@ public class CheckAmountSpent implements ActionListener{
 		contentPane.setLayout(new BoxLayout(contentPane, BoxLayout.Y_AXIS));
 		contentPane.setBorder(BorderFactory.createEmptyBorder(20,50,20,50));
 		
-		values = new ArrayList<>(Arrays.asList(ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db1/GetRowData?table="+ gcode)));
-
         columnNames[0] = "Id";
 		columnNames[1] = "Name";
         columnNames[2] = "Amount Spent";
         
-		Object[][] rowData = new Object[values.size()][values.get(0).length];
-
-		for (int i = 1; i < values.size(); i++) {
-			rowData[i] = values.get(i);
-		}
-
-        tableModel = new DefaultTableModel(rowData, columnNames);
+        tableModel = new DefaultTableModel(new Object[][] { { "", ScreenLoader.LOADING, "" } }, columnNames);
         
 		expenditureTable = new JTable(tableModel);
-		JScrollPane scrollPane = new JScrollPane(expenditureTable);
-		int preferredTableHeight = expenditureTable.getPreferredSize().height + expenditureTable.getTableHeader().getPreferredSize().height;
-        scrollPane.setPreferredSize(new Dimension(expenditureTable.getPreferredSize().width + 40, preferredTableHeight + 3));
+		scrollPane = new JScrollPane(expenditureTable);
+		fitTable();
 		contentPane.add(scrollPane);
 
         
@@ -158,12 +153,58 @@ public class CheckAmountSpent implements ActionListener{
 		back.setAlignmentX(Component.CENTER_ALIGNMENT); 
 		contentPane.add(back);
 		
+		ScreenLoader.load(frame, "the amounts spent",
+				() -> ApiCaller.ApiCaller1("/db1/GetRowData?table="+ gcode), this::showSpending);
+		
 		frame.setContentPane(contentPane);
 		frame.pack();
 		frame.setVisible(false);
 		
 	}
 	
+	/**
+	 * showSpending - Fill the Table With the Fetched db1 Rows
+	 * 
+	 * PURPOSE:
+	 * Replaces the "Loading..." row once the db1 rows have arrived.
+	 * Called by ScreenLoader on the event dispatch thread.
+	 * 
+	 * @param rows The group's db1 rows, header row first
+	 * 
+	 * BEHAVIOR:
+	 * - Populates from index 1 (skips header row from API)
+	 * - Resizes the table to its content and packs the frame
+	 */
+	void showSpending(String[][] rows) {
+		
+		values = new ArrayList<>(Arrays.asList(rows));
+		
+		Object[][] rowData = new Object[values.size()][values.get(0).length];
+
+		for (int i = 1; i < values.size(); i++) {
+			rowData[i] = values.get(i);
+		}
+		
+		tableModel.setDataVector(rowData, columnNames);
+		fitTable();
+		frame.pack();
+		
+	}
+	
+	/**
+	 * fitTable - Size the Scroll Pane to the Table
+	 * 
+	 * PURPOSE:
+	 * Ensures all rows are visible without excessive white space.
+	 * Height: table height + header height; width: table width + 40 pixels.
+	 */
+	void fitTable() {
+		
+		int preferredTableHeight = expenditureTable.getPreferredSize().height + expenditureTable.getTableHeader().getPreferredSize().height;
+        scrollPane.setPreferredSize(new Dimension(expenditureTable.getPreferredSize().width + 40, preferredTableHeight + 3));
+		
+	}
+	
 	/**
 	 * actionPerformed - Handle User Actions (Back Button)
 	 * 
@@ -174,7 +215,7 @@ public class CheckAmountSpent implements ActionListener{
 	 * EVENT TYPES:
 	 * 
 	 * 1. "Back" - Return to Main Page
-	 *    - Creates MainPage instance with username and group code
+	 *    - Gets the group's MainPage from Navigator (kept between visits)
 	 *    - Shows MainPage screen
 	 *    - Disposes current frame
 	 * 
@@ -189,7 +230,7 @@ public class CheckAmountSpent implements ActionListener{
 		String eventName = event.getActionCommand();
 		
 		if (eventName.equals("Back")) {
-			MainPage mpage = new MainPage(uname,gcode);
+			MainPage mpage = Navigator.mainPage(uname,gcode);
 			mpage.runGUI();
 			frame.dispose();
 		} 
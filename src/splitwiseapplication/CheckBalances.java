@@ -4,7 +4,6 @@ import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
-import java.util.Arrays;
 import javax.swing.*;
 
 /**
@@ -34,22 +33,15 @@ import javax.swing.*;
  * 6. User can click Back to return to MainPage
  * 
  * BALANCE CALCULATION LOGIC:
- * For each payment record in db6:
- * - If Amount > 0:
- *   - Member2 owes Money to Member1
- *   - Add "[Member2] owes [Amount]" to Member1's info
- *   - Add "You owe [Amount] to [Member1]" to Member2's info
- * - If Amount < 0:
- *   - Member1 owes Money to Member2 (negative indicates reverse debt)
- *   - Convert to positive amount for display
- *   - Add "[Member1] owes [Amount]" to Member2's info
- *   - Add "You owe [Amount] to [Member2]" to Member1's info
- * - If Amount = 0: No debt between members (skip)
+ * For each balance between a member and another member:
+ * - Other member owes: "[Other] owes [Amount] to [Member]"
+ * - Member owes: "[Member] owes [Amount] to [Other]"
+ * - Zero (pairwise groups): "Settled with [Other]"
  * 
  * DATA STRUCTURE:
- * Uses Member_Info objects to store each member's balance information:
- * - name: Member's username
- * - members: ArrayList of balance strings (debts/receivables)
+ * Uses a BalanceView: balances indexed by member position (GroupRoster),
+ * with a member's HTML summary built on the first click and kept, so the
+ * screen opens without a pass over every pair of members
  * 
  * DATABASE QUERIES:
  * - db4.[GroupCode]: Fetch all member names
@@ -74,8 +66,8 @@ import javax.swing.*;
  * DESIGN PATTERN:
  * - Implements ActionListener for event handling
  * - Static frame pattern (single shared JFrame instance)
- * - Constructor builds UI and calculates balances, runGUI() displays it
- * - Uses Member_Info data class to organize balance information
+ * - Constructor builds UI and loads balances, runGUI() displays it
+ * - Uses BalanceView to index and summarize balances
  * 
  * @author Original Development Team
  */
@@ -84,14 +76,11 @@ public class CheckBalances implements ActionListener{
 	static JFrame frame;
 	JPanel contentPane;
 	String uname,gcode;
-	ArrayList<Member_Info> info = new ArrayList<Member_Info>();
-	Member_Info addMember;
-	ArrayList<String[]> PACombinations;
-	ArrayList<String> members;
-	ArrayList<String> memberValues = new ArrayList<String>();
+	BalanceView view;
+	GroupRoster roster;
 	JButton mmbrb, back;
 	ArrayList<JLabel> memberLabels = new ArrayList<JLabel>();
-	JLabel mmbrl;
+	JLabel mmbrl, loading;
 	
 	/**
 	 * Constructor - Initialize CheckBalances GUI and Calculate Debt Relationships
@@ -104,46 +93,33 @@ public class CheckBalances implements ActionListener{
 	 * - Stores username and group code
 	 * - Creates JFrame with title "Splitwise - Check Balances Page"
 	 * - Sets frame size to 300x500 pixels
-	 * - Fetches all group members from db4
-	 * - Creates Member_Info object for each member
-	 * - Creates button + label pair for each member
-	 * - Fetches all payment records from db6
-	 * - Calculates debt relationships from payment records
-	 * - Populates Member_Info objects with balance strings
+	 * - Shows "Loading..." and the Back button while the group's Ledger is
+	 *   loaded in the background (ScreenLoader); showMembers() then:
+	 * - Takes all group members from the ledger's roster
+	 * - Creates button + label pair for each member (the list scrolls)
 	 * - Configures frame but keeps invisible (runGUI() displays it)
+	 * - The ledger is indexed into a BalanceView in the background too;
+	 *   no balance text is built until a member is clicked
 	 * 
 	 * DEBT CALCULATION ALGORITHM:
-	 * For each row in db6 payment records (skip row 0 = headers):
-	 * 1. Extract: Member1 (column 1), Amount (column 2), Member2 (column 3)
-	 * 2. Parse Amount as double
-	 * 3. If Amount > 0:
-	 *    - Member2 owes Member1
-	 *    - Add "[Member2] owes [Amount]" to Member1's list
-	 *    - Add "You owe [Amount] to [Member1]" to Member2's list
-	 * 4. If Amount < 0:
-	 *    - Member1 owes Member2 (reverse direction)
-	 *    - Convert to positive: positiveAmount = -Amount
-	 *    - Add "[Member1] owes [positiveAmount]" to Member2's list
-	 *    - Add "You owe [positiveAmount] to [Member2]" to Member1's list
-	 * 5. If Amount = 0: Skip (no debt)
+	 * See BalanceView: for pairwise groups a member's lines come straight
+	 * from the ledger's balances (one per other member, O(1) each); for
+	 * net groups from the planned transfers, indexed by member once.
 	 * 
 	 * STRING TRIMMING:
 	 * All member names are trimmed to handle potential whitespace from database.
-	 * Critical for indexOf() lookups to work correctly.
+	 * Critical for the roster's name lookups to work correctly.
 	 * 
 	 * UI CONSTRUCTION:
 	 * For each member:
 	 * - Create JButton with member's name
 	 * - Create JLabel (empty initially)
 	 * - Add button and label to content pane
-	 * - Store in memberValues and memberLabels lists
-	 * 
-	 * DEBUG OUTPUT:
-	 * Prints members list and each Member2 value to System.out for debugging.
+	 * - Store the label in memberLabels, at the member's roster position
 	 * 
 	 * DATABASE QUERIES:
-	 * - db4.[GroupCode]: SELECT name - Get all group members
-	 * - db6.[GroupCode]: SELECT * - Get all payment records
+	 * - One Ledger.load(): db4, db5, db6, db8 and db1 read once, in parallel,
+	 *   off the event dispatch thread
 	 * 
 	 * @param usrname The logged-in user viewing balances
 	 * @param grpcode The group code for which to check balances
@@ -161,50 +137,49 @@ public class CheckBalances implements ActionListener{
 		contentPane.setLayout(new GridLayout(0, 1, 10, 5));
 		contentPane.setBorder(BorderFactory.createEmptyBorder(20,50,20,50));
 		
-		members = new ArrayList<>(Arrays.asList(ApiCaller.ApiCaller3("https://splitwise.up.railway.app/db4/GetSpecificData?val=name&table="+ grpcode)));
+		loading = new JLabel(ScreenLoader.LOADING);
+		contentPane.add(loading);
+		
+		back = new JButton("Back");
+		back.addActionListener(this);
+		back.setActionCommand("Back");
+		contentPane.add(back);
+		
+		ScreenLoader.load(frame, "the balances", () -> BalanceView.of(Ledger.load(grpcode)), this::showMembers);
+		
+		frame.setContentPane(new JScrollPane(contentPane));
+		frame.setVisible(false);
+		
+	}
+	
+	/**
+	 * showMembers - Add the Member Buttons Once the Ledger Has Loaded
+	 * 
+	 * PURPOSE:
+	 * Replaces the "Loading..." label with a button + label pair per member
+	 * and keeps the view whose balance strings are built on first click.
+	 * Called by ScreenLoader on the event dispatch thread.
+	 * 
+	 * @param balances The group's balances, loaded in the background
+	 */
+	void showMembers(BalanceView balances) {
 		
-		System.out.println(members);
+		view = balances;
+		roster = view.getRoster();
 		
-		for (String i: members) {
-			addMember = new Member_Info(i);
-			info.add(addMember);
+		contentPane.remove(loading);
+		contentPane.remove(back);
+		for (String i: roster.getMembers()) {
 			mmbrb = new JButton(i);
 			mmbrb.addActionListener(this);
 			mmbrb.setActionCommand(i);
-			memberValues.add(i);
 			mmbrl = new JLabel("");
 			memberLabels.add(mmbrl);
 			contentPane.add(mmbrb);
 			contentPane.add(mmbrl);
 		}
-		
-		back = new JButton("Back");
-		back.addActionListener(this);
-		back.setActionCommand("Back");
 		contentPane.add(back);
 		
-		PACombinations = new ArrayList<>(Arrays.asList(ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/GetRowData?table="+ grpcode)));
-		
-		for (int i = 1; i < PACombinations.size(); i++) {
-			String[] t = PACombinations.get(i);
-			System.out.println(t[3]);
-			double amount = Double.parseDouble(t[2]);
-			if (amount > 0) {
-				info.get(members.indexOf(t[1])).addMembers(t[3] + " owes " + amount + " to " + t[1]);
-				info.get(members.indexOf(t[3])).addMembers(t[3] + " owes " + amount + " to " + t[1]);
-			} else if (amount < 0) {
-				double positiveAmount = -amount;
-				info.get(members.indexOf(t[3])).addMembers(t[1] + " owes " + positiveAmount + " to " + t[3]);
-				info.get(members.indexOf(t[1])).addMembers(t[1] + " owes " + positiveAmount + " to " + t[3]);
-			} else{
-				info.get(members.indexOf(t[3])).addMembers("Settled with " + t[1]);
-				info.get(members.indexOf(t[1])).addMembers("Settled with " + t[3]);
-			}
-		}
-		
-		frame.setContentPane(contentPane);
-		frame.setVisible(false);
-		
 	}
 	
 	/**
@@ -217,13 +192,13 @@ public class CheckBalances implements ActionListener{
 	 * EVENT TYPES:
 	 * 
 	 * 1. "Back" - Navigate back to MainPage
-	 *    - Creates MainPage instance with username and group code
+	 *    - Gets the group's MainPage from Navigator (kept between visits)
 	 *    - Shows MainPage screen
 	 *    - Disposes current frame
 	 * 
 	 * 2. Member Button Click - Toggle balance display for specific member
 	 *    - Action command = member's name
-	 *    - Finds member's index in memberValues list
+	 *    - Finds member's index in the roster (O(1))
 	 *    - Gets corresponding label from memberLabels list
 	 *    - Checks if label is currently empty:
 	 *      - If empty: Populates label with member's balance details
@@ -237,8 +212,8 @@ public class CheckBalances implements ActionListener{
 	 * - Third click: Label empty again → Show balance again
 	 * 
 	 * MEMBER LOOKUP:
-	 * Uses indexOf() on memberValues to find position.
-	 * Position corresponds to both memberLabels and info lists.
+	 * Uses the ledger's GroupRoster to find the position in O(1).
+	 * Position corresponds to memberLabels and to the BalanceView.
 	 * 
 	 * @param event The ActionEvent containing the action command
 	 */
@@ -247,17 +222,17 @@ public class CheckBalances implements ActionListener{
 		String eventName = event.getActionCommand();
 		
 		if (eventName.equals("Back")) {
-			MainPage mpage = new MainPage(uname,gcode);
+			MainPage mpage = Navigator.mainPage(uname,gcode);
 			mpage.runGUI();
 			frame.dispose();
 		} else {
-			int t = memberValues.indexOf(eventName);
+			int t = roster.indexOf(eventName);
 			String lText = memberLabels.get(t).getText();
 			
 			if (lText.equals("")) {
-				memberLabels.get(t).setText(getString(info.get(t)));
+				memberLabels.get(t).setText(getString(t));
 			} else {
-				memberLabels.get(memberValues.indexOf(eventName)).setText("");
+				memberLabels.get(t).setText("");
 			}
 		}
 		
@@ -267,54 +242,26 @@ public class CheckBalances implements ActionListener{
 	 * getString - Format Member Balance Details as HTML
 	 * 
 	 * PURPOSE:
-	 * Converts Member_Info object into formatted HTML string for display in JLabel.
-	 * Generates a visual summary of balances for a specific member.
+	 * Returns the HTML summary of one member for display in JLabel.
 	 * 
 	 * HTML FORMATTING:
 	 * - Wraps entire content in <html> tags for JLabel rendering
 	 * - Each balance entry on separate line using <br>
-	 * - Format: "• Member Name = Amount"
 	 * - Bullet point (•) used as visual indicator
 	 * 
-	 * POSITIVE vs NEGATIVE AMOUNTS:
-	 * - Positive amount: Member owes others money
-	 *   Example: "• John = 50.0" means this member owes John $50
-	 * 
-	 * - Negative amount: Member is owed money by others
-	 *   Example: "• Jane = -30.0" means Jane owes this member $30
-	 * 
-	 * ZERO BALANCES:
-	 * - Zero amounts included in display
-	 * - Indicates settled/no interaction between members
-	 * 
-	 * DATA SOURCE:
-	 * - Member_Info object contains:
-	 *   - info: List of member names
-	 *   - value: List of balance amounts
-	 *   - Both lists are parallel (same index = same member)
-	 * 
 	 * OUTPUT EXAMPLE:
-	 * <html>• Alice = 100.0<br>• Bob = -50.0<br>• Charlie = 0.0</html>
+	 * <html>• Bob owes 50.00 to Alice<br>• Settled with Charlie<br></html>
 	 * 
-	 * ITERATION:
-	 * - Loops through getMembers() which returns formatted strings
-	 * - Each string already includes member name and amount
-	 * - Adds bullet and line break for each entry
+	 * PERFORMANCE:
+	 * Built by BalanceView with a StringBuilder on the member's first click
+	 * and kept, so toggling a label never formats it again.
 	 * 
-	 * @param pinformation The Member_Info object containing member names and balances
+	 * @param member The member's position in the roster (and memberLabels)
 	 * @return HTML-formatted string displaying all balance relationships
 	 */
-	public String getString(Member_Info pinformation) {
-		
-		String returnString = "<html>";
-		
-		for (String i: pinformation.getMembers()) {
-			returnString += "• " + i + "<br>";
-		}
-
-		returnString += "</html>";
+	public String getString(int member) {
 		
-		return returnString;
+		return view.html(member);
 		
 	}
 	
@@ -0,0 +1,114 @@
+package splitwiseapplication;
+
+/**
+ * Circuit breaker for one backend replica (see BackendEndpoints).
+ *
+ * Purpose:
+ * When the backend is down every request waits for the full connect or request
+ * timeout, and a screen that needs ten calls freezes for ten timeouts. After a run of
+ * consecutive backend failures the breaker "opens" and ApiCaller fails further calls
+ * to that host immediately with ApiException.Reason.CIRCUIT_OPEN.
+ *
+ * States:
+ * - CLOSED     Normal operation; consecutive backend failures are counted
+ * - OPEN       Entered after failureThreshold consecutive failures; every call is
+ *              rejected until openMillis have passed
+ * - HALF_OPEN  After the open period one trial call is let through; success closes
+ *              the breaker, failure opens it again for another period
+ *
+ * Contract:
+ * - Only backend failures (ApiException.isBackendFailure()) count; a 4xx answer means
+ *   the backend is up and resets the count like a success
+ * - Call allowRequest() before sending and exactly one of onSuccess()/onFailure()
+ *   after every call that was allowed
+ *
+ * Configuration (JVM system properties, all optional):
+ * - splitwise.breaker.failureThreshold   Consecutive failures before opening (default 5)
+ * - splitwise.breaker.openMs             Time the breaker stays open (default 10000)
+ *
+ * Thread safety:
+ * All methods are synchronized.
+ */
+final class CircuitBreaker {
+
+    /** Breaker state, see class notes. */
+    enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    /**
+     * Creates a closed breaker.
+     *
+     * @param failureThreshold  Consecutive backend failures before opening
+     * @param openMillis        Time the breaker stays open before allowing a trial call
+     */
+    CircuitBreaker(int failureThreshold, long openMillis) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = Math.max(0, openMillis) * 1_000_000L;
+    }
+
+    /**
+     * Creates a breaker configured from the splitwise.breaker.* system properties.
+     *
+     * @return  Closed breaker
+     */
+    static CircuitBreaker fromSystemProperties() {
+        return new CircuitBreaker(Integer.getInteger("splitwise.breaker.failureThreshold", 5),
+                Long.getLong("splitwise.breaker.openMs", 10000));
+    }
+
+    /**
+     * Decides whether a call may be sent now.
+     *
+     * @return  false while the breaker is open (or a half-open trial is already running)
+     */
+    synchronized boolean allowRequest() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            trialInFlight = false;
+        }
+        if (state == State.HALF_OPEN) {
+            if (trialInFlight) {
+                return false;
+            }
+            trialInFlight = true;
+        }
+        return true;
+    }
+
+    /**
+     * Records a call that reached a working backend.
+     */
+    synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        trialInFlight = false;
+        state = State.CLOSED;
+    }
+
+    /**
+     * Records a backend failure; opens the breaker when the threshold is reached
+     * or when a half-open trial fails.
+     */
+    synchronized void onFailure() {
+        consecutiveFailures++;
+        trialInFlight = false;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+        }
+    }
+
+    /** @return Current state (for diagnostics) */
+    synchronized State getState() {
+        return state;
+    }
+}
@@ -17,6 +17,7 @@ import java.util.Random;
  * 
  * FUNCTIONALITY:
  * - Accepts group name input from user
+ * - Lets the user choose how balances are kept (pair rows or net rows in db6)
  * - Generates unique 7-character alphanumeric group code
  * - Validates code uniqueness against existing groups
  * - Creates all necessary database tables (5 tables across db1, db4, db5, db6, db8)
@@ -44,7 +45,8 @@ import java.util.Random;
  * DATABASE TABLES CREATED:
  * - db4.[GroupCode]: Group members table
  * - db5.[GroupCode]: Payment history/transactions table
- * - db6.[GroupCode]: Payment permissions/debts table
+ * - db6.[GroupCode]: Payment permissions/debts table (pairs, or one net row
+ *   per member when "Net balances" is ticked, see NetBalanceStore)
  * - db1.[GroupCode]: Balance tracking table
  * - db8.[GroupCode]: Expense splitting/tracking table
  * 
@@ -80,6 +82,7 @@ public class CreateGroup implements ActionListener{
 	JPanel contentPane;
 	JLabel createPrompt,displayCode;
 	JTextField createGroup;
+	JCheckBox netBalances;
 	JButton enterButton,backButton;
 	ArrayList<String> groups = new ArrayList<String>();
 	String uname, code;
@@ -97,15 +100,18 @@ public class CreateGroup implements ActionListener{
 	 * - Creates label prompting for group name
 	 * - Creates text field for name input (Enter key submits)
 	 * - Creates Back button for navigation
+	 * - Creates "Net balances" checkbox (unticked: one db6 row per pair of
+	 *   members; ticked: one db6 row per member, pairs planned on demand)
 	 * - Configures frame but keeps it invisible (runGUI() displays it)
 	 * 
 	 * UI LAYOUT:
 	 * Initially shows:
 	 * [Label: "Enter the name of the new group"] [TextField] [Back Button]
+	 * [Checkbox: "Net balances"]
 	 * 
 	 * After group creation:
 	 * [Label] [TextField] [Back Button]
-	 * [Label: "The group code is: XXXXXXX"] [Enter Button] [Empty]
+	 * [Checkbox] [Label: "The group code is: XXXXXXX"] [Enter Button]
 	 * 
 	 * @param username The username of the logged-in user creating the group
 	 */
@@ -133,6 +139,10 @@ public class CreateGroup implements ActionListener{
 		 backButton.setActionCommand("Back");
 		 contentPane.add(backButton);
 		 
+		 netBalances = new JCheckBox("Net balances");
+		 netBalances.setToolTipText("Keep one balance per member instead of one per pair of members");
+		 contentPane.add(netBalances);
+		 
 		 /* Add content pane to frame */
 		 frame.setContentPane(contentPane);
 		 /* Size and then display the frame. */
@@ -152,7 +162,7 @@ public class CreateGroup implements ActionListener{
 	 * 
 	 * 1. "Enter" - Navigate to the newly created group
 	 *    - Gets group code from stored variable
-	 *    - Creates MainPage with username and group code
+	 *    - Gets the group's MainPage from Navigator (kept between visits)
 	 *    - Shows MainPage screen
 	 *    - Disposes current frame
 	 * 
@@ -160,6 +170,7 @@ public class CreateGroup implements ActionListener{
 	 *    - Gets group name from text field
 	 *    - Calls createCode() to generate unique 7-character code
 	 *    - Calls AddNewGroup() to create all database tables and records
+	 *      (on failure: error dialog, the user can press Enter again)
 	 *    - Displays generated code to user
 	 *    - Creates "Enter" button to join the group
 	 *    - Changes text field action to "Group Created" (prevents re-creation)
@@ -180,7 +191,7 @@ public class CreateGroup implements ActionListener{
 		
 		if (eventName.equals("Enter") == true) {
 			String gname = createGroup.getText();
-			MainPage mpage = new MainPage(uname,code);
+			MainPage mpage = Navigator.mainPage(uname,code);
 			mpage.runGUI();
 			frame.dispose();
 		} else if ((eventName.equals("Create New Group") == true)){
@@ -188,7 +199,14 @@ public class CreateGroup implements ActionListener{
 			
 			code = createCode();
 			
-			AddNewGroup(code,text);
+			try {
+				AddNewGroup(code,text,netBalances.isSelected());
+			} catch (ApiException e) {
+				e.printStackTrace();
+				JOptionPane.showMessageDialog(frame, "The group could not be created, please try again.\n" + e.getMessage(), "Splitwise", JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+			netBalances.setEnabled(false);
 			
 			displayCode = new JLabel("The group code is: " + code);
 			enterButton = new JButton("Enter");
@@ -217,7 +235,7 @@ public class CreateGroup implements ActionListener{
 	 * 
 	 * BEHAVIOR:
 	 * - Generates random 7-character string from alphanumeric characters
-	 * - Validates uniqueness against db3.group_list
+	 * - Validates uniqueness against db3.GroupNames
 	 * - Regenerates if collision detected (do-while loop)
 	 * - Returns unique code when found
 	 * 
@@ -234,13 +252,15 @@ public class CreateGroup implements ActionListener{
 	 * 2. Loop 7 times:
 	 *    - Generate random index (0 to 61)
 	 *    - Append character at that index
-	 * 3. Check if code exists in db3.group_list
+	 * 3. Check if code exists in db3.GroupNames
 	 * 4. If exists, repeat from step 1
 	 * 5. Return unique code
 	 * 
 	 * VALIDATION:
-	 * Uses Exists.exist() with db3.group_list query.
-	 * Continues loop until a non-existing code is found.
+	 * Uses Exists.exist() with a db3.GroupNames query.
+	 * Continues loop while the generated code is already taken.
+	 * A failed lookup throws ApiException instead of being mistaken
+	 * for a free code.
 	 * 
 	 * USAGE:
 	 * Called by actionPerformed() when creating a new group.
@@ -260,7 +280,7 @@ public class CreateGroup implements ActionListener{
 	            int index = random.nextInt(characters.length());
 	            newcode += characters.charAt(index);
 	        }
-		} while (Exists.exist("https://splitwise.up.railway.app/db3/GetRowData?table=group_list&group_code=" + newcode) == false);
+		} while (Exists.exist("/db3/GetRowData?table=GroupNames&group_code=" + newcode));
 		return newcode;
 		
 	}
@@ -274,7 +294,10 @@ public class CreateGroup implements ActionListener{
 	 * essential records including the group registry and creator membership.
 	 * 
 	 * BEHAVIOR:
-	 * Executes database operations in two phases:
+	 * Executes database operations in two phases, as one OperationRunner: if
+	 * a step fails, the records already inserted are deleted again in reverse
+	 * order, so no half-created group is left behind. Tables cannot be
+	 * dropped through the API; they stay empty under an unregistered code.
 	 * 
 	 * PHASE 1: Create Tables (5 tables)
 	 * 1. db4.[GroupCode] - Group members table
@@ -296,22 +319,27 @@ public class CreateGroup implements ActionListener{
 	 *            [username] (DECIMAL 10,2 NOT NULL)
 	 *    Note: Creates column for group creator immediately
 	 * 
-	 * PHASE 2: Insert Initial Records (5 inserts)
-	 * 1. db3.GroupNames - Register group globally
-	 *    INSERT: (group_name, group_code)
-	 * 
-	 * 2. db4.[GroupCode] - Add creator as first member
+	 * PHASE 2: Insert Initial Records (5 inserts, 6 with net balances)
+	 * 1. db4.[GroupCode] - Add creator as first member
 	 *    INSERT: (name) VALUES (username)
 	 * 
-	 * 3. db7.[Username] - Add group to creator's group list
-	 *    INSERT: (GroupID, GroupName)
-	 * 
-	 * 4. db1.[GroupCode] - Create "Total" balance tracker
+	 * 2. db1.[GroupCode] - Create "Total" balance tracker
 	 *    INSERT: (Name, Amount) VALUES ('Total', 0)
 	 * 
-	 * 5. db1.[GroupCode] - Create creator's balance record
+	 * 3. db1.[GroupCode] - Create creator's balance record
 	 *    INSERT: (Name, Amount) VALUES (username, 0)
 	 * 
+	 * 4. db6.[GroupCode] - Only with net balances: creator's net row
+	 *    INSERT: (Member1, Amount, Member2) VALUES (username, 0, '*group*')
+	 *    This row is how the group is recognised as a net balance group
+	 * 
+	 * 5. db7.[Username] - Add group to creator's group list
+	 *    INSERT: (GroupID, GroupName)
+	 * 
+	 * 6. db3.GroupNames - Register group globally
+	 *    INSERT: (group_name, group_code)
+	 *    Last, so the code only becomes joinable once everything else exists
+	 * 
 	 * CRITICAL DETAILS:
 	 * - All tables use INT AUTO_INCREMENT PRIMARY KEY for id column
 	 * - Amount fields use DECIMAL(10,2) for precise currency handling
@@ -327,20 +355,31 @@ public class CreateGroup implements ActionListener{
 	 * 
 	 * @param gcode The unique 7-character group code
 	 * @param gname The group name entered by the user
+	 * @param net true to keep one net balance row per member in db6
 	 */
-	public void AddNewGroup(String gcode, String gname) {
+	public void AddNewGroup(String gcode, String gname, boolean net) {
 		
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db4/CreateTable?table="+gcode+"&columns=id%20INT%20AUTO_INCREMENT%20PRIMARY%20KEY,%20name%20VARCHAR(100)%20NOT%20NULL");
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db5/CreateTable?table="+gcode+"&columns=id%20INT%20AUTO_INCREMENT%20PRIMARY%20KEY%2C%20Payee%20VARCHAR(100)%20NOT%20NULL%2C%20Amount%20DECIMAL(10%2C2)%20NOT%20NULL%2C%20Reason%20VARCHAR(100)%20NOT%20NULL%2C%20TType%20INT%20NOT%20NULL%2C%20tID%20VARCHAR(100)%20COLLATE%20utf8mb4_bin%20NOT%20NULL");
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/CreateTable?table="+gcode+"&columns=id%20INT%20AUTO_INCREMENT%20PRIMARY%20KEY,%20Member1%20VARCHAR(100)%20NOT%20NULL,%20Amount%20DECIMAL(10%2C2)%20NOT%20NULL,%20Member2%20VARCHAR(100)%20NOT%20NULL");
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db1/CreateTable?table="+gcode+"&columns=id%20INT%20AUTO_INCREMENT%20PRIMARY%20KEY,%20Name%20VARCHAR(100)%20NOT%20NULL,%20Amount%20DECIMAL(10%2C2)%20NOT%20NULL");
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db8/CreateTable?table="+gcode+"&columns=id%20INT%20AUTO_INCREMENT%20PRIMARY%20KEY,%20Creator%20VARCHAR(100)%20,%20tID%20VARCHAR(100)%20COLLATE%20utf8mb4_bin,"+uname+"%20DECIMAL(10%2C2)%20NOT%20NULL");
+		OperationRunner create = new OperationRunner("creating group " + gcode);
+		create.step("/db4/CreateTable?table="+gcode+"&columns=id%20INT%20AUTO_INCREMENT%20PRIMARY%20KEY,%20name%20VARCHAR(100)%20NOT%20NULL");
+		create.step("/db5/CreateTable?table="+gcode+"&columns=id%20INT%20AUTO_INCREMENT%20PRIMARY%20KEY%2C%20Payee%20VARCHAR(100)%20NOT%20NULL%2C%20Amount%20DECIMAL(10%2C2)%20NOT%20NULL%2C%20Reason%20VARCHAR(100)%20NOT%20NULL%2C%20TType%20INT%20NOT%20NULL%2C%20tID%20VARCHAR(100)%20COLLATE%20utf8mb4_bin%20NOT%20NULL");
+		create.step("/db6/CreateTable?table="+gcode+"&columns=id%20INT%20AUTO_INCREMENT%20PRIMARY%20KEY,%20Member1%20VARCHAR(100)%20NOT%20NULL,%20Amount%20DECIMAL(10%2C2)%20NOT%20NULL,%20Member2%20VARCHAR(100)%20NOT%20NULL");
+		create.step("/db1/CreateTable?table="+gcode+"&columns=id%20INT%20AUTO_INCREMENT%20PRIMARY%20KEY,%20Name%20VARCHAR(100)%20NOT%20NULL,%20Amount%20DECIMAL(10%2C2)%20NOT%20NULL");
+		create.step("/db8/CreateTable?table="+gcode+"&columns=id%20INT%20AUTO_INCREMENT%20PRIMARY%20KEY,%20Creator%20VARCHAR(100)%20,%20tID%20VARCHAR(100)%20COLLATE%20utf8mb4_bin,"+uname+"%20DECIMAL(10%2C2)%20NOT%20NULL");
 		
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db3/InsertData?table=GroupNames&params=(group_name,group_code)&info=('" + gname + "','" + gcode + "')");
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db4/InsertData?table="+gcode+"&params=(name)&info=('" + uname + "')");
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db7/InsertData?table="+uname+"&params=(GroupID,GroupName)&info=('" + gcode + "','" + gname + "')");
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db1/InsertData?table="+gcode+"&params=(Name,Amount)&info=('Total',0)");
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db1/InsertData?table="+gcode+"&params=(Name,Amount)&info=('" + uname + "',0)");
+		create.step("/db4/InsertData?table="+gcode+"&params=(name)&info=('" + uname + "')",
+				"/db4/DeleteRowData?table="+gcode+"&name="+uname);
+		create.step("/db1/InsertData?table="+gcode+"&params=(Name,Amount)&info=('Total',0)",
+				"/db1/DeleteRowData?table="+gcode+"&Name=Total");
+		create.step("/db1/InsertData?table="+gcode+"&params=(Name,Amount)&info=('" + uname + "',0)",
+				"/db1/DeleteRowData?table="+gcode+"&Name="+uname);
+		if (net) {
+			create.step(NetBalanceStore.insertRow(gcode, uname, 0),
+					"/db6/DeleteRowData?table="+gcode+"&Member1="+uname);
+		}
+		create.step("/db7/InsertData?table="+uname+"&params=(GroupID,GroupName)&info=('" + gcode + "','" + gname + "')",
+				"/db7/DeleteRowData?table="+uname+"&GroupID="+gcode);
+		create.step("/db3/InsertData?table=GroupNames&params=(group_name,group_code)&info=('" + gname + "','" + gcode + "')");
+		create.run();
 		
 	}
 	
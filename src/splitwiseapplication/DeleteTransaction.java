@@ -59,7 +59,7 @@ public class DeleteTransaction implements ActionListener{
 	JList<String> transactionList;
 	JScrollPane scrollPane;
 	String uname,gcode;
-	String[][] info;
+	PaymentHistoryModel history;
 	JButton delete,back;
 	
 	/**
@@ -80,8 +80,12 @@ public class DeleteTransaction implements ActionListener{
 	 *    - Sets up list panel and button panel
 	 * 
 	 * 2. DATA RETRIEVAL:
-	 *    - Queries db5 for all transactions in group
-	 *    - info array contains: [id, payee, amount, reason, type, tid]
+	 *    - The list shows "Loading..." while db5 is queried in the background
+	 *      (ScreenLoader), so the frame appears right away
+	 *    - The rows stream into a PaymentHistoryModel, which keeps expenses
+	 *      (type 0) and payments (type 1) in list order; "left the group"
+	 *      entries cannot be deleted and are not listed
+	 *    - Rows reach the list page by page and are formatted only when shown
 	 * 
 	 * 3. TRANSACTION FORMATTING:
 	 *    For each transaction, creates user-friendly description:
@@ -114,7 +118,7 @@ public class DeleteTransaction implements ActionListener{
 	 * 
 	 * POST-CONDITIONS:
 	 * - Frame created but invisible (call runGUI() to display)
-	 * - Transaction list populated with all group transactions
+	 * - Transaction list filled page by page while the query streams in
 	 * - Buttons configured with action listeners
 	 */
 	public DeleteTransaction(String username, String code) {
@@ -128,24 +132,10 @@ public class DeleteTransaction implements ActionListener{
 		listPanel = new JPanel();
 		listPanel.setBorder(BorderFactory.createEmptyBorder(20,50,20,50));
 		
-		info = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db5/GetRowData?table="+ gcode);
-		
-		String[] data;
-		if (info.length!= 0) {
-			data = new String[info.length];
-			for (int i = 0; i < info.length; i++) {
-				if (info[i][4].equals("0")) {
-					data[i] = info[i][1] + " added a payment of $"+info[i][2] + " for " + info[i][3];
-				} else if (info[i][4].equals("1")){
-					data[i] = info[i][1] + " paid $" + info[i][2] + " to " + info[i][3];
-				}
-			}
-		} else {
-			data = new String[1];
-			data[0]="No transactions Yet";
-		}
-		
-		transactionList = new JList<>(data);
+		history = PaymentHistoryModel.deletable();
+		transactionList = new JList<>();
+		PaymentHistoryModel.install(transactionList, history);
+		ScreenLoader.load(frame, "the transactions", () -> ApiCaller.await(history.load(gcode)), loaded -> { });
 		
 		scrollPane = new JScrollPane(transactionList);
 		scrollPane.setPreferredSize(new Dimension(250, 200));
@@ -188,15 +178,15 @@ public class DeleteTransaction implements ActionListener{
 	 * EVENT TYPES:
 	 * 
 	 * 1. "delete" - Delete Selected Transaction
-	 *    - Gets selected index from transactionList
-	 *    - Retrieves transaction info from info array
-	 *    - Calls Repay() to reverse balance changes
-	 *    - Deletes transaction from db5 (transaction history)
-	 *    - Deletes transaction from db8 (transaction details)
+	 *    - Gets selected index from transactionList (nothing selected: just
+	 *      returns to MainPage)
+	 *    - Retrieves the PaymentHistoryRow at that index from the model
+	 *    - Calls Repay() to reverse balance changes and delete the transaction
+	 *      from db5 (transaction history) and db8 (transaction details)
 	 *    - Proceeds to MainPage (both events lead here)
 	 * 
 	 * 2. "back" - Return to Main Page
-	 *    - Creates MainPage instance
+	 *    - Gets the group's MainPage from Navigator (kept between visits)
 	 *    - Shows MainPage
 	 *    - Disposes current frame
 	 * 
@@ -204,72 +194,64 @@ public class DeleteTransaction implements ActionListener{
 	 * After deletion, always navigates to MainPage regardless of which
 	 * button was clicked (delete or back).
 	 * 
-	 * TRANSACTION INFO ARRAY:
-	 * - [0]: id
-	 * - [1]: payee (who created transaction)
-	 * - [2]: amount
-	 * - [3]: reason (or recipient for Type 1)
-	 * - [4]: type (0=expense, 1=payment)
-	 * - [5]: tid (transaction ID)
+	 * TRANSACTION INFO (PaymentHistoryRow):
+	 * - getPayee(): who created transaction
+	 * - getAmount(): amount in cents
+	 * - getReason(): reason (or recipient for Type 1)
+	 * - getType(): 0=expense, 1=payment
+	 * - getTid(): transaction ID
 	 * 
 	 * @param event The ActionEvent containing the action command
 	 */
 	public void actionPerformed(ActionEvent event) {
-			
-		String eventName = event.getActionCommand();
 		
-		if (eventName.equals("delete")) {
-			int sIndex = transactionList.getSelectedIndex();
-			String[] transactionInfo = info[sIndex];
-			System.out.println(transactionInfo[0]);
-			Repay(transactionInfo);
-			String val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db5/DeleteRowData?table=" + gcode + "&tID="+transactionInfo[5]);
-			val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db8/DeleteRowData?table=" + gcode + "&tID="+transactionInfo[5]);
+		try {
+			String eventName = event.getActionCommand();
+		
+			if (eventName.equals("delete")) {
+				int sIndex = transactionList.getSelectedIndex();
+				PaymentHistoryRow transactionInfo = history.getRow(sIndex);
+				if (transactionInfo != null) {
+					Repay(transactionInfo);
+				}
 
+			}
+		
+			MainPage mpage = Navigator.mainPage(uname,gcode);
+			mpage.runGUI();
+			frame.dispose();
+		} catch (ApiException e) {
+			e.printStackTrace();
+			JOptionPane.showMessageDialog(frame, "The transaction could not be deleted.\n" + e.getMessage(), "Splitwise", JOptionPane.ERROR_MESSAGE);
 		}
 		
-		MainPage mpage = new MainPage(uname,gcode);
-		mpage.runGUI();
-		frame.dispose();
-	
 	}
 	
 	/**
-	 * Repay - Reverse Transaction Effects on Balances
+	 * Repay - Reverse Transaction Effects and Delete It
 	 * 
 	 * PURPOSE:
-	 * Reverses all balance changes made by a transaction before deletion.
+	 * Reverses all balance changes made by a transaction and deletes it.
 	 * Undoes the effects on individual balances and inter-member debts.
 	 * 
-	 * @param tInfo Transaction information array
-	 *              [0]=id, [1]=payee, [2]=amount, [3]=reason, [4]=type, [5]=tid
+	 * @param tInfo Transaction history row (payee, amount, reason, type, tid)
 	 * 
 	 * ALGORITHM:
 	 * 
-	 * 1. GET TRANSACTION DETAILS:
-	 *    - Queries db8 for transaction breakdown (per-member amounts)
-	 *    - tDetails[0]: Column names (uids = member usernames)
-	 *    - tDetails[1]: Amount values for each member
-	 * 
-	 * 2. REVERSE TOTAL BALANCE (for Type 0 only):
-	 *    If transaction is an expense (type 0):
-	 *    - Get current "Total" balance from db1
-	 *    - Subtract transaction amount from Total
-	 *    - Updates group's total spending
-	 * 
-	 * 3. REVERSE INTER-MEMBER BALANCES (db6):
-	 *    For each member (starting from index 3):
-	 *    - Query db6 for balance relationship with transaction creator
-	 *    - Check both Member1/Member2 combinations
-	 *    - If record exists as Member1: Add back the member's amount
-	 *    - If record exists as Member2: Subtract back the member's amount
-	 *    - Reverses the debt changes made by original transaction
-	 * 
-	 * 4. REVERSE INDIVIDUAL BALANCES (db1, for Type 0 only):
-	 *    If transaction is an expense (type 0):
-	 *    - For transaction creator: Subtract (full amount + their share)
-	 *    - For other members: Subtract their individual share
-	 *    - Reverses personal balance changes
+	 * 1. LOAD LEDGER:
+	 *    - Ledger.load() reads the group once (db4, db5, db6, db8, db1 in parallel)
+	 *      and derives every balance from the db8 transaction details
+	 * 
+	 * 2. REVERSE (in memory):
+	 *    - Ledger.removeTransaction(tid) applies the transaction's db8 row with
+	 *      the opposite sign:
+	 *      * Inter-member balances: each member no longer owes the creator their value
+	 *      * For expenses (type 0): each member's spending drops by their share,
+	 *        the creator's also by the cost, and Total by the cost
+	 * 
+	 * 3. PERSIST:
+	 *    - Ledger.persist() deletes the db5 and db8 rows of the transaction and
+	 *      updates only the db6/db1 rows whose value changed, as one batch
 	 * 
 	 * BALANCE REVERSAL LOGIC:
 	 * - Original transaction added amounts → Repay adds them back (reverses by adding opposite)
@@ -277,44 +259,16 @@ public class DeleteTransaction implements ActionListener{
 	 * - Adding negative amount effectively subtracts, adding positive adds
 	 * 
 	 * DATABASE OPERATIONS:
-	 * - db8: Read transaction details (per-member breakdown)
+	 * - One read per table, then the computed writes
+	 * - db5/db8: Delete the transaction rows
 	 * - db1: Update Total and individual member balances (Type 0 only)
 	 * - db6: Update inter-member payment relationships
 	 */
-	public void Repay(String[] tInfo) {
+	public void Repay(PaymentHistoryRow tInfo) {
 		
-		String val;
-		
-		String[][] tDetails = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db8/GetRowData?table=" + gcode + "&tID=" + tInfo[5]);
-		String[] uids = tDetails[0];
-		String[] data = tDetails[1];
-
-		if (tInfo[4].equals("0")){
-
-			String[] amount = ApiCaller.ApiCaller3("https://splitwise.up.railway.app/db1/GetSpecificData?val=Amount&table="+gcode +"&Name=Total");
-
-			val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db1/UpdateData?table=" + gcode + "&where=Name='Total'&Amount=" + (Double.parseDouble(amount[0]) - Double.parseDouble(tInfo[2])));
-
-		}
-
-		for (int i = 3;  i < uids.length; i++){
-			String[] amount1 = ApiCaller.ApiCaller3("https://splitwise.up.railway.app/db6/GetSpecificData?val=Amount&table="+gcode +"&Member1=" + uids[i] + "&Member2=" + data[1]);
-			String[] amount2 = ApiCaller.ApiCaller3("https://splitwise.up.railway.app/db6/GetSpecificData?val=Amount&table="+gcode +"&Member2=" + uids[i] + "&Member1=" + data[1]);
-			if (amount1.length > 0){
-				val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/UpdateData?table=" + gcode + "&where=Member1='"+uids[i]+"'%20AND%20Member2='"+data[1]+"'&Amount=" + (Double.parseDouble(amount1[0]) + Double.parseDouble(data[i])));
-			} else if (amount2.length > 0) {
-				val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/UpdateData?table=" + gcode + "&where=Member1='"+data[1]+"'%20AND%20Member2='"+uids[i]+"'&Amount=" + (Double.parseDouble(amount2[0]) - Double.parseDouble(data[i])));
-			}
-
-			if (tInfo[4].equals("0")){
-				String[] amount = ApiCaller.ApiCaller3("https://splitwise.up.railway.app/db1/GetSpecificData?val=Amount&table="+ gcode +"&Name=" + uids[i]);
-				if (uids[i].equalsIgnoreCase(data[1])){
-					val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db1/UpdateData?table=" + gcode + "&where=Name='"+uids[i]+"'&Amount=" + ((Double.parseDouble(amount[0]) - Double.parseDouble(tInfo[2]) - Double.parseDouble(data[i]))));
-				} else {
-					val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db1/UpdateData?table=" + gcode + "&where=Name='"+uids[i]+"'&Amount=" + (Double.parseDouble(amount[0]) - Double.parseDouble(data[i])));
-				}
-			}
-
+		Ledger ledger = Ledger.load(gcode);
+		if (ledger.removeTransaction(tInfo.getTid())) {
+			ledger.persist();
 		}
 	}
 		
@@ -56,7 +56,7 @@ public class EnterGroup implements ActionListener{
 
 	static JFrame frame;
 	JPanel contentPane;
-	JComboBox options;
+	JComboBox<String> options;
 	JButton backButton, groupEnter;
 	ArrayList<String[]> groups = new ArrayList<String[]>();
 	String uname;
@@ -73,8 +73,10 @@ public class EnterGroup implements ActionListener{
 	 * BEHAVIOR:
 	 * - Creates new JFrame with title "Splitwise - Enter Group"
 	 * - Sets up GridLayout with 3 columns
-	 * - Fetches user's groups via Read() method (db7 query)
-	 * - Populates dropdown with "Select Group" + all user groups
+	 * - Shows "Select Group" and "Loading..." in the dropdown while the
+	 *   user's groups are fetched via Read() (db7 query) in the background
+	 *   (ScreenLoader), so the frame appears right away
+	 * - showGroups() then populates the dropdown with all user groups
 	 * - Creates Back button for navigation
 	 * - Configures frame but keeps it invisible (runGUI() displays it)
 	 * 
@@ -97,12 +99,10 @@ public class EnterGroup implements ActionListener{
 		contentPane.setLayout(new GridLayout(0, 3, 10, 5));
 		contentPane.setBorder(BorderFactory.createEmptyBorder(20,50,20,50));
 		 
-		options = new JComboBox();
-		groups = Read(username);
+		options = new JComboBox<>();
 		options.addItem("Select Group");
-		for (int i = 0; i < groups.size(); i++) {
-			options.addItem(groups.get(i)[1] + "(" +groups.get(i)[0] + ")");
-		}
+		options.addItem(ScreenLoader.LOADING);
+		ScreenLoader.load(frame, "your groups", () -> Read(username), this::showGroups);
 		
 		options.addActionListener(this);
 		options.setActionCommand("First");
@@ -119,6 +119,30 @@ public class EnterGroup implements ActionListener{
 		frame.setVisible(false);
 		
 	}
+	
+	/**
+	 * showGroups - Fill the Dropdown With the Fetched Groups
+	 * 
+	 * PURPOSE:
+	 * Replaces the "Loading..." entry once the db7 rows have arrived.
+	 * Called by ScreenLoader on the event dispatch thread.
+	 * 
+	 * BEHAVIOR:
+	 * - Adds "GroupName(GroupCode)" per group after "Select Group"
+	 * - "Select Group" stays selected, so no selection event is fired
+	 * 
+	 * @param rows The user's groups, as returned by Read()
+	 */
+	void showGroups(ArrayList<String[]> rows) {
+		
+		groups = rows;
+		options.removeItem(ScreenLoader.LOADING);
+		for (int i = 0; i < groups.size(); i++) {
+			options.addItem(groups.get(i)[1] + "(" +groups.get(i)[0] + ")");
+		}
+		frame.pack();
+		
+	}
 
 	/**
 	 * Read - Fetch User's Group List from Database
@@ -146,7 +170,8 @@ public class EnterGroup implements ActionListener{
 	 * 5. Return completed list
 	 * 
 	 * USAGE:
-	 * Called by constructor to populate the dropdown menu.
+	 * Called by constructor to populate the dropdown menu, on a background
+	 * thread (blocks until the response arrives).
 	 * Currently used: 1 call site (EnterGroup constructor)
 	 * 
 	 * @param usrname The username whose groups should be retrieved
@@ -154,7 +179,7 @@ public class EnterGroup implements ActionListener{
 	 */
 	public static ArrayList<String[]> Read(String usrname) {
 			
-		String[][] lst = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db7/GetRowData?table="+ usrname);
+		String[][] lst = ApiCaller.ApiCaller1("/db7/GetRowData?table="+ usrname);
 		ArrayList<String[]> values = new ArrayList<String[]>();
 			
 			for (int i = 1; i < lst.length; i++) {
@@ -193,7 +218,7 @@ public class EnterGroup implements ActionListener{
 	 *    - Doesn't recreate button (just updates text)
 	 * 
 	 * 4. "Enter" - Confirm entry into selected group
-	 *    - Creates MainPage with username and group code
+	 *    - Gets the group's MainPage from Navigator (kept between visits)
 	 *    - Shows MainPage screen
 	 *    - Disposes current frame
 	 * 
@@ -211,6 +236,12 @@ public class EnterGroup implements ActionListener{
 		String eventName = event.getActionCommand();
 		String selectedItem = "";
 		
+		if ((eventName.equals("First") || eventName.equals("Later"))
+				&& ((String) options.getSelectedItem()).indexOf('(') < 0) {
+			// "Select Group" or the "Loading..." placeholder, not a group
+			return;
+		}
+		
 		if (eventName.equals("Back") == true) {
 			Groups groups = new Groups(uname);
 			groups.runGUI();
@@ -235,7 +266,7 @@ public class EnterGroup implements ActionListener{
 			rcode = selectedItem.substring(start + 1, end);
 			groupEnter.setText("Enter " + selectedItem.substring(0,start) + " Group");
 		} else if(eventName.equals("Enter") == true) {
-			MainPage mpage = new MainPage(uname,rcode);
+			MainPage mpage = Navigator.mainPage(uname,rcode);
 			mpage.runGUI();
 			frame.dispose();
 		}
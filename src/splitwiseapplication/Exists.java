@@ -27,9 +27,11 @@ public class Exists {
 	 * - Calls the specified API URL via ApiCaller.ApiCaller1()
 	 * - Returns true if the API returns at least one row of data
 	 * - Returns false if the API returns an empty result set
+	 * - Throws ApiException when the lookup itself fails, so an unreachable
+	 *   backend is never reported as "does not exist"
 	 * 
 	 * @param url  Complete API endpoint URL with query parameters
-	 *             Format: "https://splitwise.up.railway.app/db{N}/GetRowData?table={table_name}&{filters}"
+	 *             Format: "/db{N}/GetRowData?table={table_name}&{filters}"
 	 * @return     true if data exists (rows.length > 0), false otherwise
 	 * 
 	 * Implementation details:
@@ -53,7 +55,7 @@ public class Exists {
 	 * 
 	 * Example usage:
 	 * boolean userExists = Exists.exist(
-	 *     "https://splitwise.up.railway.app/db2/GetRowData?table=Credentials&username=" + username
+	 *     "/db2/GetRowData?table=Credentials&username=" + username
 	 * );
 	 */
 	public static Boolean exist(String url) {
@@ -0,0 +1,203 @@
+package splitwiseapplication;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Members of a group (db4), kept for the session and shared by every screen.
+ *
+ * Purpose:
+ * AddTransaction read db4 at the top of every event, so each checkbox of an
+ * "Equally By Some" split cost an HTTPS round trip, and screens looked members up
+ * with List.indexOf(). A roster is read once when the group is entered (see
+ * Navigator), holds the members in db4 order with a name-to-index map, and is
+ * replaced as a whole when the membership changes.
+ *
+ * Contract:
+ * - Immutable; joined() and left() publish a new roster for the group, so a screen
+ *   holding one keeps a consistent member list (and checkbox positions) to the end
+ * - indexOf() is O(1); indices are positions in getMembers()
+ * - A roster stays current while only this client writes db4: joining (JoinGroup)
+ *   and leaving (MainPage) update it, and every Ledger load replaces it with the
+ *   members it just read, which also picks up other clients' changes
+ * - A db4 write that did not go through joined()/left() (generation counter, see
+ *   ApiCaller.tableGeneration) makes the next of()/load() read db4 again
+ * - clear() on logout forgets every roster
+ * - Thread-safe
+ *
+ * Usage:
+ *   GroupRoster roster = GroupRoster.of(gcode);
+ *   int i = roster.indexOf(name);   // -1 when name is not a member
+ */
+final class GroupRoster {
+
+    private static final Map<String, CompletableFuture<GroupRoster>> SESSION = new ConcurrentHashMap<>();
+
+    private final String code;
+    private final List<String> members;
+    private final Map<String, Integer> index;
+
+    /** db4 generation the roster is current for. */
+    private final long generation;
+
+    /**
+     * Internal helper method - Creates the roster of a group.
+     */
+    private GroupRoster(String code, List<String> members, long generation) {
+        this.code = code;
+        this.members = Collections.unmodifiableList(new ArrayList<>(members));
+        Map<String, Integer> map = new HashMap<>();
+        for (int i = 0; i < this.members.size(); i++) {
+            map.put(this.members.get(i), i);
+        }
+        this.index = Collections.unmodifiableMap(map);
+        this.generation = generation;
+    }
+
+    /**
+     * Roster of a group, read from db4 unless the session already has a current one.
+     *
+     * @param gcode  Group code
+     * @return       Future of the roster; failed with ApiException when db4 cannot be read
+     */
+    static CompletableFuture<GroupRoster> load(String gcode) {
+        return SESSION.compute(gcode, (code, known) -> {
+            if (known != null && !known.isCompletedExceptionally()
+                    && (!known.isDone() || known.join().isCurrent())) {
+                return known;
+            }
+            // A failed read stays in the map only until the next call reads again
+            long generation = ApiCaller.tableGeneration("db4", code);
+            return ApiCaller.ApiCaller3Async("/db4/GetSpecificData?val=name&table=" + code)
+                    .thenApply(names -> new GroupRoster(code, Arrays.asList(names), generation));
+        });
+    }
+
+    /**
+     * Blocking form of load(); no request when the session has a current roster.
+     *
+     * @param gcode  Group code
+     * @return       Roster of the group
+     * @throws ApiException  When db4 cannot be read
+     */
+    static GroupRoster of(String gcode) {
+        return ApiCaller.await(load(gcode));
+    }
+
+    /**
+     * Publishes the members read with a Ledger.
+     *
+     * @param gcode  Group code
+     * @param names  Members in db4 order
+     * @return       Roster of these members; the session's roster when it already
+     *               lists exactly them
+     */
+    static GroupRoster update(String gcode, String[] names) {
+        List<String> members = Arrays.asList(names);
+        CompletableFuture<GroupRoster> known = SESSION.get(gcode);
+        if (known != null && known.isDone() && !known.isCompletedExceptionally()
+                && known.join().members.equals(members)) {
+            return known.join();
+        }
+        GroupRoster roster = new GroupRoster(gcode, members, ApiCaller.tableGeneration("db4", gcode));
+        SESSION.put(gcode, CompletableFuture.completedFuture(roster));
+        return roster;
+    }
+
+    /**
+     * Records that a member was added to db4 by this client.
+     *
+     * @param gcode  Group code
+     * @param name   New member
+     */
+    static void joined(String gcode, String name) {
+        change(gcode, name, true);
+    }
+
+    /**
+     * Records that a member was removed from db4 by this client.
+     *
+     * @param gcode  Group code
+     * @param name   Member who left
+     */
+    static void left(String gcode, String name) {
+        change(gcode, name, false);
+    }
+
+    /**
+     * Forgets every roster (logout).
+     */
+    static void clear() {
+        SESSION.clear();
+    }
+
+    /**
+     * Internal helper method - Publishes the roster with one member more or less;
+     * a group without a loaded roster is read on its next use instead.
+     */
+    private static void change(String gcode, String name, boolean add) {
+        SESSION.computeIfPresent(gcode, (code, known) -> {
+            if (!known.isDone() || known.isCompletedExceptionally()) {
+                return null;
+            }
+            List<String> members = new ArrayList<>(known.join().members);
+            members.remove(name);
+            if (add) {
+                members.add(name);
+            }
+            return CompletableFuture.completedFuture(
+                    new GroupRoster(code, members, ApiCaller.tableGeneration("db4", code)));
+        });
+    }
+
+    /**
+     * Internal helper method - true while db4 has not been written by this client
+     * behind the roster's back.
+     */
+    private boolean isCurrent() {
+        return generation == ApiCaller.tableGeneration("db4", code);
+    }
+
+    /** @return Group code */
+    String getGroupCode() {
+        return code;
+    }
+
+    /** @return Members in db4 order (unmodifiable) */
+    List<String> getMembers() {
+        return members;
+    }
+
+    /** @return Name to position in getMembers() (unmodifiable) */
+    Map<String, Integer> index() {
+        return index;
+    }
+
+    /**
+     * @param name  Member name
+     * @return      Position in getMembers(), or -1 when name is not a member
+     */
+    int indexOf(String name) {
+        Integer i = index.get(name);
+        return i == null ? -1 : i;
+    }
+
+    /**
+     * @param name  Member name
+     * @return      true when name is a member
+     */
+    boolean contains(String name) {
+        return index.containsKey(name);
+    }
+
+    /** @return Number of members */
+    int size() {
+        return members.size();
+    }
+}
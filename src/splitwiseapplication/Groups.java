@@ -134,6 +134,8 @@ public class Groups implements ActionListener{
 	 * "Log out":
 	 * - Returns to LoginOrRegister screen
 	 * - Ends current user session
+	 * - Clears ApiCaller's response cache, the screens kept by Navigator and
+	 *   the GroupRoster of every group, so no data outlives the session
 	 * - No data is persisted locally (all in backend)
 	 * 
 	 * "Select Item":
@@ -162,6 +164,9 @@ public class Groups implements ActionListener{
 			cgroup.runGUI();
 			frame.dispose();
 		} else if (selectedItem.equals("Log out")){
+			ApiCaller.clearCache();
+			Navigator.clear();
+			GroupRoster.clear();
 			LoginOrRegister loginorRegisterGUI = new LoginOrRegister();
 			loginorRegisterGUI.runGUI();
 			frame.dispose();
@@ -44,7 +44,8 @@ import javax.swing.*;
  * - db8: Initializes user's balance to 0
  * - db7: Adds group entry to user's group list
  * - db1: Creates initial balance record (0) for user in group
- * - db6: Sets up payment permissions with all existing members
+ * - db6: Sets up payment permissions with all existing members, or a single
+ *   net balance row in groups that keep net balances (see NetBalanceStore)
  * 
  * NAVIGATION:
  * - Entry Point: Groups.java (when user selects "Join Group")
@@ -148,7 +149,7 @@ public class JoinGroup implements ActionListener {
 	 * 
 	 * 1. "Enter" - Navigate to the newly joined group
 	 *    - Gets group code from text field
-	 *    - Creates MainPage with username and group code
+	 *    - Gets the group's MainPage from Navigator (kept between visits)
 	 *    - Shows MainPage screen
 	 *    - Disposes current frame
 	 * 
@@ -172,12 +173,15 @@ public class JoinGroup implements ActionListener {
 	 * 
 	 * VALIDATION QUERIES:
 	 * - db3.GroupNames: Check if group code exists
-	 * - db4.[GroupCode]: Check if user already member
+	 * - db4.[GroupCode]: Check if user already member (GroupRoster, which
+	 *   AddPerms() then reuses)
 	 * 
 	 * ERROR HANDLING:
 	 * Shows "Wrong Code" if:
 	 * - Group code doesn't exist
 	 * - User is already a member of that group
+	 * Shows an error dialog if a request fails (ApiException); a failed join
+	 * has been undone by AddNewUser() and can be retried.
 	 * 
 	 * @param event The ActionEvent containing the action command
 	 */
@@ -187,28 +191,33 @@ public class JoinGroup implements ActionListener {
 		
 		if (eventName.equals("Enter") == true) {
 			String code = joinCode.getText();
-			MainPage mpage = new MainPage(uname,code);
+			MainPage mpage = Navigator.mainPage(uname,code);
 			mpage.runGUI();
 			frame.dispose();
 		} else if ((eventName.equals("Join Group") == true)){
 			String code = joinCode.getText();
 			
-			if (Exists.exist("https://splitwise.up.railway.app/db3/GetRowData?table=GroupNames&group_code=" + code) && Exists.exist("https://splitwise.up.railway.app/db4/GetRowData?table="+code+"&name="+uname) == false) {
-				AddNewUser(code,uname);
-				success = new JLabel("Success!");
-				enterButton = new JButton("Enter");
-				joinCode.setActionCommand("Group Joined");
-				enterButton.addActionListener(this);
-				enterButton.setActionCommand("Enter");
-				contentPane.add(success);
-				contentPane.add(enterButton);
-				frame.setContentPane(contentPane);
-				frame.pack();
-			} else {
-				JLabel displayError = new JLabel("Wrong Code");
-				contentPane.add(displayError);
-				frame.setContentPane(contentPane);
-				frame.pack();
+			try {
+				if (Exists.exist("/db3/GetRowData?table=GroupNames&group_code=" + code) && GroupRoster.of(code).contains(uname) == false) {
+					AddNewUser(code,uname);
+					success = new JLabel("Success!");
+					enterButton = new JButton("Enter");
+					joinCode.setActionCommand("Group Joined");
+					enterButton.addActionListener(this);
+					enterButton.setActionCommand("Enter");
+					contentPane.add(success);
+					contentPane.add(enterButton);
+					frame.setContentPane(contentPane);
+					frame.pack();
+				} else {
+					JLabel displayError = new JLabel("Wrong Code");
+					contentPane.add(displayError);
+					frame.setContentPane(contentPane);
+					frame.pack();
+				}
+			} catch (ApiException e) {
+				e.printStackTrace();
+				JOptionPane.showMessageDialog(frame, "Could not join the group, please try again.\n" + e.getMessage(), "Splitwise", JOptionPane.ERROR_MESSAGE);
 			}
 		} else if (eventName.equals("Back") == true) {
 			Groups groups = new Groups(uname);
@@ -227,15 +236,21 @@ public class JoinGroup implements ActionListener {
 	 * balances, and permissions.
 	 * 
 	 * BEHAVIOR:
-	 * Executes a series of database operations in specific order:
-	 * 
-	 * 1. AddPerms(code) - Set up payment permissions with existing members
-	 * 2. db4: Add user to group members table
-	 * 3. Fetch group name from db3 for user's group list
-	 * 4. db8: Add column for user in expense tracking table
-	 * 5. db8: Initialize all expense values to 0 for new user
-	 * 6. db7: Add group to user's personal group list
-	 * 7. db1: Create initial balance record (0) for user in group
+	 * Reads the group name from db3 first, then runs the writes as one
+	 * OperationRunner: if a step fails, the steps already applied are undone
+	 * in reverse order, the user is not a member and joining can be retried.
+	 * 
+	 * STEPS (each with its inverse):
+	 * 1. db6: AddPerms(join, code) - Set up payment permissions with existing
+	 *    members; in a group that keeps net balances (Ledger.usesNetBalances())
+	 *    only the user's own net row is inserted, one request however large
+	 *    the group                                    (undo: delete the rows)
+	 * 2. db4: Add user to group members table          (undo: delete)
+	 * 3. db8: Add column for user in expense tracking  (undo: drop the column)
+	 * 4. db8: Initialize all expense values to 0 for new user
+	 * 5. db7: Add group to user's personal group list  (undo: delete)
+	 * 6. db1: Create initial balance record (0) for user in group (undo: delete)
+	 * Then the session's GroupRoster is told about the new member.
 	 * 
 	 * DATABASE OPERATIONS DETAIL:
 	 * - db4.[GroupCode]: INSERT (name) VALUES (username) - Add to members
@@ -246,8 +261,9 @@ public class JoinGroup implements ActionListener {
 	 * - db1.[GroupCode]: INSERT (Name, Amount) VALUES (username, 0) - Balance tracking
 	 * 
 	 * PERMISSION SETUP:
-	 * Calls AddPerms() which creates bidirectional payment records in db6
-	 * between the new user and all existing group members.
+	 * Pair layout: calls AddPerms() which creates bidirectional payment records
+	 * in db6 between the new user and all existing group members (O(n) inserts).
+	 * Net layout: one db6 row (user, 0, PendingAmountRow.GROUP) (O(1)).
 	 * 
 	 * USAGE:
 	 * Called by actionPerformed() after successful code validation.
@@ -255,23 +271,33 @@ public class JoinGroup implements ActionListener {
 	 * 
 	 * @param code The group code of the group to join
 	 * @param usrname The username of the user joining the group
+	 * @throws ApiException When the db3 read or a step fails (after the undo)
 	 */
 	public static void AddNewUser(String code, String usrname) {
 		
-		String[] gname;
-		
-		AddPerms(code);
+		String[] gname = ApiCaller.ApiCaller3("/db3/GetSpecificData?val=group_name&table=GroupNames&group_code=" + code);
 		
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db4/InsertData?table="+code+"&params=(name)&info=('" + uname + "')");
+		OperationRunner join = new OperationRunner(uname + " joining group " + code);
+		if (Ledger.usesNetBalances(code)) {
+			join.step(NetBalanceStore.insertRow(code, uname, 0),
+					"/db6/DeleteRowData?table="+code+"&Member1="+uname);
+		} else {
+			AddPerms(join, code);
+		}
 		
-		gname = ApiCaller.ApiCaller3("https://splitwise.up.railway.app/db3/GetSpecificData?val=group_name&table=GroupNames&group_code=" + code);
+		join.step("/db4/InsertData?table="+code+"&params=(name)&info=('" + uname + "')",
+				"/db4/DeleteRowData?table="+code+"&name="+uname);
 		
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db8/AddColumn?table="+code+"&uname="+usrname);
-
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db8/UpdateData?table="+code+"&where=1=1&"+uname+"=0");
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db7/InsertData?table="+uname+"&params=(GroupID,GroupName)&info=('" + code + "','" + gname[0] + "')");
+		join.step("/db8/AddColumn?table="+code+"&uname="+usrname,
+				"/db8/DeleteColumn?table="+code+"&uname="+usrname);
+		join.step("/db8/UpdateData?table="+code+"&where=1=1&"+uname+"=0");
+		join.step("/db7/InsertData?table="+uname+"&params=(GroupID,GroupName)&info=('" + code + "','" + gname[0] + "')",
+				"/db7/DeleteRowData?table="+uname+"&GroupID="+code);
 		
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db1/InsertData?table="+code+"&params=(Name,Amount)&info=('" + uname + "',0)");
+		join.step("/db1/InsertData?table="+code+"&params=(Name,Amount)&info=('" + uname + "',0)",
+				"/db1/DeleteRowData?table="+code+"&Name="+uname);
+		join.run();
+		GroupRoster.joined(code, uname);
 		
 	}
 	
@@ -284,14 +310,16 @@ public class JoinGroup implements ActionListener {
 	 * owes money to whom.
 	 * 
 	 * BEHAVIOR:
-	 * 1. Fetches all existing members from db4.[GroupCode] table
+	 * 1. Takes all existing members from the session's GroupRoster
 	 * 2. Extracts member names from column index 1
-	 * 3. For each existing member:
+	 * 3. For each existing member, adds a step to join:
 	 *    - Creates a permission record: (ExistingMember, 0, NewUser)
+	 *    - Undone by deleting that record
 	 *    - Initializes amount to 0 (no debt initially)
 	 * 
 	 * DATABASE OPERATIONS:
-	 * - db4.[GroupCode]: SELECT * - Get all members
+	 * - Members from the session's GroupRoster (db4 is read only when the
+	 *   session has no current roster of the group)
 	 * - db6.[GroupCode]: INSERT (Member1, Amount, Member2) VALUES (existing, 0, newUser)
 	 *   - Creates records for each existing member
 	 *   - Member1 = existing member
@@ -299,10 +327,8 @@ public class JoinGroup implements ActionListener {
 	 *   - Member2 = newly joining user
 	 * 
 	 * ALGORITHM:
-	 * 1. Query db4 to get 2D array of members (row 0 = headers)
-	 * 2. Create String array sized for data rows only (length-1)
-	 * 3. Loop from row 1 to end, extracting names from column 1
-	 * 4. For each name, insert permission record in db6
+	 * 1. Take the members from GroupRoster.of(gcode)
+	 * 2. For each name, add the insert of its permission record in db6
 	 * 
 	 * PERMISSION STRUCTURE:
 	 * Each record represents a potential debt relationship.
@@ -312,18 +338,14 @@ public class JoinGroup implements ActionListener {
 	 * Called by AddNewUser() as the first step in group joining.
 	 * Currently used: 1 call site (JoinGroup.AddNewUser)
 	 * 
+	 * @param join The joining operation the inserts are added to
 	 * @param gcode The group code for which to set up permissions
 	 */
-	public static void AddPerms(String gcode) {
+	public static void AddPerms(OperationRunner join, String gcode) {
 
-		String[][] lst = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db4/GetRowData?table="+ gcode);
-		String[] values = new String[lst.length-1];
-		
-		for (int i = 1; i < lst.length; i++) {
-			values[i-1] = lst[i][1];
-		}
-		for (String i : values) {
-			ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/InsertData?table="+gcode+"&params=(Member1,Amount,Member2)&info=('" + i + "',0,'" + uname + "')");
+		for (String i : GroupRoster.of(gcode).getMembers()) {
+			join.step("/db6/InsertData?table="+gcode+"&params=(Member1,Amount,Member2)&info=('" + i + "',0,'" + uname + "')",
+					"/db6/DeleteRowData?table="+gcode+"&Member1="+i+"&Member2="+uname);
 		}
 	}
 	
@@ -0,0 +1,477 @@
+package splitwiseapplication;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Single-pass streaming JSON decoder for backend table responses.
+ *
+ * Purpose:
+ * Turns the JSON bodies returned by the db1-db8 endpoints straight into table rows.
+ * Replaces the old regex/split based parsing in ApiCaller, which scanned every body
+ * several times, allocated a String per intermediate piece and broke as soon as a
+ * value (for example a db5 Reason) contained a comma or a quote.
+ *
+ * Architecture:
+ * - Character-level tokenizer reading from a Reader through a fixed 8 KB buffer
+ * - Each value becomes exactly one String, built straight from the read buffer
+ *   (or from a reusable scratch buffer when it contains escapes or spans two reads);
+ *   no regexes, substrings or per-row temporary strings
+ * - Rows can be collected (parseRows) or handed to a callback one by one
+ *   (forEachRow), so large tables never need to exist twice in memory
+ *
+ * Supported shapes (the ones the backend produces):
+ * - Array of arrays:   [["id","Name"],[1,"Alice"]]      -> [["id","Name"],["1","Alice"]]
+ * - Array of objects:  [{"id":1,"Name":"Alice"}]        -> [["1","Alice"]]
+ * - Array of scalars:  ["Alice","Bob"]                  -> one row ["Alice","Bob"]
+ * - Single object or scalar                             -> one row
+ * - Plain-text bodies (e.g. "Table created")            -> one row holding the text,
+ *   also when they start like a number or literal (e.g. "true story", "1 row")
+ *
+ * Value decoding:
+ * - Strings: quotes removed, all JSON escapes decoded (\" \\ \/ \b \f \n \r \t \\uXXXX)
+ * - Numbers: kept exactly as sent (e.g. "50.00"), so DECIMAL columns keep their scale
+ * - true / false: the text "true" / "false"
+ * - null: the text "null", the same value the previous parser produced, so existing
+ *   equals() comparisons in the screens never see a Java null
+ * - Nested arrays/objects inside a row: kept as their raw JSON text
+ *
+ * Error handling:
+ * - Malformed JSON throws IllegalArgumentException with the character offset
+ * - ApiCaller treats that like any other failed request
+ */
+final class JsonRowParser {
+
+    private static final String[] NO_VALUES = new String[0];
+
+    private final Reader in;
+    private final char[] buffer = new char[8192];
+    private int position;
+    private int limit;
+    private long offset;
+
+    private char[] scratch = new char[64];
+    private int scratchLength;
+
+    private final ArrayList<String> row = new ArrayList<>();
+
+    /**
+     * Creates a parser over the given character stream.
+     *
+     * @param in  JSON source; it is read sequentially and never reset
+     */
+    JsonRowParser(Reader in) {
+        this.in = in;
+    }
+
+    /**
+     * Parses a JSON body into a 2D String array (one String[] per row).
+     *
+     * Contract:
+     * - Returns String[0][0] for null or blank input
+     * - Header rows sent by GetRowData are returned unchanged as row 0
+     *
+     * @param json  Raw JSON string (from an HTTP response body)
+     * @return      Decoded rows
+     */
+    static String[][] parseRows(String json) {
+        if (json == null) {
+            return new String[0][0];
+        }
+        try {
+            return parseRows(new StringReader(json));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringReader never fails
+        }
+    }
+
+    /**
+     * Parses a JSON stream into a 2D String array (one String[] per row).
+     *
+     * @param in  JSON source, e.g. a decompressed response body stream
+     * @return    Decoded rows, String[0][0] when the stream is empty
+     * @throws IOException  if reading the stream fails
+     */
+    static String[][] parseRows(Reader in) throws IOException {
+        List<String[]> rows = new ArrayList<>();
+        new JsonRowParser(in).forEachRow(rows::add);
+        return rows.toArray(new String[0][0]);
+    }
+
+    /**
+     * Parses a JSON body into a flat 1D String array.
+     *
+     * Contract:
+     * - Designed for GetSpecificData responses: ["Alice","Bob"] -> ["Alice","Bob"]
+     * - Values of nested rows are flattened in order: [["Alice"],["Bob"]] -> ["Alice","Bob"]
+     * - Returns String[0] for null or blank input
+     *
+     * @param json  Raw JSON string (from an HTTP response body)
+     * @return      Decoded values
+     */
+    static String[] parseValues(String json) {
+        if (json == null) {
+            return NO_VALUES;
+        }
+        try {
+            return parseValues(new StringReader(json));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // StringReader never fails
+        }
+    }
+
+    /**
+     * Parses a JSON stream into a flat 1D String array.
+     *
+     * @param in  JSON source, e.g. a decompressed response body stream
+     * @return    Decoded values, String[0] when the stream is empty
+     * @throws IOException  if reading the stream fails
+     */
+    static String[] parseValues(Reader in) throws IOException {
+        List<String> values = new ArrayList<>();
+        new JsonRowParser(in).forEachRow(r -> {
+            for (String value : r) {
+                values.add(value);
+            }
+        });
+        return values.toArray(NO_VALUES);
+    }
+
+    /**
+     * Decodes the whole stream and passes every row to the given callback.
+     *
+     * Contract:
+     * - Rows are delivered in document order, each as a freshly allocated String[]
+     *   the callback may keep
+     * - Top-level scalars are gathered into one row delivered at the end of the array
+     *
+     * @param sink  Receives each decoded row
+     * @throws IOException  if reading the stream fails
+     */
+    void forEachRow(Consumer<String[]> sink) throws IOException {
+        int c = peekToken();
+        if (c == -1) {
+            return;
+        }
+        if (c == '[') {
+            read();
+            List<String> scalars = null;
+            if (peekToken() == ']') {
+                read();
+                return;
+            }
+            while (true) {
+                c = peekToken();
+                if (c == '[' || c == '{') {
+                    sink.accept(readRow());
+                } else {
+                    if (scalars == null) {
+                        scalars = new ArrayList<>();
+                    }
+                    scalars.add(readScalar());
+                }
+                c = readToken();
+                if (c == ']') {
+                    break;
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or ']'");
+                }
+            }
+            if (scalars != null) {
+                sink.accept(scalars.toArray(NO_VALUES));
+            }
+        } else if (c == '{') {
+            sink.accept(readRow());
+        } else if (c == '"') {
+            sink.accept(new String[] { readScalar() });
+        } else {
+            // A top-level number or true/false/null is the same text as the body,
+            // so plain-text replies such as "table created" or "1 row inserted",
+            // which may start like one, are not mistaken for malformed JSON
+            sink.accept(new String[] { readRemainingText() });
+        }
+    }
+
+    /**
+     * Internal helper method - Reads one array or object and returns its values as a row.
+     * Object keys are skipped; nested containers are kept as raw JSON text.
+     */
+    private String[] readRow() throws IOException {
+        int open = read();
+        int close = open == '[' ? ']' : '}';
+        row.clear();
+        if (peekToken() == close) {
+            read();
+            return NO_VALUES;
+        }
+        while (true) {
+            if (open == '{') {
+                if (readToken() != '"') {
+                    throw error("Expected object key");
+                }
+                skipStringBody();
+                if (readToken() != ':') {
+                    throw error("Expected ':'");
+                }
+            }
+            int c = peekToken();
+            if (c == '[' || c == '{') {
+                row.add(readRawContainer());
+            } else {
+                row.add(readScalar());
+            }
+            c = readToken();
+            if (c == close) {
+                break;
+            }
+            if (c != ',') {
+                throw error("Expected ',' or '" + (char) close + "'");
+            }
+        }
+        return row.toArray(new String[row.size()]);
+    }
+
+    /**
+     * Internal helper method - Reads a string, number or literal and returns its text.
+     */
+    private String readScalar() throws IOException {
+        int c = peekToken();
+        if (c == '"') {
+            read();
+            return readStringBody();
+        }
+        scratchLength = 0;
+        if (c == '-' || (c >= '0' && c <= '9')) {
+            for (int i = position; i < limit; i++) {
+                if (!isNumberChar(buffer[i])) {
+                    String value = new String(buffer, position, i - position);
+                    offset += i - position;
+                    position = i;
+                    return value;
+                }
+            }
+            while ((c = peek()) != -1 && isNumberChar(c)) {
+                append((char) read());
+            }
+        } else if (c >= 'a' && c <= 'z') {
+            while ((c = peek()) >= 'a' && c <= 'z') {
+                append((char) read());
+            }
+            if (!matchesScratch("null") && !matchesScratch("true") && !matchesScratch("false")) {
+                throw error("Unexpected literal");
+            }
+        } else {
+            throw error(c == -1 ? "Unexpected end of input" : "Unexpected character '" + (char) c + "'");
+        }
+        return new String(scratch, 0, scratchLength);
+    }
+
+    /**
+     * Internal helper method - Decodes the rest of a string whose opening quote was consumed.
+     */
+    private String readStringBody() throws IOException {
+        // Fast path: the whole string sits in the buffer and has no escapes,
+        // so the String is built directly from the buffer without copying to scratch
+        for (int i = position; i < limit; i++) {
+            char c = buffer[i];
+            if (c == '"') {
+                String value = new String(buffer, position, i - position);
+                offset += i + 1 - position;
+                position = i + 1;
+                return value;
+            }
+            if (c == '\\') {
+                break;
+            }
+        }
+        scratchLength = 0;
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return new String(scratch, 0, scratchLength);
+            }
+            if (c == '\\') {
+                append(readEscape());
+            } else if (c == -1) {
+                throw error("Unterminated string");
+            } else {
+                append((char) c);
+            }
+        }
+    }
+
+    /**
+     * Internal helper method - Skips the rest of a string (used for object keys).
+     */
+    private void skipStringBody() throws IOException {
+        while (true) {
+            int c = read();
+            if (c == '"') {
+                return;
+            }
+            if (c == '\\') {
+                readEscape();
+            } else if (c == -1) {
+                throw error("Unterminated string");
+            }
+        }
+    }
+
+    /**
+     * Internal helper method - Decodes one escape sequence after its backslash.
+     */
+    private char readEscape() throws IOException {
+        int c = read();
+        switch (c) {
+            case '"': return '"';
+            case '\\': return '\\';
+            case '/': return '/';
+            case 'b': return '\b';
+            case 'f': return '\f';
+            case 'n': return '\n';
+            case 'r': return '\r';
+            case 't': return '\t';
+            case 'u':
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(read(), 16);
+                    if (digit < 0) {
+                        throw error("Invalid \\u escape");
+                    }
+                    value = (value << 4) | digit;
+                }
+                return (char) value;
+            default:
+                throw error("Invalid escape");
+        }
+    }
+
+    /**
+     * Internal helper method - Copies a nested array/object verbatim, tracking depth
+     * and strings so brackets inside values do not end it early.
+     */
+    private String readRawContainer() throws IOException {
+        scratchLength = 0;
+        int depth = 0;
+        boolean inString = false;
+        while (true) {
+            int c = read();
+            if (c == -1) {
+                throw error("Unterminated container");
+            }
+            append((char) c);
+            if (inString) {
+                if (c == '\\') {
+                    int escaped = read();
+                    if (escaped == -1) {
+                        throw error("Unterminated string");
+                    }
+                    append((char) escaped);
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '[' || c == '{') {
+                depth++;
+            } else if ((c == ']' || c == '}') && --depth == 0) {
+                return new String(scratch, 0, scratchLength);
+            }
+        }
+    }
+
+    /**
+     * Internal helper method - Returns everything left in the stream, trimmed
+     * (used for plain-text, non-JSON responses).
+     */
+    private String readRemainingText() throws IOException {
+        scratchLength = 0;
+        int c;
+        while ((c = read()) != -1) {
+            append((char) c);
+        }
+        while (scratchLength > 0 && Character.isWhitespace(scratch[scratchLength - 1])) {
+            scratchLength--;
+        }
+        return new String(scratch, 0, scratchLength);
+    }
+
+    private static boolean isNumberChar(int c) {
+        return (c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E';
+    }
+
+    private boolean matchesScratch(String literal) {
+        if (literal.length() != scratchLength) {
+            return false;
+        }
+        for (int i = 0; i < scratchLength; i++) {
+            if (scratch[i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void append(char c) {
+        if (scratchLength == scratch.length) {
+            char[] larger = new char[scratch.length * 2];
+            System.arraycopy(scratch, 0, larger, 0, scratchLength);
+            scratch = larger;
+        }
+        scratch[scratchLength++] = c;
+    }
+
+    /** Skips whitespace and returns the next character without consuming it (-1 at end). */
+    private int peekToken() throws IOException {
+        int c;
+        while ((c = peek()) == ' ' || c == '\n' || c == '\r' || c == '\t') {
+            position++;
+            offset++;
+        }
+        return c;
+    }
+
+    /** Skips whitespace and consumes the next character (-1 at end). */
+    private int readToken() throws IOException {
+        peekToken();
+        return read();
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        offset++;
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        int count;
+        do {
+            count = in.read(buffer, 0, buffer.length);
+        } while (count == 0);
+        if (count < 0) {
+            return false;
+        }
+        position = 0;
+        limit = count;
+        return true;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " in JSON response at offset " + offset);
+    }
+}
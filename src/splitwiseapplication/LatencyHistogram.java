@@ -0,0 +1,128 @@
+package splitwiseapplication;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free latency histogram with log-linear buckets (HdrHistogram style).
+ *
+ * Purpose:
+ * Keeps the full distribution of request latencies for one endpoint in a fixed
+ * amount of memory, so percentiles (p50, p99, ...) can be read at any time without
+ * storing every sample.
+ *
+ * Bucket layout:
+ * - Values are recorded in microseconds
+ * - 0..63 us: one bucket per microsecond (exact)
+ * - Above that: every power of two is split into 32 equal sub-buckets, so a
+ *   recorded value is reported with at most ~3% relative error
+ * - Values above ~2^40 us (about 12 days) are clamped into the last bucket, which
+ *   reports the exact max
+ *
+ * Contract:
+ * - record() may be called concurrently from any thread (atomic counters, no locks)
+ * - percentile() returns the upper bound of the bucket containing that percentile,
+ *   never less than the real value
+ * - min, max, count and mean are exact
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = SUB_BUCKETS * 2;
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = LINEAR_LIMIT + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator min = new LongAccumulator(Math::min, Long.MAX_VALUE);
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Records one sample.
+     *
+     * @param micros  Latency in microseconds (negative values count as 0)
+     */
+    void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(bucketIndex(value));
+        count.increment();
+        sum.add(value);
+        min.accumulate(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Internal helper method - Maps a value to its bucket.
+     */
+    private static int bucketIndex(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return LINEAR_LIMIT + (exponent - SUB_BUCKET_BITS - 1) * SUB_BUCKETS + subBucket;
+    }
+
+    /**
+     * Internal helper method - Largest value that maps to the given bucket.
+     */
+    private static long bucketUpperBound(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + SUB_BUCKET_BITS + 1;
+        long subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return ((SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+
+    /**
+     * Value below which the given share of samples fall.
+     *
+     * @param percentile  0..100, e.g. 99 for p99
+     * @return            Latency in microseconds, or 0 when nothing was recorded
+     */
+    long percentile(double percentile) {
+        long total = count.sum();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(100, Math.max(0, percentile)) / 100.0));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen >= rank) {
+                // The last bucket also holds the clamped values above its bound
+                return i == BUCKETS - 1 ? getMax() : Math.min(bucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    /** @return Number of recorded samples */
+    long getCount() {
+        return count.sum();
+    }
+
+    /** @return Smallest sample in microseconds, or 0 when nothing was recorded */
+    long getMin() {
+        return count.sum() == 0 ? 0 : min.get();
+    }
+
+    /** @return Largest sample in microseconds */
+    long getMax() {
+        return max.get();
+    }
+
+    /** @return Mean sample in microseconds, or 0 when nothing was recorded */
+    double getMean() {
+        long total = count.sum();
+        return total == 0 ? 0 : (double) sum.sum() / total;
+    }
+}
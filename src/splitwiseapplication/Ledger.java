@@ -0,0 +1,562 @@
+package splitwiseapplication;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory balance engine for one group.
+ *
+ * Purpose:
+ * Balances used to be maintained by read-modify-write calls scattered over the screens
+ * (AddTransaction alone read and rewrote db6 and db1 row by row for every member). A
+ * Ledger reads the group once, derives every balance in memory, applies expenses,
+ * settlements and deletions as in-memory deltas, and persists only the rows that changed.
+ *
+ * Source of truth:
+ * - db8 (TransactionDetails) is the journal: one row per transaction with a value per
+ *   member. For a row created by C, every other member M owes C the value in M's column
+ *   (negative values mean C owes M). Replaying all rows gives every pairwise balance
+ * - db5 (PaymentHistory) tells expenses (Ttype 0) from settlements (Ttype 1); for an
+ *   expense it also holds the cost, so each member's share (db1) can be derived as
+ *   M's value, plus the cost for the creator
+ * - db6 (PendingAmount) and db1 (CheckAmountSpent) are treated as stored copies of the
+ *   derived balances; they are only read to know which rows exist, their orientation
+ *   (Member1/Member2) and the values currently stored
+ * - db6 holds either one row per pair or one net row per member, depending on the
+ *   group (see BalanceStore); the layout is recognised from the rows themselves
+ * - Pairs and shares involving members who left the group are ignored (their db8
+ *   column is dropped when they leave); a member leaves settled, and what the others
+ *   owed each other through them is kept by one more db8 row (see leaveRow())
+ * - The journal is kept column-oriented and replayed by LedgerReplay; replay() reads
+ *   it as a stream, so rebuild() can regenerate db1 and db6 for groups of any size
+ * - load() starts from the group's LedgerSnapshot when it is still valid, and replays
+ *   only the rows after it; a new snapshot is taken every
+ *   -Dsplitwise.snapshot.interval replayed rows
+ *
+ * Contract:
+ * - load() and replay() issue all five reads in parallel and block until they are back
+ * - Query methods never touch the network; removeTransaction() reads the one db8
+ *   row it needs when that row was covered by a snapshot
+ * - addExpense/addSettlement/removeTransaction only change memory and queue the db5/db8
+ *   journal writes; nothing is sent until persist()
+ * - All amounts are long cents (see Money), so derived and stored values are
+ *   compared exactly
+ * - pendingWrites() is the computed diff: journal writes plus an UpdateData for each
+ *   db6/db1 row whose stored value differs from the derived one (this also repairs
+ *   rows that drifted from the journal earlier)
+ * - Every write in changes() carries its inverse (delete what was inserted, re-insert
+ *   what was deleted, restore the stored value), so a partly applied diff can be undone
+ * - persist() submits that diff as one ChangeSet (a single batched request the backend
+ *   applies atomically, when it supports batches) and then treats it as stored
+ * - Not thread-safe; a Ledger belongs to the screen action that loaded it
+ *
+ * Usage:
+ *   Ledger ledger = Ledger.load(gcode);
+ *   ledger.addExpense(uname, 3000, "Dinner", ledger.newTransactionId(), names, shares);
+ *   ledger.persist();
+ */
+public final class Ledger {
+
+    private final String code;
+    private final GroupRoster roster;
+    private final List<String> members;
+    private final Map<String, Integer> index;
+
+    /** Group codes known to keep net balances (true) or pairs (false); a layout never changes. */
+    private static final Map<String, Boolean> NET_GROUPS = new ConcurrentHashMap<>();
+
+    private final BalanceStore balances;
+    private final long[] spent;
+
+    /** Stored db1 values per member and of the Total row (see hasSpentRow for missing rows). */
+    private final long[] storedSpent;
+    private final boolean[] hasSpentRow;
+    private long storedTotal;
+
+    private final LedgerReplay details;
+    private final Map<String, PaymentHistoryRow> history = new HashMap<>();
+    private final ChangeSet journal = new ChangeSet();
+
+    /**
+     * Internal helper method - Builds the ledger from already loaded tables.
+     */
+    private Ledger(String code, String[] memberNames, List<PaymentHistoryRow> historyRows,
+            List<PendingAmountRow> pendingRows, LedgerReplay details, List<AmountSpentRow> spentRows) {
+        this.code = code;
+        this.roster = GroupRoster.update(code, memberNames);
+        this.members = roster.getMembers();
+        this.index = roster.index();
+        int n = memberNames.length;
+        boolean net = NetBalanceStore.holds(pendingRows);
+        NET_GROUPS.put(code, net);
+        this.balances = net ? new NetBalanceStore(code, members, index, pendingRows)
+                : new PairwiseBalanceStore(code, members, index, pendingRows);
+        this.spent = new long[n];
+        this.storedSpent = new long[n];
+        this.hasSpentRow = new boolean[n];
+
+        for (PaymentHistoryRow row : historyRows) {
+            if (row.getType() != PaymentHistoryRow.TYPE_LEFT) {
+                history.put(row.getTid(), row);
+            }
+        }
+        LedgerSnapshot snapshot = details.getSnapshot();
+        if (snapshot != null && !snapshot.restore(members, balances, spent)) {
+            details = details.withoutSnapshot();
+        }
+        this.details = details;
+        details.bind(index);
+        details.replay(history, balances, spent);
+        if (LedgerSnapshot.isDue(details.size())) {
+            LedgerSnapshot.capture(code, details, members, balances, spent).write();
+        }
+        for (AmountSpentRow row : spentRows) {
+            if (row.isTotal()) {
+                storedTotal = row.getAmount();
+            } else {
+                Integer m = index.get(row.getName());
+                if (m != null) {
+                    storedSpent[m] = row.getAmount();
+                    hasSpentRow[m] = true;
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a group and derives its balances.
+     *
+     * @param gcode  Group code
+     * @return       Ledger of the group
+     * @throws ApiException  When one of the reads fails
+     */
+    public static Ledger load(String gcode) {
+        LedgerSnapshot snapshot = LedgerSnapshot.read(gcode);
+        return load(gcode, ApiCaller.ApiCaller1Async("/db8/GetRowData?table=" + gcode)
+                .thenApply(rows -> LedgerReplay.fromRows(rows, snapshot)));
+    }
+
+    /**
+     * Reads a group like load(), streaming its journal instead of reading it whole.
+     *
+     * Contract:
+     * - db8 is fetched fresh (never from the response cache) and decoded row by row
+     *   into LedgerReplay, so memory and time grow with the number of cells only
+     * - Every row is replayed; snapshots are not used, but one is taken when due
+     *
+     * @param gcode  Group code
+     * @return       Ledger of the group
+     * @throws ApiException  When one of the reads fails
+     */
+    public static Ledger replay(String gcode) {
+        return load(gcode, ApiCaller.ApiCallerStreamAsync("/db8/GetRowData?table=" + gcode, new LedgerReplay()));
+    }
+
+    /**
+     * Replays a journal that was already read, e.g. by LedgerReconciler.
+     *
+     * @param gcode  Group code
+     * @param rows   db8 GetRowData result of the group, header row included
+     * @return       Ledger of the group, every row replayed (no snapshot)
+     * @throws ApiException  When one of the other reads fails
+     */
+    static Ledger replay(String gcode, String[][] rows) {
+        return load(gcode, CompletableFuture.completedFuture(LedgerReplay.fromRows(rows)));
+    }
+
+    /**
+     * Regenerates the derived tables of a group from its journal.
+     *
+     * Contract:
+     * - Replays db8 (see replay()) and writes every db1/db6 row whose stored value
+     *   differs from the replayed one, inserting missing rows, as one ChangeSet: a
+     *   single bulk request when the backend supports batches
+     * - db5 and db8 are only read
+     *
+     * @param gcode  Group code
+     * @return       Number of db1/db6 rows written (0 when nothing had drifted)
+     * @throws ApiException  When a read or the write fails
+     */
+    public static int rebuild(String gcode) {
+        Ledger ledger = replay(gcode);
+        ChangeSet changes = ledger.changes();
+        changes.submit();
+        ledger.markStored();
+        return changes.size();
+    }
+
+    /**
+     * Internal helper method - Issues the other four reads next to the journal read.
+     */
+    private static Ledger load(String gcode, CompletableFuture<LedgerReplay> details) {
+        CompletableFuture<String[]> members = ApiCaller.ApiCaller3Async("/db4/GetSpecificData?val=name&table=" + gcode);
+        CompletableFuture<List<PaymentHistoryRow>> history =
+                ApiCaller.ApiCallerRowsAsync("/db5/GetRowData?table=" + gcode, PaymentHistoryRow::fromRows);
+        CompletableFuture<List<PendingAmountRow>> pending =
+                ApiCaller.ApiCallerRowsAsync("/db6/GetRowData?table=" + gcode, PendingAmountRow::fromRows);
+        CompletableFuture<List<AmountSpentRow>> spent =
+                ApiCaller.ApiCallerRowsAsync("/db1/GetRowData?table=" + gcode, AmountSpentRow::fromRows);
+        ApiCaller.await(CompletableFuture.allOf(members, history, pending, details, spent));
+        return new Ledger(gcode, ApiCaller.await(members), ApiCaller.await(history), ApiCaller.await(pending),
+                ApiCaller.await(details), ApiCaller.await(spent));
+    }
+
+    /**
+     * Tells which db6 layout a group uses.
+     *
+     * Contract:
+     * - Answered from memory once the group was loaded or asked about; otherwise one
+     *   filtered db6 read
+     *
+     * @param gcode  Group code
+     * @return       true when the group keeps one net balance row per member
+     * @throws ApiException  When the lookup fails
+     */
+    public static boolean usesNetBalances(String gcode) {
+        Boolean net = NET_GROUPS.get(gcode);
+        if (net == null) {
+            net = Exists.exist("/db6/GetRowData?table=" + gcode + "&Member2=" + quote(PendingAmountRow.GROUP));
+            NET_GROUPS.put(gcode, net);
+        }
+        return net;
+    }
+
+    /** @return Group code */
+    public String getGroupCode() {
+        return code;
+    }
+
+    /** @return Current members, in db4 order */
+    public List<String> getMembers() {
+        return members;
+    }
+
+    /** @return Current members with their index; also the session's roster of the group */
+    GroupRoster getRoster() {
+        return roster;
+    }
+
+    /**
+     * Internal helper method - Index of a member, or IllegalArgumentException.
+     */
+    private int require(String member) {
+        Integer i = index.get(member);
+        if (i == null) {
+            throw new IllegalArgumentException(member + " is not a member of group " + code);
+        }
+        return i;
+    }
+
+    /**
+     * Balance between two members.
+     *
+     * @param member  Member the balance is seen from
+     * @param other   Other member
+     * @return        Cents, positive when other owes member, negative when member owes other
+     */
+    public long balanceBetween(String member, String other) {
+        return balances.between(require(member), require(other));
+    }
+
+    /**
+     * Net position of one member over the whole group.
+     *
+     * @param member  Member name
+     * @return        Cents, positive when the group owes the member, negative when the member owes
+     */
+    public long netBalance(String member) {
+        return balances.net(require(member));
+    }
+
+    /**
+     * @param member  Member name
+     * @return        true when the member owes nobody and nobody owes the member; with
+     *                net balances, when the member's net position is 0 (the journal may
+     *                still hold balances between them and others, see leaveRow())
+     */
+    public boolean isSettled(String member) {
+        return balances.isSettled(require(member));
+    }
+
+    /**
+     * db8 row that keeps the other members' balances when a settled member leaves.
+     *
+     * Contract:
+     * - Leaving drops the member's db8 column, and rows they created are no longer
+     *   replayed, so every balance the journal holds between them and another member
+     *   disappears from that member's position. With net balances a member is settled
+     *   at a net position of 0 while such balances may remain (A owes them 10, they
+     *   owe B 10), so the others' positions would change
+     * - The row moves those balances onto the remaining members: created by the first
+     *   member with such a balance, it holds in every other member's column what that
+     *   member owed the leaving one, so each remaining position replays to the same
+     *   value after the leave (A then owes B the 10)
+     * - Uses every journal row; a ledger started from a snapshot decodes the response
+     *   again, so this is meant for a ledger that was just loaded
+     * - tid should be the member's "left the group" db5 record: the row is then neither
+     *   an expense nor a settlement, and the shares (db1) and the history are unchanged
+     *
+     * @param member  Member who leaves
+     * @param tid     Transaction ID of the row
+     * @return        db8 InsertData path, or null when the journal holds no balance
+     *                between the member and anyone (always the case for pairs)
+     * @throws IllegalStateException  When the member is not settled
+     */
+    public String leaveRow(String member, String tid) {
+        int leaving = require(member);
+        if (!balances.isSettled(leaving)) {
+            throw new IllegalStateException(member + " has pending amounts in group " + code);
+        }
+        LedgerReplay journal = details;
+        if (journal.getSnapshot() != null) {
+            journal = journal.withoutSnapshot();
+            journal.bind(index);
+        }
+        long[] owed = journal.balancesWith(leaving, members.size());
+        int creator = -1;
+        for (int m = 0; m < owed.length && creator < 0; m++) {
+            if (owed[m] != 0) {
+                creator = m;
+            }
+        }
+        if (creator < 0) {
+            return null;
+        }
+        long[] amounts = new long[owed.length];
+        for (int m = 0; m < owed.length; m++) {
+            if (m != creator && m != leaving) {
+                amounts[m] = owed[m];
+            }
+        }
+        return journal.insertRequest(code, members.get(creator), tid, amounts);
+    }
+
+    /** @return true when the group keeps one net balance row per member in db6 */
+    public boolean hasNetBalances() {
+        return balances instanceof NetBalanceStore;
+    }
+
+    /**
+     * @param member  Member name
+     * @return        Member's share of all expenses in cents (db1 row of the member)
+     */
+    public long amountSpent(String member) {
+        return spent[require(member)];
+    }
+
+    /** @return Total spending of the group in cents (db1 Total row) */
+    public long totalSpent() {
+        long total = 0;
+        for (long value : spent) {
+            total += value;
+        }
+        return total;
+    }
+
+    /**
+     * Pairwise balances in the same shape as db6 pair rows.
+     *
+     * Contract:
+     * - Amount is the derived balance in cents: positive when Member2 owes Member1
+     * - Pair layout: one row per pair of members, using the stored row's id and
+     *   orientation; pairs without a stored row come last with id 0
+     * - Net layout: one row per payment planned by SettlementPlanner, id 0
+     *
+     * @return  Rows in db6 order
+     */
+    public List<PendingAmountRow> pendingAmounts() {
+        return balances.pendingAmounts();
+    }
+
+    /**
+     * @return  A transaction ID not used by any journal row of the group
+     */
+    public String newTransactionId() {
+        return AddTransaction.createCode(details.transactionIds());
+    }
+
+    /**
+     * Records an expense paid by one member and shared by several.
+     *
+     * @param creator  Member who paid
+     * @param cost     Amount paid, in cents
+     * @param reason   Reason shown in the history
+     * @param tid      New transaction ID (see newTransactionId())
+     * @param names    Members who have a share
+     * @param shares   Share of each of them in cents, parallel to names
+     * @throws IllegalArgumentException  When creator or a share holder is not a member
+     */
+    public void addExpense(String creator, long cost, String reason, String tid, List<String> names, long[] shares) {
+        require(creator);
+        long[] values = new long[members.size()];
+        for (int i = 0; i < names.size(); i++) {
+            values[require(names.get(i))] += shares[i];
+        }
+        values[index.get(creator)] -= cost;
+        record(new PaymentHistoryRow(0, creator, cost, reason, PaymentHistoryRow.TYPE_EXPENSE, tid), creator, values);
+    }
+
+    /**
+     * Records money paid from one member to another.
+     *
+     * @param payer     Member who paid
+     * @param receiver  Member who received the money
+     * @param amount    Amount paid, in cents
+     * @param creator   Member recording the payment (payer or receiver)
+     * @param tid       New transaction ID (see newTransactionId())
+     * @throws IllegalArgumentException  When payer or receiver is not a member
+     */
+    public void addSettlement(String payer, String receiver, long amount, String creator, String tid) {
+        long[] values = new long[members.size()];
+        values[require(payer)] = -amount;
+        values[require(receiver)] = amount;
+        record(new PaymentHistoryRow(0, payer, amount, receiver, PaymentHistoryRow.TYPE_SETTLEMENT, tid), creator, values);
+    }
+
+    /**
+     * Internal helper method - Applies a new transaction and queues its db5/db8 rows.
+     */
+    private void record(PaymentHistoryRow entry, String creator, long[] values) {
+        history.put(entry.getTid(), entry);
+        int row = details.append(creator, entry.getTid(), members, values);
+        details.apply(row, entry, 1, balances, spent);
+
+        journal.add(insertHistory(entry), deleteByTid("db5", entry.getTid()));
+        journal.add(details.insertRequest(code, row), deleteByTid("db8", entry.getTid()));
+    }
+
+    /**
+     * Internal helper method - db5 InsertData of a history row.
+     */
+    private String insertHistory(PaymentHistoryRow entry) {
+        return "/db5/InsertData?table=" + code + "&params=(payee,amount,reason,Ttype,tid)&info=("
+                + quote(entry.getPayee()) + "," + Money.format(entry.getAmount()) + "," + quote(entry.getReason()) + ","
+                + entry.getType() + "," + quote(entry.getTid()) + ")";
+    }
+
+    /**
+     * Internal helper method - DeleteRowData of the db5 or db8 rows of a transaction.
+     */
+    private String deleteByTid(String db, String tid) {
+        return "/" + db + "/DeleteRowData?table=" + code + "&tID=" + tid;
+    }
+
+    /**
+     * Reverses a transaction and queues the deletion of its db5/db8 rows.
+     *
+     * @param tid  Transaction ID
+     * @return     false when the group has no journal row with that ID
+     * @throws ApiException  When the row was covered by a snapshot and cannot be read
+     */
+    public boolean removeTransaction(String tid) {
+        int row = details.find(tid);
+        if (row < 0 && details.isSkipped(tid)) {
+            row = details.appendRows(ApiCaller.ApiCaller1("/db8/GetRowData?table=" + code + "&tID=" + param(tid)));
+        }
+        if (row < 0) {
+            return false;
+        }
+        PaymentHistoryRow entry = history.remove(tid);
+        details.apply(row, entry, -1, balances, spent);
+        details.remove(row);
+        if (entry != null) {
+            journal.add(deleteByTid("db5", tid), insertHistory(entry));
+        } else {
+            journal.add(deleteByTid("db5", tid));
+        }
+        journal.add(deleteByTid("db8", tid), details.insertRequest(code, row));
+        return true;
+    }
+
+    /**
+     * Computes the writes that bring the database in line with this ledger.
+     *
+     * @return  Request paths for ApiCaller2: queued journal writes first, then one
+     *          UpdateData (or InsertData for missing rows) per db6/db1 row whose
+     *          stored value differs
+     */
+    public List<String> pendingWrites() {
+        return changes().getWrites();
+    }
+
+    /**
+     * The pending writes with their inverses.
+     *
+     * @return  Change set in pendingWrites() order: history and details rows first,
+     *          then the balance and spending rows
+     */
+    public ChangeSet changes() {
+        ChangeSet changes = new ChangeSet().addAll(journal);
+        balances.addWrites(changes);
+        for (int m = 0; m < members.size(); m++) {
+            if (!hasSpentRow[m]) {
+                changes.add("/db1/InsertData?table=" + code + "&params=(Name,Amount)&info=("
+                        + quote(members.get(m)) + "," + Money.format(spent[m]) + ")",
+                        "/db1/DeleteRowData?table=" + code + "&Name=" + param(members.get(m)));
+            } else if (spent[m] != storedSpent[m]) {
+                changes.add(updateSpent(members.get(m), spent[m]), updateSpent(members.get(m), storedSpent[m]));
+            }
+        }
+        long total = totalSpent();
+        if (total != storedTotal) {
+            changes.add(updateSpent(AmountSpentRow.TOTAL, total), updateSpent(AmountSpentRow.TOTAL, storedTotal));
+        }
+        return changes;
+    }
+
+    /**
+     * Internal helper method - db1 UpdateData of one row.
+     */
+    private String updateSpent(String name, long cents) {
+        return "/db1/UpdateData?table=" + code + "&where=Name=" + quote(name) + "&Amount=" + Money.format(cents);
+    }
+
+    /**
+     * Submits changes() and marks the result as stored.
+     *
+     * Contract:
+     * - One POST /batch when the backend supports it, otherwise every write in flight
+     *   together (every write targets a different row), see ChangeSet
+     * - Returns only after every write has completed
+     *
+     * @return  Number of round trips (0 when nothing changed)
+     * @throws ApiException  When the batch or a write fails; the ledger then keeps the
+     *                       diff pending
+     */
+    public int persist() {
+        int roundTrips = changes().submit();
+        markStored();
+        return roundTrips;
+    }
+
+    /**
+     * Internal helper method - Treats the current derived values as stored.
+     */
+    private void markStored() {
+        journal.clear();
+        balances.markStored();
+        System.arraycopy(spent, 0, storedSpent, 0, spent.length);
+        Arrays.fill(hasSpentRow, true);
+        storedTotal = totalSpent();
+    }
+
+    /**
+     * Quotes a text value for an info/where parameter (also used by the BalanceStores).
+     */
+    static String quote(String value) {
+        return "%27" + param(value) + "%27";
+    }
+
+    /**
+     * Encodes a text value for a filter parameter such as &Name= (no quotes).
+     */
+    static String param(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -0,0 +1,432 @@
+package splitwiseapplication;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Headless consistency check of the ledger tables of one or more groups.
+ *
+ * Purpose:
+ * db1 (CheckAmountSpent), db6 (PendingAmount) and the db5/db8 journal are written by
+ * several screens, and older versions wrote them request by request, so some groups
+ * hold tables that disagree. The reconciler reads the tables of each group, checks the
+ * invariants below, replays the journal (see Ledger) and reports what is wrong; it can
+ * print or apply the writes that bring db1 and db6 back in line with the journal.
+ *
+ * Invariants checked:
+ * - db1: the Total row equals the sum of the member rows
+ * - db6: net positions add up to 0; a pair of members is stored once, never with itself
+ * - db5/db8: every transaction has both rows (a db8 row may also belong to a "left the
+ *   group" entry, see Ledger.leaveRow()); the db8 values of a transaction add up
+ *   to 0, i.e. the shares add up to the db5 amount of an expense; a settlement moves
+ *   its db5 amount from payer to receiver
+ * - db1/db6 against the journal: every stored value equals the replayed one
+ *
+ * Contract:
+ * - Groups are checked in parallel (-Dsplitwise.reconcile.threads, default 4); each
+ *   group's tables are read in parallel as well
+ * - Values of members who left are no longer in db8, so when a group has TYPE_LEFT
+ *   entries the db8 sums are not checked (noted in the report)
+ * - Corrections only cover db1 and db6 (the journal is the source of truth); a
+ *   transaction whose rows are inconsistent has to be repaired by hand
+ * - --fix submits each group's corrections as one ChangeSet, then checks the group again
+ *
+ * Usage:
+ *   java -cp Splitwise.jar splitwiseapplication.LedgerReconciler [--writes] [--fix] (--all | GROUP...)
+ *   Exit status: 0 all consistent (or fixed), 1 problems left, 2 usage error
+ */
+public final class LedgerReconciler {
+
+    private static final String USAGE =
+            "Usage: LedgerReconciler [--writes] [--fix] (--all | GROUP...)\n"
+            + "  --all     check every group in GroupNames\n"
+            + "  --writes  print the corrective writes\n"
+            + "  --fix     submit the corrective writes";
+
+    private LedgerReconciler() {
+    }
+
+    /**
+     * Outcome of checking one group.
+     */
+    public static final class Report {
+
+        private final String code;
+        private final List<String> problems = new ArrayList<>();
+        private final List<String> notes = new ArrayList<>();
+        private ChangeSet corrections = new ChangeSet();
+        private ApiException failure;
+        private boolean fixed;
+
+        /** Problems found when the group was checked again after the fix. */
+        private List<String> remaining = Collections.emptyList();
+
+        Report(String code) {
+            this.code = code;
+        }
+
+        /** @return Group code */
+        public String getCode() {
+            return code;
+        }
+
+        /** @return Invariant violations, one line each (read-only view) */
+        public List<String> getProblems() {
+            return Collections.unmodifiableList(problems);
+        }
+
+        /** @return Remarks that are not violations, e.g. checks that were skipped */
+        public List<String> getNotes() {
+            return Collections.unmodifiableList(notes);
+        }
+
+        /** @return Writes that bring db1 and db6 in line with the journal */
+        public ChangeSet getCorrections() {
+            return corrections;
+        }
+
+        /** @return The failure that stopped the check, or null */
+        public ApiException getFailure() {
+            return failure;
+        }
+
+        /** @return true when the corrections were submitted */
+        public boolean isFixed() {
+            return fixed;
+        }
+
+        /** @return Problems still found by the check that follows a fix (read-only view) */
+        public List<String> getRemaining() {
+            return Collections.unmodifiableList(remaining);
+        }
+
+        /**
+         * @return  true when nothing is left to repair: no problems, or none left once
+         *          the corrections were submitted
+         */
+        public boolean isConsistent() {
+            return failure == null && (fixed ? remaining.isEmpty() : problems.isEmpty());
+        }
+    }
+
+    /**
+     * Checks one group.
+     *
+     * @param gcode  Group code
+     * @return       Report of the group
+     * @throws ApiException  When a read fails
+     */
+    public static Report check(String gcode) {
+        CompletableFuture<List<PaymentHistoryRow>> history =
+                ApiCaller.ApiCallerRowsAsync("/db5/GetRowData?table=" + gcode, PaymentHistoryRow::fromRows);
+        CompletableFuture<List<PendingAmountRow>> pending =
+                ApiCaller.ApiCallerRowsAsync("/db6/GetRowData?table=" + gcode, PendingAmountRow::fromRows);
+        CompletableFuture<List<AmountSpentRow>> spent =
+                ApiCaller.ApiCallerRowsAsync("/db1/GetRowData?table=" + gcode, AmountSpentRow::fromRows);
+        CompletableFuture<String[][]> details = ApiCaller.ApiCaller1Async("/db8/GetRowData?table=" + gcode);
+        ApiCaller.await(CompletableFuture.allOf(history, pending, spent, details));
+
+        // The other reads of the replay are served by the response cache
+        Ledger ledger = Ledger.replay(gcode, ApiCaller.await(details));
+
+        Report report = new Report(gcode);
+        checkSpent(report, ApiCaller.await(spent));
+        checkPending(report, ApiCaller.await(pending));
+        checkJournal(report, ApiCaller.await(history), TransactionDetailsRow.fromRows(ApiCaller.await(details)));
+        checkDerived(report, ledger, ApiCaller.await(spent), ApiCaller.await(pending));
+        report.corrections = ledger.changes();
+        return report;
+    }
+
+    /**
+     * Internal helper method - db1 Total against the member rows.
+     */
+    private static void checkSpent(Report report, List<AmountSpentRow> rows) {
+        long sum = 0;
+        Long total = null;
+        for (AmountSpentRow row : rows) {
+            if (row.isTotal()) {
+                total = row.getAmount();
+            } else {
+                sum += row.getAmount();
+            }
+        }
+        if (total == null) {
+            report.problems.add("db1 has no Total row");
+        } else if (total != sum) {
+            report.problems.add("db1 Total is " + Money.format(total) + ", member rows add up to " + Money.format(sum));
+        }
+    }
+
+    /**
+     * Internal helper method - db6 net positions add up to 0, pairs stored once.
+     */
+    private static void checkPending(Report report, List<PendingAmountRow> rows) {
+        if (NetBalanceStore.holds(rows)) {
+            long sum = 0;
+            for (PendingAmountRow row : rows) {
+                if (PendingAmountRow.GROUP.equals(row.getMember2())) {
+                    sum += row.getAmount();
+                }
+            }
+            if (sum != 0) {
+                report.problems.add("db6 net positions add up to " + Money.format(sum) + " instead of 0.00");
+            }
+            return;
+        }
+        Set<String> pairs = new HashSet<>();
+        for (PendingAmountRow row : rows) {
+            String m1 = row.getMember1();
+            String m2 = row.getMember2();
+            if (m1.equals(m2)) {
+                report.problems.add("db6 row " + row.getId() + " pairs " + m1 + " with themselves");
+            } else if (!pairs.add(m1.compareTo(m2) < 0 ? m1 + "\u0000" + m2 : m2 + "\u0000" + m1)) {
+                report.problems.add("db6 pair " + m1 + "/" + m2 + " is stored more than once (row " + row.getId() + ")");
+            }
+        }
+    }
+
+    /**
+     * Internal helper method - db5 and db8 rows of every transaction agree.
+     */
+    private static void checkJournal(Report report, List<PaymentHistoryRow> historyRows,
+            List<TransactionDetailsRow> detailRows) {
+        Map<String, PaymentHistoryRow> history = new LinkedHashMap<>();
+        Set<String> leftIds = new HashSet<>();
+        boolean left = false;
+        for (PaymentHistoryRow row : historyRows) {
+            if (row.getType() == PaymentHistoryRow.TYPE_LEFT) {
+                left = true;
+                leftIds.add(row.getTid());
+            } else {
+                history.put(row.getTid(), row);
+            }
+        }
+        if (left) {
+            report.notes.add("members have left the group, db8 sums not checked");
+        }
+
+        Set<String> journaled = new HashSet<>();
+        for (TransactionDetailsRow row : detailRows) {
+            String tid = row.getTid();
+            journaled.add(tid);
+            PaymentHistoryRow entry = history.get(tid);
+            if (entry == null && leftIds.contains(tid)) {
+                continue; // Balances kept when a member left (Ledger.leaveRow())
+            }
+            if (entry == null) {
+                report.problems.add("transaction " + tid + ": db8 row " + row.getId() + " has no db5 entry");
+                continue;
+            }
+            if (left) {
+                continue;
+            }
+            long sum = 0;
+            for (int c = 0; c < row.memberCount(); c++) {
+                sum += row.amountAt(c);
+            }
+            if (entry.getType() == PaymentHistoryRow.TYPE_EXPENSE && sum != 0) {
+                report.problems.add("transaction " + tid + ": shares add up to " + Money.format(sum + entry.getAmount())
+                        + ", db5 amount is " + Money.format(entry.getAmount()));
+            } else if (entry.getType() == PaymentHistoryRow.TYPE_SETTLEMENT
+                    && (sum != 0 || row.amountOf(entry.getReason()) != entry.getAmount())) {
+                report.problems.add("transaction " + tid + ": db8 does not move " + Money.format(entry.getAmount())
+                        + " from " + entry.getPayee() + " to " + entry.getReason());
+            }
+        }
+        for (PaymentHistoryRow entry : history.values()) {
+            if (!journaled.contains(entry.getTid())) {
+                report.problems.add("transaction " + entry.getTid() + ": db5 entry " + entry.getId() + " has no db8 row");
+            }
+        }
+    }
+
+    /**
+     * Internal helper method - Stored db1/db6 values against the replayed journal.
+     */
+    private static void checkDerived(Report report, Ledger ledger, List<AmountSpentRow> spentRows,
+            List<PendingAmountRow> pendingRows) {
+        Map<String, Long> stored = new HashMap<>();
+        for (AmountSpentRow row : spentRows) {
+            if (!row.isTotal()) {
+                stored.put(row.getName(), row.getAmount());
+            }
+        }
+        for (String member : ledger.getMembers()) {
+            Long value = stored.get(member);
+            long derived = ledger.amountSpent(member);
+            if (value == null) {
+                report.problems.add("db1 has no row for " + member + " (journal: " + Money.format(derived) + ")");
+            } else if (value != derived) {
+                report.problems.add("db1 " + member + " is " + Money.format(value) + ", journal gives " + Money.format(derived));
+            }
+        }
+
+        Map<String, Long> pairs = new HashMap<>();
+        for (PendingAmountRow row : pendingRows) {
+            pairs.put(row.getMember1() + "\u0000" + row.getMember2(), row.getAmount());
+        }
+        List<String> members = ledger.getMembers();
+        for (int i = 0; i < members.size(); i++) {
+            String m1 = members.get(i);
+            if (ledger.hasNetBalances()) {
+                compare(report, m1, PendingAmountRow.GROUP, pairs.get(m1 + "\u0000" + PendingAmountRow.GROUP),
+                        ledger.netBalance(m1));
+                continue;
+            }
+            for (int j = i + 1; j < members.size(); j++) {
+                String m2 = members.get(j);
+                Long value = pairs.get(m1 + "\u0000" + m2);
+                if (value != null) {
+                    compare(report, m1, m2, value, ledger.balanceBetween(m1, m2));
+                } else {
+                    value = pairs.get(m2 + "\u0000" + m1);
+                    compare(report, m2, m1, value, ledger.balanceBetween(m2, m1));
+                }
+            }
+        }
+    }
+
+    /**
+     * Internal helper method - One db6 row against its replayed value.
+     */
+    private static void compare(Report report, String member1, String member2, Long stored, long derived) {
+        if (stored == null) {
+            report.problems.add("db6 has no row " + member1 + "/" + member2 + " (journal: " + Money.format(derived) + ")");
+        } else if (stored != derived) {
+            report.problems.add("db6 " + member1 + "/" + member2 + " is " + Money.format(stored)
+                    + ", journal gives " + Money.format(derived));
+        }
+    }
+
+    /**
+     * Checks a group and optionally submits its corrections.
+     *
+     * Contract:
+     * - After a fix the group is checked again (the writes invalidated the cached
+     *   reads); what that check still finds is getRemaining()
+     *
+     * @param gcode  Group code
+     * @param fix    Submit the corrections when there are any
+     * @return       Report; a failed read or write is recorded in it, not thrown
+     */
+    public static Report reconcile(String gcode, boolean fix) {
+        Report report;
+        try {
+            report = check(gcode);
+        } catch (ApiException e) {
+            report = new Report(gcode);
+            report.failure = e;
+            return report;
+        }
+        if (fix && !report.corrections.isEmpty()) {
+            try {
+                report.corrections.submit();
+                report.fixed = true;
+                report.remaining = check(gcode).problems;
+            } catch (ApiException e) {
+                report.failure = e;
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Command line entry point.
+     *
+     * @param args  Options and group codes, see USAGE
+     */
+    public static void main(String[] args) {
+        boolean all = false;
+        boolean writes = false;
+        boolean fix = false;
+        List<String> codes = new ArrayList<>();
+        for (String arg : args) {
+            switch (arg) {
+                case "--all":
+                    all = true;
+                    break;
+                case "--writes":
+                    writes = true;
+                    break;
+                case "--fix":
+                    fix = true;
+                    break;
+                default:
+                    if (arg.startsWith("--")) {
+                        System.err.println(USAGE);
+                        System.exit(2);
+                    }
+                    codes.add(arg);
+            }
+        }
+        if (all) {
+            codes.addAll(Arrays.asList(ApiCaller.ApiCaller3("/db3/GetSpecificData?val=group_code&table=GroupNames")));
+        }
+        if (codes.isEmpty()) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Integer.getInteger("splitwise.reconcile.threads", 4)));
+        List<CompletableFuture<Report>> reports = new ArrayList<>();
+        for (String code : codes) {
+            boolean apply = fix;
+            reports.add(CompletableFuture.supplyAsync(() -> reconcile(code, apply), pool));
+        }
+
+        int inconsistent = 0;
+        for (CompletableFuture<Report> future : reports) {
+            Report report = future.join();
+            print(report, writes);
+            if (!report.isConsistent()) {
+                inconsistent++;
+            }
+        }
+        pool.shutdown();
+        System.out.println(codes.size() + " group(s) checked, " + inconsistent + " with problems left");
+        System.exit(inconsistent == 0 ? 0 : 1);
+    }
+
+    /**
+     * Internal helper method - Prints the report of one group.
+     */
+    private static void print(Report report, boolean writes) {
+        if (report.failure != null && report.problems.isEmpty()) {
+            System.out.println(report.code + ": could not be checked: " + report.failure.getMessage());
+            return;
+        }
+        System.out.println(report.code + ": " + (report.problems.isEmpty() ? "consistent" : report.problems.size() + " problem(s)"));
+        for (String problem : report.problems) {
+            System.out.println("  " + problem);
+        }
+        for (String note : report.notes) {
+            System.out.println("  note: " + note);
+        }
+        if (writes) {
+            for (String write : report.corrections.getWrites()) {
+                System.out.println("  write: " + write);
+            }
+        }
+        if (report.fixed) {
+            System.out.println("  fixed: " + report.corrections.size() + " write(s) submitted, "
+                    + report.remaining.size() + " problem(s) left");
+            for (String problem : report.remaining) {
+                System.out.println("    " + problem);
+            }
+        }
+        if (report.failure != null) {
+            System.out.println("  failed: " + report.failure.getMessage());
+        }
+    }
+}
@@ -0,0 +1,560 @@
+package splitwiseapplication;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Column-oriented copy of a group's db8 journal, and the replay that derives db1 and
+ * db6 from it.
+ *
+ * Purpose:
+ * db1 (CheckAmountSpent) and db6 (PendingAmount) are derived from the journal and can
+ * drift from it when a multi-request operation fails halfway. Ledger rebuilds them by
+ * replaying every db8 row; for a large group, keeping each row as a
+ * TransactionDetailsRow (plus the String[] it was parsed from) costs several objects
+ * per cell. A LedgerReplay receives the rows one at a time, straight from the JSON
+ * parser (see ApiCaller.ApiCallerStreamAsync()) or from a cached response, keeps the
+ * member values in one flat long[] (row-major, one slot per member column) and replays
+ * them with array arithmetic only.
+ *
+ * Replay rules (see Ledger, "Source of truth"):
+ * - For a row created by C, every member M other than C owes C the value of M
+ * - When db5 says the row is an expense: M's share is M's value, plus the cost for C
+ * - Columns of members who are not in the group (any more) are ignored
+ *
+ * Contract:
+ * - Rows are replayed in the order they were received, which is db8 id order; all
+ *   amounts are long cents and the replay only adds them up, so the result is exact
+ *   and does not depend on that order (no floating point drift between replays)
+ * - The header row is detected like TableRows does; without one the member names are
+ *   unknown ("column{N}") and no member value is applied
+ * - A transaction ID names its last row; removing it removes only that row
+ * - Started from a LedgerSnapshot, rows up to the snapshot's lastId are only counted
+ *   and hashed, not decoded or replayed; they are fetched one by one if they have to
+ *   be removed (see appendRows())
+ * - Not thread-safe, like Ledger; start() discards everything received so far, so a
+ *   retried stream does not count rows twice
+ *
+ * Usage (inside Ledger):
+ *   LedgerReplay journal = ApiCaller.await(ApiCaller.ApiCallerStreamAsync(url, new LedgerReplay()));
+ *   journal.bind(index);
+ *   journal.replay(history, balances, spent);
+ */
+final class LedgerReplay implements ApiCaller.RowHandler {
+
+    private static final int FIRST_MEMBER_COLUMN = 3;
+
+    /** Cell positions of the fixed columns and of each member column. */
+    private int idCell;
+    private int creatorCell;
+    private int tidCell;
+    private int[] memberCells;
+
+    /** Member column names, and the position of each in the bound member list (-1: not a member). */
+    private String[] columns;
+    private int[] memberOf;
+    private Map<String, Integer> index;
+
+    /** true until the first row of the response was seen. */
+    private boolean first;
+
+    private int rows;
+    private String[] creators;
+    private String[] tids;
+    private long[] values;
+    private final BitSet removed = new BitSet();
+    private final Map<String, Integer> rowOfTid = new HashMap<>();
+
+    /** Every row received: count, hash of (id, tID) in order, and the largest id. */
+    private int received;
+    private long hash;
+    private int lastId;
+
+    /** Snapshot the journal starts from (null: none), the parsed response, and the rows it covers. */
+    private LedgerSnapshot base;
+    private String[][] source;
+    private int baseRows;
+    private long baseHash;
+    private final Set<String> skipped = new HashSet<>();
+
+    LedgerReplay() {
+        start();
+    }
+
+    /**
+     * Builds the journal from an already parsed db8 GetRowData result.
+     *
+     * @param cells  Rows from ApiCaller1, header row included
+     * @return       Journal holding the data rows
+     */
+    static LedgerReplay fromRows(String[][] cells) {
+        LedgerReplay journal = new LedgerReplay();
+        for (String[] row : cells) {
+            journal.row(row);
+        }
+        return journal;
+    }
+
+    /**
+     * Builds the journal from a parsed db8 GetRowData result, starting from a snapshot.
+     *
+     * Contract:
+     * - Only rows after the snapshot are decoded; the snapshot's state must then be
+     *   restored before replay() (see getSnapshot())
+     * - Decodes every row when the member columns changed, and falls back to
+     *   fromRows(cells) when the rows the snapshot covers are not exactly the ones
+     *   received (a transaction was deleted)
+     *
+     * @param cells     Rows from ApiCaller1, header row included
+     * @param snapshot  Snapshot of the group, or null
+     * @return          Journal holding the rows after the snapshot, or all rows
+     */
+    static LedgerReplay fromRows(String[][] cells, LedgerSnapshot snapshot) {
+        if (snapshot != null) {
+            LedgerReplay journal = new LedgerReplay();
+            journal.base = snapshot;
+            journal.source = cells;
+            for (String[] row : cells) {
+                journal.row(row);
+            }
+            if (journal.base == null || journal.baseRows == snapshot.getRows() && journal.baseHash == snapshot.getHash()) {
+                return journal;
+            }
+        }
+        return fromRows(cells);
+    }
+
+    /**
+     * @return  The snapshot whose rows were skipped, or null when every row was decoded
+     */
+    LedgerSnapshot getSnapshot() {
+        return base;
+    }
+
+    /**
+     * @return  The same response decoded in full, for when the snapshot cannot be restored
+     */
+    LedgerReplay withoutSnapshot() {
+        return base == null ? this : fromRows(source);
+    }
+
+    /**
+     * Discards every row, e.g. before a retried response is received again.
+     */
+    @Override
+    public void start() {
+        creatorCell = 1;
+        tidCell = 2;
+        memberCells = null;
+        columns = new String[0];
+        memberOf = new int[0];
+        first = true;
+        rows = 0;
+        received = 0;
+        hash = 0;
+        lastId = 0;
+        baseRows = 0;
+        baseHash = 0;
+        skipped.clear();
+        creators = new String[16];
+        tids = new String[16];
+        values = new long[0];
+        removed.clear();
+        rowOfTid.clear();
+    }
+
+    /**
+     * Receives one row of a db8 GetRowData response, header row included.
+     *
+     * @param cells  Cells of the row
+     */
+    @Override
+    public void row(String[] cells) {
+        if (first) {
+            first = false;
+            boolean header = TableRows.isHeader(cells, "id", "Creator", "tID");
+            layout(header ? cells : null, cells.length);
+            if (base != null && !Arrays.equals(columns, base.getColumns())) {
+                base = null;
+            }
+            if (header) {
+                return;
+            }
+        }
+        int id = TableRows.integer(cells, idCell);
+        String tid = TableRows.text(cells, tidCell);
+        received++;
+        hash = mix(hash, id, tid);
+        lastId = Math.max(lastId, id);
+        if (base != null && id <= base.getLastId()) {
+            baseRows++;
+            baseHash = mix(baseHash, id, tid);
+            skipped.add(tid);
+            return;
+        }
+        decode(cells, tid);
+    }
+
+    /**
+     * Internal helper method - Stores the member values of a data row.
+     */
+    private void decode(String[] cells, String tid) {
+        int offset = reserve(TableRows.text(cells, creatorCell), tid);
+        for (int c = 0; c < memberCells.length; c++) {
+            values[offset + c] = TableRows.cents(cells, memberCells[c]);
+        }
+    }
+
+    /**
+     * Internal helper method - Folds one row into a hash of the journal.
+     */
+    private static long mix(long hash, int id, String tid) {
+        return hash * 0x9E3779B97F4A7C15L + 31L * id + tid.hashCode();
+    }
+
+    /**
+     * Internal helper method - Finds the fixed and member columns of the response.
+     */
+    private void layout(String[] header, int width) {
+        idCell = 0;
+        if (header != null) {
+            for (int i = 0; i < header.length; i++) {
+                if (header[i].equalsIgnoreCase("id")) {
+                    idCell = i;
+                } else if (header[i].equalsIgnoreCase("Creator")) {
+                    creatorCell = i;
+                } else if (header[i].equalsIgnoreCase("tID")) {
+                    tidCell = i;
+                }
+            }
+        }
+        int count = Math.max(0, width - FIRST_MEMBER_COLUMN);
+        memberCells = new int[count];
+        String[] names = new String[count];
+        int m = 0;
+        for (int cell = 0; cell < width && m < count; cell++) {
+            if (cell != idCell && cell != creatorCell && cell != tidCell) {
+                memberCells[m] = cell;
+                names[m++] = header != null ? header[cell] : "column" + cell;
+            }
+        }
+        columns = Arrays.copyOf(names, m);
+        memberCells = Arrays.copyOf(memberCells, m);
+        memberOf = new int[m];
+        Arrays.fill(memberOf, -1);
+    }
+
+    /**
+     * Resolves the member columns against the group's members.
+     *
+     * @param index  Member name to position in the member list
+     */
+    void bind(Map<String, Integer> index) {
+        this.index = index;
+        for (int c = 0; c < columns.length; c++) {
+            Integer m = index.get(columns[c]);
+            memberOf[c] = m != null ? m : -1;
+        }
+    }
+
+    /**
+     * Appends a transaction.
+     *
+     * @param creator  Member who created it
+     * @param tid      Transaction ID
+     * @param row      Value per member column in cents, parallel to the columns
+     * @return         Row number
+     */
+    int append(String creator, String tid, long[] row) {
+        System.arraycopy(row, 0, values, reserve(creator, tid), columns.length);
+        return rows - 1;
+    }
+
+    /**
+     * Internal helper method - Adds a row of zeros, growing the arrays by doubling.
+     *
+     * @return  Offset of the row's first value in values
+     */
+    private int reserve(String creator, String tid) {
+        if (rows == tids.length) {
+            creators = Arrays.copyOf(creators, rows * 2);
+            tids = Arrays.copyOf(tids, rows * 2);
+        }
+        int width = columns.length;
+        if ((rows + 1) * width > values.length) {
+            values = Arrays.copyOf(values, Math.max(16 * width, values.length * 2));
+        }
+        creators[rows] = creator;
+        tids[rows] = tid;
+        rowOfTid.put(tid, rows);
+        return rows++ * width;
+    }
+
+    /**
+     * Appends a transaction recorded by Ledger.
+     *
+     * Contract:
+     * - Members who have no column yet get one (0 in every earlier row), so the row
+     *   names every current member, as its db8 InsertData does
+     *
+     * @param creator  Member who created it
+     * @param tid      Transaction ID
+     * @param members  Current members (the list bound with bind())
+     * @param amounts  Value per member in cents, parallel to members
+     * @return         Row number
+     */
+    int append(String creator, String tid, List<String> members, long[] amounts) {
+        long[] row = new long[columns.length];
+        for (int m = 0; m < members.size(); m++) {
+            int c = column(members.get(m));
+            if (c == row.length) {
+                row = Arrays.copyOf(row, c + 1);
+            }
+            row[c] = amounts[m];
+        }
+        return append(creator, tid, row);
+    }
+
+    /**
+     * Internal helper method - Column of a member, added when missing.
+     */
+    private int column(String member) {
+        for (int c = 0; c < columns.length; c++) {
+            if (columns[c].equals(member)) {
+                return c;
+            }
+        }
+        int width = columns.length;
+        long[] widened = new long[Math.max(16, rows * 2) * (width + 1)];
+        for (int r = 0; r < rows; r++) {
+            System.arraycopy(values, r * width, widened, r * (width + 1), width);
+        }
+        values = widened;
+        columns = Arrays.copyOf(columns, width + 1);
+        columns[width] = member;
+        memberOf = Arrays.copyOf(memberOf, width + 1);
+        Integer m = index != null ? index.get(member) : null;
+        memberOf[width] = m != null ? m : -1;
+        return width;
+    }
+
+    /**
+     * Replays every row that was not removed.
+     *
+     * @param history   Expense and settlement entries of db5, by transaction ID
+     * @param balances  Receives the pairwise amounts
+     * @param spent     Receives each member's share of the expenses, by member index
+     */
+    void replay(Map<String, PaymentHistoryRow> history, BalanceStore balances, long[] spent) {
+        for (int r = 0; r < rows; r++) {
+            if (!removed.get(r)) {
+                apply(r, history.get(tids[r]), 1, balances, spent);
+            }
+        }
+    }
+
+    /**
+     * Adds (sign 1) or removes (sign -1) the effect of one row.
+     *
+     * @param row       Row number
+     * @param entry     db5 entry of the row's transaction, or null when there is none
+     * @param sign      1 or -1
+     * @param balances  Pairwise amounts to update
+     * @param spent     Shares to update, by member index
+     */
+    void apply(int row, PaymentHistoryRow entry, int sign, BalanceStore balances, long[] spent) {
+        Integer c = index.get(creators[row]);
+        int creator = c != null ? c : -1;
+        boolean expense = entry != null && entry.getType() == PaymentHistoryRow.TYPE_EXPENSE;
+        int width = columns.length;
+        int base = row * width;
+        for (int col = 0; col < width; col++) {
+            int m = memberOf[col];
+            if (m < 0) {
+                continue;
+            }
+            long value = sign * values[base + col];
+            if (creator >= 0 && m != creator) {
+                balances.add(creator, m, value);
+            }
+            if (expense) {
+                spent[m] += value;
+                if (m == creator) {
+                    spent[m] += sign * entry.getAmount();
+                }
+            }
+        }
+    }
+
+    /**
+     * Balances the journal implies between one member and every other member: what
+     * replay() adds up for their pairs, whichever layout the group stores.
+     *
+     * Contract:
+     * - Covers the rows decoded or appended and not removed; rows covered by a
+     *   snapshot are not included (see withoutSnapshot())
+     * - Rows created by someone who is not a member are ignored, as in replay()
+     *
+     * @param member  Position in the bound member list
+     * @param count   Number of members in that list
+     * @return        Per member position: what that member owes member in cents
+     *                (negative: member owes them; 0 for member itself)
+     */
+    long[] balancesWith(int member, int count) {
+        long[] owed = new long[count];
+        int own = -1;
+        for (int col = 0; col < memberOf.length; col++) {
+            if (memberOf[col] == member) {
+                own = col;
+            }
+        }
+        int width = columns.length;
+        for (int r = 0; r < rows; r++) {
+            Integer c = removed.get(r) ? null : index.get(creators[r]);
+            if (c == null) {
+                continue;
+            }
+            int base = r * width;
+            if (c == member) {
+                for (int col = 0; col < width; col++) {
+                    int m = memberOf[col];
+                    if (m >= 0 && m != member) {
+                        owed[m] += values[base + col];
+                    }
+                }
+            } else if (own >= 0) {
+                owed[c] -= values[base + own];
+            }
+        }
+        return owed;
+    }
+
+    /**
+     * Adds rows of this journal's table fetched separately, e.g. a row covered by the
+     * snapshot that is about to be removed.
+     *
+     * @param cells  Rows of a filtered db8 GetRowData, header row included
+     * @return       Row number of the last row added, or -1 when there was none
+     */
+    int appendRows(String[][] cells) {
+        int row = -1;
+        for (String[] data : cells) {
+            if (!TableRows.isHeader(data, "id", "Creator", "tID")) {
+                String tid = TableRows.text(data, tidCell);
+                skipped.remove(tid);
+                decode(data, tid);
+                row = rows - 1;
+            }
+        }
+        return row;
+    }
+
+    /**
+     * @param tid  Transaction ID
+     * @return     true when the row of the transaction was covered by the snapshot and
+     *             has not been added since (see appendRows())
+     */
+    boolean isSkipped(String tid) {
+        return skipped.contains(tid);
+    }
+
+    /**
+     * @param tid  Transaction ID
+     * @return     Row number of the transaction, or -1 when the journal has none
+     */
+    int find(String tid) {
+        Integer row = rowOfTid.get(tid);
+        return row != null ? row : -1;
+    }
+
+    /**
+     * Removes a row; it is skipped by later replays.
+     *
+     * @param row  Row number (see find())
+     */
+    void remove(int row) {
+        removed.set(row);
+        rowOfTid.remove(tids[row]);
+    }
+
+    /** @return Transaction IDs of the rows that were not removed, skipped ones included */
+    ArrayList<String> transactionIds() {
+        ArrayList<String> ids = new ArrayList<>(rowOfTid.keySet());
+        ids.addAll(skipped);
+        return ids;
+    }
+
+    /** @return Number of rows decoded or appended, removed ones included (skipped ones not) */
+    int size() {
+        return rows;
+    }
+
+    /** @return Number of data rows received from the backend, skipped ones included */
+    int received() {
+        return received;
+    }
+
+    /** @return Hash of the (id, tID) of every row received, in order */
+    long hash() {
+        return hash;
+    }
+
+    /** @return Largest row id received (0 for an empty journal) */
+    int lastId() {
+        return lastId;
+    }
+
+    /** @return Member column names (read-only use) */
+    String[] columns() {
+        return columns;
+    }
+
+    /**
+     * db8 InsertData of one row.
+     *
+     * @param code  Group code
+     * @param row   Row number
+     * @return      Path for ApiCaller2, naming every member column
+     */
+    String insertRequest(String code, int row) {
+        int width = columns.length;
+        return insertColumns(code, creators[row], tids[row], Arrays.copyOfRange(values, row * width, (row + 1) * width));
+    }
+
+    /**
+     * db8 InsertData of a row that is not kept in this journal.
+     *
+     * @param code     Group code
+     * @param creator  Member who creates it
+     * @param tid      Transaction ID
+     * @param amounts  Value per bound member in cents, parallel to the member list;
+     *                 columns of non-members get 0
+     * @return         Path for ApiCaller2, naming every member column
+     */
+    String insertRequest(String code, String creator, String tid, long[] amounts) {
+        long[] row = new long[columns.length];
+        for (int c = 0; c < columns.length; c++) {
+            row[c] = memberOf[c] >= 0 ? amounts[memberOf[c]] : 0;
+        }
+        return insertColumns(code, creator, tid, row);
+    }
+
+    /**
+     * Internal helper method - db8 InsertData with one value per member column.
+     */
+    private String insertColumns(String code, String creator, String tid, long[] row) {
+        StringBuilder params = new StringBuilder("&params=(Creator,tID");
+        StringBuilder info = new StringBuilder("&info=(" + Ledger.quote(creator) + "," + Ledger.quote(tid));
+        for (int c = 0; c < columns.length; c++) {
+            params.append(',').append(columns[c]);
+            info.append(',').append(Money.format(row[c]));
+        }
+        return "/db8/InsertData?table=" + code + params + ")" + info + ")";
+    }
+}
@@ -0,0 +1,273 @@
+package splitwiseapplication;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Derived state of a group at a db8 row id, kept on disk so Ledger.load() only has to
+ * replay the rows added after it.
+ *
+ * Purpose:
+ * Opening a group replays its whole db8 journal (see LedgerReplay). For a group that
+ * has been used for years most of that work repeats the previous open. A snapshot
+ * records every member's share (db1) and balances (db6) after the rows up to lastId;
+ * the next load restores it and decodes and replays only the rows with a larger id.
+ *
+ * What a snapshot covers:
+ * - lastId, the number of rows up to it and a hash of their (id, tID), so deleting or
+ *   replacing an older transaction is noticed (the snapshot is then ignored)
+ * - The db8 member columns and the member list, in order; any change in membership
+ *   makes the snapshot unusable (a member who left changes the net positions)
+ * - The db6 layout: net position per member, or the balance of every pair
+ *
+ * Contract:
+ * - One file per group code in -Dsplitwise.snapshot.dir (default ~/.splitwise/snapshots)
+ * - Taken by Ledger when at least -Dsplitwise.snapshot.interval rows (default 1000)
+ *   were replayed since the last one; 0 switches snapshots off
+ * - Best effort: a missing, unreadable or stale snapshot means a full replay, and a
+ *   snapshot that cannot be written is only logged
+ * - Written to a temporary file first and moved into place, so a crash never leaves
+ *   half a snapshot
+ * - Immutable
+ */
+final class LedgerSnapshot {
+
+    private static final int FORMAT = 1;
+
+    /** Rows to replay before a new snapshot is taken; 0 disables snapshots. */
+    private static final int INTERVAL = Integer.getInteger("splitwise.snapshot.interval", 1000);
+
+    private static final Path DIRECTORY = Paths.get(System.getProperty("splitwise.snapshot.dir",
+            Paths.get(System.getProperty("user.home"), ".splitwise", "snapshots").toString()));
+
+    private final String code;
+    private final int lastId;
+    private final int rows;
+    private final long hash;
+    private final String[] columns;
+    private final String[] members;
+    private final boolean net;
+    private final long[] spent;
+
+    /** Net layout: position per member; pair layout: balance of (i, j) for i < j, row by row. */
+    private final long[] balances;
+
+    /**
+     * Internal helper method - Creates a snapshot from its parts.
+     */
+    private LedgerSnapshot(String code, int lastId, int rows, long hash, String[] columns, String[] members,
+            boolean net, long[] spent, long[] balances) {
+        this.code = code;
+        this.lastId = lastId;
+        this.rows = rows;
+        this.hash = hash;
+        this.columns = columns;
+        this.members = members;
+        this.net = net;
+        this.spent = spent;
+        this.balances = balances;
+    }
+
+    /**
+     * @param replayed  Rows replayed since the last snapshot (all rows without one)
+     * @return          true when a new snapshot should be taken
+     */
+    static boolean isDue(int replayed) {
+        return INTERVAL > 0 && replayed >= INTERVAL;
+    }
+
+    /**
+     * Records the state of a freshly loaded ledger.
+     *
+     * @param code      Group code
+     * @param journal   Journal the state was replayed from (nothing appended yet)
+     * @param members   Current members
+     * @param balances  Balances after the replay
+     * @param spent     Shares after the replay, by member index
+     * @return          Snapshot at the journal's last row id
+     */
+    static LedgerSnapshot capture(String code, LedgerReplay journal, List<String> members, BalanceStore balances,
+            long[] spent) {
+        int n = members.size();
+        boolean net = balances instanceof NetBalanceStore;
+        long[] state = new long[net ? n : n * (n - 1) / 2];
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (net) {
+                state[k++] = balances.net(i);
+            } else {
+                for (int j = i + 1; j < n; j++) {
+                    state[k++] = balances.between(i, j);
+                }
+            }
+        }
+        return new LedgerSnapshot(code, journal.lastId(), journal.received(), journal.hash(), journal.columns(),
+                members.toArray(new String[0]), net, spent.clone(), state);
+    }
+
+    /**
+     * Reads the snapshot of a group.
+     *
+     * @param code  Group code
+     * @return      The snapshot, or null when there is none, it cannot be read or
+     *              snapshots are switched off
+     */
+    static LedgerSnapshot read(String code) {
+        if (INTERVAL <= 0) {
+            return null;
+        }
+        Path file = DIRECTORY.resolve(code + ".snapshot");
+        if (!Files.isReadable(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(file))) {
+            if (in.readInt() != FORMAT || !in.readUTF().equals(code)) {
+                return null;
+            }
+            int lastId = in.readInt();
+            int rows = in.readInt();
+            long hash = in.readLong();
+            String[] columns = readStrings(in);
+            String[] members = readStrings(in);
+            boolean net = in.readBoolean();
+            long[] spent = readLongs(in);
+            long[] balances = readLongs(in);
+            int n = members.length;
+            if (spent.length != n || balances.length != (net ? n : n * (n - 1) / 2)) {
+                return null;
+            }
+            return new LedgerSnapshot(code, lastId, rows, hash, columns, members, net, spent, balances);
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Ignoring snapshot of group " + code + ": " + e);
+            return null;
+        }
+    }
+
+    /**
+     * Stores the snapshot, replacing the previous one of the group.
+     */
+    void write() {
+        try {
+            Files.createDirectories(DIRECTORY);
+            Path temp = Files.createTempFile(DIRECTORY, code, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(Files.newOutputStream(temp))) {
+                out.writeInt(FORMAT);
+                out.writeUTF(code);
+                out.writeInt(lastId);
+                out.writeInt(rows);
+                out.writeLong(hash);
+                writeStrings(out, columns);
+                writeStrings(out, members);
+                out.writeBoolean(net);
+                writeLongs(out, spent);
+                writeLongs(out, balances);
+            }
+            Files.move(temp, DIRECTORY.resolve(code + ".snapshot"), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Could not write snapshot of group " + code + ": " + e);
+        }
+    }
+
+    /**
+     * Restores the state into a ledger being built.
+     *
+     * @param members   Current members
+     * @param balances  Empty balances of the group
+     * @param spent     Zeroed shares, by member index
+     * @return          false, leaving balances and spent untouched, when the members or
+     *                  the db6 layout changed since the snapshot
+     */
+    boolean restore(List<String> members, BalanceStore balances, long[] spent) {
+        if (!Arrays.equals(this.members, members.toArray()) || net != balances instanceof NetBalanceStore) {
+            return false;
+        }
+        int n = this.members.length;
+        System.arraycopy(this.spent, 0, spent, 0, n);
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            if (net) {
+                // Positions add up to 0, so moving each one against the last member
+                // leaves the last member's position right as well
+                if (i < n - 1) {
+                    balances.add(i, n - 1, this.balances[k]);
+                }
+                k++;
+            } else {
+                for (int j = i + 1; j < n; j++) {
+                    balances.add(i, j, this.balances[k++]);
+                }
+            }
+        }
+        return true;
+    }
+
+    /** @return Largest db8 row id covered */
+    int getLastId() {
+        return lastId;
+    }
+
+    /** @return Number of db8 rows covered */
+    int getRows() {
+        return rows;
+    }
+
+    /** @return Hash of the covered rows' (id, tID), see LedgerReplay.hash() */
+    long getHash() {
+        return hash;
+    }
+
+    /** @return db8 member columns at the time of the snapshot */
+    String[] getColumns() {
+        return columns;
+    }
+
+    /**
+     * Internal helper method - Reads a length-prefixed String array.
+     */
+    private static String[] readStrings(DataInputStream in) throws IOException {
+        String[] values = new String[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readUTF();
+        }
+        return values;
+    }
+
+    /**
+     * Internal helper method - Reads a length-prefixed long array.
+     */
+    private static long[] readLongs(DataInputStream in) throws IOException {
+        long[] values = new long[in.readInt()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = in.readLong();
+        }
+        return values;
+    }
+
+    /**
+     * Internal helper method - Writes a length-prefixed String array.
+     */
+    private static void writeStrings(DataOutputStream out, String[] values) throws IOException {
+        out.writeInt(values.length);
+        for (String value : values) {
+            out.writeUTF(value);
+        }
+    }
+
+    /**
+     * Internal helper method - Writes a length-prefixed long array.
+     */
+    private static void writeLongs(DataOutputStream out, long[] values) throws IOException {
+        out.writeInt(values.length);
+        for (long value : values) {
+            out.writeLong(value);
+        }
+    }
+}
@@ -249,6 +249,8 @@ public class LoginPageGUI implements ActionListener{
 	 * ERROR HANDLING:
 	 * After showing error, changes all action commands to "Submitted" to
 	 * prevent duplicate error labels on subsequent login attempts.
+	 * If the backend cannot be reached (ApiException), shows an error dialog
+	 * and stays on the login screen.
 	 * 
 	 * @param event The ActionEvent containing the action command
 	 */
@@ -267,18 +269,23 @@ public class LoginPageGUI implements ActionListener{
 		} else if (eventName.equals("Submit")) {
 			String usrname = username.getText();
 			String pwd = password.getText();
-			if (Exists.exist("https://splitwise.up.railway.app/db2/GetRowData?table=Credentials&username=" + usrname + "&password=" + pwd) == true) {
-				Groups groups = new Groups(usrname);
-				groups.runGUI();
-				frame.dispose();
-			} else {
-				JLabel displayError = new JLabel("Wrong Username or Password");
-				password.setActionCommand("Submitted");
-				submitButton.setActionCommand("Submitted");
-				username.setActionCommand("Submitted");
-				contentPane.add(displayError);
-				frame.setContentPane(contentPane);
-				frame.pack();
+			try {
+				if (Exists.exist("/db2/GetRowData?table=Credentials&username=" + usrname + "&password=" + pwd) == true) {
+					Groups groups = new Groups(usrname);
+					groups.runGUI();
+					frame.dispose();
+				} else {
+					JLabel displayError = new JLabel("Wrong Username or Password");
+					password.setActionCommand("Submitted");
+					submitButton.setActionCommand("Submitted");
+					username.setActionCommand("Submitted");
+					contentPane.add(displayError);
+					frame.setContentPane(contentPane);
+					frame.pack();
+				}
+			} catch (ApiException e) {
+				e.printStackTrace();
+				JOptionPane.showMessageDialog(frame, "Could not log in, please try again.\n" + e.getMessage(), "Splitwise", JOptionPane.ERROR_MESSAGE);
 			}
 		} else if (eventName.equals("Back")){
 			LoginOrRegister loginorRegisterGUI = new LoginOrRegister();
@@ -287,10 +294,15 @@ public class LoginPageGUI implements ActionListener{
 		} else if (eventName.equals("Submitted")) {
 			String usrname = username.getText();
 			String pwd = password.getText();
-			if (Exists.exist("https://splitwise.up.railway.app/db2/GetRowData?table=Credentials&username=" + usrname + "&password=" + pwd) == true) {
-				Groups groups = new Groups(usrname);
-				groups.runGUI();
-				frame.dispose();
+			try {
+				if (Exists.exist("/db2/GetRowData?table=Credentials&username=" + usrname + "&password=" + pwd) == true) {
+					Groups groups = new Groups(usrname);
+					groups.runGUI();
+					frame.dispose();
+				}
+			} catch (ApiException e) {
+				e.printStackTrace();
+				JOptionPane.showMessageDialog(frame, "Could not log in, please try again.\n" + e.getMessage(), "Splitwise", JOptionPane.ERROR_MESSAGE);
 			}
 		}
 		
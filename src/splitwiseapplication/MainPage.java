@@ -6,6 +6,9 @@ import java.awt.Dimension;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javax.swing.*;
 
 /**
@@ -76,20 +79,25 @@ import javax.swing.*;
  * 
  * DESIGN PATTERN:
  * - Implements ActionListener for event handling
- * - Static frame pattern (single shared JFrame instance)
- * - Constructor builds UI, runGUI() displays it
+ * - One frame per instance; Navigator keeps the instance of each (user, group)
+ *   and shows it again instead of building a new one
+ * - Constructor builds UI, runGUI() displays it, refresh() updates a reused one
  * - Action command strings differentiate button actions
  * 
  * @author Original Development Team
  */
 public class MainPage implements ActionListener{
 	
-	static JFrame frame;
-	JPanel listPanel, buttonPanel;
+	/** How long reused history is trusted when this client did not change db5 (other members may have). */
+	private static final long MAX_AGE_NANOS = Long.getLong("splitwise.navigator.maxAgeMs", 30000) * 1_000_000L;
+	
+	JFrame frame;
+	JPanel listPanel, buttonPanel, errorPanel;
 	JList<String> transactionList;
 	JScrollPane scrollPane;
 	String uname,gcode;
-	String[][] info;
+	PaymentHistoryModel history;
+	long historyGeneration, historyLoadedAt;
 	JButton addTransaction,settlePayment, deleteTransaction,checkBalances,checkAmountSpent,back,exitGroup;
 	File fileLoc;
 	
@@ -103,9 +111,10 @@ public class MainPage implements ActionListener{
 	 * BEHAVIOR:
 	 * - Stores username and group code
 	 * - Creates BorderLayout frame
-	 * - Fetches transaction history from db5.[GroupCode]
-	 * - Formats transactions based on type (payment/settlement/exit)
-	 * - Creates scrollable JList for transactions
+	 * - Creates scrollable JList for transactions, showing "Loading..."
+	 * - Streams transaction history from db5.[GroupCode] in the background
+	 *   (ScreenLoader) into a PaymentHistoryModel, which adds the rows to the
+	 *   list page by page and formats only the ones on screen
 	 * - Creates 7 action buttons with consistent sizing (150x30)
 	 * - Sets up button panel with vertical layout and spacing
 	 * - Configures frame but keeps invisible (runGUI() displays it)
@@ -137,7 +146,8 @@ public class MainPage implements ActionListener{
 	 * └─────────────────────┴──────────────────┘
 	 * 
 	 * DATABASE QUERY:
-	 * db5.[GroupCode]: SELECT * - Gets all transactions
+	 * db5.[GroupCode]: SELECT * - Gets all transactions, off the event
+	 * dispatch thread, so the frame shows up before the data arrives
 	 * 
 	 * @param username The logged-in user viewing the group
 	 * @param code The group code for the group being viewed
@@ -153,26 +163,8 @@ public class MainPage implements ActionListener{
 		listPanel = new JPanel();
 		listPanel.setBorder(BorderFactory.createEmptyBorder(20,50,20,50));
 		
-		info = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db5/GetRowData?table="+ code);
-		
-		String[] data;
-		if (info.length!= 0) {
-			data = new String[info.length];
-			for (int i = 0; i < info.length; i++) {
-				if (info[i][4].equals("0")) {
-					data[i] = info[i][1] + " added a payment of $"+info[i][2] + " for " + info[i][3];
-				} else if (info[i][4].equals("1")){
-					data[i] = info[i][1] + " paid $" + info[i][2] + " to " + info[i][3];
-				}else if (info[i][4].equals("2")){
-					data[i] = info[i][1] + " left the group";
-				}
-			}
-		} else {
-			data = new String[1];
-			data[0]="No transactions Yet";
-		}
-		
-		transactionList = new JList<>(data);
+		transactionList = new JList<>();
+		loadHistory();
 		
 		scrollPane = new JScrollPane(transactionList);
 		scrollPane.setPreferredSize(new Dimension(250, 300));
@@ -259,9 +251,56 @@ public class MainPage implements ActionListener{
 		 /* Size and then display the frame. */
 		 frame.pack();
 		 frame.setVisible(false);
-		 
+
 	}
 	
+	/**
+	 * loadHistory - Start Streaming the Transaction History
+	 * 
+	 * PURPOSE:
+	 * Gives the list a fresh PaymentHistoryModel and fills it from db5 in the
+	 * background (ScreenLoader). Remembers the db5 change counter and the time,
+	 * so refresh() can tell whether the history has to be read again.
+	 */
+	void loadHistory() {
+		
+		PaymentHistoryModel model = PaymentHistoryModel.all();
+		history = model;
+		historyGeneration = ApiCaller.tableGeneration("db5", gcode);
+		historyLoadedAt = System.nanoTime();
+		PaymentHistoryModel.install(transactionList, model);
+		ScreenLoader.load(frame, "the transactions", () -> ApiCaller.await(model.load(gcode)), loaded -> { });
+		
+	}
+	
+	/**
+	 * refresh - Bring a Reused MainPage Up to Date
+	 * 
+	 * PURPOSE:
+	 * Called by Navigator before a kept MainPage is shown again.
+	 * 
+	 * BEHAVIOR:
+	 * - Clears the "Settle Pending Amount before exiting" message
+	 * - Reloads the history only if this client wrote to db5 since it was
+	 *   loaded (an expense, settlement or deletion) or it is older than
+	 *   -Dsplitwise.navigator.maxAgeMs (default 30000, other members' changes)
+	 * - Otherwise nothing is read and no component is created
+	 */
+	void refresh() {
+		
+		if (errorPanel != null) {
+			frame.remove(errorPanel);
+			errorPanel = null;
+			exitGroup.setActionCommand("exit");
+			frame.pack();
+		}
+		if (ApiCaller.tableGeneration("db5", gcode) != historyGeneration
+				|| System.nanoTime() - historyLoadedAt > MAX_AGE_NANOS) {
+			loadHistory();
+		}
+		
+	}
+
 	/**
 	 * actionPerformed - Handle User Actions (Button Clicks)
 	 * 
@@ -273,33 +312,35 @@ public class MainPage implements ActionListener{
 	 * 
 	 * 1. "addTransaction" - Navigate to Add Transaction screen
 	 *    - Creates AddTransaction instance
-	 *    - Disposes current frame
+	 *    - Hides current frame (kept by Navigator)
 	 * 
 	 * 2. "settlePayment" - Navigate to Settle Payment screen
 	 *    - Creates SettlePayment instance
-	 *    - Disposes current frame
+	 *    - Hides current frame (kept by Navigator)
 	 * 
 	 * 3. "deleteTransaction" - Navigate to Delete Transaction screen
 	 *    - Creates DeleteTransaction instance
-	 *    - Disposes current frame
+	 *    - Hides current frame (kept by Navigator)
 	 * 
 	 * 4. "checkBalances" - Navigate to Check Balances screen
 	 *    - Creates CheckBalances instance
-	 *    - Disposes current frame
+	 *    - Hides current frame (kept by Navigator)
 	 * 
 	 * 5. "checkAmountSpent" - Navigate to Check Amount Spent screen
 	 *    - Creates CheckAmountSpent instance
-	 *    - Disposes current frame
+	 *    - Hides current frame (kept by Navigator)
 	 * 
 	 * 6. "back" - Navigate back to Groups menu
 	 *    - Creates Groups instance
-	 *    - Disposes current frame
+	 *    - Hides current frame (kept by Navigator)
 	 * 
 	 * 7. "exit" - Attempt to exit/leave the group
-	 *    - Checks exit eligibility (must have zero balance)
+	 *    - Checks exit eligibility (must have zero balance); if the ledger
+	 *      cannot be read, shows an error and stays
 	 *    - If eligible:
 	 *      - Calls DeleteRecords() to remove user from all group tables
-	 *      - Navigates to Groups menu
+	 *      - Navigates to Groups menu and drops this page from Navigator
+	 *      - If that fails (undone where possible), shows an error and stays
 	 *    - If not eligible:
 	 *      - Displays error message: "Settle Pending Amount before exiting"
 	 *      - Changes button action command to "Unable to exit"
@@ -318,42 +359,53 @@ public class MainPage implements ActionListener{
 		if(eventName.equals("addTransaction")) {
 			AddTransaction atransaction = new AddTransaction(uname,gcode);
 			atransaction.runGUI();
-			frame.dispose();
+			frame.setVisible(false);
 		} else if (eventName.equals("settlePayment")) {
 			SettlePayment sPayment = new SettlePayment(uname,gcode);
 			sPayment.runGUI();
-			frame.dispose();
+			frame.setVisible(false);
 		} else if(eventName.equals("deleteTransaction")) {
 			DeleteTransaction dTransaction = new DeleteTransaction(uname,gcode);
 			dTransaction.runGUI();
-			frame.dispose();
+			frame.setVisible(false);
 		} else if (eventName.equals("checkBalances")) {
 			CheckBalances cBalances = new CheckBalances(uname,gcode);
 			cBalances.runGUI();
-			frame.dispose();
+			frame.setVisible(false);
 		} else if (eventName.equals("checkAmountSpent")) {
 			CheckAmountSpent cAmtSpent = new CheckAmountSpent(uname,gcode);
 			cAmtSpent.runGUI();
-			frame.dispose();
+			frame.setVisible(false);
 		} else if (eventName.equals("back")) {
 			Groups groups = new Groups(uname);
 			groups.runGUI();
-			frame.dispose();
+			frame.setVisible(false);
 		} else if (eventName.equals("exit")) {
-			if (exitEligibility()) {
-				DeleteRecords();
+			boolean eligible;
+			try {
+				eligible = exitEligibility();
+				if (eligible) {
+					DeleteRecords();
+					GroupRoster.left(gcode, uname);
+				}
+			} catch (ApiException e) {
+				e.printStackTrace();
+				JOptionPane.showMessageDialog(frame, "Could not leave the group.\n" + e.getMessage(), "Splitwise", JOptionPane.ERROR_MESSAGE);
+				return;
+			}
+			if (eligible) {
 				Groups groups = new Groups(uname);
 				groups.runGUI();
-				frame.dispose();
+				Navigator.forget(uname, gcode);
 			} else {
 				JLabel displayError = new JLabel("Settle Pending Amount before exiting");
 				exitGroup.setActionCommand("Unable to exit");
-				JPanel errorPanelWrapper = new JPanel();
-		        errorPanelWrapper.setLayout(new BoxLayout(errorPanelWrapper, BoxLayout.X_AXIS));
-		        errorPanelWrapper.setBorder(BorderFactory.createEmptyBorder(0,0,20,30));
-		        errorPanelWrapper.add(Box.createHorizontalGlue());		        
-		        errorPanelWrapper.add(displayError);
-				frame.add(errorPanelWrapper,BorderLayout.SOUTH);
+				errorPanel = new JPanel();
+		        errorPanel.setLayout(new BoxLayout(errorPanel, BoxLayout.X_AXIS));
+		        errorPanel.setBorder(BorderFactory.createEmptyBorder(0,0,20,30));
+		        errorPanel.add(Box.createHorizontalGlue());		        
+		        errorPanel.add(displayError);
+				frame.add(errorPanel,BorderLayout.SOUTH);
 				frame.pack();
 			}
 		}
@@ -368,26 +420,15 @@ public class MainPage implements ActionListener{
 	 * Users cannot exit if they owe money or are owed money.
 	 * 
 	 * BEHAVIOR:
-	 * - Queries db6 for all payment records involving the user
-	 * - Checks records where user is Member1 (user owes others)
-	 * - Checks records where user is Member2 (others owe user)
-	 * - Returns false if ANY non-zero amount is found
-	 * - Returns true only if ALL amounts are exactly 0
-	 * 
-	 * ALGORITHM:
-	 * 1. Fetch records from db6 where user is Member1
-	 * 2. Loop through rows (skip row 0 = headers)
-	 * 3. Parse Amount column (index 2) as double
-	 * 4. If any amount != 0, return false
-	 * 5. Fetch records from db6 where user is Member2
-	 * 6. Loop through rows (skip row 0 = headers)
-	 * 7. Parse Amount column (index 2) as double
-	 * 8. If any amount != 0, return false
-	 * 9. If all amounts are 0, return true
+	 * - Loads the group's Ledger (balances derived from the db8 transaction details)
+	 * - Returns false if the user owes or is owed any amount (a cent or more)
+	 *   by any member
+	 * - Returns true only if every pairwise balance of the user is 0, or in a
+	 *   group that keeps net balances, if the user's net position is 0 (what
+	 *   others owe through the user is kept when leaving, see DeleteRecords())
 	 * 
 	 * DATABASE QUERIES:
-	 * - db6.[GroupCode] WHERE Member1=[username] - Debts user owes
-	 * - db6.[GroupCode] WHERE Member2=[username] - Debts owed to user
+	 * - One Ledger.load(): db4, db5, db6, db8 and db1 read once, in parallel
 	 * 
 	 * USAGE:
 	 * Called by actionPerformed() when user clicks "Exit Group".
@@ -397,24 +438,7 @@ public class MainPage implements ActionListener{
 	 */
 	public Boolean exitEligibility() {
 		
-		String[][] records1 = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/GetRowData?table="+ gcode+"&Member1="+uname);
-		String[][] records2 = ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/GetRowData?table="+ gcode+"&Member2="+uname);
-		
-		for (int i = 1; i < records1.length; i++) {
-			String[] row = records1[i];
-			if (Double.parseDouble(row[2]) != 0) {
-				return false;
-			}
-		}
-
-		for (int i = 1; i < records2.length; i++) {
-			String[] row = records2[i];
-			if (Double.parseDouble(row[2]) != 0) {
-				return false;
-			}
-		}
-		
-		return true;
+		return Ledger.load(gcode).isSettled(uname);
 		
 	}
 	
@@ -427,43 +451,35 @@ public class MainPage implements ActionListener{
 	 * Also records the exit event in transaction history.
 	 * 
 	 * BEHAVIOR:
-	 * Executes 9 database operations in specific order:
-	 * 
-	 * 1. db6: DELETE rows where Member1 = username
-	 *    - Removes debts user owes to others
-	 * 
-	 * 2. db6: DELETE rows where Member2 = username
-	 *    - Removes debts others owe to user
-	 * 
-	 * 3. db1: GET user's current balance amount
-	 *    - Retrieves Amount WHERE Name = username
-	 * 
-	 * 4. db1: GET group's total balance
-	 *    - Retrieves Amount WHERE Name = 'Total'
-	 * 
-	 * 5. db1: UPDATE Total balance
-	 *    - Sets Total = Total - User's Amount
-	 *    - Maintains accurate group total after user leaves
-	 * 
-	 * 6. db1: DELETE user's balance record
-	 *    - Removes WHERE Name = username
-	 * 
-	 * 7. db4: DELETE user from members table
-	 *    - Removes WHERE name = username
-	 * 
-	 * 8. db7: DELETE group from user's group list
-	 *    - Removes WHERE GroupID = group code
-	 *    - Updates user's personal group list
-	 * 
-	 * 9. db5: INSERT exit transaction record
-	 *    - INSERT (payee, amount, reason, TType, tid)
-	 *    - VALUES (username, 0, 'left', 2, 'NA')
-	 *    - TType=2 indicates "left group" event
-	 *    - Visible in transaction history as "[User] left the group"
-	 * 
-	 * 10. db8: DROP user's column from expense tracking
-	 *     - ALTER TABLE DROP COLUMN username
-	 *     - Removes expense tracking for this user
+	 * Reads what is about to be deleted, then runs the deletions as one
+	 * OperationRunner: if a step fails, the steps already applied are undone
+	 * in reverse order, the user stays a member and leaving can be retried.
+	 * 
+	 * READS (in parallel, before anything is changed):
+	 * - The group's Ledger, for the balances the journal holds between the user
+	 *   and others (Ledger.leaveRow())
+	 * - db1: user's spending amount and the group Total
+	 * - db6: rows where Member1 = username and where Member2 = username
+	 * - db7: name of the group in the user's group list
+	 * 
+	 * STEPS (each with its inverse):
+	 * 1. db1: UPDATE Total = Total - user's amount   (undo: restore Total)
+	 * 2. db1: DELETE user's spending row              (undo: re-insert it)
+	 * 3. db6: DELETE rows where Member1 = username   (undo: re-insert them)
+	 *    - Removes debts user owes to others, or the user's net row
+	 * 4. db6: DELETE rows where Member2 = username   (undo: re-insert them)
+	 * 5. db4: DELETE user from members table          (undo: re-insert)
+	 * 6. db7: DELETE group from user's group list     (undo: re-insert)
+	 * 7. db5: INSERT exit record (username, 0, 'left', 2, 'NA-' + random code)
+	 *    - TType=2: shown in history as "[User] left the group"
+	 *    - The tID is new, so the undo deletes only this row and keeps the
+	 *      records of earlier times the user left the group
+	 * 8. db8: INSERT Ledger.leaveRow() under the same tID, when the journal
+	 *    holds balances between the user and others (net balances only):
+	 *    moves them onto the remaining members, whose positions would
+	 *    otherwise change once step 9 drops the user's values   (undo: delete)
+	 * 9. db8: DROP user's column from expense tracking (cannot be undone,
+	 *    so it runs last)
 	 * 
 	 * CRITICAL ORDER:
 	 * Must fetch balance amounts BEFORE deleting records.
@@ -473,23 +489,65 @@ public class MainPage implements ActionListener{
 	 * Called by actionPerformed() when exit is confirmed and eligible.
 	 * Currently used: 1 call site (MainPage.actionPerformed)
 	 * 
-	 * NOTE:
-	 * The return value 'val' from ApiCaller2() is unused - operations are
-	 * fire-and-forget HTTPS requests to the backend API.
+	 * @throws ApiException When a read or step fails (after the undo)
 	 */
 	public void DeleteRecords() {
 		
-		String val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/DeleteRowData?table="+ gcode+"&Member1="+uname);
-		val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db6/DeleteRowData?table="+ gcode+"&Member2="+uname);
-		String[] amountp = ApiCaller.ApiCaller3("https://splitwise.up.railway.app/db1/GetSpecificData?val=Amount&table="+ gcode+"&Name="+uname);
-		String[] amountt = ApiCaller.ApiCaller3("https://splitwise.up.railway.app/db1/GetSpecificData?val=Amount&table="+ gcode+"&Name=Total");
-		val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db1/UpdateData?table=" + gcode + "&where=Name='Total'&Amount="+ (Double.parseDouble(amountt[0]) - Double.parseDouble(amountp[0])));
-		val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db1/DeleteRowData?table="+ gcode+"&Name="+uname);
-		val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db1/DeleteRowData?table="+ gcode+"&Name="+uname);
-		val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db4/DeleteRowData?table="+ gcode+"&name="+uname);
-		val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db7/DeleteRowData?table="+ uname+"&GroupID="+gcode);
-		val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db5/InsertData?table="+ gcode +"&params=(payee,amount,reason,Ttype,tid)&info=('" + uname + "'," + 0 + ",'left'," + 2 + ",'NA')");
-		val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db8/DeleteColumn?table="+ gcode+"&uname="+uname);
+		CompletableFuture<String[]> amountp = ApiCaller.ApiCaller3Async("/db1/GetSpecificData?val=Amount&table="+ gcode+"&Name="+uname);
+		CompletableFuture<String[]> amountt = ApiCaller.ApiCaller3Async("/db1/GetSpecificData?val=Amount&table="+ gcode+"&Name=Total");
+		CompletableFuture<List<PendingAmountRow>> asMember1 = ApiCaller.ApiCallerRowsAsync("/db6/GetRowData?table="+ gcode+"&Member1="+uname, PendingAmountRow::fromRows);
+		CompletableFuture<List<PendingAmountRow>> asMember2 = ApiCaller.ApiCallerRowsAsync("/db6/GetRowData?table="+ gcode+"&Member2="+uname, PendingAmountRow::fromRows);
+		CompletableFuture<String[]> gname = ApiCaller.ApiCaller3Async("/db7/GetSpecificData?val=GroupName&table="+ uname+"&GroupID="+gcode);
+		CompletableFuture<Ledger> ledger = CompletableFuture.supplyAsync(() -> Ledger.load(gcode));
+		ApiCaller.await(CompletableFuture.allOf(amountp, amountt, asMember1, asMember2, gname, ledger));
+		
+		long spent = ApiCaller.await(amountp).length > 0 ? Money.parseOrZero(ApiCaller.await(amountp)[0]) : 0;
+		long total = ApiCaller.await(amountt).length > 0 ? Money.parseOrZero(ApiCaller.await(amountt)[0]) : 0;
+		String groupName = ApiCaller.await(gname).length > 0 ? ApiCaller.await(gname)[0] : null;
+		
+		String leftId = "NA-" + AddTransaction.createCode(new ArrayList<>());
+		String keepBalances = ApiCaller.await(ledger).leaveRow(uname, leftId);
+		
+		OperationRunner leave = new OperationRunner(uname + " leaving group " + gcode);
+		leave.step("/db1/UpdateData?table=" + gcode + "&where=Name='Total'&Amount="+ Money.format(total - spent),
+				"/db1/UpdateData?table=" + gcode + "&where=Name='Total'&Amount="+ Money.format(total));
+		leave.step("/db1/DeleteRowData?table="+ gcode+"&Name="+uname,
+				"/db1/InsertData?table="+gcode+"&params=(Name,Amount)&info=('" + uname + "'," + Money.format(spent) + ")");
+		leave.step("/db6/DeleteRowData?table="+ gcode+"&Member1="+uname, reinsert(ApiCaller.await(asMember1)));
+		leave.step("/db6/DeleteRowData?table="+ gcode+"&Member2="+uname, reinsert(ApiCaller.await(asMember2)));
+		leave.step("/db4/DeleteRowData?table="+ gcode+"&name="+uname,
+				"/db4/InsertData?table="+gcode+"&params=(name)&info=('" + uname + "')");
+		if (groupName != null) {
+			leave.step("/db7/DeleteRowData?table="+ uname+"&GroupID="+gcode,
+					"/db7/InsertData?table="+uname+"&params=(GroupID,GroupName)&info=('" + gcode + "','" + groupName + "')");
+		} else {
+			leave.step("/db7/DeleteRowData?table="+ uname+"&GroupID="+gcode);
+		}
+		leave.step("/db5/InsertData?table="+ gcode +"&params=(payee,amount,reason,Ttype,tid)&info=('" + uname + "'," + 0 + ",'left'," + 2 + ",'" + leftId + "')",
+				"/db5/DeleteRowData?table="+ gcode+"&Payee="+uname+"&tID="+leftId);
+		if (keepBalances != null) {
+			leave.step(keepBalances, "/db8/DeleteRowData?table="+ gcode+"&tID="+leftId);
+		}
+		leave.step("/db8/DeleteColumn?table="+ gcode+"&uname="+uname);
+		leave.run();
+		
+	}
+	
+	/**
+	 * reinsert - Inverse of deleting db6 rows
+	 * 
+	 * @param rows The db6 rows about to be deleted
+	 * @return One InsertData per row, restoring Member1, Amount and Member2
+	 */
+	private String[] reinsert(List<PendingAmountRow> rows) {
+		
+		String[] inserts = new String[rows.size()];
+		for (int i = 0; i < rows.size(); i++) {
+			PendingAmountRow row = rows.get(i);
+			inserts[i] = "/db6/InsertData?table="+gcode+"&params=(Member1,Amount,Member2)&info=('" + row.getMember1()
+					+ "'," + Money.format(row.getAmount()) + ",'" + row.getMember2() + "')";
+		}
+		return inserts;
 		
 	}
 	
@@ -515,7 +573,8 @@ public class MainPage implements ActionListener{
 	 * Called on MainPage instance to display its frame.
 	 * 
 	 * USAGE:
-	 * Called by multiple screens after creating MainPage instance.
+	 * Called by multiple screens on the MainPage from Navigator.mainPage(),
+	 * also to show a kept instance again.
 	 * Currently used: 9 call sites (EnterGroup, JoinGroup, CreateGroup,
 	 * AddTransaction, SettlePayment, DeleteTransaction, CheckBalances,
 	 * CheckAmountSpent, AmountSettled)
@@ -0,0 +1,212 @@
+package splitwiseapplication;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point money arithmetic on long cents.
+ *
+ * Purpose:
+ * Amounts used to be doubles: parsed with Double.parseDouble, written back with
+ * Double.toString and compared with tolerances, so rounding drift built up in the db1
+ * Total row and in the db6 pair balances. Every amount in the application is now a
+ * long number of cents (minor units); this class parses, formats and splits them
+ * with integer arithmetic only.
+ *
+ * Contract:
+ * - A money value is a plain long (cents); there is no wrapper object, so amounts
+ *   can live in long[] arrays and arithmetic allocates nothing
+ * - parse() is exact for up to two decimals and rounds half away from zero beyond
+ * - format() gives the text the DECIMAL(10,2) columns take and return ("-12.05")
+ * - allocate() splits an amount into shares that always add up to the amount exactly
+ * - Percentages use the same representation: "33.33" percent parses to 3333 basis
+ *   points, and 100% is PERCENT
+ * - Amounts are expected to stay far below 10^14 cents; allocate() multiplies an
+ *   amount by a weight
+ *
+ * Usage:
+ *   long cost = Money.parse("100");                         // 10000
+ *   long[] shares = Money.splitEvenly(cost, 3);             // 3334, 3333, 3333
+ *   String text = Money.format(shares[0]);                  // "33.34"
+ */
+public final class Money {
+
+    /** 100 percent in basis points (hundredths of a percent), as parse("100") returns. */
+    public static final long PERCENT = 10000;
+
+    private Money() {
+    }
+
+    /**
+     * Parses a decimal amount into cents.
+     *
+     * Contract:
+     * - Accepts an optional sign, digits and an optional fraction ("12", "-3.5", ".75")
+     * - More than two decimals are rounded half away from zero ("0.125" is 13)
+     * - Other forms BigDecimal understands (e.g. "1.0E7") are accepted as well
+     *
+     * @param text  Amount text
+     * @return      Amount in cents
+     * @throws NumberFormatException  When text is not a number
+     */
+    public static long parse(String text) {
+        String value = text.trim();
+        int length = value.length();
+        int i = 0;
+        boolean negative = false;
+        if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            negative = value.charAt(i) == '-';
+            i++;
+        }
+        long units = 0;
+        int digits = 0;
+        while (i < length && Character.isDigit(value.charAt(i)) && digits < 16) {
+            units = units * 10 + (value.charAt(i) - '0');
+            i++;
+            digits++;
+        }
+        long fraction = 0;
+        int decimals = 0;
+        boolean roundUp = false;
+        if (i < length && value.charAt(i) == '.') {
+            i++;
+            while (i < length && Character.isDigit(value.charAt(i))) {
+                int digit = value.charAt(i) - '0';
+                if (decimals < 2) {
+                    fraction = fraction * 10 + digit;
+                } else if (decimals == 2) {
+                    roundUp = digit >= 5;
+                }
+                decimals++;
+                digits++;
+                i++;
+            }
+        }
+        if (i != length || digits == 0) {
+            return parseSlow(value);
+        }
+        if (decimals == 1) {
+            fraction *= 10;
+        }
+        long cents = units * 100 + fraction + (roundUp ? 1 : 0);
+        return negative ? -cents : cents;
+    }
+
+    /**
+     * Internal helper method - Exponents and very long numbers.
+     */
+    private static long parseSlow(String value) {
+        try {
+            return new BigDecimal(value).setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new NumberFormatException("Amount out of range: " + value);
+        }
+    }
+
+    /**
+     * Parses a table cell, treating missing values as zero.
+     *
+     * @param text  Cell text, may be null, "null" or empty
+     * @return      Amount in cents, 0 when the cell is empty or not a number
+     */
+    public static long parseOrZero(String text) {
+        if (text == null || text.isEmpty() || text.equals("null")) {
+            return 0;
+        }
+        try {
+            return parse(text);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Formats cents with two decimals.
+     *
+     * @param cents  Amount in cents
+     * @return       e.g. "12.50", "-0.05", "0.00"
+     */
+    public static String format(long cents) {
+        long abs = Math.abs(cents);
+        long fraction = abs % 100;
+        return (cents < 0 ? "-" : "") + abs / 100 + (fraction < 10 ? ".0" : ".") + fraction;
+    }
+
+    /**
+     * Splits an amount into equal shares.
+     *
+     * @param total  Amount in cents
+     * @param parts  Number of shares, at least 1
+     * @return       Shares differing by at most one cent, larger ones first,
+     *               adding up to total exactly
+     */
+    public static long[] splitEvenly(long total, int parts) {
+        if (parts < 1) {
+            throw new IllegalArgumentException("Cannot split into " + parts + " parts");
+        }
+        long[] shares = new long[parts];
+        long base = total / parts;
+        long remainder = total % parts;
+        long step = remainder < 0 ? -1 : 1;
+        for (int i = 0; i < parts; i++) {
+            shares[i] = base;
+            if (i < Math.abs(remainder)) {
+                shares[i] += step;
+            }
+        }
+        return shares;
+    }
+
+    /**
+     * Splits an amount in proportion to weights (largest remainder method).
+     *
+     * Contract:
+     * - Every share is total * weight / sum(weights) rounded down, then the cents
+     *   left over go one each to the shares with the largest remainders (ties to
+     *   the lower index)
+     * - The shares add up to total exactly
+     * - Weights must not be negative and must not all be 0
+     *
+     * @param total    Amount in cents (may be negative)
+     * @param weights  Weights, e.g. basis points of percentages
+     * @return         Shares parallel to weights
+     */
+    public static long[] allocate(long total, long[] weights) {
+        long sum = 0;
+        for (long weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight " + weight);
+            }
+            sum += weight;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("Weights add up to 0");
+        }
+        long magnitude = Math.abs(total);
+        long[] shares = new long[weights.length];
+        long[] remainders = new long[weights.length];
+        long allocated = 0;
+        for (int i = 0; i < weights.length; i++) {
+            long product = Math.multiplyExact(magnitude, weights[i]);
+            shares[i] = product / sum;
+            remainders[i] = product % sum;
+            allocated += shares[i];
+        }
+        for (long left = magnitude - allocated; left > 0; left--) {
+            int best = -1;
+            for (int i = 0; i < weights.length; i++) {
+                if (remainders[i] >= 0 && (best < 0 || remainders[i] > remainders[best])) {
+                    best = i;
+                }
+            }
+            shares[best]++;
+            remainders[best] = -1;
+        }
+        if (total < 0) {
+            for (int i = 0; i < shares.length; i++) {
+                shares[i] = -shares[i];
+            }
+        }
+        return shares;
+    }
+}
@@ -0,0 +1,101 @@
+package splitwiseapplication;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the MainPage of each (user, group) alive between navigations.
+ *
+ * Purpose:
+ * MainPage is the hub of a group: every screen it opens returns to it with Back,
+ * Done or after a save. Building it again each time allocated the whole frame and
+ * its seven buttons, and downloaded the group's db5 history once more. Screens now
+ * ask the Navigator for the group's MainPage instead. The first visit builds it; a
+ * later visit shows the same frame again, and the history is only read again when
+ * it may have changed (see MainPage.refresh()).
+ *
+ * Contract:
+ * - One MainPage per (user, group); at most -Dsplitwise.navigator.screens of them
+ *   (default 8) are kept, the least recently shown one is disposed first
+ * - MainPage hides its frame when it opens another screen and disposes it only
+ *   when it is dropped from here (leaving the group, logout, eviction)
+ * - Event dispatch thread only, like the screens themselves
+ *
+ * Usage:
+ *   Navigator.mainPage(uname, gcode).runGUI();   // instead of new MainPage(uname, gcode)
+ *   frame.dispose();
+ */
+final class Navigator {
+
+    /** MainPages kept at most (-Dsplitwise.navigator.screens). */
+    static final int SCREENS = Math.max(1, Integer.getInteger("splitwise.navigator.screens", 8));
+
+    private static final Map<String, MainPage> MAIN_PAGES = new LinkedHashMap<String, MainPage>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, MainPage> eldest) {
+            if (size() > SCREENS) {
+                eldest.getValue().frame.dispose();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    private Navigator() {
+    }
+
+    /**
+     * MainPage of a group, built on the first visit and refreshed on later ones.
+     * Also starts reading the group's GroupRoster unless the session has it.
+     *
+     * @param uname  Logged-in user
+     * @param gcode  Group code
+     * @return       The group's MainPage, not yet shown (call runGUI())
+     */
+    static MainPage mainPage(String uname, String gcode) {
+        GroupRoster.load(gcode); // Read in the background, for the screens opened from here
+        String key = key(uname, gcode);
+        MainPage page = MAIN_PAGES.get(key);
+        if (page == null) {
+            page = new MainPage(uname, gcode);
+            MAIN_PAGES.put(key, page);
+        } else {
+            page.refresh();
+        }
+        return page;
+    }
+
+    /**
+     * Drops and disposes the MainPage of a group, e.g. after the user left it.
+     *
+     * @param uname  User
+     * @param gcode  Group code
+     */
+    static void forget(String uname, String gcode) {
+        MainPage page = MAIN_PAGES.remove(key(uname, gcode));
+        if (page != null) {
+            page.frame.dispose();
+        }
+    }
+
+    /**
+     * Drops and disposes every kept screen; called on logout so the next user never
+     * sees a screen built for the previous one.
+     */
+    static void clear() {
+        List<MainPage> pages = new ArrayList<>(MAIN_PAGES.values());
+        MAIN_PAGES.clear();
+        for (MainPage page : pages) {
+            page.frame.dispose();
+        }
+    }
+
+    /**
+     * Internal helper method - Cache key of a (user, group) pair.
+     */
+    private static String key(String uname, String gcode) {
+        return uname + "\n" + gcode;
+    }
+}
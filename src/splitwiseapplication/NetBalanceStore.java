@@ -0,0 +1,165 @@
+package splitwiseapplication;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Balances kept as one db6 row per member: the member's position against the group.
+ *
+ * Purpose:
+ * A group of n members needs n rows instead of n(n-1)/2. Joining the group inserts one
+ * row (see JoinGroup), an expense changes at most one row per member it involves, and
+ * memory is O(n) instead of an n x n matrix. Who pays whom is planned when asked for,
+ * with SettlementPlanner, which needs at most n - 1 payments.
+ *
+ * Row layout (same db6 columns as pairs):
+ * - Member1 = member, Amount = net position, Member2 = PendingAmountRow.GROUP
+ * - As for pairs, a positive Amount means Member2 (the group) owes Member1
+ * - A group uses this layout when its db6 table holds GROUP rows (see holds())
+ *
+ * Contract:
+ * - Pairwise balances are the planned transfers, not the history of who paid for whom;
+ *   two members with no planned transfer between them are shown as settled
+ * - A member is settled when their net position is 0
+ * - Members without a row get one on the next write; rows of members who left the
+ *   group and pair rows are ignored
+ */
+final class NetBalanceStore implements BalanceStore {
+
+    private final String code;
+    private final List<String> members;
+    private final long[] net;
+    private final long[] stored;
+    private final boolean[] hasRow;
+
+    /** Planned transfers for the current positions, or null until asked for. */
+    private List<SettlementPlanner.Transfer> plan;
+
+    /**
+     * @param code     Group code
+     * @param members  Current members
+     * @param index    Member name to index
+     * @param rows     Stored db6 rows of the group
+     */
+    NetBalanceStore(String code, List<String> members, Map<String, Integer> index, List<PendingAmountRow> rows) {
+        this.code = code;
+        this.members = members;
+        this.net = new long[members.size()];
+        this.stored = new long[members.size()];
+        this.hasRow = new boolean[members.size()];
+        for (PendingAmountRow row : rows) {
+            Integer m = index.get(row.getMember1());
+            if (m != null && PendingAmountRow.GROUP.equals(row.getMember2())) {
+                stored[m] = row.getAmount();
+                hasRow[m] = true;
+            }
+        }
+    }
+
+    /**
+     * @param rows  Stored db6 rows of a group
+     * @return      true when the group keeps net positions
+     */
+    static boolean holds(List<PendingAmountRow> rows) {
+        for (PendingAmountRow row : rows) {
+            if (PendingAmountRow.GROUP.equals(row.getMember2())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Request that creates the row of a member.
+     *
+     * @param gcode   Group code
+     * @param member  Member name
+     * @param cents   Net position (0 for a member who just joined)
+     * @return        Path for ApiCaller1/ApiCaller2
+     */
+    static String insertRow(String gcode, String member, long cents) {
+        return "/db6/InsertData?table=" + gcode + "&params=(Member1,Amount,Member2)&info=("
+                + Ledger.quote(member) + "," + Money.format(cents) + "," + Ledger.quote(PendingAmountRow.GROUP) + ")";
+    }
+
+    @Override
+    public void add(int creditor, int debtor, long cents) {
+        net[creditor] += cents;
+        net[debtor] -= cents;
+        plan = null;
+    }
+
+    @Override
+    public long net(int member) {
+        return net[member];
+    }
+
+    @Override
+    public long between(int member, int other) {
+        long amount = 0;
+        for (SettlementPlanner.Transfer transfer : plan()) {
+            if (transfer.getPayer().equals(members.get(other)) && transfer.getReceiver().equals(members.get(member))) {
+                amount += transfer.getCents();
+            } else if (transfer.getPayer().equals(members.get(member)) && transfer.getReceiver().equals(members.get(other))) {
+                amount -= transfer.getCents();
+            }
+        }
+        return amount;
+    }
+
+    @Override
+    public boolean isSettled(int member) {
+        return net[member] == 0;
+    }
+
+    /**
+     * Contract:
+     * - One row per planned transfer, id 0, Member1 = receiver, Member2 = payer
+     */
+    @Override
+    public List<PendingAmountRow> pendingAmounts() {
+        List<PendingAmountRow> rows = new ArrayList<>();
+        for (SettlementPlanner.Transfer transfer : plan()) {
+            rows.add(transfer.asPendingAmount());
+        }
+        return rows;
+    }
+
+    /**
+     * Internal helper method - Plans the transfers once per change.
+     */
+    private List<SettlementPlanner.Transfer> plan() {
+        if (plan == null) {
+            plan = SettlementPlanner.plan(members, net);
+        }
+        return plan;
+    }
+
+    @Override
+    public void addWrites(ChangeSet changes) {
+        for (int m = 0; m < net.length; m++) {
+            if (!hasRow[m]) {
+                changes.add(insertRow(code, members.get(m), net[m]), "/db6/DeleteRowData?table=" + code
+                        + "&Member1=" + Ledger.param(members.get(m)) + "&Member2=" + Ledger.param(PendingAmountRow.GROUP));
+            } else if (net[m] != stored[m]) {
+                changes.add(update(m, net[m]), update(m, stored[m]));
+            }
+        }
+    }
+
+    /**
+     * Internal helper method - db6 UpdateData of one member's row.
+     */
+    private String update(int member, long cents) {
+        return "/db6/UpdateData?table=" + code + "&where=Member1=" + Ledger.quote(members.get(member))
+                + "%20AND%20Member2=" + Ledger.quote(PendingAmountRow.GROUP) + "&Amount=" + Money.format(cents);
+    }
+
+    @Override
+    public void markStored() {
+        System.arraycopy(net, 0, stored, 0, net.length);
+        Arrays.fill(hasRow, true);
+    }
+}
@@ -0,0 +1,193 @@
+package splitwiseapplication;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Runs a multi-request operation and undoes it when one of its requests fails.
+ *
+ * Purpose:
+ * Creating a group, leaving a group and saving balances without batch support take
+ * several write requests. When one failed, the earlier ones stayed applied and the
+ * group was left half created or half updated. Each step is registered together with
+ * the requests that reverse it (its inverse); when a step fails, the steps that were
+ * applied are compensated in reverse order, so the backend is back where it started
+ * and the whole operation can simply be retried (saga pattern).
+ *
+ * Contract:
+ * - A step is one write request path, as ApiCaller2 takes it, plus zero or more
+ *   inverse request paths (sent in the given order); a step without inverse is
+ *   treated as nothing to undo
+ * - A step that failed with an error response, or before reaching the server, is not
+ *   compensated (writes are only retried when the connection could not be opened)
+ * - A step whose outcome is unknown (ApiException.mayHaveBeenApplied(), e.g. a
+ *   timeout) is treated as possibly applied and compensated too, as long as its
+ *   inverses can safely be sent when it was not (deletes, updates); a step without
+ *   inverse or whose inverse re-inserts rows cannot, and the exception thrown then
+ *   says that the state of the backend is unknown
+ * - Compensation is best effort: every inverse is attempted even if an earlier one
+ *   fails; failures are logged and attached to the thrown exception as suppressed
+ * - The original ApiException is rethrown after compensation, unless the state is unknown
+ * - Steps that cannot be undone (e.g. CreateTable, DeleteColumn) should come first or
+ *   last respectively, so that a failure rarely needs them undone
+ *
+ * Usage:
+ *   new OperationRunner("leave group ABC")
+ *       .step("/db4/DeleteRowData?table=ABC&name=bob", "/db4/InsertData?table=ABC&params=(name)&info=('bob')")
+ *       .step("/db8/DeleteColumn?table=ABC&uname=bob")
+ *       .run();
+ */
+public final class OperationRunner {
+
+    private final String name;
+    private final List<String> requests = new ArrayList<>();
+    private final List<List<String>> inverses = new ArrayList<>();
+
+    /** What is known about a step once the operation failed. */
+    private enum Outcome { NOT_APPLIED, APPLIED, UNKNOWN }
+
+    /**
+     * @param name  Description of the operation, used in log messages
+     */
+    public OperationRunner(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Adds a step.
+     *
+     * @param request  Write request path
+     * @param inverse  Requests that undo it, in order (none: nothing to undo)
+     * @return         This runner
+     */
+    public OperationRunner step(String request, String... inverse) {
+        requests.add(request);
+        inverses.add(Arrays.asList(inverse));
+        return this;
+    }
+
+    /** @return Number of steps */
+    public int size() {
+        return requests.size();
+    }
+
+    /**
+     * Runs the steps one after the other.
+     *
+     * @throws ApiException  When a step fails, after the steps before it (and the failed
+     *                       one when it may have been applied) were compensated
+     */
+    public void run() {
+        for (int i = 0; i < requests.size(); i++) {
+            try {
+                ApiCaller.ApiCaller2(requests.get(i));
+            } catch (ApiException e) {
+                Outcome[] outcomes = new Outcome[requests.size()];
+                Arrays.fill(outcomes, Outcome.NOT_APPLIED);
+                Arrays.fill(outcomes, 0, i, Outcome.APPLIED);
+                outcomes[i] = outcome(e);
+                throw compensate(outcomes, e);
+            }
+        }
+    }
+
+    /**
+     * Runs steps that do not depend on each other, all in flight together.
+     *
+     * Contract:
+     * - Every step targets a different row, so their order does not matter
+     * - Waits for every step; if any failed, the ones that succeeded or may have been
+     *   applied are compensated in reverse step order and the first failure is rethrown
+     *
+     * @throws ApiException  When a step fails, after the others were compensated
+     */
+    public void runIndependent() {
+        List<CompletableFuture<String>> sent = new ArrayList<>(requests.size());
+        for (String request : requests) {
+            sent.add(ApiCaller.ApiCaller2Async(request));
+        }
+        Outcome[] outcomes = new Outcome[requests.size()];
+        ApiException failure = null;
+        for (int i = 0; i < sent.size(); i++) {
+            try {
+                ApiCaller.await(sent.get(i));
+                outcomes[i] = Outcome.APPLIED;
+            } catch (ApiException e) {
+                outcomes[i] = outcome(e);
+                if (failure == null) {
+                    failure = e;
+                }
+            }
+        }
+        if (failure != null) {
+            throw compensate(outcomes, failure);
+        }
+    }
+
+    /**
+     * Internal helper method - Outcome of a step that failed with e.
+     */
+    private static Outcome outcome(ApiException e) {
+        return e.mayHaveBeenApplied() ? Outcome.UNKNOWN : Outcome.NOT_APPLIED;
+    }
+
+    /**
+     * Internal helper method - Sends the inverses of the applied and possibly applied
+     * steps, last step first.
+     *
+     * @return  cause, or an exception saying the state is unknown when a possibly
+     *          applied step could not be undone
+     */
+    private ApiException compensate(Outcome[] outcomes, ApiException cause) {
+        System.err.println("Undoing " + name + " after failure: " + cause.getMessage());
+        String unknown = null;
+        for (int i = requests.size() - 1; i >= 0; i--) {
+            if (outcomes[i] == Outcome.NOT_APPLIED) {
+                continue;
+            }
+            if (outcomes[i] == Outcome.UNKNOWN && !safeWhenNotApplied(inverses.get(i))) {
+                System.err.println("Cannot undo " + requests.get(i) + ", it may or may not have been applied");
+                unknown = requests.get(i);
+                continue;
+            }
+            for (String inverse : inverses.get(i)) {
+                try {
+                    ApiCaller.ApiCaller2(inverse);
+                } catch (ApiException e) {
+                    System.err.println("Could not undo " + requests.get(i) + " with " + inverse + ": " + e.getMessage());
+                    cause.addSuppressed(e);
+                }
+            }
+        }
+        if (unknown == null) {
+            return cause;
+        }
+        ApiException uncertain = new ApiException(cause.getReason(), cause.getStatusCode(), cause.getEndpoint(),
+                "it is unknown whether " + ApiEndpoint.parse(unknown) + " was applied; check before trying again",
+                cause);
+        for (Throwable suppressed : cause.getSuppressed()) {
+            uncertain.addSuppressed(suppressed);
+        }
+        return uncertain;
+    }
+
+    /**
+     * Internal helper method - true when the inverses leave the backend as it was even
+     * if the step they undo was never applied: deletes and updates of the rows the step
+     * wrote. Re-inserting rows whose delete may not have happened would duplicate them.
+     */
+    private static boolean safeWhenNotApplied(List<String> inverse) {
+        if (inverse.isEmpty()) {
+            return false;
+        }
+        for (String request : inverse) {
+            String operation = ApiEndpoint.parse(request).getOperation();
+            if (operation.equals("InsertData") || operation.equals("AddColumn") || operation.equals("CreateTable")) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,163 @@
+package splitwiseapplication;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Balances kept as one db6 row per pair of members (the original layout).
+ *
+ * Purpose:
+ * Every pair of members has a row (Member1, Amount, Member2), created by JoinGroup,
+ * where a positive Amount means Member2 owes Member1. Pairwise debts are exact, at
+ * the cost of n(n-1)/2 rows and an n x n matrix in memory.
+ *
+ * Contract:
+ * - Stored rows keep their orientation; pairs without a row are inserted on the next
+ *   write, so a table missing rows repairs itself
+ * - Rows naming members who left the group are ignored
+ */
+final class PairwiseBalanceStore implements BalanceStore {
+
+    private final String code;
+    private final List<String> members;
+
+    /** balance[i][j] = cents member j owes member i; always balance[j][i] == -balance[i][j]. */
+    private final long[][] balance;
+
+    /** Stored db6 rows: member indices in stored orientation, and the stored amount. */
+    private final List<int[]> storedPairs = new ArrayList<>();
+    private final List<Integer> storedPairIds = new ArrayList<>();
+    private final List<long[]> storedPairAmounts = new ArrayList<>();
+
+    /**
+     * @param code     Group code
+     * @param members  Current members
+     * @param index    Member name to index
+     * @param rows     Stored db6 rows of the group
+     */
+    PairwiseBalanceStore(String code, List<String> members, Map<String, Integer> index, List<PendingAmountRow> rows) {
+        this.code = code;
+        this.members = members;
+        this.balance = new long[members.size()][members.size()];
+        for (PendingAmountRow row : rows) {
+            Integer m1 = index.get(row.getMember1());
+            Integer m2 = index.get(row.getMember2());
+            if (m1 != null && m2 != null && !m1.equals(m2)) {
+                storedPairs.add(new int[] { m1, m2 });
+                storedPairIds.add(row.getId());
+                storedPairAmounts.add(new long[] { row.getAmount() });
+            }
+        }
+    }
+
+    @Override
+    public void add(int creditor, int debtor, long cents) {
+        balance[creditor][debtor] += cents;
+        balance[debtor][creditor] -= cents;
+    }
+
+    @Override
+    public long net(int member) {
+        long net = 0;
+        for (long value : balance[member]) {
+            net += value;
+        }
+        return net;
+    }
+
+    @Override
+    public long between(int member, int other) {
+        return balance[member][other];
+    }
+
+    @Override
+    public boolean isSettled(int member) {
+        for (long value : balance[member]) {
+            if (value != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Contract:
+     * - One row per pair of members, using the stored row's id and orientation
+     * - Pairs without a stored row come last with id 0
+     */
+    @Override
+    public List<PendingAmountRow> pendingAmounts() {
+        List<PendingAmountRow> rows = new ArrayList<>();
+        boolean[][] seen = new boolean[members.size()][members.size()];
+        for (int p = 0; p < storedPairs.size(); p++) {
+            int[] pair = storedPairs.get(p);
+            if (seen[pair[0]][pair[1]]) {
+                continue;
+            }
+            seen[pair[0]][pair[1]] = seen[pair[1]][pair[0]] = true;
+            rows.add(new PendingAmountRow(storedPairIds.get(p), members.get(pair[0]),
+                    balance[pair[0]][pair[1]], members.get(pair[1])));
+        }
+        for (int i = 0; i < members.size(); i++) {
+            for (int j = i + 1; j < members.size(); j++) {
+                if (!seen[i][j]) {
+                    rows.add(new PendingAmountRow(0, members.get(i), balance[i][j], members.get(j)));
+                }
+            }
+        }
+        return rows;
+    }
+
+    @Override
+    public void addWrites(ChangeSet changes) {
+        boolean[][] seen = new boolean[members.size()][members.size()];
+        for (int p = 0; p < storedPairs.size(); p++) {
+            int[] pair = storedPairs.get(p);
+            seen[pair[0]][pair[1]] = seen[pair[1]][pair[0]] = true;
+            long derived = balance[pair[0]][pair[1]];
+            long stored = storedPairAmounts.get(p)[0];
+            if (derived != stored) {
+                changes.add(update(pair[0], pair[1], derived), update(pair[0], pair[1], stored));
+            }
+        }
+        for (int i = 0; i < members.size(); i++) {
+            for (int j = i + 1; j < members.size(); j++) {
+                if (!seen[i][j]) {
+                    changes.add("/db6/InsertData?table=" + code + "&params=(Member1,Amount,Member2)&info=("
+                            + Ledger.quote(members.get(i)) + "," + Money.format(balance[i][j]) + ","
+                            + Ledger.quote(members.get(j)) + ")",
+                            "/db6/DeleteRowData?table=" + code + "&Member1=" + Ledger.param(members.get(i))
+                            + "&Member2=" + Ledger.param(members.get(j)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Internal helper method - db6 UpdateData of one stored pair row.
+     */
+    private String update(int member1, int member2, long cents) {
+        return "/db6/UpdateData?table=" + code + "&where=Member1=" + Ledger.quote(members.get(member1))
+                + "%20AND%20Member2=" + Ledger.quote(members.get(member2)) + "&Amount=" + Money.format(cents);
+    }
+
+    @Override
+    public void markStored() {
+        boolean[][] seen = new boolean[members.size()][members.size()];
+        for (int p = 0; p < storedPairs.size(); p++) {
+            int[] pair = storedPairs.get(p);
+            seen[pair[0]][pair[1]] = seen[pair[1]][pair[0]] = true;
+            storedPairAmounts.get(p)[0] = balance[pair[0]][pair[1]];
+        }
+        for (int i = 0; i < members.size(); i++) {
+            for (int j = i + 1; j < members.size(); j++) {
+                if (!seen[i][j]) {
+                    storedPairs.add(new int[] { i, j });
+                    storedPairIds.add(0);
+                    storedPairAmounts.add(new long[] { balance[i][j] });
+                }
+            }
+        }
+    }
+}
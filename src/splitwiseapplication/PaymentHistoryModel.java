@@ -0,0 +1,267 @@
+package splitwiseapplication;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.swing.AbstractListModel;
+import javax.swing.JList;
+import javax.swing.SwingUtilities;
+
+/**
+ * ListModel of a group's transaction history (db5), filled page by page while the
+ * rows stream in and formatted only when shown.
+ *
+ * Purpose:
+ * MainPage and DeleteTransaction used to decode the whole db5 table into
+ * PaymentHistoryRow objects and build a description String for every row before the
+ * list could be shown, so opening a group got slower and bigger with every
+ * transaction it ever had. This model receives the rows straight from the streamed
+ * response (ApiCallerStreamAsync), keeps them in compact pages of columns, and hands
+ * each finished page to the list right away: the first rows show up while the rest
+ * of the history is still arriving. A row's description is built when the list
+ * paints it, and only the most recently shown ones are kept.
+ *
+ * Contract:
+ * - The backend has no paging, so the whole table is still read once; what is kept
+ *   per row is its id, amount, type, tID, reason and a shared payee name
+ * - Rows are shown in response order; pages of -Dsplitwise.history.page rows (default
+ *   256) are handed to the event dispatch thread as soon as they are full, the last,
+ *   partial page when the response is complete
+ * - At most -Dsplitwise.history.window formatted descriptions (default 512) are kept
+ * - Until the first page arrives the list shows "Loading...", and "No transactions
+ *   Yet" when the history turned out to be empty; getRow() is null for those
+ * - A retried request starts over: rows of the failed attempt are removed again
+ * - Read on the event dispatch thread only, like any Swing model
+ *
+ * Usage:
+ *   PaymentHistoryModel history = PaymentHistoryModel.deletable();
+ *   PaymentHistoryModel.install(transactionList, history);
+ *   ScreenLoader.load(frame, "the transactions", () -> ApiCaller.await(history.load(gcode)), loaded -> { });
+ */
+final class PaymentHistoryModel extends AbstractListModel<String> implements ApiCaller.RowHandler {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Shown when the group has no (listed) transactions. */
+    static final String EMPTY = "No transactions Yet";
+
+    /** Rows per page (-Dsplitwise.history.page). */
+    static final int PAGE = Math.max(1, Integer.getInteger("splitwise.history.page", 256));
+
+    private static final int WINDOW = Math.max(1, Integer.getInteger("splitwise.history.window", 512));
+
+    /**
+     * Rows of one page, stored column-wise. Filled on the thread receiving the
+     * response and never changed after it was handed to the event dispatch thread.
+     */
+    private static final class Page {
+        final int[] ids = new int[PAGE];
+        final long[] amounts = new long[PAGE];
+        final int[] types = new int[PAGE];
+        final String[] payees = new String[PAGE];
+        final String[] reasons = new String[PAGE];
+        final String[] tids = new String[PAGE];
+        int count;
+    }
+
+    private final boolean deletableOnly;
+
+    /* Receiving side: only used by the thread the response rows arrive on. */
+    private Page filling;
+    private boolean first;
+    private int idCell, payeeCell, amountCell, reasonCell, typeCell, tidCell;
+    private final Map<String, String> names = new HashMap<>();
+
+    /* Event dispatch thread side. */
+    private final List<Page> pages = new ArrayList<>();
+    private int size;
+    private boolean finished;
+    private final Map<Integer, String> shown = new LinkedHashMap<Integer, String>(64, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+            return size() > WINDOW;
+        }
+    };
+
+    /**
+     * Internal helper method - Creates an empty model; see all() and deletable().
+     */
+    private PaymentHistoryModel(boolean deletableOnly) {
+        this.deletableOnly = deletableOnly;
+    }
+
+    /** @return Model listing every history entry (MainPage) */
+    static PaymentHistoryModel all() {
+        return new PaymentHistoryModel(false);
+    }
+
+    /**
+     * @return Model listing only expenses and settlements, the entries that can be
+     *         deleted (DeleteTransaction); "left the group" entries are skipped
+     */
+    static PaymentHistoryModel deletable() {
+        return new PaymentHistoryModel(true);
+    }
+
+    /**
+     * Shows a model in a list without letting the list measure every row.
+     *
+     * A JList without fixed cell sizes renders each element once to size itself,
+     * which would format the whole history; a prototype description gives every
+     * cell the same height and width instead.
+     *
+     * @param list   List of a screen
+     * @param model  Model to show
+     */
+    static void install(JList<String> list, PaymentHistoryModel model) {
+        list.setPrototypeCellValue("Someone added a payment of $0000.00 for a shared expense");
+        list.setModel(model);
+    }
+
+    /**
+     * Starts reading a group's history into this model.
+     *
+     * @param gcode  Group code
+     * @return       Future completing with this model once every page was handed to
+     *               the event dispatch thread
+     */
+    CompletableFuture<PaymentHistoryModel> load(String gcode) {
+        return ApiCaller.ApiCallerStreamAsync("/db5/GetRowData?table=" + gcode, this).thenApply(model -> {
+            Page last = filling;
+            filling = null;
+            SwingUtilities.invokeLater(() -> {
+                if (last != null && last.count > 0) {
+                    append(last);
+                }
+                finished = true;
+                if (size == 0) {
+                    fireContentsChanged(this, 0, 0);
+                }
+            });
+            return model;
+        });
+    }
+
+    @Override
+    public void start() {
+        filling = new Page();
+        first = true;
+        idCell = 0;
+        payeeCell = 1;
+        amountCell = 2;
+        reasonCell = 3;
+        typeCell = 4;
+        tidCell = 5;
+        SwingUtilities.invokeLater(this::clear);
+    }
+
+    @Override
+    public void row(String[] cells) {
+        if (first) {
+            first = false;
+            if (TableRows.isHeader(cells, "id", "payee", "amount", "reason", "Ttype", "tid")) {
+                TableRows header = new TableRows(new String[][] { cells }, "id", "payee", "amount", "reason", "Ttype", "tid");
+                idCell = header.column("id", idCell);
+                payeeCell = header.column("payee", payeeCell);
+                amountCell = header.column("amount", amountCell);
+                reasonCell = header.column("reason", reasonCell);
+                typeCell = header.column("Ttype", typeCell);
+                tidCell = header.column("tid", tidCell);
+                return;
+            }
+        }
+        int type = TableRows.integer(cells, typeCell);
+        if (deletableOnly && type != PaymentHistoryRow.TYPE_EXPENSE && type != PaymentHistoryRow.TYPE_SETTLEMENT) {
+            return;
+        }
+        Page page = filling;
+        int k = page.count++;
+        page.ids[k] = TableRows.integer(cells, idCell);
+        page.amounts[k] = TableRows.cents(cells, amountCell);
+        page.types[k] = type;
+        page.payees[k] = names.computeIfAbsent(TableRows.text(cells, payeeCell), name -> name);
+        page.reasons[k] = TableRows.text(cells, reasonCell);
+        page.tids[k] = TableRows.text(cells, tidCell);
+        if (page.count == PAGE) {
+            filling = new Page();
+            SwingUtilities.invokeLater(() -> append(page));
+        }
+    }
+
+    @Override
+    public int getSize() {
+        return size == 0 ? 1 : size;
+    }
+
+    /**
+     * @return The description of a row, formatted on first use; the placeholder
+     *         while there are no rows
+     */
+    @Override
+    public String getElementAt(int index) {
+        if (size == 0) {
+            return finished ? EMPTY : ScreenLoader.LOADING;
+        }
+        return shown.computeIfAbsent(index, i -> getRow(i).describe());
+    }
+
+    /**
+     * @param index  Position in the list
+     * @return       The row shown there, or null for the placeholder or an index out
+     *               of range
+     */
+    PaymentHistoryRow getRow(int index) {
+        if (index < 0 || index >= size) {
+            return null;
+        }
+        Page page = pages.get(index / PAGE);
+        int k = index % PAGE;
+        return new PaymentHistoryRow(page.ids[k], page.payees[k], page.amounts[k], page.reasons[k],
+                page.types[k], page.tids[k]);
+    }
+
+    /** @return Number of rows received so far (0 while only a placeholder is shown) */
+    int rows() {
+        return size;
+    }
+
+    /**
+     * Internal helper method - Adds a full (or the last) page to the list.
+     */
+    private void append(Page page) {
+        int before = size;
+        pages.add(page);
+        size += page.count;
+        if (before == 0) {
+            fireContentsChanged(this, 0, 0);
+            if (size > 1) {
+                fireIntervalAdded(this, 1, size - 1);
+            }
+        } else {
+            fireIntervalAdded(this, before, size - 1);
+        }
+    }
+
+    /**
+     * Internal helper method - Drops the rows of an earlier attempt.
+     */
+    private void clear() {
+        if (size == 0) {
+            return;
+        }
+        int before = size;
+        pages.clear();
+        shown.clear();
+        size = 0;
+        finished = false;
+        if (before > 1) {
+            fireIntervalRemoved(this, 1, before - 1);
+        }
+        fireContentsChanged(this, 0, 0);
+    }
+}
@@ -0,0 +1,122 @@
+package splitwiseapplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PaymentHistoryRow - One entry of a group's transaction history (db5)
+ *
+ * Columns: id, payee, amount, reason, Ttype, tid
+ *
+ * Meaning of the fields by type:
+ * - TYPE_EXPENSE (0):    payee added an expense of amount for reason
+ * - TYPE_SETTLEMENT (1): payee paid amount to the member named in reason
+ * - TYPE_LEFT (2):       payee left the group (amount 0, reason "left", tid "NA", or "NA-" and a random code)
+ *
+ * Immutable; the amount is parsed once into cents when the row is decoded.
+ */
+public final class PaymentHistoryRow {
+
+	/** Ttype of an expense added with AddTransaction. */
+	public static final int TYPE_EXPENSE = 0;
+	/** Ttype of a settlement recorded with AmountSettled. */
+	public static final int TYPE_SETTLEMENT = 1;
+	/** Ttype written when a member leaves the group. */
+	public static final int TYPE_LEFT = 2;
+
+	private final int id;
+	private final String payee;
+	private final long amount;
+	private final String reason;
+	private final int type;
+	private final String tid;
+
+	/**
+	 * Creates a row.
+	 *
+	 * @param id Row id
+	 * @param payee Member who paid
+	 * @param amount Amount paid, in cents
+	 * @param reason Expense reason, or the receiving member for settlements
+	 * @param type TYPE_EXPENSE, TYPE_SETTLEMENT or TYPE_LEFT
+	 * @param tid Transaction ID shared with the db8 details row
+	 */
+	public PaymentHistoryRow(int id, String payee, long amount, String reason, int type, String tid) {
+		this.id = id;
+		this.payee = payee;
+		this.amount = amount;
+		this.reason = reason;
+		this.type = type;
+		this.tid = tid;
+	}
+
+	/**
+	 * Decodes a db5 GetRowData result.
+	 *
+	 * @param rows Parsed response (header row optional)
+	 * @return Data rows in response order
+	 */
+	public static List<PaymentHistoryRow> fromRows(String[][] rows) {
+		TableRows table = new TableRows(rows, "id", "payee", "amount", "reason", "Ttype", "tid");
+		int id = table.column("id", 0);
+		int payee = table.column("payee", 1);
+		int amount = table.column("amount", 2);
+		int reason = table.column("reason", 3);
+		int type = table.column("Ttype", 4);
+		int tid = table.column("tid", 5);
+
+		List<PaymentHistoryRow> result = new ArrayList<>(table.size());
+		for (int i = 0; i < table.size(); i++) {
+			String[] row = table.row(i);
+			result.add(new PaymentHistoryRow(TableRows.integer(row, id), TableRows.text(row, payee),
+					TableRows.cents(row, amount), TableRows.text(row, reason),
+					TableRows.integer(row, type), TableRows.text(row, tid)));
+		}
+		return result;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public String getPayee() {
+		return payee;
+	}
+
+	/**
+	 * @return Amount in cents (see Money)
+	 */
+	public long getAmount() {
+		return amount;
+	}
+
+	public String getReason() {
+		return reason;
+	}
+
+	public int getType() {
+		return type;
+	}
+
+	public String getTid() {
+		return tid;
+	}
+
+	/**
+	 * Text shown for this entry in the MainPage and DeleteTransaction lists.
+	 *
+	 * @return e.g. "Alice added a payment of $100.00 for Dinner"
+	 */
+	public String describe() {
+		switch (type) {
+			case TYPE_EXPENSE:
+				return payee + " added a payment of $" + Money.format(amount) + " for " + reason;
+			case TYPE_SETTLEMENT:
+				return payee + " paid $" + Money.format(amount) + " to " + reason;
+			case TYPE_LEFT:
+				return payee + " left the group";
+			default:
+				return payee + ": " + reason;
+		}
+	}
+}
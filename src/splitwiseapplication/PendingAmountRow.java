@@ -0,0 +1,105 @@
+package splitwiseapplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PendingAmountRow - One pairwise balance of a group (db6)
+ *
+ * Columns: id, Member1, Amount, Member2
+ *
+ * Sign convention:
+ * - Amount > 0: Member2 owes Amount to Member1
+ * - Amount < 0: Member1 owes -Amount to Member2
+ * - Amount = 0: the two members are settled
+ *
+ * Every pair of members has exactly one row (created by JoinGroup), in one
+ * orientation. Groups that keep net balances instead have one row per member
+ * with Member2 = GROUP (see NetBalanceStore). Immutable; the amount is parsed
+ * once into cents when the row is decoded.
+ */
+public final class PendingAmountRow {
+
+	/** Member2 of a net balance row: the member's position against the whole group. */
+	public static final String GROUP = "*group*";
+
+	private final int id;
+	private final String member1;
+	private final long amount;
+	private final String member2;
+
+	/**
+	 * Creates a row.
+	 *
+	 * @param id Row id
+	 * @param member1 First member of the pair
+	 * @param amount Balance in cents, positive when member2 owes member1
+	 * @param member2 Second member of the pair
+	 */
+	public PendingAmountRow(int id, String member1, long amount, String member2) {
+		this.id = id;
+		this.member1 = member1;
+		this.amount = amount;
+		this.member2 = member2;
+	}
+
+	/**
+	 * Decodes a db6 GetRowData result.
+	 *
+	 * @param rows Parsed response (header row optional)
+	 * @return Data rows in response order
+	 */
+	public static List<PendingAmountRow> fromRows(String[][] rows) {
+		TableRows table = new TableRows(rows, "id", "Member1", "Amount", "Member2");
+		int id = table.column("id", 0);
+		int member1 = table.column("Member1", 1);
+		int amount = table.column("Amount", 2);
+		int member2 = table.column("Member2", 3);
+
+		List<PendingAmountRow> result = new ArrayList<>(table.size());
+		for (int i = 0; i < table.size(); i++) {
+			String[] row = table.row(i);
+			result.add(new PendingAmountRow(TableRows.integer(row, id), TableRows.text(row, member1),
+					TableRows.cents(row, amount), TableRows.text(row, member2)));
+		}
+		return result;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public String getMember1() {
+		return member1;
+	}
+
+	/**
+	 * @return Amount in cents (see Money)
+	 */
+	public long getAmount() {
+		return amount;
+	}
+
+	public String getMember2() {
+		return member2;
+	}
+
+	/**
+	 * @param member A member of this pair
+	 * @return The other member of the pair
+	 */
+	public String otherMember(String member) {
+		return member.equals(member1) ? member2 : member1;
+	}
+
+	/**
+	 * Balance seen from one member of the pair.
+	 *
+	 * @param member A member of this pair
+	 * @return Balance in cents, positive when the other member owes this member,
+	 *         negative when this member owes
+	 */
+	public long amountFor(String member) {
+		return member.equals(member1) ? amount : -amount;
+	}
+}
@@ -246,6 +246,8 @@ public class RegisterPageGUI implements ActionListener{
 	 * ERROR HANDLING:
 	 * After showing error, changes all action commands to "Submitted" to
 	 * prevent duplicate error labels on subsequent submissions.
+	 * If a request fails (ApiException), shows an error dialog and stays on
+	 * the registration screen.
 	 * 
 	 * @param event The ActionEvent containing the action command
 	 */
@@ -256,19 +258,24 @@ public class RegisterPageGUI implements ActionListener{
 		if (eventName == "Submit") {
 			String usrname = username.getText();
 			String pwd = password.getText();
-			if (Exists.exist("https://splitwise.up.railway.app/db2/GetRowData?table=Credentials&username=" + usrname) == false) {
-				AddNewUser(usrname,pwd);
-				Groups groups = new Groups(usrname);
-				groups.runGUI();
-				frame.dispose();
-			} else {
-				JLabel displayError = new JLabel("Username already taken");
-				password.setActionCommand("Submitted");
-				submitButton.setActionCommand("Submitted");
-				username.setActionCommand("Submitted");
-				contentPane.add(displayError);
-				frame.setContentPane(contentPane);
-				frame.pack();
+			try {
+				if (Exists.exist("/db2/GetRowData?table=Credentials&username=" + usrname) == false) {
+					AddNewUser(usrname,pwd);
+					Groups groups = new Groups(usrname);
+					groups.runGUI();
+					frame.dispose();
+				} else {
+					JLabel displayError = new JLabel("Username already taken");
+					password.setActionCommand("Submitted");
+					submitButton.setActionCommand("Submitted");
+					username.setActionCommand("Submitted");
+					contentPane.add(displayError);
+					frame.setContentPane(contentPane);
+					frame.pack();
+				}
+			} catch (ApiException e) {
+				e.printStackTrace();
+				JOptionPane.showMessageDialog(frame, "Could not register, please try again.\n" + e.getMessage(), "Splitwise", JOptionPane.ERROR_MESSAGE);
 			}
 		} else if (eventName.equals("show")) {
 			password.setEchoChar((char) 0);
@@ -281,11 +288,16 @@ public class RegisterPageGUI implements ActionListener{
 		}else if (eventName.equals("Submitted")) {
 			String usrname = username.getText();
 			String pwd = password.getText();
-			if (Exists.exist("https://splitwise.up.railway.app/db2/GetRowData?table=Credentials&username=" + usrname) == false) {
-				AddNewUser(usrname,pwd);
-				Groups groups = new Groups(usrname);
-				groups.runGUI();
-				frame.dispose();
+			try {
+				if (Exists.exist("/db2/GetRowData?table=Credentials&username=" + usrname) == false) {
+					AddNewUser(usrname,pwd);
+					Groups groups = new Groups(usrname);
+					groups.runGUI();
+					frame.dispose();
+				}
+			} catch (ApiException e) {
+				e.printStackTrace();
+				JOptionPane.showMessageDialog(frame, "Could not register, please try again.\n" + e.getMessage(), "Splitwise", JOptionPane.ERROR_MESSAGE);
 			}
 		} else {
 			LoginOrRegister loginorRegisterGUI = new LoginOrRegister();
@@ -419,9 +431,9 @@ public class RegisterPageGUI implements ActionListener{
 	public void AddNewUser(String uname, String psswd) {
 		
 		// Adding Username and Password to  credentials.txt
-		String val = ApiCaller.ApiCaller2("https://splitwise.up.railway.app/db2/InsertData?table=Credentials&params=(username,password)&info=('" + uname + "','" + psswd + "')");
+		String val = ApiCaller.ApiCaller2("/db2/InsertData?table=Credentials&params=(username,password)&info=('" + uname + "','" + psswd + "')");
 		System.out.println("val");
-		ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db7/CreateTable?table="+uname+"&columns=GroupID%20VARCHAR(50)%20PRIMARY%20KEY,%20GroupName%20VARCHAR(100)");
+		ApiCaller.ApiCaller2("/db7/CreateTable?table="+uname+"&columns=GroupID%20VARCHAR(50)%20PRIMARY%20KEY,%20GroupName%20VARCHAR(100)");
 	 
 	}
 	
@@ -0,0 +1,180 @@
+package splitwiseapplication;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.PushbackInputStream;
+import java.io.Reader;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Decoding of (possibly compressed) response bodies into character streams.
+ *
+ * Purpose:
+ * ApiCaller asks the backend for gzip or deflate compressed responses. Large
+ * GetRowData tables (db5 history, db8 with one column per member) are highly
+ * repetitive JSON and shrink several times. The body is decompressed while it
+ * arrives and fed straight into JsonRowParser, so the uncompressed text is never
+ * held in memory as a whole.
+ *
+ * Contract:
+ * - Content-Encoding "gzip" / "x-gzip" is decoded with GZIPInputStream
+ * - Content-Encoding "deflate" is decoded as zlib data, or as raw deflate data when
+ *   the stream has no zlib header (some servers send it that way)
+ * - No Content-Encoding or "identity" passes the bytes through
+ * - Any other encoding fails with an IOException
+ * - Text is decoded as UTF-8
+ * - The byte counter sees the bytes as received, before decompression
+ */
+final class ResponseBodies {
+
+    /** Value of the Accept-Encoding header sent with every request. */
+    static final String ACCEPT_ENCODING = "gzip, deflate";
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private ResponseBodies() {
+    }
+
+    /**
+     * Opens the decoded body of a response as a UTF-8 character stream.
+     *
+     * @param response  Response received with BodyHandlers.ofInputStream()
+     * @param counter   Receives the number of body bytes read from the network
+     * @return          Reader of the decompressed text; closing it closes the body
+     * @throws IOException  For an unsupported Content-Encoding or a corrupt header
+     */
+    static Reader open(HttpResponse<InputStream> response, LongConsumer counter) throws IOException {
+        InputStream body = new CountingInputStream(response.body(), counter);
+        String encoding = response.headers().firstValue("Content-Encoding").orElse("identity")
+                .trim().toLowerCase(Locale.ROOT);
+        try {
+            switch (encoding) {
+                case "":
+                case "identity":
+                    break;
+                case "gzip":
+                case "x-gzip":
+                    body = new GZIPInputStream(body, BUFFER_SIZE);
+                    break;
+                case "deflate":
+                    body = inflate(body);
+                    break;
+                default:
+                    throw new IOException("unsupported Content-Encoding: " + encoding);
+            }
+        } catch (IOException e) {
+            body.close();
+            throw e;
+        }
+        return new InputStreamReader(body, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Internal helper method - Chooses zlib or raw inflation by looking at the first
+     * two bytes (a zlib header has compression method 8 and a checksum divisible by 31).
+     */
+    private static InputStream inflate(InputStream body) throws IOException {
+        PushbackInputStream in = new PushbackInputStream(body, 2);
+        int first = in.read();
+        int second = first < 0 ? -1 : in.read();
+        if (second >= 0) {
+            in.unread(second);
+        }
+        if (first >= 0) {
+            in.unread(first);
+        }
+        boolean zlib = first >= 0 && second >= 0 && (first & 0x0F) == 8 && ((first << 8) | second) % 31 == 0;
+        return new InflaterInputStream(in, new Inflater(!zlib), BUFFER_SIZE);
+    }
+
+    /**
+     * Reads at most limit characters of a body (for error messages) and closes it.
+     *
+     * @param response  Response received with BodyHandlers.ofInputStream()
+     * @param counter   Receives the number of body bytes read from the network
+     * @param limit     Maximum number of characters returned
+     * @return          Start of the decoded body, with "..." appended when it was cut
+     */
+    static String readPrefix(HttpResponse<InputStream> response, LongConsumer counter, int limit) {
+        try (Reader reader = open(response, counter)) {
+            StringBuilder text = new StringBuilder();
+            char[] buffer = new char[Math.min(BUFFER_SIZE, limit + 1)];
+            int read;
+            while (text.length() <= limit && (read = reader.read(buffer)) >= 0) {
+                text.append(buffer, 0, read);
+            }
+            if (text.length() > limit) {
+                text.setLength(limit);
+                text.append("...");
+            }
+            return text.toString();
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    /**
+     * Reads a whole decoded body into a String.
+     *
+     * @param reader  Reader returned by open()
+     * @return        Complete body text
+     * @throws IOException  When the connection fails while reading
+     */
+    static String readAll(Reader reader) throws IOException {
+        StringBuilder text = new StringBuilder();
+        char[] buffer = new char[BUFFER_SIZE];
+        int read;
+        while ((read = reader.read(buffer)) >= 0) {
+            text.append(buffer, 0, read);
+        }
+        return text.toString();
+    }
+
+    /**
+     * Input stream that reports every byte read to a counter.
+     */
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final LongConsumer counter;
+
+        CountingInputStream(InputStream in, LongConsumer counter) {
+            super(in);
+            this.counter = counter;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value >= 0) {
+                counter.accept(1);
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                counter.accept(count);
+            }
+            return count;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            if (skipped > 0) {
+                counter.accept(skipped);
+            }
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package splitwiseapplication;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Time-limited, size-bounded cache of parsed read responses.
+ *
+ * Purpose:
+ * Screens reload the same tables on every navigation (db5/db6 for MainPage,
+ * DeleteTransaction, SettlePayment and CheckBalances; db4 members on every
+ * AddTransaction click). ApiCaller keeps the parsed result of each read here so
+ * moving between screens of an active group reuses data instead of refetching it.
+ *
+ * Contract:
+ * - Entries are keyed by the complete request URL, which already encodes
+ *   database, operation, table and filters
+ * - Each entry belongs to one backend table ("db{N}/{table}", see ApiEndpoint)
+ * - Entries expire after the TTL and the least recently used entry is evicted
+ *   once the size limit is reached
+ * - invalidate(table) drops every entry of that table; ApiCaller calls it when an
+ *   UpdateData, InsertData, DeleteRowData or schema change on that table completes
+ * - A read that was already in flight when its table was invalidated is not stored
+ *   (per-table generation counter), so it cannot put pre-write data back
+ * - Generations are never reset, not even by clear(): ApiCaller.tableGeneration()
+ *   hands them out as change counters that must only grow. There is one Long per
+ *   table this client has written to, so the map is bounded by the number of
+ *   tables (a handful per group and one db7 table per user), not by the requests
+ * - Values are copied on the way in and out, so callers may modify the arrays
+ *   they receive without corrupting the cache
+ *
+ * Configuration (JVM system properties, all optional):
+ * - splitwise.cache.ttlMs        Lifetime of an entry (default 30000, 0 disables caching)
+ * - splitwise.cache.maxEntries   Maximum number of cached responses (default 256)
+ *
+ * Thread safety:
+ * All methods except generation() are synchronized; they are called from the EDT
+ * and from the HTTP client executor. generation() reads the ConcurrentHashMap
+ * without the lock, since screens ask for it on every refresh.
+ */
+final class ResponseCache {
+
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final LinkedHashMap<String, Entry> entries;
+    /** Invalidation count per table key; see the class comment for its bound. */
+    private final ConcurrentHashMap<String, Long> generations = new ConcurrentHashMap<>(64);
+
+    /** One cached response. */
+    private static final class Entry {
+        final String tableKey;
+        final Object value;
+        final long expiresAt;
+
+        Entry(String tableKey, Object value, long expiresAt) {
+            this.tableKey = tableKey;
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Creates a cache with the given limits.
+     *
+     * @param ttlMillis   Lifetime of an entry in milliseconds (0 disables caching)
+     * @param maxEntries  Maximum number of entries kept
+     */
+    ResponseCache(long ttlMillis, int maxEntries) {
+        this.ttlNanos = Math.max(0, ttlMillis) * 1_000_000L;
+        this.maxEntries = Math.max(1, maxEntries);
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > ResponseCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Creates a cache configured from the splitwise.cache.* system properties.
+     *
+     * @return  Cache with the configured TTL and size limit
+     */
+    static ResponseCache fromSystemProperties() {
+        return new ResponseCache(Long.getLong("splitwise.cache.ttlMs", 30000),
+                Integer.getInteger("splitwise.cache.maxEntries", 256));
+    }
+
+    /**
+     * Looks up a cached response.
+     *
+     * @param key  Cache key (request URL)
+     * @return     Copy of the cached String[][] or String[], or null on a miss or expired entry
+     */
+    synchronized Object get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (System.nanoTime() - entry.expiresAt >= 0) {
+            entries.remove(key);
+            return null;
+        }
+        return copy(entry.value);
+    }
+
+    /**
+     * Current generation of a table. Take it before sending a read and pass it to put().
+     *
+     * @param tableKey  "db{N}/{table}"
+     * @return          Number of invalidations of that table so far
+     */
+    long generation(String tableKey) {
+        return generations.getOrDefault(tableKey, 0L);
+    }
+
+    /**
+     * Stores a response unless its table was invalidated since the read was sent.
+     *
+     * @param key         Cache key (request URL)
+     * @param tableKey    Table the response was read from
+     * @param value       Parsed String[][] or String[]
+     * @param generation  Value of generation(tableKey) taken before the request was sent
+     */
+    synchronized void put(String key, String tableKey, Object value, long generation) {
+        if (ttlNanos == 0 || generation != generation(tableKey)) {
+            return;
+        }
+        entries.put(key, new Entry(tableKey, copy(value), System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Drops every cached response of a table and rejects reads still in flight for it.
+     *
+     * @param tableKey  "db{N}/{table}"
+     */
+    synchronized void invalidate(String tableKey) {
+        generations.merge(tableKey, 1L, Long::sum);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().tableKey.equals(tableKey)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Drops all cached responses (e.g. on logout). The table generations are kept.
+     */
+    synchronized void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Copies a String[][] row by row, or a String[].
+     *
+     * @param value  Parsed response
+     * @return       Independent copy the caller may modify
+     */
+    static Object copy(Object value) {
+        if (value instanceof String[][]) {
+            String[][] rows = ((String[][]) value).clone();
+            for (int i = 0; i < rows.length; i++) {
+                rows[i] = rows[i].clone();
+            }
+            return rows;
+        }
+        return ((String[]) value).clone();
+    }
+}
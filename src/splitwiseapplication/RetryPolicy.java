@@ -0,0 +1,95 @@
+package splitwiseapplication;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides whether a failed API call is retried and how long to wait before retrying.
+ *
+ * Purpose:
+ * Transient failures (a 502 from the Railway proxy, a dropped connection) should not
+ * abort a screen or leave a multi-step update half done. Reads are idempotent and are
+ * retried with exponential backoff; writes are only retried when the request provably
+ * never reached the server, so a retry can never apply an update twice.
+ *
+ * Contract:
+ * - Attempts are numbered from 1; at most maxAttempts attempts are made
+ * - Reads (GetRowData, GetSpecificData) are retried on CONNECT, TIMEOUT, NETWORK,
+ *   429 and 502/503/504
+ * - Writes are retried only on CONNECT
+ * - Delays use "full jitter": a random value between 0 and
+ *   min(maxDelay, baseDelay * 2^(attempt-1)), which spreads out retries from
+ *   many clients after an outage
+ *
+ * Configuration (JVM system properties, all optional):
+ * - splitwise.retry.maxAttempts   Total attempts per call, including the first (default 3)
+ * - splitwise.retry.baseDelayMs   Backoff base (default 200)
+ * - splitwise.retry.maxDelayMs    Backoff cap (default 2000)
+ */
+final class RetryPolicy {
+
+    private final int maxAttempts;
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+
+    /**
+     * Creates a policy.
+     *
+     * @param maxAttempts      Total attempts per call, including the first (1 disables retries)
+     * @param baseDelayMillis  Backoff base in milliseconds
+     * @param maxDelayMillis   Backoff cap in milliseconds
+     */
+    RetryPolicy(int maxAttempts, long baseDelayMillis, long maxDelayMillis) {
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.baseDelayMillis = Math.max(0, baseDelayMillis);
+        this.maxDelayMillis = Math.max(this.baseDelayMillis, maxDelayMillis);
+    }
+
+    /**
+     * Creates a policy configured from the splitwise.retry.* system properties.
+     *
+     * @return  Configured policy
+     */
+    static RetryPolicy fromSystemProperties() {
+        return new RetryPolicy(Integer.getInteger("splitwise.retry.maxAttempts", 3),
+                Long.getLong("splitwise.retry.baseDelayMs", 200),
+                Long.getLong("splitwise.retry.maxDelayMs", 2000));
+    }
+
+    /**
+     * Decides whether a failed attempt should be retried.
+     *
+     * @param failure   Failure of the attempt
+     * @param read      true when the request is an idempotent read
+     * @param attempt   Number of the attempt that failed (1 for the first)
+     * @return          true if another attempt should be made
+     */
+    boolean shouldRetry(ApiException failure, boolean read, int attempt) {
+        if (attempt >= maxAttempts) {
+            return false;
+        }
+        switch (failure.getReason()) {
+            case CONNECT:
+                return true;
+            case TIMEOUT:
+            case NETWORK:
+                return read;
+            case HTTP_STATUS:
+                int status = failure.getStatusCode();
+                return read && (status == 429 || status == 502 || status == 503 || status == 504);
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Backoff before the next attempt.
+     *
+     * @param attempt  Number of the attempt that just failed (1 for the first)
+     * @return         Delay in milliseconds
+     */
+    long delayMillis(int attempt) {
+        long ceiling = baseDelayMillis << Math.min(attempt - 1, 20);
+        ceiling = Math.min(maxDelayMillis, ceiling);
+        return ceiling == 0 ? 0 : ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+}
@@ -0,0 +1,111 @@
+package splitwiseapplication;
+
+import java.awt.Cursor;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+import javax.swing.JFrame;
+import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
+
+/**
+ * Fetches the data of a screen off the event dispatch thread.
+ *
+ * Purpose:
+ * Screens are built from another screen's actionPerformed, i.e. on the event dispatch
+ * thread. A constructor that reads the backend itself freezes the whole UI for every
+ * round trip, and on a slow link the previous window stays stuck until the data is in.
+ * A screen instead builds its components with a loading placeholder, hands the backend
+ * reads to load(), and fills in the view from the callback.
+ *
+ * Contract:
+ * - fetch runs on a SwingWorker background thread and must not touch Swing components
+ * - show runs on the event dispatch thread with fetch's result, after which the frame
+ *   is laid out again; since it is queued behind the current event, it always runs
+ *   after the screen's runGUI()
+ * - A wait cursor is shown on the frame while fetching
+ * - Disposing the frame (Back, navigating away) cancels the fetch; show is then not run
+ * - A failing fetch is reported in a dialog and leaves the placeholder in place; the
+ *   screen's buttons keep working, so the user can go back and try again
+ *
+ * Usage:
+ *   transactionList = new JList<>(new String[] { ScreenLoader.LOADING });
+ *   ScreenLoader.load(frame, "the transactions", () -> fetchRows(), rows -> showRows(rows));
+ */
+final class ScreenLoader<T> extends SwingWorker<T, Void> {
+
+    /** Placeholder text shown by screens until their data has arrived. */
+    static final String LOADING = "Loading...";
+
+    private final JFrame frame;
+    private final String what;
+    private final Callable<T> fetch;
+    private final Consumer<T> show;
+
+    /** Cancels the fetch when the frame is disposed; removed again once done. */
+    private final WindowAdapter closing = new WindowAdapter() {
+        @Override
+        public void windowClosed(WindowEvent e) {
+            cancel(true);
+        }
+    };
+
+    /**
+     * Internal helper method - Creates a loader; see load().
+     */
+    private ScreenLoader(JFrame frame, String what, Callable<T> fetch, Consumer<T> show) {
+        this.frame = frame;
+        this.what = what;
+        this.fetch = fetch;
+        this.show = show;
+    }
+
+    /**
+     * Starts fetching the data of a screen.
+     *
+     * @param frame  The screen's frame
+     * @param what   What is loaded, for the error message (e.g. "the transactions")
+     * @param fetch  Backend reads, run on a background thread
+     * @param show   Fills in the view, run on the event dispatch thread
+     * @return       The running loader
+     */
+    static <T> ScreenLoader<T> load(JFrame frame, String what, Callable<T> fetch, Consumer<T> show) {
+        ScreenLoader<T> loader = new ScreenLoader<>(frame, what, fetch, show);
+        frame.setCursor(Cursor.getPredefinedCursor(Cursor.WAIT_CURSOR));
+        frame.addWindowListener(loader.closing);
+        loader.execute();
+        return loader;
+    }
+
+    @Override
+    protected T doInBackground() throws Exception {
+        return fetch.call();
+    }
+
+    @Override
+    protected void done() {
+        frame.removeWindowListener(closing);
+        frame.setCursor(Cursor.getDefaultCursor());
+        if (isCancelled()) {
+            return;
+        }
+        T data;
+        try {
+            data = get();
+        } catch (CancellationException | InterruptedException e) {
+            return;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            cause.printStackTrace();
+            JOptionPane.showMessageDialog(frame, "Could not load " + what + ".\n" + cause.getMessage(),
+                    "Splitwise", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        show.accept(data);
+        frame.revalidate();
+        frame.repaint();
+    }
+}
@@ -5,7 +5,7 @@ import java.awt.Dimension;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.List;
 import javax.swing.*;
 
 /**
@@ -22,19 +22,22 @@ import javax.swing.*;
  * - "Back" button returns to MainPage
  * 
  * DATA SOURCE:
- * - Queries db6 (payment records) for:
- *   1. Records where current user is Member1
- *   2. Records where current user is Member2
- * - Combines both result sets to show all relationships
+ * - Loads the group's Ledger once and reads its pairwise balances (db6 shape)
+ * - Keeps the records where current user is Member1 or Member2 and the amount is not 0
  * 
  * AMOUNT INTERPRETATION:
  * - Positive amount: Member2 owes Member1
  * - Negative amount: Member1 owes Member2
  * - Zero amount: Settled/no debt
  * 
+ * SIMPLIFIED VIEW:
+ * - "Simplified" checkbox replaces the pairwise list with the payments planned
+ *   by SettlementPlanner from every member's net position (at most members - 1
+ *   payments for the whole group)
+ * 
  * UI STRUCTURE:
  * - Top: Scrollable list of payment relationships
- * - Bottom: "Pay" and "Back" buttons
+ * - Bottom: "Simplified" checkbox, "Pay" and "Back" buttons
  * - Border layout: list on west, buttons on south
  * 
  * NAVIGATION:
@@ -52,9 +55,10 @@ public class SettlePayment implements ActionListener{
 	JList<String> transactionList;
 	JScrollPane scrollPane;
 	String uname,gcode;
-	ArrayList<String[]> info;
+	List<PendingAmountRow> info;
 	JButton pay,back;
-	ArrayList<String[]> options;
+	JCheckBox simplified;
+	Ledger ledger;
 	
 	/**
 	 * SettlePayment Constructor - Initialize Payment Settlement Screen
@@ -74,10 +78,12 @@ public class SettlePayment implements ActionListener{
 	 *    - Sets up list panel and button panel
 	 * 
 	 * 2. DATA RETRIEVAL:
-	 *    - Fetches records where user is Member1 (user owes or is owed)
-	 *    - Fetches records where user is Member2 (user owes or is owed)
-	 *    - Combines both into 'info' list
-	 *    - Also fetches all group payment records into 'options'
+	 *    - The list shows "Loading..." while the group's Ledger is loaded in
+	 *      the background (ScreenLoader), so the frame appears right away
+	 *    - Once loaded, showBalances() takes its pairwise balances as
+	 *      PendingAmountRow objects (derived from the db8 transaction details)
+	 *    - Keeps unsettled records where user is Member1 or Member2 in 'info',
+	 *      in the same order as the displayed list
 	 * 
 	 * 3. AMOUNT INTERPRETATION:
 	 *    When user is Member1:
@@ -93,12 +99,13 @@ public class SettlePayment implements ActionListener{
 	 *      Display: "Member1 needs to give you $X"
 	 * 
 	 * 4. UI CONSTRUCTION:
-	 *    - Creates JList with payment descriptions
+	 *    - Creates JList with payment descriptions (see showBalances())
 	 *    - Adds list to scrollable pane (500x200)
 	 *    - Creates "Pay" and "Back" buttons
 	 *    - Arranges components in BorderLayout
 	 * 
 	 * 5. EVENT HANDLERS:
+	 *    - Simplified checkbox → action command "simplify"
 	 *    - Pay button → action command "pay"
 	 *    - Back button → action command "back"
 	 * 
@@ -106,12 +113,13 @@ public class SettlePayment implements ActionListener{
 	 * If no payment records found, displays "No transactions Yet"
 	 * 
 	 * DATABASE QUERIES:
-	 * - db6 table: Payment records (Member1, Amount, Member2)
-	 * - Two queries: one for Member1=username, one for Member2=username
+	 * - One Ledger.load(): db4, db5, db6, db8 and db1 read once, in parallel,
+	 *   off the event dispatch thread
 	 * 
 	 * POST-CONDITIONS:
 	 * - Frame created but invisible (call runGUI() to display)
-	 * - Payment list populated with user-friendly descriptions
+	 * - Payment list populated with user-friendly descriptions once the
+	 *   ledger has been loaded
 	 * - All buttons configured with action listeners
 	 */
 	public SettlePayment(String username, String code) {
@@ -125,39 +133,12 @@ public class SettlePayment implements ActionListener{
 		listPanel = new JPanel();
 		listPanel.setBorder(BorderFactory.createEmptyBorder(20,50,20,50));
 		
-		//info = RetrievePendingAmount(gcode, uname);
-		info = new ArrayList<>(Arrays.asList(ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/GetRowData?table="+ gcode + "&Member1=" + uname)));
-		info.addAll(new ArrayList<>(Arrays.asList(ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/GetRowData?table="+ gcode + "&Member2=" + uname))));
-
-		options = new ArrayList<>(Arrays.asList(ApiCaller.ApiCaller1("https://splitwise.up.railway.app/db6/GetRowData?table="+ gcode)));
-
-		String[] data;
-		if (info.size() != 0) {
-			data = new String[info.size()];
-			for (int i = 1; i < info.size(); i++) {
-				if (info.get(i)[1].equals(uname)) {
-					if (Double.parseDouble(info.get(i)[2]) > 0) {
-						data[i] = info.get(i)[3] + " needs to give you $" + info.get(i)[2];
-					} else if (Double.parseDouble(info.get(i)[2]) < 0){
-						double val = Double.parseDouble(info.get(i)[2]) * -1.0;
-						data[i] = "You need to give $" + val + " to " + info.get(i)[3];
-					}
-				} else {
-					if (Double.parseDouble(info.get(i)[2]) > 0) {
-						double val = Double.parseDouble(info.get(i)[2]);
-						data[i] = "You need to give $" + info.get(i)[2] + " to " + info.get(i)[1];
-					} else if (Double.parseDouble(info.get(i)[2]) < 0){
-						double val = Double.parseDouble(info.get(i)[2]) * -1.0;
-						data[i] = info.get(i)[1] + " needs to give you $" + val;
-					}
-				}
-			}
-		} else {
-			data = new String[1];
-			data[0]="No transactions Yet";
-		}
-		
-		transactionList = new JList<>(data);
+		info = new ArrayList<>();
+		transactionList = new JList<>(new String[] { ScreenLoader.LOADING });
+		ScreenLoader.load(frame, "the balances", () -> Ledger.load(gcode), loaded -> {
+			ledger = loaded;
+			showBalances(simplified.isSelected());
+		});
 		
 		scrollPane = new JScrollPane(transactionList);
 		scrollPane.setPreferredSize(new Dimension(500, 200));
@@ -168,6 +149,9 @@ public class SettlePayment implements ActionListener{
 		buttonPanel.setLayout(new BoxLayout(buttonPanel, BoxLayout.X_AXIS));
 
         // Add some buttons to the buttonPanel
+		simplified = new JCheckBox("Simplified");
+		simplified.addActionListener(this);
+		simplified.setActionCommand("simplify");
 		pay = new JButton("Pay");
 		back = new JButton("Back");
 		pay.addActionListener(this);
@@ -175,6 +159,7 @@ public class SettlePayment implements ActionListener{
 		back.addActionListener(this);
 		back.setActionCommand("back");
 		
+		buttonPanel.add(simplified);
 		buttonPanel.add(Box.createHorizontalGlue());
         buttonPanel.add(pay);
         buttonPanel.add(back);
@@ -190,6 +175,69 @@ public class SettlePayment implements ActionListener{
 		 
 	}
 	
+	/**
+	 * showBalances - Fill the List With Pairwise or Simplified Payments
+	 * 
+	 * PURPOSE:
+	 * Switches the list between the two ways of settling up.
+	 * 
+	 * @param simplify false: one entry per db6 pair; true: the user's payments
+	 *                 from SettlementPlanner
+	 * 
+	 * BEHAVIOR:
+	 * - Pairwise: every unsettled pair of the user, as stored in the ledger
+	 * - Simplified: SettlementPlanner nets every member's position and matches
+	 *   debtors with creditors, so the whole group settles in at most
+	 *   (members - 1) payments; only the ones the user pays or receives are shown
+	 * - Each entry is kept in 'info' as a PendingAmountRow at the same position,
+	 *   so "Pay" works the same way for both views
+	 * - Uses the ledger loaded by the constructor, no database queries;
+	 *   does nothing while it is still loading
+	 * 
+	 * EMPTY STATE:
+	 * If there is nothing to settle, displays "No transactions Yet"
+	 */
+	void showBalances(boolean simplify) {
+		
+		if (ledger == null) {
+			return;
+		}
+		info = new ArrayList<>();
+		if (simplify) {
+			for (SettlementPlanner.Transfer transfer : SettlementPlanner.plan(ledger)) {
+				if (transfer.involves(uname)) {
+					info.add(transfer.asPendingAmount());
+				}
+			}
+		} else {
+			for (PendingAmountRow row : ledger.pendingAmounts()) {
+				if ((row.getMember1().equals(uname) || row.getMember2().equals(uname)) && row.getAmount() != 0) {
+					info.add(row);
+				}
+			}
+		}
+
+		String[] data;
+		if (info.size() != 0) {
+			data = new String[info.size()];
+			for (int i = 0; i < info.size(); i++) {
+				PendingAmountRow row = info.get(i);
+				long amount = row.amountFor(uname);
+				if (amount > 0) {
+					data[i] = row.otherMember(uname) + " needs to give you $" + Money.format(amount);
+				} else {
+					data[i] = "You need to give $" + Money.format(-amount) + " to " + row.otherMember(uname);
+				}
+			}
+		} else {
+			data = new String[1];
+			data[0]="No transactions Yet";
+		}
+		
+		transactionList.setListData(data);
+		
+	}
+	
 	/**
 	 * actionPerformed - Handle User Actions (Pay Button, Back Button)
 	 * 
@@ -201,25 +249,27 @@ public class SettlePayment implements ActionListener{
 	 * 
 	 * 1. "pay" - Initiate Payment Settlement
 	 *    - Gets selected item index from transactionList
-	 *    - Retrieves corresponding payment record from 'options' list
-	 *    - Finds original index in 'info' list
+	 *    - Ignored when nothing (or the empty-state message) is selected
+	 *    - Retrieves corresponding payment record from 'info' list
 	 *    - Creates AmountSettled screen with:
 	 *      * Payment record details
 	 *      * Current username
 	 *      * Group code
-	 *      * Original index in info list
+	 *      * Index in info list
 	 *    - Opens AmountSettled screen
 	 *    - Closes current frame
 	 * 
-	 * 2. "back" - Return to Main Page
-	 *    - Creates MainPage instance with username and group code
+	 * 2. "simplify" - Toggle Simplified View
+	 *    - Calls showBalances() with the checkbox state
+	 * 
+	 * 3. "back" - Return to Main Page
+	 *    - Gets the group's MainPage from Navigator (kept between visits)
 	 *    - Shows MainPage screen
 	 *    - Disposes current frame
 	 * 
 	 * SELECTION HANDLING:
 	 * - transactionList.getSelectedIndex() returns selected payment
-	 * - options.get(selectedItem) gets full payment record
-	 * - info.indexOf() finds original position for tracking
+	 * - info.get(selectedItem) gets the payment record shown at that position
 	 * 
 	 * NAVIGATION FLOW:
 	 * Pay → AmountSettled (record settlement details)
@@ -233,11 +283,16 @@ public class SettlePayment implements ActionListener{
 		
 		if (eventName.equals("pay")) {
 			int selectedItem = transactionList.getSelectedIndex();
-			AmountSettled as = new AmountSettled(options.get(selectedItem), uname, gcode, info.indexOf(options.get(selectedItem)));
+			if (selectedItem < 0 || selectedItem >= info.size()) {
+				return;
+			}
+			AmountSettled as = new AmountSettled(info.get(selectedItem), uname, gcode, selectedItem);
 			as.runGUI();
 			frame.dispose();
+		} else if (eventName.equals("simplify")) {
+			showBalances(simplified.isSelected());
 		} else if (eventName.equals("back")){
-			MainPage mpage = new MainPage(uname,gcode);
+			MainPage mpage = Navigator.mainPage(uname,gcode);
 			mpage.runGUI();
 			frame.dispose();
 		}
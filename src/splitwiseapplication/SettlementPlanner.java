@@ -0,0 +1,163 @@
+package splitwiseapplication;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Computes a small set of payments that settles a whole group.
+ *
+ * Purpose:
+ * db6 keeps one balance per pair of members, so SettlePayment can list up to
+ * n(n-1)/2 payments for a group of n members. Only each member's net position
+ * matters for settling up: the planner nets every member and matches the largest
+ * debtor with the largest creditor until everyone is at zero, which needs at most
+ * n - 1 payments.
+ *
+ * Algorithm (greedy minimum cash flow):
+ * 1. Take every member's net balance in whole cents (long, see Money), so no
+ *    payment is ever off by a fraction of a cent
+ * 2. Put creditors and debtors in two max-heaps ordered by amount
+ * 3. Pop the largest of each, pay the smaller of the two amounts from the debtor
+ *    to the creditor, and push back whichever side still has a remainder
+ * 4. Every step zeroes at least one member: O(n log n) time, O(n) memory, fast
+ *    for groups with thousands of members
+ *
+ * Contract:
+ * - Ties are broken by member order, so the same balances always give the same plan
+ * - Members at zero take part in no payment
+ * - Settling the returned transfers brings every net balance to zero; pairwise
+ *   balances may then show debts that cancel out around a cycle
+ */
+public final class SettlementPlanner {
+
+    private SettlementPlanner() {
+    }
+
+    /**
+     * One suggested payment.
+     */
+    public static final class Transfer {
+
+        private final String payer;
+        private final String receiver;
+        private final long cents;
+
+        /**
+         * @param payer     Member who pays
+         * @param receiver  Member who receives
+         * @param cents     Amount in cents, positive
+         */
+        public Transfer(String payer, String receiver, long cents) {
+            this.payer = payer;
+            this.receiver = receiver;
+            this.cents = cents;
+        }
+
+        public String getPayer() {
+            return payer;
+        }
+
+        public String getReceiver() {
+            return receiver;
+        }
+
+        /** @return Amount in cents */
+        public long getCents() {
+            return cents;
+        }
+
+        /**
+         * @param member  Member name
+         * @return        true when member pays or receives this transfer
+         */
+        public boolean involves(String member) {
+            return payer.equals(member) || receiver.equals(member);
+        }
+
+        /**
+         * The transfer as a db6-shaped balance, so it can be settled like a pair
+         * (see AmountSettled).
+         *
+         * @return  Row with Member1 = receiver, Member2 = payer and a positive amount
+         */
+        public PendingAmountRow asPendingAmount() {
+            return new PendingAmountRow(0, receiver, cents, payer);
+        }
+
+        @Override
+        public String toString() {
+            return payer + " -> " + receiver + ": " + Money.format(cents);
+        }
+    }
+
+    /**
+     * Plans the payments that settle a group.
+     *
+     * @param ledger  Loaded ledger of the group
+     * @return        Transfers in the order they were matched
+     */
+    public static List<Transfer> plan(Ledger ledger) {
+        List<String> members = ledger.getMembers();
+        long[] net = new long[members.size()];
+        for (int i = 0; i < net.length; i++) {
+            net[i] = ledger.netBalance(members.get(i));
+        }
+        return plan(members, net);
+    }
+
+    /**
+     * Plans the payments that settle a set of net balances in cents.
+     *
+     * @param members  Member names
+     * @param cents    Net balance per member in cents, parallel to members: positive
+     *                 when the member is owed money, negative when the member owes;
+     *                 must add up to 0
+     * @return         Transfers in the order they were matched
+     * @throws IllegalArgumentException  When the balances do not add up to 0
+     */
+    public static List<Transfer> plan(List<String> members, long[] cents) {
+        long sum = 0;
+        for (long value : cents) {
+            sum += value;
+        }
+        if (sum != 0) {
+            throw new IllegalArgumentException("Net balances add up to " + sum + " cents, not 0");
+        }
+
+        // Entries are {remaining cents, member index}; largest amount first, then member order
+        PriorityQueue<long[]> creditors = new PriorityQueue<>(SettlementPlanner::compare);
+        PriorityQueue<long[]> debtors = new PriorityQueue<>(SettlementPlanner::compare);
+        for (int i = 0; i < cents.length; i++) {
+            if (cents[i] > 0) {
+                creditors.add(new long[] { cents[i], i });
+            } else if (cents[i] < 0) {
+                debtors.add(new long[] { -cents[i], i });
+            }
+        }
+
+        List<Transfer> transfers = new ArrayList<>();
+        while (!creditors.isEmpty() && !debtors.isEmpty()) {
+            long[] creditor = creditors.poll();
+            long[] debtor = debtors.poll();
+            long paid = Math.min(creditor[0], debtor[0]);
+            transfers.add(new Transfer(members.get((int) debtor[1]), members.get((int) creditor[1]), paid));
+            if (creditor[0] > paid) {
+                creditors.add(new long[] { creditor[0] - paid, creditor[1] });
+            }
+            if (debtor[0] > paid) {
+                debtors.add(new long[] { debtor[0] - paid, debtor[1] });
+            }
+        }
+        return Collections.unmodifiableList(transfers);
+    }
+
+    /**
+     * Internal helper method - Heap order: larger amount first, then lower member index.
+     */
+    private static int compare(long[] a, long[] b) {
+        int byAmount = Long.compare(b[0], a[0]);
+        return byAmount != 0 ? byAmount : Long.compare(a[1], b[1]);
+    }
+}
@@ -0,0 +1,58 @@
+package splitwiseapplication;
+
+/**
+ * A way of dividing the cost of an expense among the members of a group.
+ *
+ * Purpose:
+ * AddTransaction used to have one method per split mode, each with its own loop over
+ * the members and its own rounding. A strategy only computes the shares; the screen
+ * collects one value per member as getInput() says, and every mode is saved by the
+ * same path (AddTransaction.UpdatePABySplit()). A new split mode is a new strategy,
+ * nothing else (see StandardSplit for the built-in ones).
+ *
+ * Contract:
+ * - split() returns one share per member, parallel to the values it was given, in
+ *   cents, adding up to the cost exactly; members without a share get 0
+ * - Proportional modes round with the largest remainder method (Money.allocate), so
+ *   no cent is lost or invented
+ * - Invalid values are rejected with IllegalArgumentException, whose message can be
+ *   shown to the user as it is
+ * - Implementations are stateless and thread-safe
+ *
+ * Usage:
+ *   long[] shares = StandardSplit.BY_SHARES.split(cost, new long[] { 100, 200, 100 });
+ */
+public interface SplitStrategy {
+
+    /**
+     * What the screen asks for per member before split() is called.
+     */
+    enum Input {
+        /** Nothing; every value is 0 */
+        NONE,
+        /** A check box: 1 selected, 0 not */
+        SELECTION,
+        /** An amount in cents (Money.parse) */
+        AMOUNT,
+        /** A percentage in basis points (Money.parse, 100% is Money.PERCENT) */
+        PERCENTAGE,
+        /** A number of shares in hundredths (Money.parse), e.g. "1", "2", "1.5" */
+        WEIGHT
+    }
+
+    /** @return Name shown in the split mode list */
+    String getLabel();
+
+    /** @return Value collected per member */
+    Input getInput();
+
+    /**
+     * Computes the shares.
+     *
+     * @param cost    Amount paid, in cents
+     * @param values  One value per member, as getInput() describes
+     * @return        Share of each member in cents, parallel to values
+     * @throws IllegalArgumentException  When the values do not describe a valid split
+     */
+    long[] split(long cost, long[] values);
+}
@@ -17,7 +17,8 @@ package splitwiseapplication;
  * Architecture:
  * - Swing-based desktop application
  * - Communicates with Spring Boot backend via HTTPS REST API
- * - Backend hosted on Railway: https://splitwise.up.railway.app
+ * - Backend hosted on Railway: https://splitwise.up.railway.app (default; other or
+ *   additional backends can be set with splitwise.backend.urls, see BackendEndpoints)
  * - MySQL database hosted on Railway cloud platform
  * - Uses multiple GUI classes for different screens
  * - Data persistence handled by cloud-hosted backend database
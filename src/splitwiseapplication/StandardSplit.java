@@ -0,0 +1,115 @@
+package splitwiseapplication;
+
+/**
+ * The split modes offered by AddTransaction.
+ *
+ * Contract:
+ * - Listed in the order the screen shows them; toString() is the label, so the
+ *   constants can be put in a JComboBox directly
+ * - See SplitStrategy for the rules every mode follows
+ */
+public enum StandardSplit implements SplitStrategy {
+
+    /** Every member pays the same; the first members pay the odd cents. */
+    ALL_EQUALLY("All Equally", Input.NONE) {
+        @Override
+        public long[] split(long cost, long[] values) {
+            return Money.splitEvenly(cost, values.length);
+        }
+    },
+
+    /** The selected members pay the same; the others pay nothing. */
+    EQUALLY_BY_SOME("Equally By Some", Input.SELECTION) {
+        @Override
+        public long[] split(long cost, long[] values) {
+            for (long value : values) {
+                if (value != 0) {
+                    return Money.allocate(cost, values);
+                }
+            }
+            throw new IllegalArgumentException("Select at least one member");
+        }
+    },
+
+    /** Every member pays the amount entered for them; the amounts must add up to the cost. */
+    UNEQUALLY("Unequally", Input.AMOUNT) {
+        @Override
+        public long[] split(long cost, long[] values) {
+            long sum = 0;
+            for (long value : values) {
+                if (value < 0) {
+                    throw new IllegalArgumentException("Amounts cannot be negative");
+                }
+                sum += value;
+            }
+            if (sum != cost) {
+                throw new IllegalArgumentException("The amounts add up to " + Money.format(sum) + ", not "
+                        + Money.format(cost));
+            }
+            return values.clone();
+        }
+    },
+
+    /** Every member pays a percentage of the cost; the percentages must add up to 100 (within 0.1). */
+    BY_PERCENTAGES("By Percentages", Input.PERCENTAGE) {
+        @Override
+        public long[] split(long cost, long[] values) {
+            long sum = 0;
+            for (long value : values) {
+                sum += value;
+            }
+            if (Math.abs(Money.PERCENT - sum) > 10) {
+                throw new IllegalArgumentException("The percentages add up to " + Money.format(sum) + ", not 100");
+            }
+            return allocate(cost, values);
+        }
+    },
+
+    /** Every member pays in proportion to a number of shares, e.g. 2 for a couple. */
+    BY_SHARES("By Shares", Input.WEIGHT) {
+        @Override
+        public long[] split(long cost, long[] values) {
+            return allocate(cost, values);
+        }
+    };
+
+    private final String label;
+    private final Input input;
+
+    StandardSplit(String label, Input input) {
+        this.label = label;
+        this.input = input;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    @Override
+    public Input getInput() {
+        return input;
+    }
+
+    @Override
+    public String toString() {
+        return label;
+    }
+
+    /**
+     * Internal helper method - Money.allocate with messages for the user.
+     */
+    private static long[] allocate(long cost, long[] weights) {
+        long sum = 0;
+        for (long weight : weights) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Values cannot be negative");
+            }
+            sum += weight;
+        }
+        if (sum == 0) {
+            throw new IllegalArgumentException("Give at least one member a share");
+        }
+        return Money.allocate(cost, weights);
+    }
+}
@@ -0,0 +1,127 @@
+package splitwiseapplication;
+
+/**
+ * Header-aware view of a GetRowData result, used by the typed row classes.
+ *
+ * Purpose:
+ * GetRowData answers with an array of rows whose first row holds the column names
+ * (e.g. ["id","Member1","Amount","Member2"]), followed by the data rows. Screens used
+ * to index those arrays by position and had to remember to skip row 0 themselves.
+ * This class detects the header once, maps column names to positions, and hands the
+ * data rows to PaymentHistoryRow, PendingAmountRow, AmountSpentRow and
+ * TransactionDetailsRow for decoding.
+ *
+ * Contract:
+ * - Row 0 is treated as a header when at least two of its cells (or the only
+ *   expected column) match the expected column names, ignoring case
+ * - column(name, position) returns the header position of name when there is a
+ *   header containing it, and the given default position otherwise
+ * - Amounts are parsed with cents() (see Money), other numbers with integer();
+ *   "null", empty or unparseable cells count as 0 (freshly added member columns
+ *   are NULL until first updated)
+ */
+final class TableRows {
+
+    private final String[][] rows;
+    private final String[] header;
+    private final int first;
+
+    /**
+     * Wraps a GetRowData result.
+     *
+     * @param rows             Parsed response from ApiCaller1
+     * @param expectedColumns  Column names the table is known to have, in table order
+     */
+    TableRows(String[][] rows, String... expectedColumns) {
+        this.rows = rows;
+        this.header = rows.length > 0 && isHeader(rows[0], expectedColumns) ? rows[0] : null;
+        this.first = header == null ? 0 : 1;
+    }
+
+    /**
+     * Tells a header row from a data row (also used by LedgerReplay, which sees rows
+     * one at a time).
+     *
+     * @param row              First row of a response
+     * @param expectedColumns  Column names the table is known to have
+     * @return                 true when enough cells match an expected column name
+     */
+    static boolean isHeader(String[] row, String... expectedColumns) {
+        int matches = 0;
+        for (String cell : row) {
+            for (String expected : expectedColumns) {
+                if (expected.equalsIgnoreCase(cell)) {
+                    matches++;
+                    break;
+                }
+            }
+        }
+        return matches >= Math.min(2, expectedColumns.length);
+    }
+
+    /** @return Number of data rows (header excluded) */
+    int size() {
+        return rows.length - first;
+    }
+
+    /**
+     * @param index  Data row number, 0-based (header excluded)
+     * @return       Cells of that row
+     */
+    String[] row(int index) {
+        return rows[first + index];
+    }
+
+    /** @return Column names of the header row, or null when the response had none */
+    String[] header() {
+        return header;
+    }
+
+    /**
+     * Position of a column.
+     *
+     * @param name      Column name, compared ignoring case
+     * @param position  Position to use when there is no header or it lacks that column
+     * @return          Index into the cells of a row
+     */
+    int column(String name, int position) {
+        if (header != null) {
+            for (int i = 0; i < header.length; i++) {
+                if (name.equalsIgnoreCase(header[i])) {
+                    return i;
+                }
+            }
+        }
+        return position;
+    }
+
+    /**
+     * Cell text, or "" when the row is shorter than expected.
+     */
+    static String text(String[] row, int column) {
+        return column < row.length ? row[column] : "";
+    }
+
+    /**
+     * Parses an amount cell.
+     *
+     * @return  The amount in cents, or 0 for null, empty or unparseable cells
+     */
+    static long cents(String[] row, int column) {
+        return Money.parseOrZero(text(row, column));
+    }
+
+    /**
+     * Parses an integer cell (ids, transaction types).
+     *
+     * @return  The value, or 0 for null, empty or unparseable cells
+     */
+    static int integer(String[] row, int column) {
+        String cell = text(row, column);
+        try {
+            return Integer.parseInt(cell.trim());
+        } catch (NumberFormatException e) {
+            return (int) (Money.parseOrZero(cell) / 100);
+        }
+    }
+}
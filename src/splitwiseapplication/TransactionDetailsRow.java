@@ -0,0 +1,139 @@
+package splitwiseapplication;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * TransactionDetailsRow - Per-member breakdown of one transaction (db8)
+ *
+ * Columns: id, Creator, tID, followed by one column per member
+ *
+ * Member values:
+ * - Creator: share - cost for an expense (negative: the creator paid for others)
+ * - Others: their share of the expense
+ * - Settlements use the same layout with the paid amount
+ * - The values of a row add up to 0
+ *
+ * Member names come from the header row, so they are shared by all rows of one
+ * response. Immutable; values are parsed once into long cents when decoded.
+ */
+public final class TransactionDetailsRow {
+
+	private static final int FIRST_MEMBER_COLUMN = 3;
+
+	private final int id;
+	private final String creator;
+	private final String tid;
+	private final String[] members;
+	private final long[] amounts;
+
+	/**
+	 * Creates a row.
+	 *
+	 * @param id Row id
+	 * @param creator Member who created the transaction
+	 * @param tid Transaction ID
+	 * @param members Member names (shared, not copied)
+	 * @param amounts Value per member in cents, parallel to members
+	 */
+	public TransactionDetailsRow(int id, String creator, String tid, String[] members, long[] amounts) {
+		this.id = id;
+		this.creator = creator;
+		this.tid = tid;
+		this.members = members;
+		this.amounts = amounts;
+	}
+
+	/**
+	 * Decodes a db8 GetRowData result.
+	 *
+	 * Member columns are all columns after id, Creator and tID. Without a header
+	 * row the member names are unknown and reported as "column{N}".
+	 *
+	 * @param rows Parsed response (header row expected)
+	 * @return Data rows in response order
+	 */
+	public static List<TransactionDetailsRow> fromRows(String[][] rows) {
+		TableRows table = new TableRows(rows, "id", "Creator", "tID");
+		int id = table.column("id", 0);
+		int creator = table.column("Creator", 1);
+		int tid = table.column("tID", 2);
+
+		String[] header = table.header();
+		int width = header != null ? header.length : (table.size() > 0 ? table.row(0).length : FIRST_MEMBER_COLUMN);
+		int[] memberColumns = new int[Math.max(0, width - FIRST_MEMBER_COLUMN)];
+		String[] members = new String[memberColumns.length];
+		int count = 0;
+		for (int column = 0; column < width; column++) {
+			if (column == id || column == creator || column == tid) {
+				continue;
+			}
+			if (count == memberColumns.length) {
+				break;
+			}
+			memberColumns[count] = column;
+			members[count] = header != null ? header[column] : "column" + column;
+			count++;
+		}
+
+		List<TransactionDetailsRow> result = new ArrayList<>(table.size());
+		for (int i = 0; i < table.size(); i++) {
+			String[] row = table.row(i);
+			long[] amounts = new long[count];
+			for (int m = 0; m < count; m++) {
+				amounts[m] = TableRows.cents(row, memberColumns[m]);
+			}
+			result.add(new TransactionDetailsRow(TableRows.integer(row, id), TableRows.text(row, creator),
+					TableRows.text(row, tid), members, amounts));
+		}
+		return result;
+	}
+
+	public int getId() {
+		return id;
+	}
+
+	public String getCreator() {
+		return creator;
+	}
+
+	public String getTid() {
+		return tid;
+	}
+
+	/**
+	 * @return Number of member columns
+	 */
+	public int memberCount() {
+		return members.length;
+	}
+
+	/**
+	 * @param index Member column, 0-based
+	 * @return Member name of that column
+	 */
+	public String memberAt(int index) {
+		return members[index];
+	}
+
+	/**
+	 * @param index Member column, 0-based
+	 * @return Value of that member in this transaction, in cents
+	 */
+	public long amountAt(int index) {
+		return amounts[index];
+	}
+
+	/**
+	 * @param member Member name
+	 * @return Value of that member in cents, or 0 when the member has no column
+	 */
+	public long amountOf(String member) {
+		for (int i = 0; i < members.length; i++) {
+			if (members[i].equals(member)) {
+				return amounts[i];
+			}
+		}
+		return 0;
+	}
+}
@@ -0,0 +1,96 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ApiCaller against FakeBackend: identical reads in flight share one
+ * request (IN_FLIGHT), but never across a write to their table.
+ */
+class ApiCallerTest {
+
+    private static final String ROWS = "[[\"id\",\"name\"],[1,\"alice\"],[2,\"bob\"]]";
+
+    private static FakeBackend backend;
+
+    @BeforeAll
+    static void startBackend() {
+        backend = FakeBackend.get();
+    }
+
+    @BeforeEach
+    void resetBackend() {
+        backend.reset();
+        ApiMetrics.reset();
+    }
+
+    /**
+     * Internal helper method - Requests of the backend whose path contains fragment.
+     */
+    private static long requestsFor(String fragment) {
+        return backend.requests().stream().filter(request -> request.contains(fragment)).count();
+    }
+
+    @Test
+    void identicalReadsInFlightShareOneRequest() {
+        backend.table("db4", "SF1", ROWS).delay("GetRowData?table=SF1", 200);
+        CompletableFuture<String[][]> first = ApiCaller.ApiCaller1Async("/db4/GetRowData?table=SF1");
+        CompletableFuture<String[][]> second = ApiCaller.ApiCaller1Async("/db4/GetRowData?table=SF1");
+
+        String[][] firstRows = ApiCaller.await(first);
+        String[][] secondRows = ApiCaller.await(second);
+        assertArrayEquals(new String[][] {{"id", "name"}, {"1", "alice"}, {"2", "bob"}}, firstRows);
+        assertArrayEquals(firstRows, secondRows);
+        // Each caller gets its own copy to modify
+        assertNotSame(firstRows, secondRows);
+        assertEquals(1, requestsFor("GetRowData?table=SF1"));
+        assertEquals(1, ApiMetrics.endpoint("db4/GetRowData").getShared());
+    }
+
+    @Test
+    void differentShapesAndUrlsAreNotShared() {
+        backend.table("db4", "SF2", ROWS).delay("table=SF2", 200);
+        List<CompletableFuture<?>> reads = List.of(
+                ApiCaller.ApiCaller1Async("/db4/GetRowData?table=SF2"),
+                ApiCaller.ApiCaller3Async("/db4/GetRowData?table=SF2"),
+                ApiCaller.ApiCaller1Async("/db4/GetRowData?table=SF2&name=alice"));
+        reads.forEach(ApiCaller::await);
+        assertEquals(3, requestsFor("table=SF2"));
+        assertEquals(0, ApiMetrics.endpoint("db4/GetRowData").getShared());
+    }
+
+    @Test
+    void readSentAfterAWriteDoesNotJoinTheEarlierRead() {
+        backend.table("db4", "SF3", ROWS).delay("GetRowData?table=SF3", 200);
+        CompletableFuture<String[][]> before = ApiCaller.ApiCaller1Async("/db4/GetRowData?table=SF3");
+        ApiCaller.ApiCaller2("/db4/InsertData?table=SF3&params=(name)&info=('carol')");
+        CompletableFuture<String[][]> after = ApiCaller.ApiCaller1Async("/db4/GetRowData?table=SF3");
+
+        ApiCaller.await(before);
+        ApiCaller.await(after);
+        assertEquals(2, requestsFor("GetRowData?table=SF3"));
+    }
+
+    @Test
+    void failedSharedReadFailsEveryCallerAndIsNotKept() {
+        backend.fail("GetRowData?table=SF4", 500).delay("GetRowData?table=SF4", 200);
+        CompletableFuture<String[][]> first = ApiCaller.ApiCaller1Async("/db4/GetRowData?table=SF4");
+        CompletableFuture<String[][]> second = ApiCaller.ApiCaller1Async("/db4/GetRowData?table=SF4");
+        assertEquals(500, assertThrows(ApiException.class, () -> ApiCaller.await(first)).getStatusCode());
+        assertEquals(500, assertThrows(ApiException.class, () -> ApiCaller.await(second)).getStatusCode());
+        assertEquals(1, requestsFor("GetRowData?table=SF4"));
+
+        backend.reset();
+        backend.table("db4", "SF4", ROWS);
+        assertEquals(3, ApiCaller.ApiCaller1("/db4/GetRowData?table=SF4").length);
+    }
+}
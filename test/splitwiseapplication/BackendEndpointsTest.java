@@ -0,0 +1,165 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Tests for BackendEndpoints: URL resolution, routing by health and EWMA latency,
+ * failover past an open circuit breaker, and health probes.
+ */
+class BackendEndpointsTest {
+
+    private static final long MS = 1_000_000L;
+
+    /**
+     * Internal helper method - Registry of the given replicas without probing.
+     */
+    private static BackendEndpoints endpoints(String... baseUrls) {
+        return new BackendEndpoints(List.of(baseUrls), "/", 0, null);
+    }
+
+    /**
+     * Internal helper method - Base URLs of the replicas in configuration order.
+     */
+    private static List<String> baseUrls(BackendEndpoints endpoints) {
+        List<String> urls = new ArrayList<>();
+        for (BackendEndpoints.Replica replica : endpoints.getReplicas()) {
+            urls.add(replica.getBaseUrl());
+        }
+        return urls;
+    }
+
+    @Test
+    void pathsResolveAgainstTheTrimmedBaseUrl() {
+        BackendEndpoints endpoints = endpoints("http://a.test/", " http://b.test// ");
+        assertEquals(List.of("http://a.test", "http://b.test"), baseUrls(endpoints));
+        assertEquals("http://a.test/db1/GetRowData?table=G", endpoints.select("/").resolve("/db1/GetRowData?table=G"));
+        assertEquals(List.of(BackendEndpoints.DEFAULT_URL), baseUrls(new BackendEndpoints(List.of(), "/", 0, null)));
+    }
+
+    @Test
+    void unmeasuredThenLowestAverageLatencyIsPreferred() {
+        BackendEndpoints endpoints = endpoints("http://a.test", "http://b.test");
+        BackendEndpoints.Replica a = endpoints.getReplicas().get(0);
+        BackendEndpoints.Replica b = endpoints.getReplicas().get(1);
+        assertEquals(-1, a.getLatencyMillis());
+
+        a.onSuccess(100 * MS);
+        assertEquals(100, a.getLatencyMillis(), 1e-9);
+        a.onSuccess(200 * MS);
+        // The newest sample weighs 0.2: 100 + 0.2 * (200 - 100)
+        assertEquals(120, a.getLatencyMillis(), 1e-9);
+        assertSame(b, endpoints.select("/"));
+
+        b.onSuccess(10 * MS);
+        assertSame(b, endpoints.select("/"));
+        b.onSuccess(500 * MS);
+        assertEquals(108, b.getLatencyMillis(), 1e-9);
+        assertSame(b, endpoints.select("/"));
+        b.onSuccess(500 * MS);
+        assertSame(a, endpoints.select("/"));
+    }
+
+    @Test
+    void downReplicasAreUsedLastLongestDownFirst() throws InterruptedException {
+        BackendEndpoints endpoints = endpoints("http://a.test", "http://b.test", "http://c.test");
+        BackendEndpoints.Replica a = endpoints.getReplicas().get(0);
+        BackendEndpoints.Replica b = endpoints.getReplicas().get(1);
+        BackendEndpoints.Replica c = endpoints.getReplicas().get(2);
+        a.onFailure();
+        Thread.sleep(2);
+        b.onFailure();
+        assertFalse(a.isHealthy());
+        assertSame(c, endpoints.select("/"));
+
+        Thread.sleep(2);
+        c.onFailure();
+        assertSame(a, endpoints.select("/"));
+        b.onSuccess(50 * MS);
+        assertTrue(b.isHealthy());
+        assertSame(b, endpoints.select("/"));
+    }
+
+    @Test
+    void openCircuitBreakerFailsOverToTheNextReplica() {
+        String threshold = System.getProperty("splitwise.breaker.failureThreshold");
+        System.setProperty("splitwise.breaker.failureThreshold", "1");
+        BackendEndpoints endpoints;
+        try {
+            endpoints = endpoints("http://a.test", "http://b.test");
+        } finally {
+            if (threshold == null) {
+                System.clearProperty("splitwise.breaker.failureThreshold");
+            } else {
+                System.setProperty("splitwise.breaker.failureThreshold", threshold);
+            }
+        }
+        BackendEndpoints.Replica a = endpoints.getReplicas().get(0);
+        BackendEndpoints.Replica b = endpoints.getReplicas().get(1);
+        a.onSuccess(10 * MS);
+        b.onSuccess(90 * MS);
+
+        // a is still the faster healthy replica, but its breaker is open
+        a.getBreaker().onFailure();
+        assertEquals(CircuitBreaker.State.OPEN, a.getBreaker().getState());
+        assertSame(b, endpoints.select("/"));
+        b.getBreaker().onFailure();
+        assertNull(endpoints.select("/"));
+    }
+
+    @Test
+    void absoluteUrlsBypassRouting() {
+        BackendEndpoints endpoints = endpoints("http://a.test");
+        BackendEndpoints.Replica direct = endpoints.select("https://other.test:8443/db1/GetRowData?table=G");
+        assertEquals("https://other.test:8443", direct.getBaseUrl());
+        assertEquals("https://other.test:8443/db1/x", direct.resolve("https://other.test:8443/db1/x"));
+        assertSame(direct, endpoints.select("https://other.test:8443/db5/GetRowData?table=G"));
+        assertEquals(List.of("http://a.test"), baseUrls(endpoints));
+    }
+
+    @Test
+    void probesMarkUnreachableAndFailingReplicasDown() throws IOException, InterruptedException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            int status = exchange.getRequestURI().getPath().startsWith("/broken") ? 503 : 200;
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            String base = "http://localhost:" + server.getAddress().getPort();
+            // Port 1 refuses the connection; the first probe runs right away
+            BackendEndpoints endpoints = new BackendEndpoints(List.of("http://localhost:1", base + "/broken", base),
+                    "health", 60_000, HttpClient.newHttpClient());
+            BackendEndpoints.Replica refused = endpoints.getReplicas().get(0);
+            BackendEndpoints.Replica broken = endpoints.getReplicas().get(1);
+            BackendEndpoints.Replica working = endpoints.getReplicas().get(2);
+
+            long deadline = System.currentTimeMillis() + 10_000;
+            while ((refused.isHealthy() || broken.isHealthy() || working.getLatencyMillis() < 0)
+                    && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+            }
+            assertFalse(refused.isHealthy());
+            assertFalse(broken.isHealthy());
+            assertTrue(working.isHealthy());
+            assertTrue(working.getLatencyMillis() >= 0);
+            assertSame(working, endpoints.select("/db1/GetRowData?table=G"));
+        } finally {
+            server.stop(0);
+        }
+    }
+}
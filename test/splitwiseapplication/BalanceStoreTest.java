@@ -0,0 +1,110 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the two db6 layouts, PairwiseBalanceStore and NetBalanceStore: balances
+ * in memory, the writes that bring the stored rows in line, and pendingAmounts().
+ */
+class BalanceStoreTest {
+
+    private static final List<String> MEMBERS = List.of("alice", "bob", "carol");
+    private static final Map<String, Integer> INDEX = Map.of("alice", 0, "bob", 1, "carol", 2);
+
+    @Test
+    void pairsKeepStoredOrientationAndInsertMissingPairs() {
+        PairwiseBalanceStore store = new PairwiseBalanceStore("PAIRS", MEMBERS, INDEX, List.of(
+                new PendingAmountRow(1, "alice", 500, "bob"),
+                new PendingAmountRow(2, "carol", 0, "alice"),
+                new PendingAmountRow(3, "alice", 700, "zed")));
+        store.add(0, 1, 1000);
+        store.add(2, 0, 300);
+
+        assertEquals(1000, store.between(0, 1));
+        assertEquals(-1000, store.between(1, 0));
+        assertEquals(700, store.net(0));
+        assertFalse(store.isSettled(1));
+
+        ChangeSet changes = new ChangeSet();
+        store.addWrites(changes);
+        assertEquals(List.of(
+                "/db6/UpdateData?table=PAIRS&where=Member1=%27alice%27%20AND%20Member2=%27bob%27&Amount=10.00",
+                "/db6/UpdateData?table=PAIRS&where=Member1=%27carol%27%20AND%20Member2=%27alice%27&Amount=3.00",
+                "/db6/InsertData?table=PAIRS&params=(Member1,Amount,Member2)&info=(%27bob%27,0.00,%27carol%27)"),
+                changes.getWrites());
+
+        List<PendingAmountRow> rows = store.pendingAmounts();
+        assertEquals(3, rows.size());
+        assertEquals(2, rows.get(1).getId());
+        assertEquals(300, rows.get(1).amountFor("carol"));
+        assertEquals(0, rows.get(2).getId());
+
+        store.markStored();
+        ChangeSet none = new ChangeSet();
+        store.addWrites(none);
+        assertTrue(none.isEmpty());
+    }
+
+    @Test
+    void netLayoutIsRecognisedFromGroupRows() {
+        assertTrue(NetBalanceStore.holds(List.of(new PendingAmountRow(1, "alice", 0, PendingAmountRow.GROUP))));
+        assertFalse(NetBalanceStore.holds(List.of(new PendingAmountRow(1, "alice", 0, "bob"))));
+        assertEquals("/db6/InsertData?table=NET&params=(Member1,Amount,Member2)&info=(%27bob%27,0.00,%27*group*%27)",
+                NetBalanceStore.insertRow("NET", "bob", 0));
+    }
+
+    @Test
+    void netPositionsAreWrittenOneRowPerMember() {
+        NetBalanceStore store = new NetBalanceStore("NET", MEMBERS, INDEX, List.of(
+                new PendingAmountRow(1, "alice", 500, PendingAmountRow.GROUP),
+                new PendingAmountRow(2, "bob", -500, PendingAmountRow.GROUP),
+                new PendingAmountRow(3, "alice", 900, "bob")));
+        store.add(0, 1, 1000);
+        store.add(2, 0, 400);
+
+        assertEquals(600, store.net(0));
+        assertEquals(-1000, store.net(1));
+        assertTrue(new NetBalanceStore("NET", MEMBERS, INDEX, List.of()).isSettled(2));
+
+        ChangeSet changes = new ChangeSet();
+        store.addWrites(changes);
+        assertEquals(List.of(
+                "/db6/UpdateData?table=NET&where=Member1=%27alice%27%20AND%20Member2=%27*group*%27&Amount=6.00",
+                "/db6/UpdateData?table=NET&where=Member1=%27bob%27%20AND%20Member2=%27*group*%27&Amount=-10.00",
+                NetBalanceStore.insertRow("NET", "carol", 400)), changes.getWrites());
+
+        store.markStored();
+        ChangeSet none = new ChangeSet();
+        store.addWrites(none);
+        assertTrue(none.isEmpty());
+    }
+
+    @Test
+    void netPairBalancesAreThePlannedTransfers() {
+        NetBalanceStore store = new NetBalanceStore("NET", MEMBERS, INDEX, List.of());
+        store.add(0, 1, 1000);
+        store.add(2, 0, 400);
+
+        // bob owes the group 10.00: he pays alice 6.00 and carol 4.00
+        assertEquals(600, store.between(0, 1));
+        assertEquals(-400, store.between(1, 2));
+        assertEquals(0, store.between(0, 2));
+
+        List<PendingAmountRow> rows = store.pendingAmounts();
+        assertEquals(2, rows.size());
+        assertEquals("alice", rows.get(0).getMember1());
+        assertEquals("bob", rows.get(0).getMember2());
+        assertEquals(600, rows.get(0).getAmount());
+
+        store.add(1, 0, 600);
+        assertEquals(0, store.between(0, 1));
+        assertTrue(store.isSettled(0));
+    }
+}
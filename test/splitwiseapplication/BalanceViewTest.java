@@ -0,0 +1,67 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for BalanceView: one line per other member for a pairwise group, one line per
+ * planned transfer for a group that keeps net balances.
+ */
+class BalanceViewTest {
+
+    private static final String[][] JOURNAL = {
+            {"id", "Creator", "tID", "alice", "bob", "carol"},
+            {"1", "alice", "T1", "-20.00", "10.00", "10.00"},
+            {"2", "bob", "T2", "10.00", "-10.00", "0.00"}};
+
+    private static FakeBackend backend;
+
+    @BeforeAll
+    static void startBackend() {
+        backend = FakeBackend.get();
+    }
+
+    @BeforeEach
+    void resetBackend() {
+        backend.reset();
+    }
+
+    @Test
+    void pairwiseGroupListsEveryOtherMember() {
+        // carol owes alice 10.00; alice and bob are even
+        backend.table("db4", "BV1", "[\"alice\",\"bob\",\"carol\"]")
+                .table("db6", "BV1", "[[\"id\",\"Member1\",\"Amount\",\"Member2\"],"
+                        + "[1,\"alice\",0.00,\"bob\"],[2,\"alice\",10.00,\"carol\"],[3,\"bob\",0.00,\"carol\"]]");
+        BalanceView view = BalanceView.of(Ledger.replay("BV1", JOURNAL));
+        GroupRoster roster = view.getRoster();
+
+        assertEquals("<html>• Settled with bob<br>• carol owes 10.00 to alice<br></html>",
+                view.html(roster.indexOf("alice")));
+        assertEquals("<html>• Settled with alice<br>• Settled with carol<br></html>",
+                view.html(roster.indexOf("bob")));
+        assertEquals("<html>• carol owes 10.00 to alice<br>• Settled with bob<br></html>",
+                view.html(roster.indexOf("carol")));
+        assertSame(view.html(0), view.html(0));
+    }
+
+    @Test
+    void netGroupListsOnlyThePlannedTransfers() {
+        // Net: A is owed 20.00, B and C each owe 10.00
+        backend.table("db4", "BV2", "[\"A\",\"B\",\"C\",\"D\"]")
+                .table("db6", "BV2", "[[\"id\",\"Member1\",\"Amount\",\"Member2\"],[1,\"A\",0.00,\"*group*\"]]");
+        BalanceView view = BalanceView.of(Ledger.replay("BV2", new String[][] {
+                {"id", "Creator", "tID", "A", "B", "C", "D"},
+                {"1", "A", "T1", "-20.00", "10.00", "10.00", "0"}}));
+        GroupRoster roster = view.getRoster();
+
+        assertEquals("<html>• B owes 10.00 to A<br>• C owes 10.00 to A<br></html>", view.html(roster.indexOf("A")));
+        // B and C owe each other nothing, and no line says they are settled
+        assertEquals("<html>• B owes 10.00 to A<br></html>", view.html(roster.indexOf("B")));
+        assertEquals("<html>• C owes 10.00 to A<br></html>", view.html(roster.indexOf("C")));
+        assertEquals("<html></html>", view.html(roster.indexOf("D")));
+    }
+}
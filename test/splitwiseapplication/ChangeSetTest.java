@@ -0,0 +1,92 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ChangeSet against a backend without a batch endpoint (see FakeBackend):
+ * the batch request itself, the fallback to single writes and the undo of the writes
+ * that succeeded when one fails.
+ */
+class ChangeSetTest {
+
+    private static FakeBackend backend;
+
+    @BeforeAll
+    static void startBackend() {
+        backend = FakeBackend.get();
+    }
+
+    @BeforeEach
+    void resetBackend() {
+        backend.reset();
+    }
+
+    @Test
+    void writesKeepTheirOrder() {
+        ChangeSet first = new ChangeSet().add("/db5/InsertData?table=CS0&a", "/db5/DeleteRowData?table=CS0&a");
+        ChangeSet changes = new ChangeSet().add("/db6/UpdateData?table=CS0&b").addAll(first);
+        assertEquals(List.of("/db6/UpdateData?table=CS0&b", "/db5/InsertData?table=CS0&a"), changes.getWrites());
+        assertEquals(2, changes.size());
+        assertThrows(UnsupportedOperationException.class, () -> changes.getWrites().add("/db1/UpdateData"));
+
+        changes.clear();
+        assertTrue(changes.isEmpty());
+        assertEquals(0, changes.submit());
+        assertTrue(backend.requests().isEmpty());
+    }
+
+    @Test
+    void singleWriteIsSentWithoutBatch() {
+        assertEquals(1, new ChangeSet().add("/db6/UpdateData?table=CS1&Amount=1.00").submit());
+        assertEquals(List.of("/db6/UpdateData?table=CS1&Amount=1.00"), backend.requests());
+    }
+
+    @Test
+    void batchPostsTheWritesAsAJsonArray() {
+        List<String> writes = List.of("/db5/InsertData?table=CS2&info=(%27a\"b%27)", "/db6/UpdateData?table=CS2");
+        ApiException failure = assertThrows(ApiException.class,
+                () -> ApiCaller.await(ApiCaller.ApiCallerBatchAsync(writes)));
+        assertTrue(ApiCaller.isBatchUnsupported(failure));
+        assertEquals(List.of("/batch [\"/db5/InsertData?table=CS2&info=(%27a\\\"b%27)\",\"/db6/UpdateData?table=CS2\"]"),
+                backend.requests());
+    }
+
+    @Test
+    void withoutBatchEndpointEveryWriteIsSentOnce() {
+        ChangeSet changes = new ChangeSet()
+                .add("/db5/InsertData?table=CS3&tid=1", "/db5/DeleteRowData?table=CS3&tID=1")
+                .add("/db6/UpdateData?table=CS3&Amount=2.00", "/db6/UpdateData?table=CS3&Amount=1.00")
+                .add("/db1/UpdateData?table=CS3&Amount=3.00");
+        assertEquals(3, changes.submit());
+
+        List<String> writes = backend.writes();
+        writes.removeIf(write -> write.startsWith("/batch"));
+        assertEquals(3, writes.size());
+        assertTrue(writes.containsAll(changes.getWrites()));
+    }
+
+    @Test
+    void failedWriteUndoesTheOthers() {
+        backend.fail("/db6/", 500);
+        ChangeSet changes = new ChangeSet()
+                .add("/db5/InsertData?table=CS4&tid=1", "/db5/DeleteRowData?table=CS4&tID=1")
+                .add("/db6/UpdateData?table=CS4&Amount=2.00", "/db6/UpdateData?table=CS4&Amount=1.00")
+                .add("/db8/InsertData?table=CS4&tid=1", "/db8/DeleteRowData?table=CS4&tID=1");
+        ApiException failure = assertThrows(ApiException.class, changes::submit);
+        assertEquals(500, failure.getStatusCode());
+
+        List<String> writes = backend.writes();
+        assertTrue(writes.contains("/db5/DeleteRowData?table=CS4&tID=1"), writes::toString);
+        assertTrue(writes.contains("/db8/DeleteRowData?table=CS4&tID=1"), writes::toString);
+        assertFalse(writes.contains("/db6/UpdateData?table=CS4&Amount=1.00"), writes::toString);
+    }
+}
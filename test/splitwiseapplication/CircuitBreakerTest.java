@@ -0,0 +1,76 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for CircuitBreaker: opening after consecutive failures, the single trial call
+ * of the half-open state, and closing or reopening after it.
+ */
+class CircuitBreakerTest {
+
+    /**
+     * Internal helper method - Lets count calls through and fails each of them.
+     */
+    private static void failCalls(CircuitBreaker breaker, int count) {
+        for (int i = 0; i < count; i++) {
+            assertTrue(breaker.allowRequest());
+            breaker.onFailure();
+        }
+    }
+
+    @Test
+    void opensAfterTheThresholdOfConsecutiveFailures() {
+        CircuitBreaker breaker = new CircuitBreaker(3, 60_000);
+        failCalls(breaker, 2);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        // A success in between starts the count again
+        assertTrue(breaker.allowRequest());
+        breaker.onSuccess();
+        failCalls(breaker, 2);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        failCalls(breaker, 1);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+    }
+
+    @Test
+    void halfOpenTrialSuccessClosesTheBreaker() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(2, 30);
+        failCalls(breaker, 2);
+        assertFalse(breaker.allowRequest());
+
+        Thread.sleep(50);
+        assertTrue(breaker.allowRequest());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, breaker.getState());
+        // Only one trial call at a time
+        assertFalse(breaker.allowRequest());
+
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+        assertTrue(breaker.allowRequest());
+        assertTrue(breaker.allowRequest());
+    }
+
+    @Test
+    void halfOpenTrialFailureOpensTheBreakerAgain() throws InterruptedException {
+        CircuitBreaker breaker = new CircuitBreaker(5, 30);
+        failCalls(breaker, 5);
+
+        Thread.sleep(50);
+        assertTrue(breaker.allowRequest());
+        breaker.onFailure();
+        // One failed trial is enough, whatever the threshold
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+        assertFalse(breaker.allowRequest());
+
+        Thread.sleep(50);
+        assertTrue(breaker.allowRequest());
+        breaker.onSuccess();
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+}
@@ -0,0 +1,213 @@
+package splitwiseapplication;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * In-process HTTP server standing in for the backend in tests.
+ *
+ * Contract:
+ * - get() starts one server per JVM and points ApiCaller at it through the
+ *   splitwise.* system properties, so it must run before ApiCaller is first used;
+ *   the response cache and read retries are switched off and the request timeout is
+ *   short, so a stalled request fails as TIMEOUT within a test; LedgerSnapshot
+ *   writes to a new temporary directory
+ * - Reads ("/db{N}/Get...") answer the JSON registered with table() for that
+ *   database and table, or "[]"; POST /batch answers 404 like a backend without
+ *   batch support (ChangeSet then sends single writes for the rest of the run); every
+ *   other request answers 200
+ * - fail(), stall() and delay() apply to every request whose path contains a fragment
+ * - Every request is recorded as ApiCaller sent it, still encoded ("%27" quotes kept)
+ * - reset() forgets tables, failures, delays and recorded requests; tests use their own
+ *   group codes, so they do not see each other's tables
+ */
+final class FakeBackend {
+
+    /** Request timeout ApiCaller is configured with, in milliseconds. */
+    static final long TIMEOUT_MS = 500;
+
+    private static FakeBackend instance;
+
+    private final Map<String, String> tables = new ConcurrentHashMap<>();
+    private final Map<String, Integer> failures = new ConcurrentHashMap<>();
+    private final Map<String, Long> delays = new ConcurrentHashMap<>();
+    private final List<String> requests = new CopyOnWriteArrayList<>();
+
+    private FakeBackend() {
+    }
+
+    /**
+     * @return  The running server, started on first use
+     */
+    static synchronized FakeBackend get() {
+        if (instance == null) {
+            instance = new FakeBackend();
+            instance.start();
+        }
+        return instance;
+    }
+
+    /**
+     * Internal helper method - Starts the server and configures ApiCaller.
+     */
+    private void start() {
+        try {
+            HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/", this::handle);
+            server.setExecutor(Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "fake-backend");
+                thread.setDaemon(true);
+                return thread;
+            }));
+            server.start();
+            System.setProperty("splitwise.backend.urls", "http://localhost:" + server.getAddress().getPort());
+            System.setProperty("splitwise.cache.ttlMs", "0");
+            System.setProperty("splitwise.retry.maxAttempts", "1");
+            System.setProperty("splitwise.breaker.failureThreshold", "1000000");
+            System.setProperty("splitwise.http.requestTimeoutMs", Long.toString(TIMEOUT_MS));
+            System.setProperty("splitwise.snapshot.dir",
+                    Files.createTempDirectory("splitwise-snapshots").toString());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Internal helper method - Answers one request.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        String uri = exchange.getRequestURI().getRawPath();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query != null) {
+            uri += "?" + query;
+        }
+        try (InputStream body = exchange.getRequestBody()) {
+            String posted = new String(body.readAllBytes(), StandardCharsets.UTF_8);
+            requests.add(posted.isEmpty() ? uri : uri + " " + posted);
+        }
+        for (Map.Entry<String, Long> delay : delays.entrySet()) {
+            if (uri.contains(delay.getKey())) {
+                try {
+                    Thread.sleep(delay.getValue());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        int status = uri.startsWith("/batch") ? 404 : 200;
+        for (Map.Entry<String, Integer> failure : failures.entrySet()) {
+            if (uri.contains(failure.getKey())) {
+                status = failure.getValue();
+            }
+        }
+        String answer = "Success";
+        if (status != 200) {
+            answer = "Error " + status;
+        } else if (uri.matches("/db\\d+/Get.*")) {
+            answer = tables.getOrDefault(key(uri.substring(1, uri.indexOf('/', 1)), table(query)), "[]");
+        }
+        byte[] bytes = answer.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    /**
+     * Internal helper method - Value of the table parameter of a query.
+     */
+    private static String table(String query) {
+        for (String parameter : query.split("&")) {
+            if (parameter.startsWith("table=")) {
+                return parameter.substring("table=".length());
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Internal helper method - Key of a table in tables.
+     */
+    private static String key(String db, String table) {
+        return db + "/" + table;
+    }
+
+    /**
+     * Sets what reads of a table answer.
+     *
+     * @param db     Database, e.g. "db6"
+     * @param table  Table (group code)
+     * @param json   Response body, e.g. "[[\"id\",\"Name\"],[1,\"alice\"]]"
+     * @return       This backend
+     */
+    FakeBackend table(String db, String table, String json) {
+        tables.put(key(db, table), json);
+        return this;
+    }
+
+    /**
+     * Makes every request whose path contains fragment answer with an error status.
+     */
+    FakeBackend fail(String fragment, int status) {
+        failures.put(fragment, status);
+        return this;
+    }
+
+    /**
+     * Makes every request whose path contains fragment answer after the request timeout.
+     */
+    FakeBackend stall(String fragment) {
+        return delay(fragment, TIMEOUT_MS * 4);
+    }
+
+    /**
+     * Makes every request whose path contains fragment answer after the given time,
+     * e.g. to keep a read in flight while the test sends another one.
+     */
+    FakeBackend delay(String fragment, long millis) {
+        delays.put(fragment, millis);
+        return this;
+    }
+
+    /**
+     * @return  Requests received so far, in arrival order; POST bodies follow the path
+     */
+    List<String> requests() {
+        return new ArrayList<>(requests);
+    }
+
+    /**
+     * @return  Requests received so far other than reads
+     */
+    List<String> writes() {
+        List<String> writes = new ArrayList<>();
+        for (String request : requests) {
+            if (!request.matches("/db\\d+/Get.*")) {
+                writes.add(request);
+            }
+        }
+        return writes;
+    }
+
+    /**
+     * Forgets tables, failures, stalls, delays and recorded requests.
+     */
+    void reset() {
+        tables.clear();
+        failures.clear();
+        delays.clear();
+        requests.clear();
+    }
+}
@@ -0,0 +1,156 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for GroupRoster against FakeBackend: one db4 read per session, the rosters
+ * published by joined(), left() and update(), and the db4 generation that makes a
+ * roster stale after a write that bypassed them.
+ */
+class GroupRosterTest {
+
+    private static FakeBackend backend;
+
+    @BeforeAll
+    static void startBackend() {
+        backend = FakeBackend.get();
+    }
+
+    @BeforeEach
+    void resetBackend() {
+        backend.reset();
+    }
+
+    /**
+     * Internal helper method - Serves alice, bob and carol as the members of a group.
+     */
+    private static void group(String gcode) {
+        backend.table("db4", gcode, "[\"alice\",\"bob\",\"carol\"]");
+    }
+
+    /**
+     * Internal helper method - Number of db4 reads of a group the backend received.
+     */
+    private static long reads(String gcode) {
+        return backend.requests().stream().filter(request -> request.startsWith("/db4/Get")
+                && request.contains("table=" + gcode)).count();
+    }
+
+    @Test
+    void membersAreReadOncePerSession() {
+        group("GR1");
+        GroupRoster roster = GroupRoster.of("GR1");
+        assertSame(roster, GroupRoster.of("GR1"));
+        assertEquals(1, reads("GR1"));
+
+        assertEquals(List.of("alice", "bob", "carol"), roster.getMembers());
+        assertEquals("GR1", roster.getGroupCode());
+        assertEquals(3, roster.size());
+        assertEquals(2, roster.indexOf("carol"));
+        assertEquals(-1, roster.indexOf("dave"));
+        assertTrue(roster.contains("bob"));
+        assertThrows(UnsupportedOperationException.class, () -> roster.getMembers().add("dave"));
+    }
+
+    @Test
+    void joinedAndLeftPublishANewRosterWithoutReading() {
+        group("GR2");
+        GroupRoster before = GroupRoster.of("GR2");
+
+        // As JoinGroup does: the db4 write, then joined()
+        ApiCaller.ApiCaller2("/db4/InsertData?table=GR2&params=(name)&info=('dave')");
+        GroupRoster.joined("GR2", "dave");
+        GroupRoster joined = GroupRoster.of("GR2");
+        assertEquals(List.of("alice", "bob", "carol", "dave"), joined.getMembers());
+        assertEquals(3, joined.indexOf("dave"));
+        // A screen holding the old roster keeps its member list
+        assertEquals(List.of("alice", "bob", "carol"), before.getMembers());
+
+        ApiCaller.ApiCaller2("/db4/DeleteRowData?table=GR2&name=bob");
+        GroupRoster.left("GR2", "bob");
+        GroupRoster left = GroupRoster.of("GR2");
+        assertEquals(List.of("alice", "carol", "dave"), left.getMembers());
+        assertEquals(1, left.indexOf("carol"));
+        assertEquals(1, reads("GR2"));
+    }
+
+    @Test
+    void joiningTwiceDoesNotListTheMemberTwice() {
+        group("GR3");
+        GroupRoster.of("GR3");
+        GroupRoster.joined("GR3", "alice");
+        assertEquals(List.of("bob", "carol", "alice"), GroupRoster.of("GR3").getMembers());
+        GroupRoster.left("GR3", "zed");
+        assertEquals(3, GroupRoster.of("GR3").size());
+    }
+
+    @Test
+    void db4WriteBehindTheRostersBackReadsAgain() {
+        group("GR4");
+        GroupRoster stale = GroupRoster.of("GR4");
+        ApiCaller.ApiCaller2("/db4/InsertData?table=GR4&params=(name)&info=('dave')");
+        backend.table("db4", "GR4", "[\"alice\",\"bob\",\"carol\",\"dave\"]");
+
+        GroupRoster fresh = GroupRoster.of("GR4");
+        assertNotSame(stale, fresh);
+        assertEquals(4, fresh.size());
+        assertEquals(2, reads("GR4"));
+    }
+
+    @Test
+    void changesOfAGroupWithoutARosterWaitForTheNextRead() {
+        group("GR5");
+        GroupRoster.joined("GR5", "dave");
+        GroupRoster.left("GR5", "alice");
+        assertEquals(0, reads("GR5"));
+        assertEquals(List.of("alice", "bob", "carol"), GroupRoster.of("GR5").getMembers());
+
+        // A change while the read is still in flight drops it; the next use reads again
+        backend.delay("table=GR6", 200);
+        group("GR6");
+        CompletableFuture<GroupRoster> loading = GroupRoster.load("GR6");
+        GroupRoster.joined("GR6", "dave");
+        ApiCaller.await(loading);
+        GroupRoster.of("GR6");
+        assertEquals(2, reads("GR6"));
+    }
+
+    @Test
+    void updateKeepsAnIdenticalRosterAndReplacesADifferentOne() {
+        group("GR7");
+        GroupRoster read = GroupRoster.of("GR7");
+        assertSame(read, GroupRoster.update("GR7", new String[] {"alice", "bob", "carol"}));
+
+        GroupRoster updated = GroupRoster.update("GR7", new String[] {"alice", "carol"});
+        assertNotSame(read, updated);
+        assertSame(updated, GroupRoster.of("GR7"));
+        assertFalse(GroupRoster.of("GR7").contains("bob"));
+        assertEquals(1, reads("GR7"));
+
+        // update() of a group never read needs no read either
+        assertEquals(2, GroupRoster.update("GR8", new String[] {"x", "y"}).size());
+        assertEquals(List.of("x", "y"), GroupRoster.of("GR8").getMembers());
+        assertEquals(0, reads("GR8"));
+    }
+
+    @Test
+    void failedReadIsNotKept() {
+        backend.fail("table=GR9", 500);
+        assertThrows(ApiException.class, () -> GroupRoster.of("GR9"));
+        backend.reset();
+        group("GR9");
+        assertEquals(3, GroupRoster.of("GR9").size());
+    }
+}
@@ -0,0 +1,118 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for JsonRowParser: the shapes the backend sends, string escapes, tokens that
+ * span two reads of the buffer, empty arrays and plain-text replies.
+ */
+class JsonRowParserTest {
+
+    /**
+     * Internal helper method - Parses the body through a reader that hands out one
+     * character per read, so every token is split across refills of the buffer.
+     */
+    private static String[][] parseOneCharAtATime(String json) throws IOException {
+        return JsonRowParser.parseRows(new FilterReader(new StringReader(json)) {
+            @Override
+            public int read(char[] chars, int off, int len) throws IOException {
+                return super.read(chars, off, Math.min(len, 1));
+            }
+        });
+    }
+
+    @Test
+    void tableRowsKeepTheHeaderAndTheNumberText() {
+        assertArrayEquals(new String[][] {{"id", "Amount", "Reason"}, {"1", "50.00", "null"}, {"2", "-1e3", "true"}},
+                JsonRowParser.parseRows("[[\"id\",\"Amount\",\"Reason\"],[1,50.00,null],[2,-1e3,true]]"));
+    }
+
+    @Test
+    void objectsScalarsAndNestedValues() {
+        assertArrayEquals(new String[][] {{"1", "Alice"}}, JsonRowParser.parseRows("[{\"id\":1,\"Name\":\"Alice\"}]"));
+        assertArrayEquals(new String[][] {{"Alice", "Bob"}}, JsonRowParser.parseRows(" [ \"Alice\" , \"Bob\" ] "));
+        assertArrayEquals(new String[] {"Alice", "Bob"}, JsonRowParser.parseValues("[[\"Alice\"],[\"Bob\"]]"));
+        // Brackets inside a nested string must not end the raw container early
+        assertArrayEquals(new String[][] {{"1", "{\"a\":[1,\"]\\\"\"]}"}},
+                JsonRowParser.parseRows("[[1,{\"a\":[1,\"]\\\"\"]}]]"));
+    }
+
+    @Test
+    void escapesAreDecoded() {
+        assertArrayEquals(new String[][] {{"a\"b\\c/d\b\f\n\r\t"}},
+                JsonRowParser.parseRows("[[\"a\\\"b\\\\c\\/d\\b\\f\\n\\r\\t\"]]"));
+        // Object keys with escapes are skipped, not returned
+        assertArrayEquals(new String[][] {{"x"}}, JsonRowParser.parseRows("[{\"k\\\"ey\":\"x\"}]"));
+    }
+
+    @Test
+    void unicodeEscapesAreDecoded() {
+        assertArrayEquals(new String[] {"\u00e9", "\u20ac", "Caf\u00e9"},
+                JsonRowParser.parseValues("[\"\\u00e9\",\"\\u20AC\",\"Caf\\u00E9\"]"));
+        assertThrows(IllegalArgumentException.class, () -> JsonRowParser.parseValues("[\"\\u12G4\"]"));
+        assertThrows(IllegalArgumentException.class, () -> JsonRowParser.parseValues("[\"\\q\"]"));
+    }
+
+    @Test
+    void tokensSplitAcrossReadsDecodeTheSame() throws IOException {
+        String json = "[[\"id\",\"Reason\",\"Amount\"],[1,\"Caf\\u00e9, \\\"bar\\\"\",-12.50],"
+                + "[2,null,false],{\"id\":3,\"x\":[1,\"]\"]}]";
+        assertArrayEquals(JsonRowParser.parseRows(json), parseOneCharAtATime(json));
+        assertEquals("Caf\u00e9, \"bar\"", parseOneCharAtATime(json)[1][1]);
+    }
+
+    @Test
+    void valuesSpanningTheEndOfTheBufferAreKeptWhole() throws IOException {
+        // The 8 KB buffer ends inside the long string, then inside the number
+        String text = "x".repeat(8190);
+        String digits = "1".repeat(20);
+        String json = "[[\"" + text + "\"," + digits + ",\"\\u00e9" + text + "\"]]";
+        String[][] rows = JsonRowParser.parseRows(new StringReader(json));
+        assertArrayEquals(new String[][] {{text, digits, "\u00e9" + text}}, rows);
+    }
+
+    @Test
+    void emptyBodiesAndArrays() {
+        assertEquals(0, JsonRowParser.parseRows("").length);
+        assertEquals(0, JsonRowParser.parseRows(" \n").length);
+        assertEquals(0, JsonRowParser.parseRows((String) null).length);
+        assertEquals(0, JsonRowParser.parseRows("[]").length);
+        assertEquals(0, JsonRowParser.parseValues("[ ]").length);
+        assertArrayEquals(new String[][] {{}}, JsonRowParser.parseRows("[[]]"));
+        assertArrayEquals(new String[][] {{}, {"1"}, {}}, JsonRowParser.parseRows("[[],[1],{}]"));
+    }
+
+    @Test
+    void plainTextBodiesBecomeOneRow() {
+        assertArrayEquals(new String[][] {{"Table created"}}, JsonRowParser.parseRows("Table created\n"));
+        // Bodies that start like a literal or a number are still plain text
+        assertArrayEquals(new String[][] {{"true story"}}, JsonRowParser.parseRows("true story"));
+        assertArrayEquals(new String[][] {{"the table was created"}}, JsonRowParser.parseRows("the table was created"));
+        assertArrayEquals(new String[][] {{"no rows"}}, JsonRowParser.parseRows("no rows"));
+        assertArrayEquals(new String[][] {{"1 row inserted"}}, JsonRowParser.parseRows("1 row inserted"));
+        // Real top-level scalars are unchanged
+        assertArrayEquals(new String[][] {{"null"}}, JsonRowParser.parseRows("null"));
+        assertArrayEquals(new String[][] {{"50.00"}}, JsonRowParser.parseRows(" 50.00 "));
+        assertArrayEquals(new String[][] {{"done"}}, JsonRowParser.parseRows("\"done\""));
+    }
+
+    @Test
+    void malformedJsonIsRejectedWithTheOffset() {
+        IllegalArgumentException missingComma = assertThrows(IllegalArgumentException.class,
+                () -> JsonRowParser.parseRows("[[1 2]]"));
+        assertTrue(missingComma.getMessage().contains("at offset"), missingComma.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> JsonRowParser.parseRows("[[\"abc"));
+        // Inside an array a bad literal is an error, not text
+        assertThrows(IllegalArgumentException.class, () -> JsonRowParser.parseRows("[tru]"));
+        assertThrows(IllegalArgumentException.class, () -> JsonRowParser.parseRows("[{\"id\" 1}]"));
+    }
+}
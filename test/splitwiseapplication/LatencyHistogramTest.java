@@ -0,0 +1,117 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for LatencyHistogram: exact and log-linear bucket edges, the relative error
+ * of percentiles, clamping, and the exact min, max, count and mean.
+ */
+class LatencyHistogramTest {
+
+    /**
+     * Internal helper method - Median of one sample of the given value and one much
+     * larger sample, i.e. the upper bound of the bucket the value falls into.
+     */
+    private static long reported(long micros) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(micros);
+        histogram.record(1L << 39);
+        return histogram.percentile(50);
+    }
+
+    @Test
+    void emptyHistogramReportsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(99));
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0, histogram.getMean());
+    }
+
+    @Test
+    void smallValuesAreExact() {
+        for (long micros = 0; micros < 64; micros++) {
+            assertEquals(micros, reported(micros));
+        }
+    }
+
+    @Test
+    void bucketEdgesAboveTheLinearRange() {
+        // From 64 us each power of two is split into 32 sub-buckets
+        assertEquals(65, reported(64));
+        assertEquals(65, reported(65));
+        assertEquals(67, reported(66));
+        assertEquals(127, reported(126));
+        assertEquals(127, reported(127));
+        assertEquals(131, reported(128));
+        assertEquals(131, reported(131));
+        assertEquals(135, reported(132));
+        assertEquals(1007, reported(1000));
+        assertEquals((33L << 30) - 1, reported(1L << 35));
+    }
+
+    @Test
+    void percentilesAreNeverLowAndAtMostOneThirtySecondHigh() {
+        for (long micros = 64; micros < 1L << 38; micros = micros * 17 / 13 + 1) {
+            long reported = reported(micros);
+            assertTrue(reported >= micros && reported - micros <= micros / 32, micros + " -> " + reported);
+        }
+    }
+
+    @Test
+    void percentilesFollowTheRanks() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 50; micros++) {
+            histogram.record(micros);
+        }
+        histogram.record(-5);
+        assertEquals(0, histogram.percentile(0));
+        assertEquals(0, histogram.getMin());
+        assertEquals(25, histogram.percentile(50));
+        assertEquals(48, histogram.percentile(96));
+        assertEquals(50, histogram.percentile(100));
+        assertEquals(50, histogram.percentile(250));
+        assertEquals(51, histogram.getCount());
+        assertEquals(1275 / 51.0, histogram.getMean(), 1e-9);
+    }
+
+    @Test
+    void hugeValuesAreClampedButTheMaxIsKept() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1L << 50);
+        histogram.record(1L << 45);
+        assertEquals(1L << 45, histogram.getMin());
+        assertEquals(1L << 50, histogram.getMax());
+        // Both fall into the last bucket; percentiles must not report less than a sample
+        assertEquals(1L << 50, histogram.percentile(50));
+    }
+
+    @Test
+    void concurrentRecordsAreAllCounted() throws InterruptedException {
+        LatencyHistogram histogram = new LatencyHistogram();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 1; i <= 10_000; i++) {
+                    histogram.record(i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(40_000, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(10_000, histogram.getMax());
+        assertEquals(5000.5, histogram.getMean(), 1e-9);
+    }
+}
@@ -0,0 +1,148 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for LedgerReconciler: each invariant it checks, the corrections it proposes
+ * and --fix. The consistent group is the one of LedgerTest: alice paid 30.00 shared
+ * equally (T1), then bob paid alice 10.00 (T2).
+ */
+class LedgerReconcilerTest {
+
+    private static final String MEMBERS = "[\"alice\",\"bob\",\"carol\"]";
+    private static final String HISTORY = "[[\"id\",\"payee\",\"amount\",\"reason\",\"Ttype\",\"tid\"],"
+            + "[1,\"alice\",30.00,\"Dinner\",0,\"T1\"],[2,\"bob\",10.00,\"alice\",1,\"T2\"]";
+    private static final String DETAILS = "[[\"id\",\"Creator\",\"tID\",\"alice\",\"bob\",\"carol\"],"
+            + "[1,\"alice\",\"T1\",-20.00,10.00,10.00],[2,\"bob\",\"T2\",10.00,-10.00,0]";
+    private static final String PENDING = "[[\"id\",\"Member1\",\"Amount\",\"Member2\"],"
+            + "[1,\"alice\",0.00,\"bob\"],[2,\"alice\",10.00,\"carol\"],[3,\"bob\",0.00,\"carol\"]";
+    private static final String SPENT = "[[\"id\",\"Name\",\"Amount\"],"
+            + "[1,\"Total\",30.00],[2,\"alice\",10.00],[3,\"bob\",10.00],[4,\"carol\",10.00]";
+
+    private static FakeBackend backend;
+
+    @BeforeAll
+    static void startBackend() {
+        backend = FakeBackend.get();
+    }
+
+    @BeforeEach
+    void resetBackend() {
+        backend.reset();
+    }
+
+    /**
+     * Internal helper method - Serves a group; each argument is appended to the rows
+     * of the consistent group's table (e.g. ",[3,\"carol\",5.00,\"Taxi\",0,\"T3\"]").
+     */
+    private static void group(String gcode, String history, String details, String pending, String spent) {
+        backend.table("db4", gcode, MEMBERS)
+                .table("db5", gcode, HISTORY + history + "]")
+                .table("db8", gcode, DETAILS + details + "]")
+                .table("db6", gcode, PENDING + pending + "]")
+                .table("db1", gcode, SPENT + spent + "]");
+    }
+
+    @Test
+    void consistentGroupHasNothingToReport() {
+        group("REC1", "", "", "", "");
+        LedgerReconciler.Report report = LedgerReconciler.check("REC1");
+        assertEquals("REC1", report.getCode());
+        assertEquals(List.of(), report.getProblems());
+        assertTrue(report.getNotes().isEmpty());
+        assertTrue(report.getCorrections().isEmpty());
+        assertTrue(report.isConsistent());
+    }
+
+    @Test
+    void journalRowsWithoutTheirPartnerAreReported() {
+        group("REC2", ",[3,\"carol\",5.00,\"Taxi\",0,\"T3\"]", ",[4,\"carol\",\"T4\",0,0,0]", "", "");
+        List<String> problems = LedgerReconciler.check("REC2").getProblems();
+        assertTrue(problems.contains("transaction T4: db8 row 4 has no db5 entry"), problems::toString);
+        assertTrue(problems.contains("transaction T3: db5 entry 3 has no db8 row"), problems::toString);
+    }
+
+    @Test
+    void transactionsThatDoNotAddUpAreReported() {
+        group("REC3", ",[3,\"carol\",9.00,\"Taxi\",0,\"T3\"],[4,\"carol\",5.00,\"bob\",1,\"T4\"]",
+                ",[3,\"carol\",\"T3\",3.00,3.00,-5.00],[4,\"carol\",\"T4\",0,4.00,-4.00]", "", "");
+        List<String> problems = LedgerReconciler.check("REC3").getProblems();
+        assertTrue(problems.contains("transaction T3: shares add up to 10.00, db5 amount is 9.00"), problems::toString);
+        assertTrue(problems.contains("transaction T4: db8 does not move 5.00 from carol to bob"), problems::toString);
+    }
+
+    @Test
+    void storedTablesAreCheckedAgainstTheJournal() {
+        backend.table("db4", "REC4", MEMBERS)
+                .table("db5", "REC4", HISTORY + "]")
+                .table("db8", "REC4", DETAILS + "]")
+                .table("db6", "REC4", "[[\"id\",\"Member1\",\"Amount\",\"Member2\"],"
+                        + "[1,\"alice\",0.00,\"bob\"],[2,\"carol\",-7.00,\"alice\"],[3,\"bob\",0.00,\"alice\"]]")
+                .table("db1", "REC4", "[[\"id\",\"Name\",\"Amount\"],[1,\"Total\",31.00],[2,\"alice\",10.00],[3,\"bob\",10.00]]");
+        LedgerReconciler.Report report = LedgerReconciler.check("REC4");
+        assertEquals(List.of(
+                "db1 Total is 31.00, member rows add up to 20.00",
+                "db6 pair bob/alice is stored more than once (row 3)",
+                "db1 has no row for carol (journal: 10.00)",
+                "db6 carol/alice is -7.00, journal gives -10.00",
+                "db6 has no row carol/bob (journal: 0.00)"), report.getProblems());
+        assertFalse(report.getCorrections().isEmpty());
+        assertFalse(report.isConsistent());
+    }
+
+    @Test
+    void netPositionsMustAddUpToZero() {
+        backend.table("db4", "REC5", MEMBERS)
+                .table("db5", "REC5", HISTORY + "]")
+                .table("db8", "REC5", DETAILS + "]")
+                .table("db6", "REC5", "[[\"id\",\"Member1\",\"Amount\",\"Member2\"],"
+                        + "[1,\"alice\",10.00,\"*group*\"],[2,\"bob\",0.00,\"*group*\"],[3,\"carol\",-9.00,\"*group*\"]]")
+                .table("db1", "REC5", SPENT + "]");
+        List<String> problems = LedgerReconciler.check("REC5").getProblems();
+        assertEquals(List.of("db6 net positions add up to 1.00 instead of 0.00",
+                "db6 carol/*group* is -9.00, journal gives -10.00"), problems);
+    }
+
+    @Test
+    void leftMembersSkipTheSumsButNotTheirBalanceRows() {
+        group("REC6", ",[3,\"dave\",0,\"\",2,\"NA-1\"]", ",[3,\"alice\",\"NA-1\",0,-2.00,2.00]", "", "");
+        LedgerReconciler.Report report = LedgerReconciler.check("REC6");
+        assertEquals(List.of("members have left the group, db8 sums not checked"), report.getNotes());
+        assertFalse(report.getProblems().stream().anyMatch(problem -> problem.contains("NA-1")),
+                report.getProblems()::toString);
+    }
+
+    @Test
+    void fixSubmitsTheCorrectionsAndChecksAgain() {
+        group("REC7", "", "", "", "");
+        backend.table("db1", "REC7", "[[\"id\",\"Name\",\"Amount\"],[1,\"Total\",30.00],[2,\"alice\",12.00],"
+                + "[3,\"bob\",8.00],[4,\"carol\",10.00]]");
+        LedgerReconciler.Report report = LedgerReconciler.reconcile("REC7", true);
+
+        assertTrue(report.isFixed());
+        List<String> writes = backend.writes();
+        assertTrue(writes.containsAll(report.getCorrections().getWrites()), writes::toString);
+        assertTrue(writes.contains("/db1/UpdateData?table=REC7&where=Name=%27alice%27&Amount=10.00"), writes::toString);
+        // The fake backend does not apply writes, so the second check still sees the drift
+        assertEquals(report.getProblems(), report.getRemaining());
+        assertFalse(report.isConsistent());
+    }
+
+    @Test
+    void failedReadIsRecordedInTheReport() {
+        group("REC8", "", "", "", "");
+        backend.fail("/db8/GetRowData?table=REC8", 500);
+        LedgerReconciler.Report report = LedgerReconciler.reconcile("REC8", false);
+        assertNotNull(report.getFailure());
+        assertFalse(report.isConsistent());
+    }
+}
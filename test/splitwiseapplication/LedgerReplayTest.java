@@ -0,0 +1,147 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for LedgerReplay: decoding db8 rows into the flat journal, the replay rules
+ * and the rows Ledger appends, removes and writes back.
+ */
+class LedgerReplayTest {
+
+    private static final List<String> MEMBERS = List.of("alice", "bob", "carol");
+    private static final Map<String, Integer> INDEX = Map.of("alice", 0, "bob", 1, "carol", 2);
+
+    /** alice paid 30.00 shared equally (T1); bob paid alice 10.00 (T2); zed, who left, paid 5.00 for carol (T3). */
+    private static final String[][] ROWS = {
+            {"id", "Creator", "tID", "alice", "zed", "bob", "carol"},
+            {"1", "alice", "T1", "-20.00", "0", "10.00", "10.00"},
+            {"2", "bob", "T2", "10.00", "0", "-10.00", "0"},
+            {"4", "zed", "T3", "0", "-5.00", "0", "5.00"}};
+
+    /**
+     * Internal helper method - db5 entries of ROWS.
+     */
+    private static Map<String, PaymentHistoryRow> history() {
+        Map<String, PaymentHistoryRow> history = new HashMap<>();
+        history.put("T1", new PaymentHistoryRow(1, "alice", 3000, "Dinner", PaymentHistoryRow.TYPE_EXPENSE, "T1"));
+        history.put("T2", new PaymentHistoryRow(2, "bob", 1000, "alice", PaymentHistoryRow.TYPE_SETTLEMENT, "T2"));
+        history.put("T3", new PaymentHistoryRow(3, "zed", 500, "Taxi", PaymentHistoryRow.TYPE_EXPENSE, "T3"));
+        return history;
+    }
+
+    /**
+     * Internal helper method - Replays a bound journal into fresh balances and shares.
+     */
+    private static PairwiseBalanceStore replay(LedgerReplay journal, long[] spent) {
+        PairwiseBalanceStore balances = new PairwiseBalanceStore("REPLAY", MEMBERS, INDEX, List.of());
+        journal.bind(INDEX);
+        journal.replay(history(), balances, spent);
+        return balances;
+    }
+
+    @Test
+    void replayAppliesCreatorAndShareRules() {
+        long[] spent = new long[3];
+        PairwiseBalanceStore balances = replay(LedgerReplay.fromRows(ROWS), spent);
+
+        assertEquals(1000, balances.between(0, 2));
+        assertEquals(0, balances.between(0, 1));
+        // zed is not a member: their row moves no balance, but carol's share still counts
+        assertEquals(-1000, balances.net(2));
+        assertArrayEquals(new long[] {1000, 1000, 1500}, spent);
+        assertEquals(List.of("alice", "zed", "bob", "carol"), List.of(LedgerReplay.fromRows(ROWS).columns()));
+    }
+
+    @Test
+    void rowsReceivedOneAtATimeMatchAParsedResponse() {
+        LedgerReplay streamed = new LedgerReplay();
+        streamed.row(ROWS[0]);
+        streamed.row(ROWS[1]);
+        streamed.start();
+        for (String[] row : ROWS) {
+            streamed.row(row);
+        }
+        LedgerReplay parsed = LedgerReplay.fromRows(ROWS);
+
+        assertEquals(3, streamed.size());
+        assertEquals(3, streamed.received());
+        assertEquals(4, streamed.lastId());
+        assertEquals(parsed.hash(), streamed.hash());
+        long[] spent = new long[3];
+        long[] expected = new long[3];
+        replay(parsed, expected);
+        replay(streamed, spent);
+        assertArrayEquals(expected, spent);
+    }
+
+    @Test
+    void hashChangesWhenARowIsMissing() {
+        LedgerReplay all = LedgerReplay.fromRows(ROWS);
+        LedgerReplay fewer = LedgerReplay.fromRows(new String[][] {ROWS[0], ROWS[1], ROWS[3]});
+        assertNotEquals(all.hash(), fewer.hash());
+        assertEquals(4, fewer.lastId());
+    }
+
+    @Test
+    void withoutHeaderNoMemberValueIsApplied() {
+        LedgerReplay journal = LedgerReplay.fromRows(new String[][] {ROWS[1], ROWS[2]});
+        long[] spent = new long[3];
+        PairwiseBalanceStore balances = replay(journal, spent);
+        assertEquals("column3", journal.columns()[0]);
+        assertEquals(0, balances.net(0));
+        assertArrayEquals(new long[3], spent);
+    }
+
+    @Test
+    void removedRowIsSkippedByLaterReplays() {
+        LedgerReplay journal = LedgerReplay.fromRows(ROWS);
+        int row = journal.find("T1");
+        assertEquals(0, row);
+        journal.remove(row);
+        assertEquals(-1, journal.find("T1"));
+        assertFalse(journal.transactionIds().contains("T1"));
+        assertTrue(journal.transactionIds().contains("T2"));
+
+        long[] spent = new long[3];
+        PairwiseBalanceStore balances = replay(journal, spent);
+        assertEquals(-1000, balances.between(0, 1));
+        assertArrayEquals(new long[] {0, 0, 500}, spent);
+    }
+
+    @Test
+    void appendedRowGetsAColumnForANewMember() {
+        Map<String, Integer> index = Map.of("alice", 0, "bob", 1, "carol", 2, "dave", 3);
+        LedgerReplay journal = LedgerReplay.fromRows(ROWS);
+        journal.bind(index);
+        int row = journal.append("dave", "T5", List.of("alice", "bob", "carol", "dave"), new long[] {100, 0, 0, -100});
+
+        assertEquals(3, row);
+        assertEquals(5, journal.columns().length);
+        assertEquals("/db8/InsertData?table=G&params=(Creator,tID,alice,zed,bob,carol,dave)"
+                + "&info=(%27dave%27,%27T5%27,1.00,0.00,0.00,0.00,-1.00)", journal.insertRequest("G", row));
+        assertEquals("/db8/InsertData?table=G&params=(Creator,tID,alice,zed,bob,carol,dave)"
+                + "&info=(%27alice%27,%27T1%27,-20.00,0.00,10.00,10.00,0.00)", journal.insertRequest("G", 0));
+    }
+
+    @Test
+    void balancesWithSumsWhatEachMemberOwesOne() {
+        LedgerReplay journal = LedgerReplay.fromRows(ROWS);
+        journal.bind(INDEX);
+        // carol owes alice 10.00; alice and bob are even
+        assertArrayEquals(new long[] {0, 0, 1000}, journal.balancesWith(0, 3));
+        assertArrayEquals(new long[] {-1000, 0, 0}, journal.balancesWith(2, 3));
+        assertEquals("/db8/InsertData?table=G&params=(Creator,tID,alice,zed,bob,carol)"
+                + "&info=(%27bob%27,%27NA-1%27,0.00,0.00,0.00,-10.00)",
+                journal.insertRequest("G", "bob", "NA-1", new long[] {0, 0, -1000}));
+    }
+}
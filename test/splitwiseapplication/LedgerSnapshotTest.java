@@ -0,0 +1,173 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for LedgerSnapshot: what a snapshot covers, when it is stale, and that a
+ * ledger started from one matches a full replay. Snapshots go to the temporary
+ * directory FakeBackend configures.
+ */
+class LedgerSnapshotTest {
+
+    private static final List<String> MEMBERS = List.of("alice", "bob", "carol");
+    private static final Map<String, Integer> INDEX = Map.of("alice", 0, "bob", 1, "carol", 2);
+    private static final String[] HEADER = {"id", "Creator", "tID", "alice", "bob", "carol"};
+    private static final String[] ROW1 = {"1", "alice", "T1", "-20.00", "10.00", "10.00"};
+    private static final String[] ROW2 = {"2", "bob", "T2", "10.00", "-10.00", "0"};
+    private static final String[] ROW3 = {"3", "carol", "T3", "3.00", "3.00", "-6.00"};
+
+    private static FakeBackend backend;
+
+    @BeforeAll
+    static void startBackend() {
+        backend = FakeBackend.get();
+    }
+
+    /**
+     * Internal helper method - db5 entries of the rows above.
+     */
+    private static Map<String, PaymentHistoryRow> history() {
+        Map<String, PaymentHistoryRow> history = new HashMap<>();
+        history.put("T1", new PaymentHistoryRow(1, "alice", 3000, "Dinner", PaymentHistoryRow.TYPE_EXPENSE, "T1"));
+        history.put("T2", new PaymentHistoryRow(2, "bob", 1000, "alice", PaymentHistoryRow.TYPE_SETTLEMENT, "T2"));
+        history.put("T3", new PaymentHistoryRow(3, "carol", 900, "Taxi", PaymentHistoryRow.TYPE_EXPENSE, "T3"));
+        return history;
+    }
+
+    /**
+     * Internal helper method - Replays rows in full and stores a snapshot of the result.
+     */
+    private static LedgerSnapshot snapshot(String code, String[]... rows) {
+        LedgerReplay journal = LedgerReplay.fromRows(rows);
+        journal.bind(INDEX);
+        PairwiseBalanceStore balances = new PairwiseBalanceStore(code, MEMBERS, INDEX, List.of());
+        long[] spent = new long[3];
+        journal.replay(history(), balances, spent);
+        LedgerSnapshot.capture(code, journal, MEMBERS, balances, spent).write();
+        return LedgerSnapshot.read(code);
+    }
+
+    @Test
+    void snapshotCoversTheRowsUpToItsLastId() {
+        LedgerSnapshot snapshot = snapshot("SNAP1", HEADER, ROW1, ROW2);
+        assertNotNull(snapshot);
+        assertEquals(2, snapshot.getLastId());
+        assertEquals(2, snapshot.getRows());
+        assertArrayEquals(new String[] {"alice", "bob", "carol"}, snapshot.getColumns());
+
+        LedgerReplay journal = LedgerReplay.fromRows(new String[][] {HEADER, ROW1, ROW2, ROW3}, snapshot);
+        assertSame(snapshot, journal.getSnapshot());
+        assertEquals(1, journal.size());
+        assertEquals(3, journal.received());
+        assertTrue(journal.isSkipped("T1"));
+        assertTrue(journal.transactionIds().containsAll(List.of("T1", "T2", "T3")));
+    }
+
+    @Test
+    void restoredSnapshotPlusNewRowsMatchesAFullReplay() {
+        LedgerSnapshot snapshot = snapshot("SNAP2", HEADER, ROW1, ROW2);
+        LedgerReplay journal = LedgerReplay.fromRows(new String[][] {HEADER, ROW1, ROW2, ROW3}, snapshot);
+        PairwiseBalanceStore balances = new PairwiseBalanceStore("SNAP2", MEMBERS, INDEX, List.of());
+        long[] spent = new long[3];
+        assertTrue(snapshot.restore(MEMBERS, balances, spent));
+        journal.bind(INDEX);
+        journal.replay(history(), balances, spent);
+
+        LedgerReplay full = LedgerReplay.fromRows(new String[][] {HEADER, ROW1, ROW2, ROW3});
+        full.bind(INDEX);
+        PairwiseBalanceStore expected = new PairwiseBalanceStore("SNAP2", MEMBERS, INDEX, List.of());
+        long[] expectedSpent = new long[3];
+        full.replay(history(), expected, expectedSpent);
+
+        assertArrayEquals(expectedSpent, spent);
+        for (int i = 0; i < 3; i++) {
+            for (int j = 0; j < 3; j++) {
+                assertEquals(expected.between(i, j), balances.between(i, j));
+            }
+        }
+    }
+
+    @Test
+    void deletedOrReplacedOlderRowMakesTheSnapshotStale() {
+        LedgerSnapshot snapshot = snapshot("SNAP3", HEADER, ROW1, ROW2);
+
+        LedgerReplay deleted = LedgerReplay.fromRows(new String[][] {HEADER, ROW2, ROW3}, snapshot);
+        assertNull(deleted.getSnapshot());
+        assertEquals(2, deleted.size());
+
+        String[] replaced = {"2", "bob", "T9", "10.00", "-10.00", "0"};
+        LedgerReplay changed = LedgerReplay.fromRows(new String[][] {HEADER, ROW1, replaced, ROW3}, snapshot);
+        assertNull(changed.getSnapshot());
+        assertEquals(3, changed.size());
+    }
+
+    @Test
+    void changedColumnsDecodeEveryRow() {
+        LedgerSnapshot snapshot = snapshot("SNAP4", HEADER, ROW1, ROW2);
+        String[] header = {"id", "Creator", "tID", "alice", "bob", "carol", "dave"};
+        LedgerReplay journal = LedgerReplay.fromRows(new String[][] {header, ROW1, ROW2}, snapshot);
+        assertNull(journal.getSnapshot());
+        assertEquals(2, journal.size());
+    }
+
+    @Test
+    void restoreRefusesOtherMembersOrLayout() {
+        LedgerSnapshot snapshot = snapshot("SNAP5", HEADER, ROW1, ROW2);
+        long[] spent = new long[3];
+        List<String> others = List.of("alice", "carol", "bob");
+        assertFalse(snapshot.restore(others, new PairwiseBalanceStore("SNAP5", others, INDEX, List.of()), spent));
+        assertFalse(snapshot.restore(MEMBERS, new NetBalanceStore("SNAP5", MEMBERS, INDEX, List.of()), spent));
+        assertArrayEquals(new long[3], spent);
+    }
+
+    @Test
+    void missingOrDamagedFileMeansNoSnapshot() throws IOException {
+        assertNull(LedgerSnapshot.read("SNAP-NONE"));
+        Files.write(Paths.get(System.getProperty("splitwise.snapshot.dir"), "SNAP6.snapshot"),
+                "not a snapshot".getBytes(StandardCharsets.UTF_8));
+        assertNull(LedgerSnapshot.read("SNAP6"));
+    }
+
+    @Test
+    void snapshotIsDueEveryIntervalRows() {
+        assertFalse(LedgerSnapshot.isDue(999));
+        assertTrue(LedgerSnapshot.isDue(1000));
+    }
+
+    @Test
+    void loadedLedgerStartsFromTheSnapshot() {
+        backend.table("db4", "SNAP7", "[\"alice\",\"bob\",\"carol\"]")
+                .table("db5", "SNAP7", "[[\"id\",\"payee\",\"amount\",\"reason\",\"Ttype\",\"tid\"],"
+                        + "[1,\"alice\",30.00,\"Dinner\",0,\"T1\"],[2,\"bob\",10.00,\"alice\",1,\"T2\"],"
+                        + "[3,\"carol\",9.00,\"Taxi\",0,\"T3\"]]")
+                .table("db8", "SNAP7", "[[\"id\",\"Creator\",\"tID\",\"alice\",\"bob\",\"carol\"],"
+                        + "[1,\"alice\",\"T1\",-20.00,10.00,10.00],[2,\"bob\",\"T2\",10.00,-10.00,0],"
+                        + "[3,\"carol\",\"T3\",3.00,3.00,-6.00]]");
+        snapshot("SNAP7", HEADER, ROW1, ROW2);
+
+        Ledger loaded = Ledger.load("SNAP7");
+        Ledger replayed = Ledger.replay("SNAP7");
+        for (String member : MEMBERS) {
+            assertEquals(replayed.netBalance(member), loaded.netBalance(member), member);
+            assertEquals(replayed.amountSpent(member), loaded.amountSpent(member), member);
+        }
+        assertEquals(700, loaded.balanceBetween("alice", "carol"));
+    }
+}
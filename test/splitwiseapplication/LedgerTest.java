@@ -0,0 +1,208 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for Ledger: balances and shares replayed from the journal (db8), the diff against
+ * the stored db6/db1 rows, and expenses, settlements and deletions applied in memory.
+ *
+ * Every group has alice, bob and carol, and two transactions: alice paid 30.00 for
+ * dinner shared equally (T1), then bob paid alice 10.00 (T2). Replayed, carol owes
+ * alice 10.00 and alice and bob are even; each share of the expenses is 10.00.
+ */
+class LedgerTest {
+
+    private static FakeBackend backend;
+
+    @BeforeAll
+    static void startBackend() {
+        backend = FakeBackend.get();
+    }
+
+    @BeforeEach
+    void resetBackend() {
+        backend.reset();
+    }
+
+    /**
+     * Internal helper method - Serves a group whose stored rows match JOURNAL, with the
+     * given db6 alice/carol amount.
+     */
+    private static void group(String gcode, String aliceCarol) {
+        backend.table("db4", gcode, "[\"alice\",\"bob\",\"carol\"]")
+                .table("db5", gcode, "[[\"id\",\"payee\",\"amount\",\"reason\",\"Ttype\",\"tid\"],"
+                        + "[1,\"alice\",30.00,\"Dinner\",0,\"T1\"],[2,\"bob\",10.00,\"alice\",1,\"T2\"]]")
+                .table("db8", gcode, "[[\"id\",\"Creator\",\"tID\",\"alice\",\"bob\",\"carol\"],"
+                        + "[1,\"alice\",\"T1\",-20.00,10.00,10.00],[2,\"bob\",\"T2\",10.00,-10.00,0.00]]")
+                .table("db6", gcode, "[[\"id\",\"Member1\",\"Amount\",\"Member2\"],"
+                        + "[1,\"alice\",0.00,\"bob\"],[2,\"alice\"," + aliceCarol + ",\"carol\"],[3,\"bob\",0.00,\"carol\"]]")
+                .table("db1", gcode, "[[\"id\",\"Name\",\"Amount\"],"
+                        + "[1,\"Total\",30.00],[2,\"alice\",10.00],[3,\"bob\",10.00],[4,\"carol\",10.00]]");
+    }
+
+    @Test
+    void replayDerivesPairBalancesAndShares() {
+        group("LEDGER1", "10.00");
+        Ledger ledger = Ledger.load("LEDGER1");
+
+        assertEquals(List.of("alice", "bob", "carol"), ledger.getMembers());
+        assertFalse(ledger.hasNetBalances());
+        assertEquals(1000, ledger.balanceBetween("alice", "carol"));
+        assertEquals(-1000, ledger.balanceBetween("carol", "alice"));
+        assertEquals(0, ledger.balanceBetween("alice", "bob"));
+        assertEquals(1000, ledger.netBalance("alice"));
+        assertTrue(ledger.isSettled("bob"));
+        assertFalse(ledger.isSettled("carol"));
+        assertEquals(1000, ledger.amountSpent("carol"));
+        assertEquals(3000, ledger.totalSpent());
+        assertTrue(ledger.pendingWrites().isEmpty());
+    }
+
+    @Test
+    void driftedAndMissingRowsAreRewritten() {
+        group("LEDGER2", "5.00");
+        backend.table("db1", "LEDGER2", "[[\"id\",\"Name\",\"Amount\"],[1,\"Total\",30.00],[2,\"alice\",10.00],[3,\"bob\",10.00]]");
+        Ledger ledger = Ledger.load("LEDGER2");
+
+        ChangeSet changes = ledger.changes();
+        assertEquals(List.of(
+                "/db6/UpdateData?table=LEDGER2&where=Member1=%27alice%27%20AND%20Member2=%27carol%27&Amount=10.00",
+                "/db1/InsertData?table=LEDGER2&params=(Name,Amount)&info=(%27carol%27,10.00)"), changes.getWrites());
+    }
+
+    @Test
+    void expenseQueuesJournalRowsThenChangedBalances() {
+        group("LEDGER3", "10.00");
+        Ledger ledger = Ledger.load("LEDGER3");
+
+        ledger.addExpense("carol", 900, "Taxi", "T3", List.of("alice", "bob", "carol"), new long[] {300, 300, 300});
+        assertEquals(700, ledger.balanceBetween("alice", "carol"));
+        assertEquals(-300, ledger.balanceBetween("bob", "carol"));
+        assertEquals(3900, ledger.totalSpent());
+
+        List<String> writes = ledger.pendingWrites();
+        assertEquals(List.of(
+                "/db5/InsertData?table=LEDGER3&params=(payee,amount,reason,Ttype,tid)&info=(%27carol%27,9.00,%27Taxi%27,0,%27T3%27)",
+                "/db8/InsertData?table=LEDGER3&params=(Creator,tID,alice,bob,carol)&info=(%27carol%27,%27T3%27,3.00,3.00,-6.00)",
+                "/db6/UpdateData?table=LEDGER3&where=Member1=%27alice%27%20AND%20Member2=%27carol%27&Amount=7.00",
+                "/db6/UpdateData?table=LEDGER3&where=Member1=%27bob%27%20AND%20Member2=%27carol%27&Amount=-3.00",
+                "/db1/UpdateData?table=LEDGER3&where=Name=%27alice%27&Amount=13.00",
+                "/db1/UpdateData?table=LEDGER3&where=Name=%27bob%27&Amount=13.00",
+                "/db1/UpdateData?table=LEDGER3&where=Name=%27carol%27&Amount=13.00",
+                "/db1/UpdateData?table=LEDGER3&where=Name=%27Total%27&Amount=39.00"), writes);
+    }
+
+    @Test
+    void failedSaveUndoesTheJournalWrites() {
+        group("LEDGER4", "10.00");
+        Ledger ledger = Ledger.load("LEDGER4");
+        ledger.addSettlement("carol", "alice", 1000, "carol", "T3");
+        assertEquals(0, ledger.balanceBetween("alice", "carol"));
+        assertEquals(3000, ledger.totalSpent());
+
+        backend.fail("/db6/UpdateData", 500);
+        assertThrows(ApiException.class, ledger::persist);
+
+        List<String> writes = backend.writes();
+        assertTrue(writes.contains("/db5/DeleteRowData?table=LEDGER4&tID=T3"), writes::toString);
+        assertTrue(writes.contains("/db8/DeleteRowData?table=LEDGER4&tID=T3"), writes::toString);
+        assertFalse(ledger.pendingWrites().isEmpty());
+    }
+
+    @Test
+    void removedTransactionIsReversedAndItsRowsDeleted() {
+        group("LEDGER5", "10.00");
+        Ledger ledger = Ledger.load("LEDGER5");
+
+        assertFalse(ledger.removeTransaction("T9"));
+        assertTrue(ledger.removeTransaction("T1"));
+        assertEquals(0, ledger.balanceBetween("alice", "carol"));
+        assertEquals(-1000, ledger.balanceBetween("alice", "bob"));
+        assertEquals(0, ledger.totalSpent());
+
+        List<String> writes = ledger.pendingWrites();
+        assertEquals("/db5/DeleteRowData?table=LEDGER5&tID=T1", writes.get(0));
+        assertEquals("/db8/DeleteRowData?table=LEDGER5&tID=T1", writes.get(1));
+        assertTrue(writes.contains("/db1/UpdateData?table=LEDGER5&where=Name=%27Total%27&Amount=0.00"));
+    }
+
+    @Test
+    void persistedLedgerHasNothingPending() {
+        group("LEDGER6", "10.00");
+        Ledger ledger = Ledger.load("LEDGER6");
+        ledger.addSettlement("carol", "alice", 1000, "carol", ledger.newTransactionId());
+
+        assertTrue(ledger.persist() > 0);
+        assertTrue(ledger.pendingWrites().isEmpty());
+        assertEquals(0, ledger.persist());
+    }
+
+    @Test
+    void newTransactionIdsAreUnused() {
+        group("LEDGER7", "10.00");
+        Ledger ledger = Ledger.load("LEDGER7");
+        String tid = ledger.newTransactionId();
+        assertFalse(tid.equals("T1") || tid.equals("T2"));
+    }
+
+    @Test
+    void unknownMembersAreRejected() {
+        group("LEDGER8", "10.00");
+        Ledger ledger = Ledger.load("LEDGER8");
+        assertThrows(IllegalArgumentException.class, () -> ledger.balanceBetween("alice", "dave"));
+        assertThrows(IllegalArgumentException.class,
+                () -> ledger.addExpense("dave", 100, "Snacks", "T3", List.of("alice"), new long[] {100}));
+    }
+
+    @Test
+    void leaveRowMovesTheLeavingMembersBalancesOntoTheOthers() {
+        String net = "[[\"id\",\"Member1\",\"Amount\",\"Member2\"],[1,\"A\",0.00,\"*group*\"]]";
+        backend.table("db4", "LEAVE1", "[\"A\",\"B\",\"L\",\"C\"]").table("db6", "LEAVE1", net);
+        // A owes L 10 and C owes L 3; L owes B 10 and C 3; B owes A 5. L's net position is 0
+        Ledger ledger = Ledger.replay("LEAVE1", new String[][] {
+                {"id", "Creator", "tID", "A", "B", "L", "C"},
+                {"1", "L", "T1", "10.00", "0", "0", "3.00"},
+                {"2", "B", "T2", "0", "0", "10.00", "0"},
+                {"3", "C", "T3", "0", "0", "3.00", "0"},
+                {"4", "A", "T4", "0", "5.00", "0", "0"}});
+        assertTrue(ledger.hasNetBalances());
+        assertTrue(ledger.isSettled("L"));
+        assertEquals(500, ledger.netBalance("B"));
+
+        String row = ledger.leaveRow("L", "NA-X");
+        assertEquals("/db8/InsertData?table=LEAVE1&params=(Creator,tID,A,B,L,C)"
+                + "&info=(%27A%27,%27NA-X%27,0.00,-10.00,0.00,0.00)", row);
+
+        // After the leave: L's column is gone, the row above is appended
+        backend.table("db4", "LEAVE1", "[\"A\",\"B\",\"C\"]");
+        Ledger after = Ledger.replay("LEAVE1", new String[][] {
+                {"id", "Creator", "tID", "A", "B", "C"},
+                {"1", "L", "T1", "10.00", "0", "3.00"},
+                {"2", "B", "T2", "0", "0", "0"},
+                {"3", "C", "T3", "0", "0", "0"},
+                {"4", "A", "T4", "0", "5.00", "0"},
+                {"5", "A", "NA-X", "0", "-10.00", "0"}});
+        for (String member : List.of("A", "B", "C")) {
+            assertEquals(ledger.netBalance(member), after.netBalance(member), member);
+        }
+    }
+
+    @Test
+    void leaveRowIsOnlyForSettledMembersWithBalancesLeft() {
+        group("LEAVE2", "10.00");
+        Ledger ledger = Ledger.load("LEAVE2");
+        assertThrows(IllegalStateException.class, () -> ledger.leaveRow("carol", "NA-X"));
+        // Pairs: a settled member owes nobody, so there is nothing to move
+        assertNull(ledger.leaveRow("bob", "NA-X"));
+    }
+}
@@ -0,0 +1,102 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for Money: parsing and formatting cents, and splits that always add up to the
+ * amount (largest remainder rounding).
+ */
+class MoneyTest {
+
+    @Test
+    void parseReadsUpToTwoDecimalsExactly() {
+        assertEquals(1200, Money.parse("12"));
+        assertEquals(-350, Money.parse("-3.5"));
+        assertEquals(75, Money.parse(".75"));
+        assertEquals(105, Money.parse("+1.05"));
+        assertEquals(1205, Money.parse(" 12.05 "));
+        assertEquals(Money.PERCENT, Money.parse("100"));
+    }
+
+    @Test
+    void parseRoundsHalfAwayFromZeroBeyondTwoDecimals() {
+        assertEquals(13, Money.parse("0.125"));
+        assertEquals(12, Money.parse("0.1249"));
+        assertEquals(-13, Money.parse("-0.125"));
+        assertEquals(100, Money.parse("0.995"));
+        assertEquals(1000000000, Money.parse("1.0E7"));
+    }
+
+    @Test
+    void parseRejectsWhatIsNotANumber() {
+        for (String text : new String[] {"", "-", ".", "abc", "1.2.3", "12,50"}) {
+            assertThrows(NumberFormatException.class, () -> Money.parse(text), text);
+        }
+    }
+
+    @Test
+    void parseOrZeroTreatsMissingCellsAsZero() {
+        assertEquals(0, Money.parseOrZero(null));
+        assertEquals(0, Money.parseOrZero(""));
+        assertEquals(0, Money.parseOrZero("null"));
+        assertEquals(0, Money.parseOrZero("n/a"));
+        assertEquals(-1, Money.parseOrZero("-0.01"));
+    }
+
+    @Test
+    void formatAlwaysShowsTwoDecimals() {
+        assertEquals("12.50", Money.format(1250));
+        assertEquals("-0.05", Money.format(-5));
+        assertEquals("0.00", Money.format(0));
+        assertEquals("1000.05", Money.format(100005));
+        for (long cents : new long[] {1, -1, 99, -100, 123456789}) {
+            assertEquals(cents, Money.parse(Money.format(cents)));
+        }
+    }
+
+    @Test
+    void splitEvenlyGivesTheExtraCentsToTheFirstShares() {
+        assertArrayEquals(new long[] {3334, 3333, 3333}, Money.splitEvenly(10000, 3));
+        assertArrayEquals(new long[] {-34, -33, -33}, Money.splitEvenly(-100, 3));
+        assertArrayEquals(new long[] {1, 1, 0}, Money.splitEvenly(2, 3));
+        assertThrows(IllegalArgumentException.class, () -> Money.splitEvenly(100, 0));
+    }
+
+    @Test
+    void allocateGivesLeftoverCentsToTheLargestRemainders() {
+        // 33.33%, 33.33%, 33.34% of 10.00: 333.3, 333.3, 333.4 -> the last share gets the cent
+        assertArrayEquals(new long[] {333, 333, 334}, Money.allocate(1000, new long[] {3333, 3333, 3334}));
+        // Equal remainders: lower index first
+        assertArrayEquals(new long[] {34, 33, 33}, Money.allocate(100, new long[] {1, 1, 1}));
+        assertArrayEquals(new long[] {-333, -333, -334}, Money.allocate(-1000, new long[] {3333, 3333, 3334}));
+        assertArrayEquals(new long[] {0, 500}, Money.allocate(500, new long[] {0, 7}));
+    }
+
+    @Test
+    void allocateRejectsNegativeOrZeroWeights() {
+        assertThrows(IllegalArgumentException.class, () -> Money.allocate(100, new long[] {1, -1}));
+        assertThrows(IllegalArgumentException.class, () -> Money.allocate(100, new long[] {0, 0}));
+    }
+
+    @Test
+    void sharesAlwaysAddUpToTheAmount() {
+        Random random = new Random(7);
+        for (int round = 0; round < 500; round++) {
+            long total = random.nextInt(2000001) - 1000000;
+            long[] weights = new long[1 + random.nextInt(12)];
+            for (int i = 0; i < weights.length; i++) {
+                weights[i] = random.nextInt(10001);
+            }
+            weights[0]++;
+            assertEquals(total, Arrays.stream(Money.allocate(total, weights)).sum());
+            assertEquals(total, Arrays.stream(Money.splitEvenly(total, weights.length)).sum());
+        }
+    }
+}
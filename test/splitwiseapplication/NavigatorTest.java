@@ -0,0 +1,114 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import java.awt.GraphicsEnvironment;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for Navigator against FakeBackend: one MainPage per (user, group), dropped by
+ * forget() and clear(), and the least recently shown one evicted beyond SCREENS.
+ *
+ * Needs a display (MainPage builds a frame); skipped on a headless JVM.
+ */
+class NavigatorTest {
+
+    private static FakeBackend backend;
+
+    @BeforeAll
+    static void startBackend() {
+        assumeFalse(GraphicsEnvironment.isHeadless(), "no display");
+        backend = FakeBackend.get();
+    }
+
+    @BeforeEach
+    void resetBackend() throws Exception {
+        backend.reset();
+        onEdt(() -> {
+            Navigator.clear();
+            return null;
+        });
+    }
+
+    @AfterEach
+    void dropPages() throws Exception {
+        onEdt(() -> {
+            Navigator.clear();
+            return null;
+        });
+    }
+
+    /**
+     * Internal helper method - Runs a call on the event dispatch thread, as the screens do.
+     */
+    private static <T> T onEdt(Callable<T> call) throws Exception {
+        AtomicReference<T> result = new AtomicReference<>();
+        AtomicReference<Exception> failure = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                result.set(call.call());
+            } catch (Exception e) {
+                failure.set(e);
+            }
+        });
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return result.get();
+    }
+
+    @Test
+    void pageIsKeptPerUserAndGroup() throws Exception {
+        MainPage page = onEdt(() -> Navigator.mainPage("alice", "NAV1"));
+        assertSame(page, onEdt(() -> Navigator.mainPage("alice", "NAV1")));
+        assertNotSame(page, onEdt(() -> Navigator.mainPage("bob", "NAV1")));
+        assertNotSame(page, onEdt(() -> Navigator.mainPage("alice", "NAV2")));
+    }
+
+    @Test
+    void forgetDisposesThePage() throws Exception {
+        MainPage page = onEdt(() -> Navigator.mainPage("alice", "NAV3"));
+        assertTrue(page.frame.isDisplayable());
+        onEdt(() -> {
+            Navigator.forget("alice", "NAV3");
+            return null;
+        });
+        assertFalse(page.frame.isDisplayable());
+        assertNotSame(page, onEdt(() -> Navigator.mainPage("alice", "NAV3")));
+    }
+
+    @Test
+    void leastRecentlyShownPageIsEvicted() throws Exception {
+        List<MainPage> pages = new ArrayList<>();
+        for (int i = 0; i < Navigator.SCREENS; i++) {
+            String gcode = "NAV_LRU" + i;
+            pages.add(onEdt(() -> Navigator.mainPage("alice", gcode)));
+        }
+        // Showing the first again makes the second the least recently shown
+        onEdt(() -> Navigator.mainPage("alice", "NAV_LRU0"));
+        onEdt(() -> Navigator.mainPage("alice", "NAV_LRU_NEW"));
+
+        assertTrue(pages.get(0).frame.isDisplayable());
+        assertFalse(pages.get(1).frame.isDisplayable());
+        assertSame(pages.get(0), onEdt(() -> Navigator.mainPage("alice", "NAV_LRU0")));
+
+        onEdt(() -> {
+            Navigator.clear();
+            return null;
+        });
+        assertFalse(pages.get(0).frame.isDisplayable());
+    }
+}
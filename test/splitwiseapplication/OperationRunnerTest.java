@@ -0,0 +1,131 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for OperationRunner: which steps are compensated after a failure, in which
+ * order, and what happens to a step whose outcome is unknown (a timeout).
+ */
+class OperationRunnerTest {
+
+    private static FakeBackend backend;
+
+    @BeforeAll
+    static void startBackend() {
+        backend = FakeBackend.get();
+    }
+
+    @BeforeEach
+    void resetBackend() {
+        backend.reset();
+    }
+
+    @Test
+    void stepsRunInOrderWithoutUndo() {
+        OperationRunner runner = new OperationRunner("three steps")
+                .step("/db4/InsertData?table=OR1&n=1", "/db4/DeleteRowData?table=OR1&n=1")
+                .step("/db8/AddColumn?table=OR1&n=2")
+                .step("/db7/InsertData?table=OR1&n=3", "/db7/DeleteRowData?table=OR1&n=3");
+        assertEquals(3, runner.size());
+        runner.run();
+        assertEquals(List.of("/db4/InsertData?table=OR1&n=1", "/db8/AddColumn?table=OR1&n=2",
+                "/db7/InsertData?table=OR1&n=3"), backend.writes());
+    }
+
+    @Test
+    void failedStepUndoesTheStepsBeforeItLastFirst() {
+        backend.fail("/db7/", 500);
+        ApiException failure = assertThrows(ApiException.class, new OperationRunner("undo order")
+                .step("/db4/InsertData?table=OR2&n=1", "/db4/DeleteRowData?table=OR2&n=1")
+                .step("/db8/AddColumn?table=OR2&n=2", "/db8/DeleteColumn?table=OR2&n=2", "/db8/UpdateData?table=OR2&n=2")
+                .step("/db7/InsertData?table=OR2&n=3", "/db7/DeleteRowData?table=OR2&n=3")
+                .step("/db1/InsertData?table=OR2&n=4", "/db1/DeleteRowData?table=OR2&n=4")::run);
+        assertEquals(500, failure.getStatusCode());
+        assertEquals(List.of("/db4/InsertData?table=OR2&n=1", "/db8/AddColumn?table=OR2&n=2",
+                "/db7/InsertData?table=OR2&n=3", "/db8/DeleteColumn?table=OR2&n=2", "/db8/UpdateData?table=OR2&n=2",
+                "/db4/DeleteRowData?table=OR2&n=1"), backend.writes());
+    }
+
+    @Test
+    void failedUndoIsAttachedAndTheOthersStillRun() {
+        backend.fail("/db7/", 500).fail("/db8/DeleteColumn", 503);
+        ApiException failure = assertThrows(ApiException.class, new OperationRunner("failed undo")
+                .step("/db4/InsertData?table=OR3&n=1", "/db4/DeleteRowData?table=OR3&n=1")
+                .step("/db8/AddColumn?table=OR3&n=2", "/db8/DeleteColumn?table=OR3&n=2")
+                .step("/db7/InsertData?table=OR3&n=3")::run);
+        assertEquals(500, failure.getStatusCode());
+        assertEquals(1, failure.getSuppressed().length);
+        assertTrue(backend.writes().contains("/db4/DeleteRowData?table=OR3&n=1"));
+    }
+
+    @Test
+    void timedOutStepWithDeleteInverseIsUndoneToo() {
+        backend.stall("/db7/");
+        ApiException failure = assertThrows(ApiException.class, new OperationRunner("timeout, safe undo")
+                .step("/db4/InsertData?table=OR4&n=1", "/db4/DeleteRowData?table=OR4&n=1")
+                .step("/db7/InsertData?table=OR4&n=2", "/db7/DeleteRowData?table=OR4&n=2")::run);
+        assertEquals(ApiException.Reason.TIMEOUT, failure.getReason());
+        assertTrue(failure.mayHaveBeenApplied());
+        assertFalse(failure.getMessage().contains("unknown"), failure.getMessage());
+        List<String> writes = backend.writes();
+        assertTrue(writes.contains("/db7/DeleteRowData?table=OR4&n=2"), writes::toString);
+        assertTrue(writes.indexOf("/db7/DeleteRowData?table=OR4&n=2") < writes.indexOf("/db4/DeleteRowData?table=OR4&n=1"),
+                writes::toString);
+    }
+
+    @Test
+    void timedOutStepThatCannotBeUndoneSafelyIsReportedAsUnknown() {
+        backend.stall("/db7/");
+        ApiException failure = assertThrows(ApiException.class, new OperationRunner("timeout, unsafe undo")
+                .step("/db4/InsertData?table=OR5&n=1", "/db4/DeleteRowData?table=OR5&n=1")
+                .step("/db7/DeleteRowData?table=OR5&n=2", "/db7/InsertData?table=OR5&n=2")::run);
+        assertTrue(failure.getMessage().contains("it is unknown whether db7/DeleteRowData was applied"),
+                failure.getMessage());
+        assertEquals(ApiException.Reason.TIMEOUT, failure.getReason());
+        List<String> writes = backend.writes();
+        assertFalse(writes.contains("/db7/InsertData?table=OR5&n=2"), writes::toString);
+        assertTrue(writes.contains("/db4/DeleteRowData?table=OR5&n=1"), writes::toString);
+    }
+
+    @Test
+    void timedOutStepWithoutInverseIsReportedAsUnknown() {
+        backend.stall("/db8/");
+        ApiException failure = assertThrows(ApiException.class,
+                new OperationRunner("timeout, no undo").step("/db8/DeleteColumn?table=OR6&n=1")::run);
+        assertTrue(failure.getMessage().contains("it is unknown whether"), failure.getMessage());
+    }
+
+    @Test
+    void independentStepsUndoEveryStepThatSucceeded() {
+        backend.fail("/db6/", 500);
+        OperationRunner runner = new OperationRunner("independent")
+                .step("/db5/InsertData?table=OR7&n=1", "/db5/DeleteRowData?table=OR7&n=1")
+                .step("/db6/UpdateData?table=OR7&n=2", "/db6/UpdateData?table=OR7&n=0")
+                .step("/db1/UpdateData?table=OR7&n=3", "/db1/UpdateData?table=OR7&n=0");
+        ApiException failure = assertThrows(ApiException.class, runner::runIndependent);
+        assertEquals(500, failure.getStatusCode());
+        List<String> writes = backend.writes();
+        assertTrue(writes.contains("/db5/DeleteRowData?table=OR7&n=1"), writes::toString);
+        assertTrue(writes.contains("/db1/UpdateData?table=OR7&n=0"), writes::toString);
+        assertFalse(writes.contains("/db6/UpdateData?table=OR7&n=0"), writes::toString);
+    }
+
+    @Test
+    void errorResponsesWereNotApplied() {
+        ApiException status = new ApiException(ApiException.Reason.HTTP_STATUS, 500, "db6/UpdateData", "failed", null);
+        ApiException timeout = new ApiException(ApiException.Reason.TIMEOUT, 0, "db6/UpdateData", "timed out", null);
+        assertFalse(status.mayHaveBeenApplied());
+        assertTrue(timeout.mayHaveBeenApplied());
+        assertSame(ApiException.Reason.TIMEOUT, timeout.getReason());
+    }
+}
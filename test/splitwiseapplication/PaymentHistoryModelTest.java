@@ -0,0 +1,181 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for PaymentHistoryModel against FakeBackend: pages around PaymentHistoryModel.PAGE
+ * rows, the header row, the deletable() filter, placeholders, and a retried attempt
+ * dropping the rows of the earlier one.
+ */
+class PaymentHistoryModelTest {
+
+    private static final String HEADER = "[\"id\",\"payee\",\"amount\",\"reason\",\"Ttype\",\"tid\"]";
+
+    private static FakeBackend backend;
+
+    @BeforeAll
+    static void startBackend() {
+        backend = FakeBackend.get();
+    }
+
+    @BeforeEach
+    void resetBackend() {
+        backend.reset();
+    }
+
+    /**
+     * Internal helper method - db5 body with a header and count expenses of 1.00 to
+     * count.00, every third of them (from the third) a settlement.
+     */
+    private static String history(int count) {
+        StringBuilder json = new StringBuilder("[").append(HEADER);
+        for (int i = 1; i <= count; i++) {
+            json.append(",[").append(i).append(",\"alice\",").append(i).append(".00,\"Dinner ").append(i)
+                    .append("\",").append(i % 3 == 0 ? 1 : 0).append(",\"T").append(i).append("\"]");
+        }
+        return json.append("]").toString();
+    }
+
+    /**
+     * Internal helper method - Runs a read of the model on the event dispatch thread,
+     * after every page handed to it so far.
+     */
+    private static <T> T onEdt(Callable<T> read) throws InterruptedException, InvocationTargetException {
+        AtomicReference<T> result = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> {
+            try {
+                result.set(read.call());
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        return result.get();
+    }
+
+    /**
+     * Internal helper method - Loads a group's history into the model and waits until
+     * the event dispatch thread has it.
+     */
+    private static PaymentHistoryModel load(PaymentHistoryModel model, String gcode)
+            throws InterruptedException, InvocationTargetException {
+        ApiCaller.await(model.load(gcode));
+        onEdt(() -> null);
+        return model;
+    }
+
+    @Test
+    void pageBoundaries() throws Exception {
+        int page = PaymentHistoryModel.PAGE;
+        for (int count : new int[] {1, page - 1, page, page + 1, 2 * page + 1}) {
+            String gcode = "PH" + count;
+            backend.table("db5", gcode, history(count));
+            PaymentHistoryModel model = load(PaymentHistoryModel.all(), gcode);
+            assertEquals(count, (int) onEdt(model::rows), "" + count);
+            assertEquals(count, (int) onEdt(model::getSize), "" + count);
+            assertEquals(1, onEdt(() -> model.getRow(0).getId()), "" + count);
+            assertEquals(count, onEdt(() -> model.getRow(count - 1).getId()), "" + count);
+            assertEquals("T" + count, onEdt(() -> model.getRow(count - 1).getTid()), "" + count);
+            assertNull(onEdt(() -> model.getRow(count)));
+        }
+    }
+
+    @Test
+    void listenersSeeThePlaceholderReplacedThenRowsAdded() throws Exception {
+        int page = PaymentHistoryModel.PAGE;
+        backend.table("db5", "PH_EVENTS", history(page + 1));
+        PaymentHistoryModel model = PaymentHistoryModel.all();
+        List<String> events = new ArrayList<>();
+        model.addListDataListener(new ListDataListener() {
+            @Override
+            public void intervalAdded(ListDataEvent e) {
+                events.add("added " + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void intervalRemoved(ListDataEvent e) {
+                events.add("removed " + e.getIndex0() + "-" + e.getIndex1());
+            }
+
+            @Override
+            public void contentsChanged(ListDataEvent e) {
+                events.add("changed " + e.getIndex0() + "-" + e.getIndex1());
+            }
+        });
+        assertEquals(ScreenLoader.LOADING, onEdt(() -> model.getElementAt(0)));
+
+        load(model, "PH_EVENTS");
+        assertEquals(List.of("changed 0-0", "added 1-" + (page - 1), "added " + page + "-" + page), events);
+        assertEquals("alice added a payment of $1.00 for Dinner 1", onEdt(() -> model.getElementAt(0)));
+        assertEquals("alice paid $3.00 to Dinner 3", onEdt(() -> model.getElementAt(2)));
+    }
+
+    @Test
+    void headerRowIsSkippedAndSetsTheColumns() throws Exception {
+        // Columns in another order than usual
+        backend.table("db5", "PH_HEADER", "[[\"tid\",\"Ttype\",\"reason\",\"amount\",\"payee\",\"id\"],"
+                + "[\"T1\",0,\"Taxi\",12.50,\"bob\",7]]");
+        PaymentHistoryModel model = load(PaymentHistoryModel.all(), "PH_HEADER");
+        assertEquals(1, (int) onEdt(model::rows));
+        assertEquals("bob added a payment of $12.50 for Taxi", onEdt(() -> model.getElementAt(0)));
+        assertEquals(7, onEdt(() -> model.getRow(0).getId()));
+
+        // Without a header the first row is data, in the usual column order
+        backend.table("db5", "PH_NOHEADER", "[[1,\"alice\",5.00,\"Lunch\",0,\"T1\"],[2,\"bob\",5.00,\"alice\",1,\"T2\"]]");
+        PaymentHistoryModel plain = load(PaymentHistoryModel.all(), "PH_NOHEADER");
+        assertEquals(2, (int) onEdt(plain::rows));
+        assertEquals("alice added a payment of $5.00 for Lunch", onEdt(() -> plain.getElementAt(0)));
+    }
+
+    @Test
+    void deletableListsOnlyExpensesAndSettlements() throws Exception {
+        backend.table("db5", "PH_DEL", "[" + HEADER + ",[1,\"alice\",30.00,\"Dinner\",0,\"T1\"],"
+                + "[2,\"carol\",0,\"left\",2,\"NA\"],[3,\"bob\",10.00,\"alice\",1,\"T2\"],[4,\"dave\",0,\"\",2,\"NA-X\"]]");
+        PaymentHistoryModel all = load(PaymentHistoryModel.all(), "PH_DEL");
+        PaymentHistoryModel deletable = load(PaymentHistoryModel.deletable(), "PH_DEL");
+        assertEquals(4, (int) onEdt(all::rows));
+        assertEquals("carol left the group", onEdt(() -> all.getElementAt(1)));
+        assertEquals(2, (int) onEdt(deletable::rows));
+        assertEquals("T1", onEdt(() -> deletable.getRow(0).getTid()));
+        assertEquals("T2", onEdt(() -> deletable.getRow(1).getTid()));
+
+        backend.table("db5", "PH_ONLYLEFT", "[" + HEADER + ",[1,\"carol\",0,\"left\",2,\"NA\"]]");
+        PaymentHistoryModel none = load(PaymentHistoryModel.deletable(), "PH_ONLYLEFT");
+        assertEquals(1, (int) onEdt(none::getSize));
+        assertEquals(PaymentHistoryModel.EMPTY, onEdt(() -> none.getElementAt(0)));
+        assertNull(onEdt(() -> none.getRow(0)));
+    }
+
+    @Test
+    void retriedAttemptDropsTheRowsOfTheEarlierOne() throws Exception {
+        int page = PaymentHistoryModel.PAGE;
+        PaymentHistoryModel model = PaymentHistoryModel.all();
+        // A first attempt delivers more than a page, then fails
+        model.start();
+        model.row(new String[] {"id", "payee", "amount", "reason", "Ttype", "tid"});
+        for (int i = 1; i <= page + 5; i++) {
+            model.row(new String[] {"" + (100 + i), "zed", "1.00", "stale", "0", "S" + i});
+        }
+        assertEquals(page, (int) onEdt(model::rows));
+
+        // The retry (here: the next load) starts over
+        backend.table("db5", "PH_RETRY", history(3));
+        load(model, "PH_RETRY");
+        assertEquals(3, (int) onEdt(model::rows));
+        assertEquals(1, onEdt(() -> model.getRow(0).getId()));
+        assertEquals("alice added a payment of $1.00 for Dinner 1", onEdt(() -> model.getElementAt(0)));
+    }
+}
@@ -0,0 +1,95 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ResponseCache: expiry, LRU eviction, invalidation by table, the generation
+ * check that keeps stale in-flight reads out, and the copies handed in and out.
+ */
+class ResponseCacheTest {
+
+    private static final String[][] ROWS = {{"id", "Name"}, {"1", "alice"}};
+
+    @Test
+    void storedResponsesAreReturnedAsCopies() {
+        ResponseCache cache = new ResponseCache(60_000, 8);
+        String[][] rows = {{"id", "Name"}, {"1", "alice"}};
+        cache.put("/db4/GetRowData?table=G", "db4/G", rows, cache.generation("db4/G"));
+        rows[1][1] = "changed";
+
+        String[][] hit = (String[][]) cache.get("/db4/GetRowData?table=G");
+        assertArrayEquals(ROWS, hit);
+        hit[1][1] = "changed";
+        assertArrayEquals(ROWS, (String[][]) cache.get("/db4/GetRowData?table=G"));
+
+        cache.put("/db4/GetSpecificData?table=G", "db4/G", new String[] {"alice"}, cache.generation("db4/G"));
+        assertArrayEquals(new String[] {"alice"}, (String[]) cache.get("/db4/GetSpecificData?table=G"));
+        assertNull(cache.get("/db4/GetRowData?table=H"));
+    }
+
+    @Test
+    void zeroTtlCachesNothingAndEntriesExpire() throws InterruptedException {
+        ResponseCache off = new ResponseCache(0, 8);
+        off.put("a", "db4/G", ROWS, 0);
+        assertNull(off.get("a"));
+
+        ResponseCache shortLived = new ResponseCache(20, 8);
+        shortLived.put("a", "db4/G", ROWS, 0);
+        assertNotNull(shortLived.get("a"));
+        Thread.sleep(40);
+        assertNull(shortLived.get("a"));
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        ResponseCache cache = new ResponseCache(60_000, 2);
+        cache.put("a", "db4/G", ROWS, 0);
+        cache.put("b", "db4/G", ROWS, 0);
+        cache.get("a");
+        cache.put("c", "db4/G", ROWS, 0);
+        assertNotNull(cache.get("a"));
+        assertNull(cache.get("b"));
+        assertNotNull(cache.get("c"));
+    }
+
+    @Test
+    void invalidateDropsOnlyThatTableAndRejectsReadsInFlight() {
+        ResponseCache cache = new ResponseCache(60_000, 8);
+        cache.put("g", "db5/G", ROWS, 0);
+        cache.put("h", "db5/H", ROWS, 0);
+        long before = cache.generation("db5/G");
+
+        cache.invalidate("db5/G");
+        assertNull(cache.get("g"));
+        assertNotNull(cache.get("h"));
+        assertEquals(before + 1, cache.generation("db5/G"));
+        assertEquals(0, cache.generation("db5/H"));
+
+        // A read sent before the write would put pre-write data back
+        cache.put("g", "db5/G", ROWS, before);
+        assertNull(cache.get("g"));
+        cache.put("g", "db5/G", ROWS, cache.generation("db5/G"));
+        assertNotNull(cache.get("g"));
+    }
+
+    @Test
+    void clearKeepsTheGenerations() {
+        ResponseCache cache = new ResponseCache(60_000, 8);
+        cache.put("g", "db5/G", ROWS, 0);
+        cache.invalidate("db5/G");
+        cache.invalidate("db5/G");
+        cache.put("g", "db5/G", ROWS, 2);
+
+        cache.clear();
+        assertNull(cache.get("g"));
+        // ApiCaller.tableGeneration() hands these out as counters that only grow
+        assertEquals(2, cache.generation("db5/G"));
+        cache.put("g", "db5/G", ROWS, 0);
+        assertNull(cache.get("g"));
+    }
+}
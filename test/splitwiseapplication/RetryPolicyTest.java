@@ -0,0 +1,86 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for RetryPolicy: which failures of reads and writes are retried, the attempt
+ * limit, and the bounds of the full-jitter backoff.
+ */
+class RetryPolicyTest {
+
+    /**
+     * Internal helper method - Failure of a db6 call for the given reason and status.
+     */
+    private static ApiException failure(ApiException.Reason reason, int status) {
+        return new ApiException(reason, status, "db6/GetRowData", "failed", null);
+    }
+
+    @Test
+    void readsAreRetriedOnTransientFailuresOnly() {
+        RetryPolicy policy = new RetryPolicy(3, 200, 2000);
+        assertTrue(policy.shouldRetry(failure(ApiException.Reason.CONNECT, 0), true, 1));
+        assertTrue(policy.shouldRetry(failure(ApiException.Reason.TIMEOUT, 0), true, 1));
+        assertTrue(policy.shouldRetry(failure(ApiException.Reason.NETWORK, 0), true, 1));
+        for (int status : new int[] {429, 502, 503, 504}) {
+            assertTrue(policy.shouldRetry(failure(ApiException.Reason.HTTP_STATUS, status), true, 1), "" + status);
+        }
+        for (int status : new int[] {400, 404, 500}) {
+            assertFalse(policy.shouldRetry(failure(ApiException.Reason.HTTP_STATUS, status), true, 1), "" + status);
+        }
+        assertFalse(policy.shouldRetry(failure(ApiException.Reason.MALFORMED_RESPONSE, 0), true, 1));
+        assertFalse(policy.shouldRetry(failure(ApiException.Reason.CIRCUIT_OPEN, 0), true, 1));
+    }
+
+    @Test
+    void writesAreRetriedOnlyWhenTheyNeverReachedTheServer() {
+        RetryPolicy policy = new RetryPolicy(3, 200, 2000);
+        assertTrue(policy.shouldRetry(failure(ApiException.Reason.CONNECT, 0), false, 1));
+        assertFalse(policy.shouldRetry(failure(ApiException.Reason.TIMEOUT, 0), false, 1));
+        assertFalse(policy.shouldRetry(failure(ApiException.Reason.NETWORK, 0), false, 1));
+        assertFalse(policy.shouldRetry(failure(ApiException.Reason.HTTP_STATUS, 503), false, 1));
+    }
+
+    @Test
+    void attemptsStopAtTheLimit() {
+        ApiException connect = failure(ApiException.Reason.CONNECT, 0);
+        RetryPolicy policy = new RetryPolicy(3, 200, 2000);
+        assertTrue(policy.shouldRetry(connect, true, 2));
+        assertFalse(policy.shouldRetry(connect, true, 3));
+        // One attempt means no retries at all; fewer is treated as one
+        assertFalse(new RetryPolicy(1, 200, 2000).shouldRetry(connect, true, 1));
+        assertFalse(new RetryPolicy(0, 200, 2000).shouldRetry(connect, true, 1));
+    }
+
+    @Test
+    void fullJitterStaysBetweenZeroAndTheCappedBackoff() {
+        RetryPolicy policy = new RetryPolicy(10, 200, 2000);
+        long[] ceilings = {200, 400, 800, 1600, 2000, 2000};
+        for (int attempt = 1; attempt <= ceilings.length; attempt++) {
+            long smallest = Long.MAX_VALUE;
+            long largest = 0;
+            for (int i = 0; i < 2000; i++) {
+                long delay = policy.delayMillis(attempt);
+                assertTrue(delay >= 0 && delay <= ceilings[attempt - 1], attempt + ": " + delay);
+                smallest = Math.min(smallest, delay);
+                largest = Math.max(largest, delay);
+            }
+            // Spread over the whole range, not a fixed backoff
+            assertTrue(smallest < ceilings[attempt - 1] / 4, attempt + ": " + smallest);
+            assertTrue(largest > ceilings[attempt - 1] * 3 / 4, attempt + ": " + largest);
+        }
+        // A very late attempt must not overflow the shift
+        long late = policy.delayMillis(80);
+        assertTrue(late >= 0 && late <= 2000, "" + late);
+    }
+
+    @Test
+    void zeroBaseDelayRetriesImmediately() {
+        RetryPolicy policy = new RetryPolicy(3, 0, 0);
+        assertEquals(0, policy.delayMillis(1));
+        assertEquals(0, policy.delayMillis(2));
+    }
+}
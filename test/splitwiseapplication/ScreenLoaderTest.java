@@ -0,0 +1,95 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+
+import java.awt.Cursor;
+import java.awt.GraphicsEnvironment;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.JFrame;
+import javax.swing.SwingUtilities;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for ScreenLoader: the fetch runs off the event dispatch thread, the result is
+ * shown on it, and disposing the screen cancels the fetch.
+ *
+ * Needs a display (frames cannot be created on a headless JVM); skipped otherwise.
+ */
+class ScreenLoaderTest {
+
+    @BeforeAll
+    static void needsADisplay() {
+        assumeFalse(GraphicsEnvironment.isHeadless(), "no display");
+    }
+
+    @Test
+    void fetchRunsInTheBackgroundAndShowOnTheEventDispatchThread() throws Exception {
+        AtomicReference<JFrame> frame = new AtomicReference<>();
+        SwingUtilities.invokeAndWait(() -> frame.set(new JFrame()));
+        AtomicBoolean fetchedOnEdt = new AtomicBoolean(true);
+        AtomicBoolean shownOnEdt = new AtomicBoolean(false);
+        AtomicReference<String> shown = new AtomicReference<>();
+        CountDownLatch done = new CountDownLatch(1);
+
+        SwingUtilities.invokeAndWait(() -> {
+            ScreenLoader.load(frame.get(), "the test data", () -> {
+                fetchedOnEdt.set(SwingUtilities.isEventDispatchThread());
+                return "rows";
+            }, value -> {
+                shownOnEdt.set(SwingUtilities.isEventDispatchThread());
+                shown.set(value);
+                done.countDown();
+            });
+            assertEquals(Cursor.WAIT_CURSOR, frame.get().getCursor().getType());
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertFalse(fetchedOnEdt.get());
+        assertTrue(shownOnEdt.get());
+        assertEquals("rows", shown.get());
+        SwingUtilities.invokeAndWait(() -> {
+            assertEquals(Cursor.DEFAULT_CURSOR, frame.get().getCursor().getType());
+            frame.get().dispose();
+        });
+    }
+
+    @Test
+    void disposingTheScreenCancelsTheFetch() throws Exception {
+        AtomicReference<JFrame> frame = new AtomicReference<>();
+        // pack() makes the frame displayable, so dispose() fires windowClosed
+        SwingUtilities.invokeAndWait(() -> {
+            frame.set(new JFrame());
+            frame.get().pack();
+        });
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch interrupted = new CountDownLatch(1);
+        AtomicBoolean showCalled = new AtomicBoolean(false);
+        AtomicReference<ScreenLoader<String>> loader = new AtomicReference<>();
+
+        SwingUtilities.invokeAndWait(() -> loader.set(ScreenLoader.load(frame.get(), "the test data", () -> {
+            fetching.countDown();
+            try {
+                Thread.sleep(10_000);
+            } catch (InterruptedException e) {
+                interrupted.countDown();
+                throw e;
+            }
+            return "late";
+        }, value -> showCalled.set(true))));
+
+        assertTrue(fetching.await(5, TimeUnit.SECONDS));
+        SwingUtilities.invokeAndWait(() -> frame.get().dispose());
+        assertTrue(interrupted.await(5, TimeUnit.SECONDS));
+        assertTrue(loader.get().isCancelled());
+        SwingUtilities.invokeAndWait(() -> { });
+        assertFalse(showCalled.get());
+    }
+}
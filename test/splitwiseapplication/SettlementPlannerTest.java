@@ -0,0 +1,101 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for SettlementPlanner: the greedy matching, its tie-breaks and the settle-up
+ * guarantees (every net balance reaches 0 in at most n - 1 payments).
+ */
+class SettlementPlannerTest {
+
+    private static final List<String> MEMBERS = List.of("alice", "bob", "carol", "dave");
+
+    /**
+     * Internal helper method - Plan as "payer -> receiver: amount" strings.
+     */
+    private static List<String> plan(long... cents) {
+        List<String> plan = new ArrayList<>();
+        for (SettlementPlanner.Transfer transfer : SettlementPlanner.plan(MEMBERS.subList(0, cents.length), cents)) {
+            plan.add(transfer.toString());
+        }
+        return plan;
+    }
+
+    @Test
+    void largestDebtorPaysLargestCreditorFirst() {
+        assertEquals(List.of("carol -> alice: 20.00", "bob -> alice: 10.00"), plan(3000, -1000, -2000));
+    }
+
+    @Test
+    void equalAmountsAreMatchedInMemberOrder() {
+        assertEquals(List.of("carol -> alice: 10.00", "dave -> bob: 10.00"), plan(1000, 1000, -1000, -1000));
+        assertEquals(List.of("alice -> bob: 10.00", "carol -> dave: 10.00"), plan(-1000, 1000, -1000, 1000));
+    }
+
+    @Test
+    void remainderCompetesWithTheOtherEntriesByAmountThenOrder() {
+        // carol and dave tie, carol pays first; then alice (10.00 left) and bob tie, alice first
+        assertEquals(List.of("carol -> alice: 20.00", "dave -> alice: 10.00", "dave -> bob: 10.00"),
+                plan(3000, 1000, -2000, -2000));
+    }
+
+    @Test
+    void settledMembersTakePartInNoPayment() {
+        assertEquals(List.of("carol -> alice: 5.00"), plan(500, 0, -500, 0));
+        assertTrue(plan(0, 0, 0).isEmpty());
+    }
+
+    @Test
+    void balancesThatDoNotAddUpToZeroAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> plan(1000, -999));
+    }
+
+    @Test
+    void planSettlesEveryBalanceInAtMostNMinusOnePayments() {
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            int n = 2 + random.nextInt(40);
+            List<String> members = new ArrayList<>();
+            long[] net = new long[n];
+            long sum = 0;
+            for (int i = 0; i < n; i++) {
+                members.add("m" + i);
+                if (i < n - 1) {
+                    net[i] = random.nextInt(20001) - 10000;
+                    sum += net[i];
+                }
+            }
+            net[n - 1] = -sum;
+
+            long[] after = net.clone();
+            List<SettlementPlanner.Transfer> plan = SettlementPlanner.plan(members, net);
+            for (SettlementPlanner.Transfer transfer : plan) {
+                assertTrue(transfer.getCents() > 0);
+                after[members.indexOf(transfer.getPayer())] += transfer.getCents();
+                after[members.indexOf(transfer.getReceiver())] -= transfer.getCents();
+            }
+            assertTrue(plan.size() <= n - 1, "payments: " + plan.size() + " for " + n + " members");
+            for (long value : after) {
+                assertEquals(0, value);
+            }
+        }
+    }
+
+    @Test
+    void transferIsShapedLikeAPairRowOwedToTheReceiver() {
+        SettlementPlanner.Transfer transfer = new SettlementPlanner.Transfer("bob", "alice", 1250);
+        PendingAmountRow row = transfer.asPendingAmount();
+        assertEquals("alice", row.getMember1());
+        assertEquals("bob", row.getMember2());
+        assertEquals(1250, row.amountFor("alice"));
+        assertTrue(transfer.involves("bob"));
+    }
+}
@@ -0,0 +1,109 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for the built-in split modes: their rounding (largest remainder), the 0.1
+ * percentage point tolerance of BY_PERCENTAGES and the messages shown to the user.
+ */
+class StandardSplitTest {
+
+    /**
+     * Internal helper method - Message of the IllegalArgumentException a split throws.
+     */
+    private static String rejection(StandardSplit split, long cost, long... values) {
+        return assertThrows(IllegalArgumentException.class, () -> split.split(cost, values)).getMessage();
+    }
+
+    @Test
+    void modesAreListedInScreenOrder() {
+        List<String> labels = new ArrayList<>();
+        for (StandardSplit split : StandardSplit.values()) {
+            labels.add(split.toString());
+        }
+        assertEquals(List.of("All Equally", "Equally By Some", "Unequally", "By Percentages", "By Shares"), labels);
+        assertEquals(SplitStrategy.Input.PERCENTAGE, StandardSplit.BY_PERCENTAGES.getInput());
+        assertEquals("By Shares", StandardSplit.BY_SHARES.getLabel());
+    }
+
+    @Test
+    void equalSplitsGiveTheOddCentsToTheFirstMembers() {
+        assertArrayEquals(new long[] {334, 333, 333}, StandardSplit.ALL_EQUALLY.split(1000, new long[3]));
+        assertArrayEquals(new long[] {500, 0, 500}, StandardSplit.EQUALLY_BY_SOME.split(1000, new long[] {1, 0, 1}));
+        assertArrayEquals(new long[] {0, 334, 333, 333},
+                StandardSplit.EQUALLY_BY_SOME.split(1000, new long[] {0, 1, 1, 1}));
+        assertEquals("Select at least one member", rejection(StandardSplit.EQUALLY_BY_SOME, 1000, 0, 0));
+    }
+
+    @Test
+    void unequalAmountsMustAddUpToTheCost() {
+        long[] amounts = {700, 0, 300};
+        long[] shares = StandardSplit.UNEQUALLY.split(1000, amounts);
+        assertArrayEquals(amounts, shares);
+        // The shares are a copy: changing them leaves the entered amounts alone
+        shares[0] = 0;
+        assertEquals(700, amounts[0]);
+        assertEquals("The amounts add up to 9.00, not 10.00", rejection(StandardSplit.UNEQUALLY, 1000, 600, 300));
+        assertEquals("Amounts cannot be negative", rejection(StandardSplit.UNEQUALLY, 1000, 1100, -100));
+    }
+
+    @Test
+    void percentagesAreRoundedByLargestRemainder() {
+        // 33.33%, 33.33%, 33.34% of 10.00
+        assertArrayEquals(new long[] {333, 333, 334},
+                StandardSplit.BY_PERCENTAGES.split(1000, new long[] {3333, 3333, 3334}));
+        // 50.5% and 49.5% of 0.01: the cent goes to the larger remainder
+        assertArrayEquals(new long[] {1, 0}, StandardSplit.BY_PERCENTAGES.split(1, new long[] {5050, 4950}));
+    }
+
+    @Test
+    void percentagesMayBeOffByATenthOfAPoint() {
+        // 99.90% and 100.10% are accepted; the shares still add up to the cost
+        assertArrayEquals(new long[] {500, 500}, StandardSplit.BY_PERCENTAGES.split(1000, new long[] {4995, 4995}));
+        assertArrayEquals(new long[] {500, 500}, StandardSplit.BY_PERCENTAGES.split(1000, new long[] {5005, 5005}));
+        assertEquals("The percentages add up to 99.89, not 100",
+                rejection(StandardSplit.BY_PERCENTAGES, 1000, 4989, 5000));
+        assertEquals("The percentages add up to 100.11, not 100",
+                rejection(StandardSplit.BY_PERCENTAGES, 1000, 5011, 5000));
+    }
+
+    @Test
+    void sharesAreProportional() {
+        assertArrayEquals(new long[] {500, 250, 250}, StandardSplit.BY_SHARES.split(1000, new long[] {200, 100, 100}));
+        assertArrayEquals(new long[] {60, 40}, StandardSplit.BY_SHARES.split(100, new long[] {150, 100}));
+        assertEquals("Give at least one member a share", rejection(StandardSplit.BY_SHARES, 1000, 0, 0));
+        assertEquals("Values cannot be negative", rejection(StandardSplit.BY_SHARES, 1000, 200, -100));
+    }
+
+    @Test
+    void everyModeAddsUpToTheCost() {
+        Random random = new Random(3);
+        for (int round = 0; round < 300; round++) {
+            long cost = 1 + random.nextInt(1000000);
+            int n = 1 + random.nextInt(10);
+            long[] weights = new long[n];
+            long[] selection = new long[n];
+            for (int i = 0; i < n; i++) {
+                weights[i] = random.nextInt(500);
+                selection[i] = random.nextInt(2);
+            }
+            weights[0]++;
+            selection[0] = 1;
+            long[] percentages = Money.allocate(Money.PERCENT, weights);
+
+            assertEquals(cost, Arrays.stream(StandardSplit.ALL_EQUALLY.split(cost, new long[n])).sum());
+            assertEquals(cost, Arrays.stream(StandardSplit.EQUALLY_BY_SOME.split(cost, selection)).sum());
+            assertEquals(cost, Arrays.stream(StandardSplit.BY_PERCENTAGES.split(cost, percentages)).sum());
+            assertEquals(cost, Arrays.stream(StandardSplit.BY_SHARES.split(cost, weights)).sum());
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package splitwiseapplication;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests for TableRows and the typed rows decoded through it (PaymentHistoryRow,
+ * PendingAmountRow, AmountSpentRow, TransactionDetailsRow).
+ */
+class TableRowsTest {
+
+    @Test
+    void headerIsDetectedIgnoringCase() {
+        assertNotNull(new TableRows(new String[][] {{"ID", "member1", "Amount", "Member2"}},
+                "id", "Member1", "Amount", "Member2").header());
+        assertNull(new TableRows(new String[][] {{"1", "alice", "5.00", "bob"}},
+                "id", "Member1", "Amount", "Member2").header());
+    }
+
+    @Test
+    void singleCellMatchIsNotAHeaderWhenSeveralColumnsAreExpected() {
+        // A data row whose name happens to be "Amount" must not be skipped
+        TableRows rows = new TableRows(new String[][] {{"3", "Amount", "1.00"}}, "id", "Name", "Amount");
+        assertNull(rows.header());
+        assertEquals(1, rows.size());
+        assertNotNull(new TableRows(new String[][] {{"Name"}}, "Name").header());
+    }
+
+    @Test
+    void columnFollowsTheHeaderAndFallsBackToThePosition() {
+        TableRows reordered = new TableRows(new String[][] {{"Amount", "id", "Name"}, {"2.50", "7", "alice"}},
+                "id", "Name", "Amount");
+        assertEquals(1, reordered.size());
+        assertEquals(1, reordered.column("id", 0));
+        assertEquals(0, reordered.column("amount", 2));
+        assertEquals(4, reordered.column("missing", 4));
+
+        TableRows headless = new TableRows(new String[][] {{"7", "alice", "2.50"}}, "id", "Name", "Amount");
+        assertNull(headless.header());
+        assertEquals(1, headless.size());
+        assertEquals(2, headless.column("Amount", 2));
+    }
+
+    @Test
+    void unparseableAndMissingCellsCountAsZero() {
+        String[] row = {"null", "", "abc", "12.34"};
+        assertEquals(0, TableRows.cents(row, 0));
+        assertEquals(0, TableRows.cents(row, 1));
+        assertEquals(0, TableRows.cents(row, 2));
+        assertEquals(1234, TableRows.cents(row, 3));
+        assertEquals(0, TableRows.cents(row, 9));
+        assertEquals("", TableRows.text(row, 9));
+    }
+
+    @Test
+    void integerAcceptsDecimalText() {
+        assertEquals(42, TableRows.integer(new String[] {" 42 "}, 0));
+        assertEquals(2, TableRows.integer(new String[] {"2.0"}, 0));
+        assertEquals(0, TableRows.integer(new String[] {"null"}, 0));
+    }
+
+    @Test
+    void paymentHistoryRowsDecodeAndDescribe() {
+        List<PaymentHistoryRow> rows = PaymentHistoryRow.fromRows(new String[][] {
+                {"id", "payee", "amount", "reason", "Ttype", "tid"},
+                {"1", "alice", "100", "Dinner", "0", "T1"},
+                {"2", "bob", "12.5", "alice", "1", "S1"},
+                {"3", "carol", "0", "", "2", "NA-X"}});
+        assertEquals(3, rows.size());
+        assertEquals(10000, rows.get(0).getAmount());
+        assertEquals("T1", rows.get(0).getTid());
+        assertEquals("alice added a payment of $100.00 for Dinner", rows.get(0).describe());
+        assertEquals("bob paid $12.50 to alice", rows.get(1).describe());
+        assertEquals(PaymentHistoryRow.TYPE_LEFT, rows.get(2).getType());
+        assertEquals("carol left the group", rows.get(2).describe());
+    }
+
+    @Test
+    void pendingAmountRowIsSignedFromEitherSide() {
+        List<PendingAmountRow> rows = PendingAmountRow.fromRows(new String[][] {
+                {"id", "Member1", "Amount", "Member2"},
+                {"4", "alice", "7.25", "bob"}});
+        PendingAmountRow row = rows.get(0);
+        assertEquals(4, row.getId());
+        assertEquals("bob", row.otherMember("alice"));
+        assertEquals("alice", row.otherMember("bob"));
+        assertEquals(725, row.amountFor("alice"));
+        assertEquals(-725, row.amountFor("bob"));
+    }
+
+    @Test
+    void amountSpentRowsWithoutHeaderKeepEveryRow() {
+        List<AmountSpentRow> rows = AmountSpentRow.fromRows(new String[][] {
+                {"1", "Total", "30.00"},
+                {"2", "alice", "null"}});
+        assertEquals(2, rows.size());
+        assertTrue(rows.get(0).isTotal());
+        assertEquals(3000, rows.get(0).getAmount());
+        assertFalse(rows.get(1).isTotal());
+        assertEquals(0, rows.get(1).getAmount());
+    }
+
+    @Test
+    void transactionDetailsMemberColumnsComeFromTheHeader() {
+        List<TransactionDetailsRow> rows = TransactionDetailsRow.fromRows(new String[][] {
+                {"id", "Creator", "tID", "alice", "bob"},
+                {"1", "alice", "T1", "20", "-20"}});
+        TransactionDetailsRow row = rows.get(0);
+        assertEquals(2, row.memberCount());
+        assertEquals("bob", row.memberAt(1));
+        assertEquals(-2000, row.amountOf("bob"));
+        assertEquals(0, row.amountOf("carol"));
+
+        TransactionDetailsRow headless = TransactionDetailsRow.fromRows(new String[][] {
+                {"1", "alice", "T1", "20", "-20"}}).get(0);
+        assertEquals("column3", headless.memberAt(0));
+        assertEquals(2000, headless.amountAt(0));
+    }
+}